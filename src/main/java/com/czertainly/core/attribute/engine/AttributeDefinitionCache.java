@@ -0,0 +1,214 @@
+package com.czertainly.core.attribute.engine;
+
+import com.czertainly.api.model.common.attribute.common.AttributeType;
+import com.czertainly.api.model.common.attribute.common.BaseAttribute;
+import com.czertainly.api.model.common.attribute.common.content.AttributeContentType;
+import com.czertainly.api.model.common.attribute.common.content.data.ProtectionLevel;
+import com.czertainly.core.dao.entity.AttributeDefinition;
+import com.czertainly.core.events.transaction.AttributeDefinitionChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-node cache of attribute definitions resolved by {@link AttributeEngine}, keyed by the definition lookup key and by the definition UUID.
+ * Definitions are cached as immutable snapshots and every hit returns a new detached {@link AttributeDefinition}, so callers cannot affect each other.
+ * Cached definitions are dropped after the transaction that changed them completes, i.e. after commit or rollback, since the definition
+ * could be cached by the changing transaction itself. Entries also expire after the settings cache refresh interval, so that changes made
+ * on other nodes of the cluster are picked up as well. Definitions loaded before an invalidation are not cached, so that a reader cannot put back
+ * a definition that was changed by a concurrent transaction.
+ */
+@Component
+public class AttributeDefinitionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttributeDefinitionCache.class);
+
+    private static final ObjectMapper DEFINITION_OBJECT_MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .build();
+
+    private final Map<Key, CachedDefinition> definitionsByKey = new ConcurrentHashMap<>();
+    private final Map<UUID, CachedDefinition> definitionsByUuid = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    // incremented by invalidation, definitions loaded before the invalidation are not cached even when put after it
+    private final AtomicLong generation = new AtomicLong();
+
+    public AttributeDefinitionCache(@Value("${settings.cache.refresh-interval}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Key of the attribute definition lookup
+     *
+     * @param type          type of the attribute
+     * @param connectorUuid UUID of the connector, null for global metadata and custom attributes
+     * @param attributeUuid UUID of the attribute, null when definition is looked up only by its name
+     * @param name          name of the attribute
+     */
+    public record Key(AttributeType type, UUID connectorUuid, UUID attributeUuid, String name) {
+
+        public static Key of(AttributeType type, String name) {
+            return new Key(type, null, null, name);
+        }
+
+        public static Key of(AttributeType type, UUID connectorUuid, UUID attributeUuid, String name) {
+            return new Key(type, connectorUuid, attributeUuid, name);
+        }
+    }
+
+    /**
+     * @return copy of the cached definition, null when it is not cached or expired
+     */
+    public AttributeDefinition get(Key key) {
+        return toEntity(definitionsByKey.get(key));
+    }
+
+    /**
+     * @return copy of the cached definition, null when it is not cached or expired
+     */
+    public AttributeDefinition get(UUID definitionUuid) {
+        return toEntity(definitionsByUuid.get(definitionUuid));
+    }
+
+    /**
+     * @return current generation of the cache, to be captured before the definition is loaded from the database and passed to {@code put}
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the definition under the lookup key and its UUID. The definition must be stored in the database and unchanged by the current transaction.
+     *
+     * @param loadGeneration generation of the cache captured before the definition was loaded, the definition is not cached when the cache was invalidated since
+     */
+    public void put(Key key, AttributeDefinition definition, long loadGeneration) {
+        CachedDefinition cached = CachedDefinition.of(definition, System.currentTimeMillis() + ttlMillis);
+        if (cached == null || generation.get() != loadGeneration) {
+            return;
+        }
+        definitionsByKey.put(key, cached);
+        definitionsByUuid.put(cached.uuid(), cached);
+        // invalidation concurrent with the put could miss the new entries
+        if (generation.get() != loadGeneration) {
+            definitionsByKey.remove(key, cached);
+            definitionsByUuid.remove(cached.uuid(), cached);
+        }
+    }
+
+    /**
+     * Caches the definition under its UUID. The definition must be stored in the database and unchanged by the current transaction.
+     *
+     * @param loadGeneration generation of the cache captured before the definition was loaded, the definition is not cached when the cache was invalidated since
+     */
+    public void put(AttributeDefinition definition, long loadGeneration) {
+        CachedDefinition cached = CachedDefinition.of(definition, System.currentTimeMillis() + ttlMillis);
+        if (cached == null || generation.get() != loadGeneration) {
+            return;
+        }
+        definitionsByUuid.put(cached.uuid(), cached);
+        // invalidation concurrent with the put could miss the new entry
+        if (generation.get() != loadGeneration) {
+            definitionsByUuid.remove(cached.uuid(), cached);
+        }
+    }
+
+    /**
+     * Compares attribute definition with the definition of the entity, both serialized by the same mapper.
+     *
+     * @return true when both definitions serialize to the same JSON
+     */
+    public static boolean isSameDefinition(AttributeDefinition definition, BaseAttribute attribute) {
+        return Objects.equals(DEFINITION_OBJECT_MAPPER.valueToTree(definition.getDefinition()), DEFINITION_OBJECT_MAPPER.valueToTree(attribute));
+    }
+
+    public void invalidate(UUID definitionUuid) {
+        generation.incrementAndGet();
+        definitionsByUuid.remove(definitionUuid);
+        definitionsByKey.values().removeIf(cached -> cached.uuid().equals(definitionUuid));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        definitionsByKey.clear();
+        definitionsByUuid.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void handleAttributeDefinitionChangedEvent(AttributeDefinitionChangedEvent event) {
+        if (event.uuid() == null) {
+            logger.debug("Invalidating attribute definitions cache after change of multiple definitions");
+            invalidateAll();
+        } else {
+            logger.debug("Invalidating attribute definition {} in cache after its change", event.uuid());
+            invalidate(event.uuid());
+        }
+    }
+
+    private static AttributeDefinition toEntity(CachedDefinition cached) {
+        if (cached == null || cached.expiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+
+        BaseAttribute definition;
+        try {
+            definition = DEFINITION_OBJECT_MAPPER.treeToValue(cached.definition(), BaseAttribute.class);
+        } catch (JsonProcessingException e) {
+            logger.debug("Cached attribute definition {} cannot be deserialized: {}", cached.uuid(), e.getMessage());
+            return null;
+        }
+
+        AttributeDefinition attributeDefinition = new AttributeDefinition();
+        attributeDefinition.setUuid(cached.uuid());
+        attributeDefinition.setConnectorUuid(cached.connectorUuid());
+        attributeDefinition.setAttributeUuid(cached.attributeUuid());
+        attributeDefinition.setName(cached.name());
+        attributeDefinition.setType(cached.type());
+        attributeDefinition.setContentType(cached.contentType());
+        attributeDefinition.setLabel(cached.label());
+        attributeDefinition.setRequired(cached.required());
+        attributeDefinition.setReadOnly(cached.readOnly());
+        attributeDefinition.setVersion(cached.version());
+        attributeDefinition.setDefinition(definition);
+        attributeDefinition.setEnabled(cached.enabled());
+        attributeDefinition.setGlobal(cached.global());
+        attributeDefinition.setOperation(cached.operation());
+        attributeDefinition.setProtectionLevel(cached.protectionLevel());
+        attributeDefinition.setEncryptedData(cached.encryptedData() == null ? null : new ArrayList<>(cached.encryptedData()));
+        return attributeDefinition;
+    }
+
+    private record CachedDefinition(UUID uuid, UUID connectorUuid, UUID attributeUuid, String name, AttributeType type,
+                                    AttributeContentType contentType, String label, Boolean required, Boolean readOnly, int version,
+                                    JsonNode definition, Boolean enabled, Boolean global, String operation,
+                                    ProtectionLevel protectionLevel, List<String> encryptedData, long expiresAt) {
+
+        private static CachedDefinition of(AttributeDefinition definition, long expiresAt) {
+            if (definition.getUuid() == null) {
+                return null;
+            }
+            return new CachedDefinition(definition.getUuid(), definition.getConnectorUuid(), definition.getAttributeUuid(), definition.getName(),
+                    definition.getType(), definition.getContentType(), definition.getLabel(), definition.isRequired(), definition.isReadOnly(),
+                    definition.getVersion(), DEFINITION_OBJECT_MAPPER.valueToTree(definition.getDefinition()), definition.isEnabled(), definition.getGlobal(),
+                    definition.getOperation(), definition.getProtectionLevel(),
+                    definition.getEncryptedData() == null ? null : new ArrayList<>(definition.getEncryptedData()), expiresAt);
+        }
+    }
+}
@@ -31,12 +31,14 @@ import com.czertainly.core.dao.repository.AttributeContent2ObjectRepository;
 import com.czertainly.core.dao.repository.AttributeContentItemRepository;
 import com.czertainly.core.dao.repository.AttributeDefinitionRepository;
 import com.czertainly.core.dao.repository.AttributeRelationRepository;
+import com.czertainly.core.events.transaction.AttributeDefinitionChangedEvent;
 import com.czertainly.core.model.SearchFieldObject;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.SecurityResourceFilter;
 import com.czertainly.core.util.*;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import jakarta.persistence.EntityManager;
@@ -45,6 +47,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -59,6 +62,10 @@ public class AttributeEngine {
 
     public static final String ATTRIBUTE_DEFINITION_FORCE_UPDATE_LABEL = "<UPDATE_NEEDED>";
     private static final Logger logger = LoggerFactory.getLogger(AttributeEngine.class);
+    /**
+     * Maximum number of objects whose attribute content is loaded or deleted by one bulk query, keeps the query within the limits of bind parameters
+     */
+    private static final int BULK_QUERY_CHUNK_SIZE = 1000;
     private static final Pattern UUID_REGEX = Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
 
     private static final ObjectMapper ATTRIBUTES_OBJECT_MAPPER = JsonMapper.builder()
@@ -72,6 +79,8 @@ public class AttributeEngine {
     private AttributeRelationRepository attributeRelationRepository;
     private AttributeContentItemRepository attributeContentItemRepository;
     private AttributeContent2ObjectRepository attributeContent2ObjectRepository;
+    private AttributeDefinitionCache attributeDefinitionCache;
+    private ApplicationEventPublisher applicationEventPublisher;
 
     private AuthHelper authHelper;
 
@@ -100,6 +109,16 @@ public class AttributeEngine {
         this.attributeContent2ObjectRepository = attributeContent2ObjectRepository;
     }
 
+    @Autowired
+    public void setAttributeDefinitionCache(AttributeDefinitionCache attributeDefinitionCache) {
+        this.attributeDefinitionCache = attributeDefinitionCache;
+    }
+
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
     //region Search (Filtering) related methods
 
     public List<SearchFieldDataByGroupDto> getResourceSearchableFields(Resource resource, boolean settable) {
@@ -250,7 +269,39 @@ public class AttributeEngine {
     // TODO: make it generic to be used also for DATA attributes and update DTOs accordingly
     public List<MetadataResponseDto> getMappedMetadataContent(ObjectAttributeContentInfo contentInfo) {
         List<ObjectAttributeContentDetail> objectMetadataContents = attributeContent2ObjectRepository.getObjectAttributeContentDetail(AttributeType.META, contentInfo.connectorUuid(), null, contentInfo.objectType(), contentInfo.objectUuid(), contentInfo.sourceObjectType(), contentInfo.sourceObjectUuid(), contentInfo.objectVersion());
+        return mapMetadataContent(objectMetadataContents);
+    }
+
+    /**
+     * Bulk variant of {@link #getMappedMetadataContent(ObjectAttributeContentInfo)} for unversioned objects of the same type,
+     * loading the metadata of the objects in chunks instead of with a query per object.
+     *
+     * @return mapped metadata by object UUID, objects without metadata are not included
+     */
+    public Map<UUID, List<MetadataResponseDto>> getMappedMetadataContent(Resource objectType, Collection<UUID> objectUuids, UUID connectorUuid, Resource sourceObjectType, UUID sourceObjectUuid) {
+        Map<UUID, List<MetadataResponseDto>> mappedMetadata = new HashMap<>();
+        for (var objectMetadataContents : getObjectsMetadataContentDetail(objectType, objectUuids, connectorUuid, sourceObjectType, sourceObjectUuid).entrySet()) {
+            mappedMetadata.put(objectMetadataContents.getKey(), mapMetadataContent(objectMetadataContents.getValue()));
+        }
+        return mappedMetadata;
+    }
+
+    /**
+     * Loads the unversioned metadata content of objects of the same type, grouped by object UUID.
+     *
+     * @return metadata content by object UUID, objects without metadata are not included
+     */
+    public Map<UUID, List<ObjectAttributeContentDetail>> getObjectsMetadataContentDetail(Resource objectType, Collection<UUID> objectUuids, UUID connectorUuid, Resource sourceObjectType, UUID sourceObjectUuid) {
+        Map<UUID, List<ObjectAttributeContentDetail>> objectsMetadataContents = new HashMap<>();
+        for (List<UUID> chunk : partition(objectUuids)) {
+            for (ObjectAttributeContentDetail objectMetadataContent : attributeContent2ObjectRepository.getObjectsAttributeContentDetail(AttributeType.META, connectorUuid, objectType, chunk, sourceObjectType, sourceObjectUuid)) {
+                objectsMetadataContents.computeIfAbsent(objectMetadataContent.objectUuid(), k -> new ArrayList<>()).add(objectMetadataContent);
+            }
+        }
+        return objectsMetadataContents;
+    }
 
+    private static List<MetadataResponseDto> mapMetadataContent(List<ObjectAttributeContentDetail> objectMetadataContents) {
         Map<UUID, String> connectorMapping = new HashMap<>();
         Map<UUID, Map<Resource, Map<UUID, ResponseMetadata>>> mapping = new HashMap<>();
         for (ObjectAttributeContentDetail objectMetadataContent : objectMetadataContents) {
@@ -354,6 +405,7 @@ public class AttributeEngine {
         attributeDefinition.setDefinition(customAttribute);
         attributeDefinition.setProtectionLevel(customAttribute.getProperties().getProtectionLevel());
         attributeDefinition = attributeDefinitionRepository.save(attributeDefinition);
+        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(attributeDefinition.getUuid()));
 
         // save relations
         if (resources != null) {
@@ -446,6 +498,7 @@ public class AttributeEngine {
                     if (!Objects.equals(missingDefinition.getOperation(), operation)) {
                         missingDefinition.setOperation(operation);
                         attributeDefinitionRepository.save(missingDefinition);
+                        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(missingDefinition.getUuid()));
                     }
                     definitionsMapping.put(RequestAttribute.getName(), missingDefinition);
                 }
@@ -502,7 +555,8 @@ public class AttributeEngine {
             attributeDefinition.setLabel(attribute.getName());
         }
         attributeDefinition.setDefinition(attribute);
-        attributeDefinitionRepository.save(attributeDefinition);
+        attributeDefinition = attributeDefinitionRepository.save(attributeDefinition);
+        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(attributeDefinition.getUuid()));
     }
 
     private void updateDataAttributeDefinition(UUID connectorUuid, String operation, DataAttribute dataAttribute) throws AttributeException {
@@ -544,7 +598,8 @@ public class AttributeEngine {
         } else
             dataAttribute.setContent(encryptDefaultAttributeContent(dataAttribute, attributeDefinition, dataAttribute.getProperties().getProtectionLevel()));
         attributeDefinition.setDefinition(dataAttribute);
-        attributeDefinitionRepository.save(attributeDefinition);
+        attributeDefinition = attributeDefinitionRepository.save(attributeDefinition);
+        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(attributeDefinition.getUuid()));
     }
 
     public AttributeDefinition updateMetadataAttributeDefinition(MetadataAttribute metadataAttribute, UUID connectorUuid) throws AttributeException {
@@ -554,12 +609,30 @@ public class AttributeEngine {
         }
         validateAttributeDefinition(metadataAttribute, connectorUuid);
 
+        // we don't need content in definition
+        metadataAttribute.setContent(List.of());
+
+        // metadata definitions are resolved for every object with metadata, serve unchanged ones from cache
+        AttributeDefinitionCache.Key globalKey = isGlobal ? AttributeDefinitionCache.Key.of(AttributeType.META, metadataAttribute.getName()) : null;
+        AttributeDefinitionCache.Key connectorKey = AttributeDefinitionCache.Key.of(AttributeType.META, connectorUuid, UUID.fromString(metadataAttribute.getUuid()), metadataAttribute.getName());
+        long cacheGeneration = attributeDefinitionCache.generation();
+        AttributeDefinition cachedDefinition = isGlobal ? attributeDefinitionCache.get(globalKey) : null;
+        if (cachedDefinition == null) {
+            cachedDefinition = attributeDefinitionCache.get(connectorKey);
+        }
+        if (cachedDefinition != null && isMetadataAttributeDefinitionUpToDate(cachedDefinition, metadataAttribute)) {
+            return cachedDefinition;
+        }
+
         AttributeDefinition attributeDefinition = null;
+        AttributeDefinitionCache.Key foundKey = null;
         if (isGlobal) {
             attributeDefinition = attributeDefinitionRepository.findByTypeAndNameAndGlobal(AttributeType.META, metadataAttribute.getName(), true).orElse(null);
+            foundKey = globalKey;
         }
         if (attributeDefinition == null) {
             attributeDefinition = attributeDefinitionRepository.findByTypeAndConnectorUuidAndAttributeUuidAndName(AttributeType.META, connectorUuid, UUID.fromString(metadataAttribute.getUuid()), metadataAttribute.getName()).orElse(null);
+            foundKey = connectorKey;
         }
         if (attributeDefinition != null) {
             // check for change of content type
@@ -577,16 +650,26 @@ public class AttributeEngine {
             attributeDefinition.setVersion(metadataAttribute.getVersion());
             attributeDefinition.setGlobal(isGlobal);
         }
-        attributeDefinition.setLabel(metadataAttribute.getProperties().getLabel());
 
-        // we don't need content in definition
-        metadataAttribute.setContent(List.of());
+        if (attributeDefinition.getUuid() != null && isMetadataAttributeDefinitionUpToDate(attributeDefinition, metadataAttribute)) {
+            attributeDefinitionCache.put(foundKey, attributeDefinition, cacheGeneration);
+            return attributeDefinition;
+        }
+
+        attributeDefinition.setLabel(metadataAttribute.getProperties().getLabel());
         attributeDefinition.setDefinition(metadataAttribute);
-        attributeDefinitionRepository.save(attributeDefinition);
+        attributeDefinition = attributeDefinitionRepository.save(attributeDefinition);
+        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(attributeDefinition.getUuid()));
 
         return attributeDefinition;
     }
 
+    private static boolean isMetadataAttributeDefinitionUpToDate(AttributeDefinition attributeDefinition, MetadataAttribute metadataAttribute) {
+        return attributeDefinition.getContentType() == metadataAttribute.getContentType()
+                && Objects.equals(attributeDefinition.getLabel(), metadataAttribute.getProperties().getLabel())
+                && AttributeDefinitionCache.isSameDefinition(attributeDefinition, metadataAttribute);
+    }
+
     public void updateMetadataAttributes(List<MetadataAttribute> attributes, ObjectAttributeContentInfo objectAttributeContentInfo) throws AttributeException {
         if (objectAttributeContentInfo.connectorUuid() == null) {
             throw new AttributeException("Cannot update metadata without specifying connector UUID.");
@@ -620,6 +703,87 @@ public class AttributeEngine {
         createObjectAttributeContent(attributeDefinition, objectAttributeContentInfo, contentItems);
     }
 
+    /**
+     * Bulk variant of {@link #updateMetadataAttributes(List, ObjectAttributeContentInfo)} for objects whose metadata come from the same connector and source object,
+     * e.g. certificates of one discovery page. Each distinct metadata definition is updated once, content items are resolved once per definition
+     * and content of the objects is linked in batch instead of with queries per object and content item.
+     * Invalid metadata definition or invalid content of an object is skipped and logged, so that it does not abort update of other objects.
+     *
+     * @param objectsMetadata metadata attributes by object UUID
+     */
+    public void updateObjectsMetadataAttributes(Resource objectType, Map<UUID, List<MetadataAttribute>> objectsMetadata, UUID connectorUuid, Resource sourceObjectType, UUID sourceObjectUuid, String sourceObjectName) throws AttributeException {
+        if (connectorUuid == null) {
+            throw new AttributeException("Cannot update metadata without specifying connector UUID.");
+        }
+
+        // content is collected before update of definition that clears it
+        Map<String, MetadataAttribute> metadataAttributes = new LinkedHashMap<>();
+        Map<String, Map<UUID, List<AttributeContent>>> metadataContents = new HashMap<>();
+        for (Map.Entry<UUID, List<MetadataAttribute>> objectMetadata : objectsMetadata.entrySet()) {
+            if (objectMetadata.getValue() == null) {
+                continue;
+            }
+            for (MetadataAttribute metadataAttribute : objectMetadata.getValue()) {
+                if (metadataAttribute.getType() != AttributeType.META) {
+                    continue;
+                }
+                String key = metadataAttribute.getUuid() + ":" + metadataAttribute.getName();
+                metadataAttributes.putIfAbsent(key, metadataAttribute);
+                List<AttributeContent> objectContents = metadataContents.computeIfAbsent(key, k -> new LinkedHashMap<>()).computeIfAbsent(objectMetadata.getKey(), k -> new ArrayList<>());
+                if (metadataAttribute.getContent() != null) {
+                    objectContents.addAll(metadataAttribute.getContent());
+                }
+            }
+        }
+
+        for (Map.Entry<String, MetadataAttribute> metadataAttribute : metadataAttributes.entrySet()) {
+            Map<UUID, List<AttributeContent>> objectsContents = metadataContents.get(metadataAttribute.getKey());
+            AttributeDefinition attributeDefinition;
+            try {
+                attributeDefinition = updateMetadataAttributeDefinition(metadataAttribute.getValue(), connectorUuid);
+            } catch (AttributeException e) {
+                // invalid definition skips only its content, metadata of other definitions are still updated
+                logger.warn("Skipping update of metadata attribute {} for {} objects of {}: {}", metadataAttribute.getValue().getName(), objectsContents.size(), objectType.getLabel(), e.getMessage());
+                continue;
+            }
+
+            // content is validated before existing content is deleted, so that object with invalid content keeps its metadata
+            objectsContents.entrySet().removeIf(objectContents -> !isValidObjectAttributeContent(attributeDefinition, objectType, objectContents.getKey(), objectContents.getValue()));
+            if (objectsContents.isEmpty()) {
+                continue;
+            }
+
+            if (metadataAttribute.getValue().getProperties().isOverwrite()) {
+                for (List<UUID> chunk : partition(objectsContents.keySet())) {
+                    attributeContent2ObjectRepository.deleteByObjectTypeAndObjectUuidInAndAttributeContentItemAttributeDefinitionUuid(objectType, chunk, attributeDefinition.getUuid());
+                }
+            }
+
+            if (attributeDefinition.getProtectionLevel() == ProtectionLevel.ENCRYPTED) {
+                // encrypted content items are not shared, create them per object
+                for (Map.Entry<UUID, List<AttributeContent>> objectContents : objectsContents.entrySet()) {
+                    try {
+                        createObjectAttributeContent(attributeDefinition, ObjectAttributeContentInfo.builder(objectType, objectContents.getKey()).connector(connectorUuid).source(sourceObjectType, sourceObjectUuid).sourceName(sourceObjectName).build(), objectContents.getValue());
+                    } catch (AttributeException e) {
+                        logger.warn("Could not create content of metadata attribute {} for {} with UUID {}: {}", attributeDefinition.getName(), objectType.getLabel(), objectContents.getKey(), e.getMessage());
+                    }
+                }
+            } else {
+                createObjectsAttributeContent(attributeDefinition, objectType, objectsContents, connectorUuid, sourceObjectType, sourceObjectUuid, sourceObjectName);
+            }
+        }
+    }
+
+    private boolean isValidObjectAttributeContent(AttributeDefinition attributeDefinition, Resource objectType, UUID objectUuid, List<AttributeContent> objectContents) {
+        try {
+            validateAttributeContent(attributeDefinition, objectContents);
+            return true;
+        } catch (AttributeException e) {
+            logger.warn("Skipping invalid content of metadata attribute {} for {} with UUID {}: {}", attributeDefinition.getName(), objectType.getLabel(), objectUuid, e.getMessage());
+            return false;
+        }
+    }
+
     public List<DataAttribute> getDefinitionObjectAttributeContent(AttributeType attributeType, UUID connectorUuid, String operation, Resource objectType, UUID objectUuid) {
         logger.debug("Getting the {} attributes for {} with UUID: {}", attributeType.getLabel(), objectType.getLabel(), objectUuid);
         List<ObjectAttributeDefinitionContent> objectDefinitionContents = attributeContent2ObjectRepository.getObjectAttributeDefinitionContent(attributeType, connectorUuid, operation, objectType, objectUuid, null, null, null);
@@ -651,17 +815,45 @@ public class AttributeEngine {
     }
 
     public void registerAttributeContentItems(UUID attributeDefinitionUuid, Collection<AttributeContent> attributeContentItems) {
-        for (AttributeContent attributeContentItem : attributeContentItems) {
-            AttributeContentItem contentItemEntity = attributeContentItemRepository.findByJsonAndAttributeDefinitionUuid(attributeContentItem, attributeDefinitionUuid);
+        getOrCreateContentItems(attributeDefinitionUuid, attributeContentItems);
+    }
 
-            // check if content item for this attribute definition exists to don't create duplicate items
-            if (contentItemEntity == null) {
-                contentItemEntity = new AttributeContentItem();
-                contentItemEntity.setJson(attributeContentItem);
-                contentItemEntity.setAttributeDefinitionUuid(attributeDefinitionUuid);
-                attributeContentItemRepository.save(contentItemEntity);
+    /**
+     * Resolves content items of the attribute definition for the content, existing items are loaded in chunks and only missing ones are created.
+     *
+     * @return content items by JSON tree of their content
+     */
+    private Map<JsonNode, AttributeContentItem> getOrCreateContentItems(UUID attributeDefinitionUuid, Collection<? extends AttributeContent> attributeContents) {
+        Map<JsonNode, AttributeContent> distinctContents = new LinkedHashMap<>();
+        for (AttributeContent attributeContent : attributeContents) {
+            distinctContents.putIfAbsent(ATTRIBUTES_OBJECT_MAPPER.valueToTree(attributeContent), attributeContent);
+        }
+
+        Map<JsonNode, AttributeContentItem> contentItems = new HashMap<>();
+        for (List<AttributeContent> chunk : partition(distinctContents.values())) {
+            for (AttributeContentItem contentItem : attributeContentItemRepository.findByAttributeDefinitionUuidAndJsonIn(attributeDefinitionUuid, chunk)) {
+                contentItems.putIfAbsent(ATTRIBUTES_OBJECT_MAPPER.valueToTree(contentItem.getJson()), contentItem);
+            }
+        }
+
+        List<AttributeContentItem> newContentItems = new ArrayList<>();
+        for (Map.Entry<JsonNode, AttributeContent> distinctContent : distinctContents.entrySet()) {
+            if (contentItems.containsKey(distinctContent.getKey())) {
+                continue;
+            }
+            // stored content could be serialized differently, check for exact match before creating duplicate item
+            AttributeContentItem contentItem = attributeContentItemRepository.findByJsonAndAttributeDefinitionUuid(distinctContent.getValue(), attributeDefinitionUuid);
+            if (contentItem == null) {
+                contentItem = new AttributeContentItem();
+                contentItem.setJson(distinctContent.getValue());
+                contentItem.setAttributeDefinitionUuid(attributeDefinitionUuid);
+                newContentItems.add(contentItem);
             }
+            contentItems.put(distinctContent.getKey(), contentItem);
         }
+        attributeContentItemRepository.saveAll(newContentItems);
+
+        return contentItems;
     }
 
     public List<ResponseAttribute> loadResponseAttributes(AttributeType attributeType, UUID connectorUuid, List<RequestAttribute> requestAttributes) {
@@ -723,19 +915,60 @@ public class AttributeEngine {
     }
 
     private List<ResponseAttribute> getObjectCustomAttributesContent(Resource objectType, UUID objectUuid, SecurityResourceFilter securityResourceFilter) {
-        List<UUID> allowedAttributes = null;
-        List<UUID> forbiddenAttributes = null;
-        if (securityResourceFilter != null) {
-            if (securityResourceFilter.areOnlySpecificObjectsAllowed()) {
-                allowedAttributes = securityResourceFilter.getAllowedObjects();
-                if (allowedAttributes.isEmpty()) allowedAttributes.add(null);
-            } else if (!securityResourceFilter.getForbiddenObjects().isEmpty()) {
-                forbiddenAttributes = securityResourceFilter.getForbiddenObjects();
+        CustomAttributesFilter filter = CustomAttributesFilter.of(securityResourceFilter);
+        List<ObjectAttributeContent> objectContents = attributeContent2ObjectRepository.getObjectCustomAttributesContent(AttributeType.CUSTOM, objectType, objectUuid, filter.allowedAttributes(), filter.forbiddenAttributes());
+        return getResponseAttributes(objectContents);
+    }
+
+    /**
+     * Bulk variant of {@link #getObjectCustomAttributesContent(Resource, UUID)} loading the custom attributes of the objects in chunks instead of with a query per object.
+     *
+     * @return custom attributes by object UUID, objects without custom attributes are not included
+     */
+    public Map<UUID, List<ResponseAttribute>> getObjectsCustomAttributesContent(Resource objectType, Collection<UUID> objectUuids) {
+        logger.debug("Getting the custom attributes for {} objects of {}", objectUuids.size(), objectType.getLabel());
+        CustomAttributesFilter filter = CustomAttributesFilter.of(loadCustomAttributesSecurityResourceFilter());
+
+        Map<UUID, List<ObjectAttributeContent>> objectsContents = new HashMap<>();
+        for (List<UUID> chunk : partition(objectUuids)) {
+            for (ObjectAttributeContent objectContent : attributeContent2ObjectRepository.getObjectsCustomAttributesContent(AttributeType.CUSTOM, objectType, chunk, filter.allowedAttributes(), filter.forbiddenAttributes())) {
+                objectsContents.computeIfAbsent(objectContent.objectUuid(), k -> new ArrayList<>()).add(objectContent);
             }
         }
 
-        List<ObjectAttributeContent> objectContents = attributeContent2ObjectRepository.getObjectCustomAttributesContent(AttributeType.CUSTOM, objectType, objectUuid, allowedAttributes, forbiddenAttributes);
-        return getResponseAttributes(objectContents);
+        Map<UUID, List<ResponseAttribute>> objectsCustomAttributes = new HashMap<>();
+        for (var objectContents : objectsContents.entrySet()) {
+            objectsCustomAttributes.put(objectContents.getKey(), getResponseAttributes(objectContents.getValue()));
+        }
+        return objectsCustomAttributes;
+    }
+
+    private static <T> List<List<T>> partition(Collection<T> values) {
+        List<T> items = List.copyOf(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += BULK_QUERY_CHUNK_SIZE) {
+            chunks.add(items.subList(i, Math.min(i + BULK_QUERY_CHUNK_SIZE, items.size())));
+        }
+        return chunks;
+    }
+
+    private record ContentMappingKey(UUID contentItemUuid, UUID objectUuid) {
+    }
+
+    private record CustomAttributesFilter(List<UUID> allowedAttributes, List<UUID> forbiddenAttributes) {
+        private static CustomAttributesFilter of(SecurityResourceFilter securityResourceFilter) {
+            List<UUID> allowedAttributes = null;
+            List<UUID> forbiddenAttributes = null;
+            if (securityResourceFilter != null) {
+                if (securityResourceFilter.areOnlySpecificObjectsAllowed()) {
+                    allowedAttributes = securityResourceFilter.getAllowedObjects();
+                    if (allowedAttributes.isEmpty()) allowedAttributes.add(null);
+                } else if (!securityResourceFilter.getForbiddenObjects().isEmpty()) {
+                    forbiddenAttributes = securityResourceFilter.getForbiddenObjects();
+                }
+            }
+            return new CustomAttributesFilter(allowedAttributes, forbiddenAttributes);
+        }
     }
 
     public List<ResponseAttribute> getObjectDataAttributesContentUnversioned(Resource objectType, UUID objectUuid) {
@@ -905,7 +1138,7 @@ public class AttributeEngine {
             // custom attributes content is automatically replaced
             deleteObjectAttributeContentByType(AttributeType.CUSTOM, objectType, objectUuid);
             for (RequestAttribute requestAttribute : requestAttributes) {
-                AttributeDefinition attributeDefinition = attributeDefinitionRepository.findByTypeAndName(AttributeType.CUSTOM, requestAttribute.getName()).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, requestAttribute.getName()));
+                AttributeDefinition attributeDefinition = getCustomAttributeDefinition(requestAttribute.getName());
                 List<? extends AttributeContent> attributeContent = requestAttribute.getVersion() == AttributeVersion.V3 ? ((RequestAttributeV3) requestAttribute).getContent() : ((RequestAttributeV2) requestAttribute).getContent().stream().map(ac -> AttributeVersionHelper.convertAttributeContentToV3(ac, requestAttribute.getContentType())).toList();
                 createObjectAttributeContent(attributeDefinition, ObjectAttributeContentInfo.builder(objectType, objectUuid).build(), attributeContent);
             }
@@ -914,7 +1147,7 @@ public class AttributeEngine {
             deleteObjectAllowedCustomAttributeContent(securityResourceFilter, objectType, objectUuid);
 
             for (RequestAttribute requestAttribute : requestAttributes) {
-                AttributeDefinition attributeDefinition = attributeDefinitionRepository.findByTypeAndName(AttributeType.CUSTOM, requestAttribute.getName()).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, requestAttribute.getName()));
+                AttributeDefinition attributeDefinition = getCustomAttributeDefinition(requestAttribute.getName());
                 checkCustomAttributeUpdatePermissions(securityResourceFilter, attributeDefinition);
 
                 createObjectAttributeContent(attributeDefinition, ObjectAttributeContentInfo.builder(objectType, objectUuid).build(), requestAttribute.getContent());
@@ -924,6 +1157,27 @@ public class AttributeEngine {
         return getObjectCustomAttributesContent(objectType, objectUuid, securityResourceFilter);
     }
 
+    private AttributeDefinition getAttributeDefinition(UUID definitionUuid) throws NotFoundException {
+        long cacheGeneration = attributeDefinitionCache.generation();
+        AttributeDefinition attributeDefinition = attributeDefinitionCache.get(definitionUuid);
+        if (attributeDefinition == null) {
+            attributeDefinition = attributeDefinitionRepository.findByUuid(definitionUuid).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, definitionUuid.toString()));
+            attributeDefinitionCache.put(attributeDefinition, cacheGeneration);
+        }
+        return attributeDefinition;
+    }
+
+    private AttributeDefinition getCustomAttributeDefinition(String attributeName) throws NotFoundException {
+        AttributeDefinitionCache.Key key = AttributeDefinitionCache.Key.of(AttributeType.CUSTOM, attributeName);
+        long cacheGeneration = attributeDefinitionCache.generation();
+        AttributeDefinition attributeDefinition = attributeDefinitionCache.get(key);
+        if (attributeDefinition == null) {
+            attributeDefinition = attributeDefinitionRepository.findByTypeAndName(AttributeType.CUSTOM, attributeName).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, attributeName));
+            attributeDefinitionCache.put(key, attributeDefinition, cacheGeneration);
+        }
+        return attributeDefinition;
+    }
+
     private static void checkCustomAttributeUpdatePermissions(SecurityResourceFilter securityResourceFilter, AttributeDefinition attributeDefinition) throws AttributeException {
         if ((securityResourceFilter.areOnlySpecificObjectsAllowed())) {
             if (!securityResourceFilter.getAllowedObjects().contains(attributeDefinition.getUuid())) {
@@ -939,9 +1193,9 @@ public class AttributeEngine {
     public void updateObjectCustomAttributeContent(Resource objectType, UUID objectUuid, UUID definitionUuid, String attributeName, List<? extends AttributeContent> attributeContentItems) throws NotFoundException, AttributeException {
         AttributeDefinition attributeDefinition;
         if (definitionUuid != null) {
-            attributeDefinition = attributeDefinitionRepository.findByUuid(definitionUuid).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, definitionUuid.toString()));
+            attributeDefinition = getAttributeDefinition(definitionUuid);
         } else {
-            attributeDefinition = attributeDefinitionRepository.findByTypeAndName(AttributeType.CUSTOM, attributeName).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, attributeName));
+            attributeDefinition = getCustomAttributeDefinition(attributeName);
         }
         if (attributeDefinition.getType() != AttributeType.CUSTOM) {
             throw new AttributeException("Cannot update content of attribute. Only custom attributes are allowed to be updated directly.", attributeDefinition.getUuid().toString(), attributeDefinition.getName(), attributeDefinition.getType(), null);
@@ -1194,18 +1448,21 @@ public class AttributeEngine {
         // WARNING: connector uuid is removed from all content disregarding attribute type since connector data attributes content was already removed in step before and custom attributes are not linked to connector so it is safe
         attributeDefinitionRepository.removeConnectorByTypeAndConnectorUuid(AttributeType.META, connectorUuid);
         attributeContent2ObjectRepository.removeConnectorByConnectorUuid(connectorUuid);
+        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(null));
     }
 
     public void deleteAttributeDefinition(AttributeType attributeType, UUID definitionUuid) throws NotFoundException {
         AttributeDefinition definition = attributeDefinitionRepository.findByUuidAndType(definitionUuid, attributeType).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, definitionUuid.toString()));
         deleteAllAttributeDefinitionContent(definitionUuid);
         attributeDefinitionRepository.delete(definition);
+        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(definitionUuid));
     }
 
     public void deleteAttributeDefinition(AttributeType attributeType, UUID connectorUuid, UUID attributeUuid, String name) throws NotFoundException {
         AttributeDefinition definition = attributeDefinitionRepository.findByTypeAndConnectorUuidAndAttributeUuidAndName(attributeType, connectorUuid, attributeUuid, name).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, attributeUuid));
         deleteAllAttributeDefinitionContent(definition.getUuid());
         attributeDefinitionRepository.delete(definition);
+        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(definition.getUuid()));
     }
 
     /**
@@ -1258,6 +1515,15 @@ public class AttributeEngine {
         logger.debug("Deleted {} attribute content items for {} with UUID {}", deletedCount, contentInfo.objectType().getLabel(), contentInfo.objectUuid());
     }
 
+    public void bulkDeleteObjectAttributesContent(AttributeType attributeType, UUID connectorUuid, Resource objectType, Collection<UUID> objectUuids, Resource sourceObjectType, UUID sourceObjectUuid) {
+        logger.debug("Deleting {} attribute content for {} {} objects with source {} {}", attributeType.getLabel(), objectUuids.size(), objectType.getLabel(), sourceObjectType.getLabel(), sourceObjectUuid);
+        long deletedCount = 0;
+        for (List<UUID> chunk : partition(objectUuids)) {
+            deletedCount += attributeContent2ObjectRepository.deleteByAttributeContentItemAttributeDefinitionTypeAndConnectorUuidAndObjectTypeAndObjectUuidInAndSourceObjectTypeAndSourceObjectUuid(attributeType, connectorUuid, objectType, chunk, sourceObjectType, sourceObjectUuid);
+        }
+        logger.debug("Deleted {} attribute content items for {} {} objects with source {} {}", deletedCount, objectUuids.size(), objectType.getLabel(), sourceObjectType.getLabel(), sourceObjectUuid);
+    }
+
     public void deleteObjectAttributesContentBySource(AttributeType attributeType, UUID connectorUuid, Resource objectType, Resource sourceObjectType, UUID sourceObjectUuid) {
         logger.debug("Deleting {} attribute content for all {} objects with source {} {}", attributeType.getLabel(), objectType.getLabel(), sourceObjectType.getLabel(), sourceObjectUuid);
         Long deletedCount = attributeContent2ObjectRepository.deleteByAttributeContentItemAttributeDefinitionTypeAndConnectorUuidAndObjectTypeAndSourceObjectTypeAndSourceObjectUuid(attributeType, connectorUuid, objectType, sourceObjectType, sourceObjectUuid);
@@ -1340,6 +1606,50 @@ public class AttributeEngine {
         }
     }
 
+    private void createObjectsAttributeContent(AttributeDefinition attributeDefinition, Resource objectType, Map<UUID, List<AttributeContent>> objectsContents, UUID connectorUuid, Resource sourceObjectType, UUID sourceObjectUuid, String sourceObjectName) throws AttributeException {
+        logger.debug("Creating the attribute content for attribute {} of type {} for {} objects of {}", attributeDefinition.getName(), attributeDefinition.getType().getLabel(), objectsContents.size(), objectType.getLabel());
+
+        List<AttributeContent> attributeContents = new ArrayList<>();
+        for (List<AttributeContent> objectContents : objectsContents.values()) {
+            validateAttributeContent(attributeDefinition, objectContents);
+            attributeContents.addAll(objectContents);
+        }
+        Map<JsonNode, AttributeContentItem> contentItems = getOrCreateContentItems(attributeDefinition.getUuid(), attributeContents);
+
+        // check which content items are already assigned to the objects to not create duplicate mappings
+        Set<UUID> contentItemUuids = contentItems.values().stream().map(AttributeContentItem::getUuid).collect(Collectors.toSet());
+        Set<ContentMappingKey> contentMappings = new HashSet<>();
+        for (List<UUID> contentItemsChunk : partition(contentItemUuids)) {
+            for (List<UUID> objectsChunk : partition(objectsContents.keySet())) {
+                for (AttributeContent2Object existingMapping : attributeContent2ObjectRepository.findExistingContentMappings(connectorUuid, contentItemsChunk, objectType, objectsChunk, sourceObjectType, sourceObjectUuid)) {
+                    contentMappings.add(new ContentMappingKey(existingMapping.getAttributeContentItemUuid(), existingMapping.getObjectUuid()));
+                }
+            }
+        }
+
+        List<AttributeContent2Object> objectContentItems = new ArrayList<>();
+        for (Map.Entry<UUID, List<AttributeContent>> objectContents : objectsContents.entrySet()) {
+            for (int i = 0; i < objectContents.getValue().size(); i++) {
+                AttributeContentItem contentItemEntity = contentItems.get(ATTRIBUTES_OBJECT_MAPPER.valueToTree(objectContents.getValue().get(i)));
+                if (!contentMappings.add(new ContentMappingKey(contentItemEntity.getUuid(), objectContents.getKey()))) {
+                    continue;
+                }
+
+                final AttributeContent2Object objectContentItem = new AttributeContent2Object();
+                objectContentItem.setObjectUuid(objectContents.getKey());
+                objectContentItem.setObjectType(objectType);
+                objectContentItem.setConnectorUuid(connectorUuid);
+                objectContentItem.setSourceObjectUuid(sourceObjectUuid);
+                objectContentItem.setSourceObjectType(sourceObjectType);
+                objectContentItem.setSourceObjectName(sourceObjectName);
+                objectContentItem.setOrder(i);
+                objectContentItem.setAttributeContentItem(contentItemEntity);
+                objectContentItems.add(objectContentItem);
+            }
+        }
+        attributeContent2ObjectRepository.saveAll(objectContentItems);
+    }
+
     public static String encryptAttributeContent(AttributeDefinition attributeDefinition, AttributeContent attributeContentItem) throws AttributeException {
         String encryptedData;
         if ((AttributeContentData.class.isAssignableFrom(attributeDefinition.getContentType().getContentDataClass()))) {
@@ -14,6 +14,7 @@ public record ObjectAttributeContent(
     AttributeContentType contentType,
     AttributeContent contentItem,
     int version,
-    String encryptedContent
+    String encryptedContent,
+    UUID objectUuid
 )
 {}
@@ -0,0 +1,89 @@
+package com.czertainly.core.cache;
+
+import com.czertainly.core.events.transaction.ProtocolProfileChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base of the in-memory caches of values derived from protocol profiles (ACME, SCEP, CMP) and their RA profiles.
+ * Cached values are dropped after the transaction that changed any profile is committed. Entries also expire after
+ * the settings cache refresh interval, so that changes made on other nodes of the cluster are picked up as well.
+ * Keys must be derived from existing profiles only, never from other request data, since the cache is not bounded.
+ *
+ * @param <K> cache key
+ * @param <V> cached value, must be immutable as it is shared by concurrent requests
+ */
+public abstract class ProtocolProfileCache<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProtocolProfileCache.class);
+
+    private final Map<K, CachedValue<V>> cache = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    // incremented by invalidation, values loaded before the invalidation are not served even when put after it
+    private final AtomicLong generation = new AtomicLong();
+
+    protected ProtocolProfileCache(long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Returns cached value for the key or loads and caches it when it is missing or expired.
+     * When the loader returns null, nothing is cached.
+     */
+    public <E extends Exception> V get(K key, ValueLoader<K, V, E> loader) throws E {
+        long now = System.currentTimeMillis();
+        long loadGeneration = generation.get();
+        CachedValue<V> cached = cache.get(key);
+        if (cached != null && cached.expiresAt() > now && cached.generation() == loadGeneration) {
+            return cached.value();
+        }
+
+        V value = loader.load(key);
+        if (value != null) {
+            cache.put(key, new CachedValue<>(value, now + ttlMillis, loadGeneration));
+        } else {
+            cache.remove(key);
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        cache.remove(key);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleProtocolProfileChangedEvent(ProtocolProfileChangedEvent event) {
+        if (isAffectedBy(event)) {
+            logger.debug("Invalidating {} after change of {} {}", getClass().getSimpleName(), event.resource().getLabel(), event.uuid());
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Decides whether the change of the profile requires invalidation of the cache. Profiles change rarely,
+     * so by default the whole cache is invalidated on any change.
+     */
+    protected boolean isAffectedBy(ProtocolProfileChangedEvent event) {
+        return true;
+    }
+
+    @FunctionalInterface
+    public interface ValueLoader<K, V, E extends Exception> {
+        V load(K key) throws E;
+    }
+
+    private record CachedValue<V>(V value, long expiresAt, long generation) {
+    }
+}
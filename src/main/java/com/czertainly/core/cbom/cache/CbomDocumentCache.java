@@ -0,0 +1,209 @@
+package com.czertainly.core.cbom.cache;
+
+import com.czertainly.api.exception.CbomRepositoryException;
+import com.czertainly.core.cbom.client.CbomRepositoryClient;
+import com.czertainly.core.dao.entity.CbomDocument;
+import com.czertainly.core.dao.entity.CbomDocumentId;
+import com.czertainly.core.dao.repository.CbomDocumentRepository;
+import com.czertainly.core.model.cbom.BomResponseDto;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Database cache of the CBOM documents read from the CBOM repository. CBOM versions are immutable once stored
+ * in the repository, so the documents are cached by the repository URL, their serial number and version without expiration
+ * and shared by all nodes of the cluster. Documents are streamed from the repository directly into their GZIP compressed form,
+ * they are parsed as a whole only when they are returned.
+ * <p>
+ * The total size of the compressed documents is bounded, the oldest documents are evicted first. The total size is tracked
+ * as a running total of the documents cached by this node, initialized from the database, and the documents are evicted
+ * only when it exceeds the maximum size. Documents cached by other nodes are included when the total size is read again
+ * after the eviction. Documents are evicted below {@link #EVICTION_RATIO} of the maximum size, so that the eviction
+ * does not run for every cached document once the cache is full.
+ */
+@Component
+public class CbomDocumentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CbomDocumentCache.class);
+
+    private static final ObjectMapper DOCUMENT_OBJECT_MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .build();
+
+    static final double EVICTION_RATIO = 0.9;
+
+    private static final long UNKNOWN_SIZE = -1;
+
+    private final AtomicLong cachedSize = new AtomicLong(UNKNOWN_SIZE);
+
+    private final CbomDocumentRepository cbomDocumentRepository;
+    private final CbomRepositoryClient cbomRepositoryClient;
+    private final long maxSize;
+
+    /**
+     * @param maxSize maximum total size of the cached compressed documents in bytes, caching is disabled when not positive
+     */
+    public CbomDocumentCache(CbomDocumentRepository cbomDocumentRepository, CbomRepositoryClient cbomRepositoryClient,
+                             @Value("${cbom.cache.max-size:268435456}") long maxSize) {
+        this.cbomDocumentRepository = cbomDocumentRepository;
+        this.cbomRepositoryClient = cbomRepositoryClient;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Fetched CBOM document
+     *
+     * @param id       repository URL, serial number and version of the CBOM
+     * @param content  GZIP compressed JSON content of the document
+     * @param document parsed document
+     */
+    public record FetchedDocument(CbomDocumentId id, byte[] content, BomResponseDto document) {
+    }
+
+    /**
+     * Returns the CBOM document from the cache, or reads it from the configured CBOM repository and caches it
+     * when it is not cached yet. It must be called within a transaction.
+     *
+     * @param serialNumber serial number of the CBOM
+     * @param version      version of the CBOM
+     * @return the CBOM document
+     * @throws CbomRepositoryException when the document is not cached and cannot be read from the CBOM repository
+     */
+    public BomResponseDto read(String serialNumber, int version) throws CbomRepositoryException {
+        CbomDocumentId id = new CbomDocumentId(cbomRepositoryClient.getCbomRepositoryBaseUrl(), serialNumber, version);
+        BomResponseDto cached = getAll(List.of(id)).get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        FetchedDocument fetched = fetch(id);
+        put(List.of(fetched));
+        return fetched.document();
+    }
+
+    /**
+     * Returns the cached CBOM documents. Documents that cannot be parsed are removed from the cache.
+     *
+     * @param ids repository URLs, serial numbers and versions of the CBOMs
+     * @return cached CBOM documents by their repository URL, serial number and version, documents that are not cached are missing
+     */
+    public Map<CbomDocumentId, BomResponseDto> getAll(Collection<CbomDocumentId> ids) {
+        Map<CbomDocumentId, BomResponseDto> documents = new HashMap<>();
+        for (CbomDocument cachedDocument : cbomDocumentRepository.findAllById(ids)) {
+            CbomDocumentId id = cachedDocument.getId();
+            BomResponseDto document = parse(id.getSerialNumber(), id.getVersion(), cachedDocument.getContent());
+            if (document != null) {
+                logger.debug("CBOM document with serialNumber {} and version {} read from cache", id.getSerialNumber(), id.getVersion());
+                documents.put(id, document);
+            } else {
+                cbomDocumentRepository.delete(cachedDocument);
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Reads the CBOM document from the CBOM repository, streaming it into its compressed form. It does not access
+     * the database, so it can be called concurrently outside of transaction.
+     *
+     * @param id repository URL the document is read from, serial number and version of the CBOM
+     * @return fetched document
+     * @throws CbomRepositoryException when the document cannot be read from the CBOM repository or parsed
+     */
+    public FetchedDocument fetch(CbomDocumentId id) throws CbomRepositoryException {
+        String serialNumber = id.getSerialNumber();
+        int version = id.getVersion();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+            cbomRepositoryClient.read(id.getRepositoryUrl(), serialNumber, version, outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] content = compressed.toByteArray();
+
+        BomResponseDto document = parse(serialNumber, version, content);
+        if (document == null) {
+            throw new CbomRepositoryException(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_GATEWAY,
+                    "CBOM document with serialNumber %s and version %s returned by CBOM Repository cannot be parsed".formatted(serialNumber, version)));
+        }
+        return new FetchedDocument(id, content, document);
+    }
+
+    /**
+     * Caches the fetched documents and evicts the oldest documents when the total size exceeds the maximum size of the cache.
+     * It must be called within a transaction.
+     */
+    public void put(Collection<FetchedDocument> documents) {
+        if (maxSize <= 0 || documents.isEmpty()) {
+            return;
+        }
+        long insertedSize = 0;
+        for (FetchedDocument document : documents) {
+            CbomDocumentId id = document.id();
+            if (cbomDocumentRepository.insertWithIdConflictResolve(id.getRepositoryUrl(), id.getSerialNumber(), id.getVersion(), document.content(), document.content().length) > 0) {
+                insertedSize += document.content().length;
+            }
+        }
+        if (insertedSize == 0) {
+            return;
+        }
+
+        long totalSize = addCachedSize(insertedSize);
+        if (totalSize > maxSize) {
+            int evicted = cbomDocumentRepository.deleteExceedingTotalSize((long) (maxSize * EVICTION_RATIO));
+            // evicted size is not known, total size is read again from the database by the next put
+            cachedSize.set(UNKNOWN_SIZE);
+            logger.debug("CBOM document cache size {} exceeds maximum size {}, {} documents evicted", totalSize, maxSize, evicted);
+        }
+    }
+
+    /**
+     * Adds the size of the inserted documents to the running total of the cache size. Total size read from the database
+     * already includes the inserted documents. Running total can be over-estimated, e.g. by documents evicted by other nodes
+     * or rolled back transactions, which only causes an earlier eviction that corrects it.
+     *
+     * @return current total size of the cache
+     */
+    private long addCachedSize(long insertedSize) {
+        long totalSize = cachedSize.updateAndGet(size -> size == UNKNOWN_SIZE ? UNKNOWN_SIZE : size + insertedSize);
+        if (totalSize != UNKNOWN_SIZE) {
+            return totalSize;
+        }
+        totalSize = cbomDocumentRepository.sumContentSize();
+        if (cachedSize.compareAndSet(UNKNOWN_SIZE, totalSize)) {
+            return totalSize;
+        }
+        // initialized concurrently, possibly without the inserted documents of this transaction
+        return cachedSize.addAndGet(insertedSize);
+    }
+
+    private static BomResponseDto parse(String serialNumber, int version, byte[] content) {
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return DOCUMENT_OBJECT_MAPPER.readValue(inputStream, BomResponseDto.class);
+        } catch (IOException e) {
+            logger.warn("CBOM document with serialNumber {} and version {} cannot be parsed: {}", serialNumber, version, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -17,6 +17,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -32,8 +34,10 @@ import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
 
+import java.io.OutputStream;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 @Component
@@ -47,8 +51,10 @@ public class CbomRepositoryClient {
     private static final String CBOM_READ_VERSIONS = "/api/v1/bom/{urn}/versions";
 
     private final WebClient client;
+    private final int maxBufferSize;
 
     public CbomRepositoryClient(WebClient client, @Value("${cbom.client.max-buffer-size:20971520}") int maxBufferSize) {
+        this.maxBufferSize = maxBufferSize;
         this.client = client.mutate()
         .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxBufferSize))
         .filter(ExchangeFilterFunction.ofResponseProcessor(CbomRepositoryClient::handleHttpExceptions))
@@ -102,6 +108,47 @@ public class CbomRepositoryClient {
             request);
     }
 
+    /**
+     * Reads the CBOM document and writes its raw JSON content to the output stream as it is received, so the document
+     * is never buffered in memory as a whole. The document is still limited by the maximum buffer size of the client.
+     *
+     * @param baseUrl      base URL of the CBOM repository the document is read from
+     * @param urn          serial number of the CBOM
+     * @param version      version of the CBOM, latest version when null
+     * @param outputStream stream the content is written to, it is not closed
+     * @throws CbomRepositoryException when the document cannot be read or exceeds the maximum buffer size
+     */
+    public void read(final String baseUrl, final String urn, final Integer version, final OutputStream outputStream) throws CbomRepositoryException {
+        final WebClient.RequestBodyUriSpec request = client.method(HttpMethod.GET);
+        final AtomicLong size = new AtomicLong();
+        processRequest(r -> DataBufferUtils.write(r
+                        .uri(uriBuilder -> {
+                            UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl)
+                                    .path(CBOM_READ);
+                            if (version != null) {
+                                builder.queryParam("version", version);
+                            }
+                            return builder.buildAndExpand(urn).toUri();
+                        })
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class)
+                        .<DataBuffer>handle((dataBuffer, sink) -> {
+                            if (size.addAndGet(dataBuffer.readableByteCount()) > maxBufferSize) {
+                                DataBufferUtils.release(dataBuffer);
+                                sink.error(new CbomRepositoryException(ProblemDetail.forStatusAndDetail(
+                                        HttpStatus.PAYLOAD_TOO_LARGE,
+                                        "CBOM document exceeds the maximum size of %d bytes".formatted(maxBufferSize)
+                                )));
+                            } else {
+                                sink.next(dataBuffer);
+                            }
+                        }), outputStream)
+                        .doOnNext(DataBufferUtils::release)
+                        .then()
+                        .block(),
+                request);
+    }
+
     public List<BomVersionDto> versions(final String urn) throws CbomRepositoryException {
         final WebClient.RequestBodyUriSpec request = prepareRequest(HttpMethod.GET);
         final String baseUrl = getCbomRepositoryBaseUrl();
@@ -122,7 +169,7 @@ public class CbomRepositoryClient {
         }
     }
 
-    private String getCbomRepositoryBaseUrl() throws CbomRepositoryException {
+    public String getCbomRepositoryBaseUrl() throws CbomRepositoryException {
         PlatformSettingsDto platformSettings = SettingsCache.getSettings(SettingsSection.PLATFORM);
         String baseUrl = platformSettings != null && platformSettings.getUtils() != null
         ? platformSettings.getUtils().getCbomRepositoryUrl()
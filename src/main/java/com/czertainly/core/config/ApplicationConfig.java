@@ -34,13 +34,17 @@ import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.czertainly.core.service.CbomSyncProperties;
+import com.czertainly.core.service.ComplianceCheckProperties;
 import com.czertainly.core.service.DiscoveryProperties;
+import com.czertainly.core.service.acme.AcmeChallengeValidationProperties;
+import com.czertainly.core.service.scep.ScepIntuneProperties;
 
 import javax.net.ssl.TrustManager;
 
 @Configuration
 @EnableJpaAuditing(auditorAwareRef = "auditorAware")
-@EnableConfigurationProperties(DiscoveryProperties.class)
+@EnableConfigurationProperties({DiscoveryProperties.class, CbomSyncProperties.class, ComplianceCheckProperties.class, AcmeChallengeValidationProperties.class, ScepIntuneProperties.class})
 @PropertySource(value = ApplicationConfig.EXTERNAL_PROPERTY_SOURCE, ignoreResourceNotFound = true)
 @ComponentScan(basePackages = "com.czertainly.core")
 public class ApplicationConfig {
@@ -2,48 +2,77 @@ package com.czertainly.core.config;
 
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.WriteListener;
+
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 
+/**
+ * Servlet output stream writing the response to the wrapped response and capturing its beginning for logging.
+ * At most {@code maxCapturedSize} bytes are captured, the rest of the body is only written to the wrapped response.
+ */
 public class CachedBodyServletOutputStream extends ServletOutputStream {
 
-    private final OutputStream outputStream;
-    private final CustomHttpServletResponseWrapper wrappedResponse;
-    private final ServletOutputStream servletOutputStream = new ServletOutputStream(){
-        WriteListener writeListener = null;
+    private final ServletOutputStream outputStream;
+    private final ByteArrayOutputStream capturedBody;
+    private final int maxCapturedSize;
+    private long size;
 
-        @Override
-        public void setWriteListener(WriteListener writeListener) {
-            this.writeListener = writeListener;
-        }
+    public CachedBodyServletOutputStream(ServletOutputStream outputStream, int maxCapturedSize) {
+        this.outputStream = outputStream;
+        this.maxCapturedSize = Math.max(maxCapturedSize, 0);
+        this.capturedBody = new ByteArrayOutputStream(Math.min(this.maxCapturedSize, 1024));
+    }
 
-        public boolean isReady(){
-            return true;
-        }
-        @Override
-        public void write(int w) throws IOException {
-            outputStream.write(w);
-            wrappedResponse.rawData.add((byte) w);
-        }
-    };
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+        outputStream.setWriteListener(writeListener);
+    }
 
-    public CachedBodyServletOutputStream(CustomHttpServletResponseWrapper wrappedResponse) throws IOException {
-        this.outputStream = wrappedResponse.response.getOutputStream();
-        this.wrappedResponse = wrappedResponse;
+    @Override
+    public boolean isReady() {
+        return outputStream.isReady();
     }
 
+    @Override
+    public void write(int w) throws IOException {
+        outputStream.write(w);
+        if (capturedBody.size() < maxCapturedSize) {
+            capturedBody.write(w);
+        }
+        size++;
+    }
 
     @Override
-    public void setWriteListener(WriteListener writeListener) {
-        servletOutputStream.setWriteListener( writeListener );
+    public void write(byte[] b, int off, int len) throws IOException {
+        outputStream.write(b, off, len);
+        int captured = Math.min(len, maxCapturedSize - capturedBody.size());
+        if (captured > 0) {
+            capturedBody.write(b, off, captured);
+        }
+        size += len;
     }
+
     @Override
-    public boolean isReady(){
-        return servletOutputStream.isReady();
+    public void flush() throws IOException {
+        outputStream.flush();
     }
 
     @Override
-    public void write(int w) throws IOException {
-        servletOutputStream.write(w);
+    public void close() throws IOException {
+        outputStream.close();
+    }
+
+    /**
+     * @return captured beginning of the body
+     */
+    public byte[] getCapturedBody() {
+        return capturedBody.toByteArray();
+    }
+
+    /**
+     * @return total number of bytes written
+     */
+    public long getSize() {
+        return size;
     }
 }
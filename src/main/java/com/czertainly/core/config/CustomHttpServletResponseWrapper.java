@@ -6,32 +6,61 @@ import jakarta.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.List;
 
 public class CustomHttpServletResponseWrapper extends HttpServletResponseWrapper {
 
-    public List<Byte> rawData = new ArrayList<>();
-    public HttpServletResponse response;
+    private final int maxCapturedBodySize;
     private CachedBodyServletOutputStream servletStream;
+    private PrintWriter writer;
 
-    CustomHttpServletResponseWrapper(HttpServletResponse response) throws IOException {
+    /**
+     * @param maxCapturedBodySize maximum number of bytes of the response body captured for logging
+     */
+    CustomHttpServletResponseWrapper(HttpServletResponse response, int maxCapturedBodySize) {
         super(response);
-        this.response = response;
-        this.servletStream = new CachedBodyServletOutputStream(this);
+        this.maxCapturedBodySize = maxCapturedBodySize;
     }
 
     @Override
     public ServletOutputStream getOutputStream() throws IOException {
+        if (servletStream == null) {
+            servletStream = new CachedBodyServletOutputStream(getResponse().getOutputStream(), maxCapturedBodySize);
+        }
         return servletStream;
     }
+
+    @Override
     public PrintWriter getWriter() throws IOException {
-        String encoding = getCharacterEncoding();
-        if ( encoding != null ) {
-            return new PrintWriter(new OutputStreamWriter(servletStream, encoding));
-        } else {
-            return new PrintWriter(new OutputStreamWriter(servletStream));
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            if ( encoding != null ) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), encoding));
+            } else {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream()));
+            }
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
         }
+        super.flushBuffer();
     }
 
+    /**
+     * @return captured beginning of the response body, empty when nothing was written
+     */
+    public byte[] getCapturedBody() {
+        return servletStream == null ? new byte[0] : servletStream.getCapturedBody();
+    }
+
+    /**
+     * @return total size of the response body written so far
+     */
+    public long getBodySize() {
+        return servletStream == null ? 0 : servletStream.getSize();
+    }
 }
@@ -1,11 +1,14 @@
 package com.czertainly.core.config;
 
 import com.czertainly.api.exception.ValidationException;
+import com.czertainly.core.config.logging.RequestResponseInterceptor;
 import com.czertainly.core.util.AuthHelper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,10 +18,16 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Component
 public class ProtocolValidationFilter extends OncePerRequestFilter {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProtocolValidationFilter.class);
+
     private HandlerExceptionResolver resolver;
 
     private AuthHelper authHelper;
@@ -36,31 +45,89 @@ public class ProtocolValidationFilter extends OncePerRequestFilter {
     @Value("${server.servlet.context-path}")
     private String context;
 
+    @Value("${logging.http.max-body-size:8192}")
+    private int maxBodySize;
+
+    /**
+     * Every n-th request of each protocol is logged on INFO level, all requests are logged on DEBUG level
+     */
+    @Value("${logging.protocol-access.sample-rate:100}")
+    private long accessLogSampleRate;
+
+    /**
+     * Prefix of protocol endpoints, followed by the protocol route name
+     */
+    private Pattern protocolPrefixPattern;
+
+    /**
+     * Protocol routes by the name in the request path
+     */
+    private Map<String, ProtocolRoute> protocolRoutes;
+
+    @Override
+    protected void initFilterBean() {
+        protocolPrefixPattern = Pattern.compile("^%s/v\\d*/protocols/".formatted(Pattern.quote(context)));
+        protocolRoutes = Map.of(
+                "scep", new ProtocolRoute("SCEP", AuthHelper.SCEP_USERNAME),
+                "acme", new ProtocolRoute("ACME", AuthHelper.ACME_USERNAME),
+                "cmp", new ProtocolRoute("CMPv2", AuthHelper.CMP_USERNAME));
+    }
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
 
-        CustomHttpServletRequestWrapper requestWrapper = new CustomHttpServletRequestWrapper(request);
-        CustomHttpServletResponseWrapper responseWrapper = new CustomHttpServletResponseWrapper(response);
+        // request and response are captured only when their bodies are logged
+        HttpServletRequest requestWrapper = request;
+        HttpServletResponse responseWrapper = response;
+        if (RequestResponseInterceptor.isBodyLoggingEnabled()) {
+            requestWrapper = new CustomHttpServletRequestWrapper(request);
+            responseWrapper = new CustomHttpServletResponseWrapper(response, maxBodySize);
+        }
         String requestUri = request.getRequestURI();
-        String prefixRegex = "^%s/v\\d*/protocols/".formatted(context);
 
-        if (!requestUri.matches(prefixRegex + ".*$")) {
-            filterChain.doFilter(requestWrapper, responseWrapper);
-        } else if (requestUri.matches(prefixRegex + "scep/.*$")) {
-            logger.info("SCEP Request from " + request.getRemoteAddr() + " for " + requestUri);
-            authHelper.authenticateAsSystemUser(AuthHelper.SCEP_USERNAME);
+        Matcher protocolPrefixMatcher = protocolPrefixPattern.matcher(requestUri);
+        if (!protocolPrefixMatcher.lookingAt()) {
             filterChain.doFilter(requestWrapper, responseWrapper);
-        } else if (requestUri.matches(prefixRegex + "acme/.*$")) {
-            logger.info("ACME Request from " + request.getRemoteAddr() + " for " + requestUri);
-            authHelper.authenticateAsSystemUser(AuthHelper.ACME_USERNAME);
-            filterChain.doFilter(requestWrapper, responseWrapper);
-        } else if (requestUri.matches(prefixRegex + "cmp/.*$")) {
-            logger.info("CMPv2 Request from " + request.getRemoteAddr() + " for " + requestUri);
-            authHelper.authenticateAsSystemUser(AuthHelper.CMP_USERNAME);
-            filterChain.doFilter(requestWrapper, responseWrapper);
-        } else {
+            return;
+        }
+
+        ProtocolRoute route = resolveRoute(requestUri, protocolPrefixMatcher.end());
+        if (route == null) {
             resolver.resolveException(request, response, null, new ValidationException("Invalid protocol request"));
+            return;
+        }
+
+        logAccess(route, request, requestUri);
+        authHelper.authenticateAsSystemUser(route.username());
+        filterChain.doFilter(requestWrapper, responseWrapper);
+    }
+
+    private ProtocolRoute resolveRoute(String requestUri, int routeStart) {
+        int routeEnd = requestUri.indexOf('/', routeStart);
+        return routeEnd < 0 ? null : protocolRoutes.get(requestUri.substring(routeStart, routeEnd));
+    }
+
+    private void logAccess(ProtocolRoute route, HttpServletRequest request, String requestUri) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("{} request: from={}, method={}, uri={}", route.label(), request.getRemoteAddr(), request.getMethod(), requestUri);
+            return;
+        }
+
+        long requests = route.requests().incrementAndGet();
+        if (accessLogSampleRate <= 1 || requests % accessLogSampleRate == 1) {
+            LOGGER.info("{} request: from={}, method={}, uri={}, requests={}", route.label(), request.getRemoteAddr(), request.getMethod(), requestUri, requests);
         }
+    }
+
+    /**
+     * @param label    label of the protocol used in the access log
+     * @param username system user the requests of the protocol are authenticated as
+     * @param requests number of the requests of the protocol, used for sampling of the access log
+     */
+    private record ProtocolRoute(String label, String username, AtomicLong requests) {
 
+        private ProtocolRoute(String label, String username) {
+            this(label, username, new AtomicLong());
+        }
     }
 }
@@ -7,7 +7,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -101,15 +100,4 @@ public class WebAppConfig implements WebMvcConfigurer {
             }
         });
     }
-
-    @Bean
-    public FilterRegistrationBean<ApprovalExpirationFilter> approvalExpirationFilter(){
-        FilterRegistrationBean<ApprovalExpirationFilter> registrationBean = new FilterRegistrationBean<>();
-
-        registrationBean.setFilter(new ApprovalExpirationFilter());
-        registrationBean.addUrlPatterns("/v1/approvals/*");
-        registrationBean.setOrder(1);
-
-        return registrationBean;
-    }
 }
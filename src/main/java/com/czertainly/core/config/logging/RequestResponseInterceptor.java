@@ -1,5 +1,6 @@
 package com.czertainly.core.config.logging;
 
+import com.czertainly.core.config.CustomHttpServletRequestWrapper;
 import com.czertainly.core.config.CustomHttpServletResponseWrapper;
 import com.czertainly.core.logging.LoggingHelper;
 import jakarta.servlet.ServletInputStream;
@@ -10,11 +11,13 @@ import org.apache.commons.lang3.builder.ToStringStyle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.WebUtils;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -27,7 +30,19 @@ import java.util.stream.Collectors;
 @Component
 public class RequestResponseInterceptor implements HandlerInterceptor {
 
-    Logger logger = LoggerFactory.getLogger(this.getClass());
+    private static final Logger logger = LoggerFactory.getLogger(RequestResponseInterceptor.class);
+
+    @Value("${logging.http.max-body-size:8192}")
+    private int maxBodySize;
+
+    /**
+     * Request and response bodies are captured for logging only when the interceptor logs them, i.e. on TRACE level.
+     *
+     * @return true when the request and response bodies are logged
+     */
+    public static boolean isBodyLoggingEnabled() {
+        return logger.isTraceEnabled();
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
@@ -35,7 +50,9 @@ public class RequestResponseInterceptor implements HandlerInterceptor {
         LoggingHelper.putSourceInfo(request);
 
         if (logger.isTraceEnabled()) {
-            String body = servletInputStreamToString(request.getInputStream());
+            // body can be read only when it is cached by the wrapper, otherwise it would be consumed before the handler reads it
+            CustomHttpServletRequestWrapper requestWrapper = WebUtils.getNativeRequest(request, CustomHttpServletRequestWrapper.class);
+            String body = requestWrapper == null ? "" : servletInputStreamToString(requestWrapper.getInputStream());
             ToStringBuilder traceMessage = new ToStringBuilder(this, ToStringStyle.NO_CLASS_NAME_STYLE)
                     .append("METHOD", request.getMethod())
                     .append("PATH", request.getRequestURI())
@@ -56,12 +73,8 @@ public class RequestResponseInterceptor implements HandlerInterceptor {
                            @Nullable ModelAndView modelAndView) throws Exception {
         MDC.clear();
         if (logger.isTraceEnabled()) {
-            String responseBody;
-            try {
-                responseBody = getResponseAsString((CustomHttpServletResponseWrapper) response);
-            } catch (ClassCastException e) {
-                responseBody = "";
-            }
+            CustomHttpServletResponseWrapper responseWrapper = WebUtils.getNativeResponse(response, CustomHttpServletResponseWrapper.class);
+            String responseBody = responseWrapper == null ? "" : getResponseAsString(responseWrapper);
             List<String> responseHeaders = response.getHeaderNames().stream()
                     .map(r -> r + " : " + response.getHeaders(r)).collect(Collectors.toList());
             ToStringBuilder traceMessage = new ToStringBuilder(this, ToStringStyle.NO_CLASS_NAME_STYLE)
@@ -76,11 +89,11 @@ public class RequestResponseInterceptor implements HandlerInterceptor {
     }
 
     public String getResponseAsString(CustomHttpServletResponseWrapper wrappedResponse) {
-        byte[] data = new byte[wrappedResponse.rawData.size()];
-        for (int i = 0; i < data.length; i++) {
-            data[i] = wrappedResponse.rawData.get(i);
-        }
+        byte[] data = wrappedResponse.getCapturedBody();
         String responseBody = new String(data);
+        if (wrappedResponse.getBodySize() > data.length) {
+            responseBody += "... (truncated, %d bytes total)".formatted(wrappedResponse.getBodySize());
+        }
         return responseBody;
     }
 
@@ -89,9 +102,12 @@ public class RequestResponseInterceptor implements HandlerInterceptor {
         char[] buffer = new char[bufferSize];
         StringBuilder out = new StringBuilder();
         Reader in = new InputStreamReader(stream, StandardCharsets.UTF_8);
-        for (int numRead; (numRead = in.read(buffer, 0, buffer.length)) > 0; ) {
+        for (int numRead; out.length() < maxBodySize && (numRead = in.read(buffer, 0, Math.min(buffer.length, maxBodySize - out.length()))) > 0; ) {
             out.append(buffer, 0, numRead);
         }
+        if (out.length() >= maxBodySize && in.read() != -1) {
+            out.append("... (truncated)");
+        }
         return out.toString();
     }
 }
@@ -0,0 +1,62 @@
+package com.czertainly.core.dao.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Pending {@link ApprovalRecipient} materialized for the principal responsible for its approval step, i.e. the user,
+ * role or group of the step. The entry exists only while the recipient is pending, so the inbox of the principal
+ * and the pending recipient of the approval for the principal are looked up by index.
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "approval_inbox")
+public class ApprovalInbox implements Serializable {
+
+    @Id
+    @Column(name = "approval_recipient_uuid", nullable = false)
+    private UUID approvalRecipientUuid;
+
+    @Column(name = "approval_uuid", nullable = false)
+    private UUID approvalUuid;
+
+    /**
+     * UUID of the user, role or group responsible for the approval step
+     */
+    @Column(name = "principal_uuid", nullable = false)
+    private UUID principalUuid;
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        ApprovalInbox that = (ApprovalInbox) o;
+        return getApprovalRecipientUuid() != null && Objects.equals(getApprovalRecipientUuid(), that.getApprovalRecipientUuid());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(approvalRecipientUuid);
+    }
+}
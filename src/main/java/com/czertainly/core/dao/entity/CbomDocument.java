@@ -0,0 +1,60 @@
+package com.czertainly.core.dao.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+/**
+ * Locally cached content of the CBOM document stored in the CBOM repository. CBOM versions are immutable,
+ * so the document is identified only by the repository URL, its serial number and version.
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "cbom_document")
+public class CbomDocument implements Serializable {
+
+    @EmbeddedId
+    private CbomDocumentId id = new CbomDocumentId();
+
+    /**
+     * GZIP compressed JSON content of the document
+     */
+    @ToString.Exclude
+    @Column(name = "content", nullable = false)
+    private byte[] content;
+
+    @Column(name = "content_size", nullable = false)
+    private long contentSize;
+
+    @Column(name = "cached_at", nullable = false)
+    private OffsetDateTime cachedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        CbomDocument that = (CbomDocument) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,30 @@
+package com.czertainly.core.dao.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Embedded class for a composite primary key
+ */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class CbomDocumentId implements Serializable {
+
+    @Column(name = "repository_url", nullable = false)
+    private String repositoryUrl;
+
+    @Column(name = "serial_number", nullable = false)
+    private String serialNumber;
+
+    @Column(name = "version", nullable = false)
+    private int version;
+
+}
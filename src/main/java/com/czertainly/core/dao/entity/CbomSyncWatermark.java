@@ -0,0 +1,64 @@
+package com.czertainly.core.dao.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+/**
+ * Last CBOM repository entry committed by the CBOM sync, so that the interrupted sync is resumed from it.
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "cbom_sync_watermark")
+public class CbomSyncWatermark implements Serializable {
+
+    @Id
+    @Column(name = "repository_url", nullable = false)
+    private String repositoryUrl;
+
+    /**
+     * Timestamp of the entry creation in the CBOM repository
+     */
+    @Column(name = "timestamp", nullable = false)
+    private OffsetDateTime timestamp;
+
+    @Column(name = "serial_number", nullable = false)
+    private String serialNumber;
+
+    @Column(name = "version", nullable = false)
+    private String version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        CbomSyncWatermark that = (CbomSyncWatermark) o;
+        return getRepositoryUrl() != null && Objects.equals(getRepositoryUrl(), that.getRepositoryUrl());
+    }
+
+    @Override
+    public final int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,20 @@
+package com.czertainly.core.dao.repository;
+
+import com.czertainly.core.dao.entity.ApprovalInbox;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ApprovalInboxRepository extends SecurityFilterRepository<ApprovalInbox, UUID> {
+
+    List<ApprovalInbox> findByApprovalUuidAndPrincipalUuidIn(UUID approvalUuid, Collection<UUID> principalUuids);
+
+    @Modifying
+    @Query("DELETE FROM ApprovalInbox ai WHERE ai.approvalUuid IN :approvalUuids")
+    int deleteByApprovalUuidIn(Collection<UUID> approvalUuids);
+}
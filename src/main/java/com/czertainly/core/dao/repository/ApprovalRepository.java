@@ -3,10 +3,14 @@ package com.czertainly.core.dao.repository;
 import com.czertainly.api.model.client.approval.ApprovalStatusEnum;
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.dao.entity.Approval;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -14,5 +18,22 @@ public interface ApprovalRepository extends SecurityFilterRepository<Approval, U
 
     Approval findByResourceAndObjectUuidAndStatus(Resource resource, UUID objectUuid, ApprovalStatusEnum status);
 
-    List<Approval> findByStatusAndExpiryAtLessThan(ApprovalStatusEnum status, Date expiryAt);
+    Optional<Approval> findFirstByStatusAndExpiryAtNotNullOrderByExpiryAtAsc(ApprovalStatusEnum status);
+
+    /**
+     * Locks the page of pending approvals expired before the given time. Approvals locked by other transactions are skipped,
+     * so that concurrent expiration runs do not process the same approvals.
+     */
+    @Query(value = """
+            SELECT uuid FROM {h-schema}approval
+            WHERE status = 'PENDING' AND expiry_at < ?1
+            ORDER BY expiry_at
+            LIMIT ?2
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<UUID> findExpiredPendingApprovalUuidsForUpdate(Date expiryAt, int limit);
+
+    @Modifying
+    @Query("UPDATE Approval a SET a.status = :newStatus, a.closedAt = :closedAt WHERE a.uuid IN :uuids AND a.status = :status")
+    int updateStatusByUuidInAndStatus(Collection<UUID> uuids, ApprovalStatusEnum status, ApprovalStatusEnum newStatus, Date closedAt);
 }
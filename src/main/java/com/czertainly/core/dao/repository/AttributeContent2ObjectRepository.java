@@ -11,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -44,9 +45,31 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
             @Param("sourceObjectUuid") UUID sourceObjectUuid,
             @Param("purpose") String purpose);
 
+    /**
+     * Bulk variant of {@link #findExistingContentMapping} locating the unversioned content mappings of the content items and objects in one query.
+     */
+    @Query("""
+            SELECT aco FROM AttributeContent2Object aco
+                WHERE ((:connectorUuid IS NULL AND aco.connectorUuid IS NULL) OR aco.connectorUuid = :connectorUuid)
+                    AND aco.attributeContentItemUuid IN (:contentItemUuids)
+                    AND aco.objectType = :objectType
+                    AND aco.objectUuid IN (:objectUuids)
+                    AND aco.objectVersion IS NULL
+                    AND ((:sourceObjectType IS NULL AND aco.sourceObjectType IS NULL) OR aco.sourceObjectType = :sourceObjectType)
+                    AND ((:sourceObjectUuid IS NULL AND aco.sourceObjectUuid IS NULL) OR aco.sourceObjectUuid = :sourceObjectUuid)
+                    AND aco.purpose IS NULL
+            """)
+    List<AttributeContent2Object> findExistingContentMappings(
+            @Param("connectorUuid") UUID connectorUuid,
+            @Param("contentItemUuids") Collection<UUID> contentItemUuids,
+            @Param("objectType") Resource objectType,
+            @Param("objectUuids") Collection<UUID> objectUuids,
+            @Param("sourceObjectType") Resource sourceObjectType,
+            @Param("sourceObjectUuid") UUID sourceObjectUuid);
+
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContent(
-                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData)
+                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData, aco.objectUuid)
                 FROM AttributeContent2Object aco
                 JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
                 JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
@@ -62,6 +85,27 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
             @Param("allowedDefinitionUuids") List<UUID> allowedDefinitionUuids,
             @Param("forbiddenDefinitionUuids") List<UUID> forbiddenDefinitionUuids);
 
+    /**
+     * Bulk variant of {@link #getObjectCustomAttributesContent} loading the content of multiple objects of the same type at once.
+     */
+    @Query("""
+            SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContent(
+                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData, aco.objectUuid)
+                FROM AttributeContent2Object aco
+                JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
+                JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
+                WHERE ad.type = :attributeType AND ad.enabled = true AND aco.objectType = :objectType AND aco.objectUuid IN :objectUuids
+                    AND (:allowedDefinitionUuids IS NULL OR aci.attributeDefinitionUuid IN (:allowedDefinitionUuids))
+                    AND (:forbiddenDefinitionUuids IS NULL OR aci.attributeDefinitionUuid NOT IN (:forbiddenDefinitionUuids))
+                ORDER BY aco.objectUuid, aci.attributeDefinitionUuid, aco.order
+            """)
+    List<ObjectAttributeContent> getObjectsCustomAttributesContent(
+            @Param("attributeType") AttributeType attributeType,
+            @Param("objectType") Resource objectType,
+            @Param("objectUuids") Collection<UUID> objectUuids,
+            @Param("allowedDefinitionUuids") List<UUID> allowedDefinitionUuids,
+            @Param("forbiddenDefinitionUuids") List<UUID> forbiddenDefinitionUuids);
+
     // ── Data attribute read queries — all version-aware ──────────────────────
     // objectVersion uses the same null-matching idiom as purpose:
     //   null  → matches rows WHERE object_version IS NULL  (unversioned, backward-compatible)
@@ -69,7 +113,7 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
 
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContent(
-                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData)
+                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData, aco.objectUuid)
                 FROM AttributeContent2Object aco
                 JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
                 JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
@@ -89,7 +133,7 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
 
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContent(
-                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData)
+                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData, aco.objectUuid)
                 FROM AttributeContent2Object aco
                 JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
                 JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
@@ -107,7 +151,7 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
 
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContent(
-                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData)
+                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData, aco.objectUuid)
                 FROM AttributeContent2Object aco
                 JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
                 JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
@@ -126,7 +170,7 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
 
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContent(
-                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData)
+                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData, aco.objectUuid)
                 FROM AttributeContent2Object aco
                 JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
                 JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
@@ -147,7 +191,7 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
      */
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContent(
-                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData)
+                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData, aco.objectUuid)
                 FROM AttributeContent2Object aco
                 JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
                 JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
@@ -163,7 +207,7 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
      */
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContent(
-                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData)
+                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, ad.version, aci.encryptedData, aco.objectUuid)
                 FROM AttributeContent2Object aco
                 JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
                 JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
@@ -175,7 +219,7 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
 
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContentDetail(
-                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, aco.connectorUuid, c.name, aco.sourceObjectType, aco.sourceObjectUuid, aco.sourceObjectName, ad.version)
+                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, aco.connectorUuid, c.name, aco.sourceObjectType, aco.sourceObjectUuid, aco.sourceObjectName, ad.version, aco.objectUuid)
                 FROM AttributeContent2Object aco
                 LEFT JOIN Connector c ON c.uuid = aco.connectorUuid
                 JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
@@ -196,6 +240,30 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
             @Param("sourceObjectUuid") UUID sourceObjectUuid,
             @Param("objectVersion") Integer objectVersion);
 
+    /**
+     * Bulk variant of {@link #getObjectAttributeContentDetail} loading the unversioned content of multiple objects of the same type at once.
+     */
+    @Query("""
+            SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContentDetail(
+                ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, aco.connectorUuid, c.name, aco.sourceObjectType, aco.sourceObjectUuid, aco.sourceObjectName, ad.version, aco.objectUuid)
+                FROM AttributeContent2Object aco
+                LEFT JOIN Connector c ON c.uuid = aco.connectorUuid
+                JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
+                JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
+                WHERE ad.type = :attributeType AND (CAST(:connectorUuid AS java.util.UUID) IS NULL OR aco.connectorUuid = :connectorUuid)
+                    AND aco.objectType = :objectType AND aco.objectUuid IN :objectUuids
+                    AND (:sourceObjectType IS NULL OR aco.sourceObjectType = :sourceObjectType) AND (CAST(:sourceObjectUuid AS java.util.UUID) IS NULL OR aco.sourceObjectUuid = :sourceObjectUuid)
+                    AND aco.objectVersion IS NULL
+                ORDER BY aco.objectUuid, aci.attributeDefinitionUuid, aco.order
+            """)
+    List<ObjectAttributeContentDetail> getObjectsAttributeContentDetail(
+            @Param("attributeType") AttributeType attributeType,
+            @Param("connectorUuid") UUID connectorUuid,
+            @Param("objectType") Resource objectType,
+            @Param("objectUuids") Collection<UUID> objectUuids,
+            @Param("sourceObjectType") Resource sourceObjectType,
+            @Param("sourceObjectUuid") UUID sourceObjectUuid);
+
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeDefinitionContent(
                 ad.attributeUuid, ad.definition, aci.json)
@@ -336,10 +404,14 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
 
     Long deleteByObjectTypeAndObjectUuidAndAttributeContentItemAttributeDefinitionUuid(Resource objectType, UUID objectUuid, UUID definitionUuid);
 
+    Long deleteByObjectTypeAndObjectUuidInAndAttributeContentItemAttributeDefinitionUuid(Resource objectType, Collection<UUID> objectUuids, UUID definitionUuid);
+
     Long deleteByObjectTypeAndObjectUuidAndObjectVersionAndAttributeContentItemAttributeDefinitionUuid(Resource objectType, UUID objectUuid, Integer objectVersion, UUID definitionUuid);
 
     Long deleteByAttributeContentItemAttributeDefinitionTypeAndConnectorUuidAndObjectTypeAndObjectUuidAndSourceObjectTypeAndSourceObjectUuid(AttributeType attributeType, UUID connectorUuid, Resource objectType, UUID objectUuid, Resource sourceObjectType, UUID sourceObjectUuid);
 
+    Long deleteByAttributeContentItemAttributeDefinitionTypeAndConnectorUuidAndObjectTypeAndObjectUuidInAndSourceObjectTypeAndSourceObjectUuid(AttributeType attributeType, UUID connectorUuid, Resource objectType, Collection<UUID> objectUuids, Resource sourceObjectType, UUID sourceObjectUuid);
+
     Long deleteByAttributeContentItemAttributeDefinitionTypeAndConnectorUuidAndObjectTypeAndSourceObjectTypeAndSourceObjectUuid(AttributeType attributeType, UUID connectorUuid, Resource objectType, Resource sourceObjectType, UUID sourceObjectUuid);
 
 }
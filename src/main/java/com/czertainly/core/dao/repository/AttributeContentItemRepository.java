@@ -6,6 +6,7 @@ import com.czertainly.core.dao.entity.AttributeContentItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,6 +15,8 @@ public interface AttributeContentItemRepository extends JpaRepository<AttributeC
 
     AttributeContentItem findByJsonAndAttributeDefinitionUuid(AttributeContent attributeContent, UUID definitionUuid);
 
+    List<AttributeContentItem> findByAttributeDefinitionUuidAndJsonIn(UUID definitionUuid, Collection<AttributeContent> attributeContents);
+
     List<AttributeContentItem> findByAttributeDefinitionUuid(UUID definitionUuid);
 
     void deleteByAttributeDefinitionUuid(UUID definitionUuid);
@@ -0,0 +1,48 @@
+package com.czertainly.core.dao.repository;
+
+import com.czertainly.core.dao.entity.CbomDocument;
+import com.czertainly.core.dao.entity.CbomDocumentId;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CbomDocumentRepository extends SecurityFilterRepository<CbomDocument, CbomDocumentId> {
+
+    /**
+     * @return number of inserted documents, 0 when the document is already cached
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO {h-schema}cbom_document (repository_url,serial_number,version,content,content_size,cached_at)
+            VALUES (?1, ?2, ?3, ?4, ?5, NOW())
+            ON CONFLICT (repository_url,serial_number,version)
+            DO NOTHING
+            """, nativeQuery = true)
+    int insertWithIdConflictResolve(String repositoryUrl, String serialNumber, int version, byte[] content, long contentSize);
+
+    /**
+     * @return total size of the cached documents in bytes
+     */
+    @Query(value = "SELECT COALESCE(SUM(content_size), 0) FROM {h-schema}cbom_document", nativeQuery = true)
+    long sumContentSize();
+
+    /**
+     * Deletes the oldest cached documents, so that the total size of the remaining ones does not exceed the limit.
+     *
+     * @param maxSize maximum total size of the cached documents in bytes
+     * @return number of deleted documents
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM {h-schema}cbom_document cd
+            USING (
+                SELECT repository_url, serial_number, version, SUM(content_size) OVER (ORDER BY cached_at DESC, repository_url, serial_number, version) AS total_size
+                FROM {h-schema}cbom_document
+            ) sized
+            WHERE cd.repository_url = sized.repository_url AND cd.serial_number = sized.serial_number AND cd.version = sized.version
+            AND sized.total_size > ?1
+            """, nativeQuery = true)
+    int deleteExceedingTotalSize(long maxSize);
+
+}
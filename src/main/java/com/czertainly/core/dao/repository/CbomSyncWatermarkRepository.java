@@ -0,0 +1,8 @@
+package com.czertainly.core.dao.repository;
+
+import com.czertainly.core.dao.entity.CbomSyncWatermark;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CbomSyncWatermarkRepository extends SecurityFilterRepository<CbomSyncWatermark, String> {
+}
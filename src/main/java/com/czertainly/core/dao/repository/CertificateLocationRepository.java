@@ -2,7 +2,6 @@ package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.CertificateLocation;
 import com.czertainly.core.dao.entity.CertificateLocationId;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,7 +13,6 @@ import java.util.UUID;
 public interface CertificateLocationRepository extends SecurityFilterRepository<CertificateLocation, CertificateLocationId> {
     List<CertificateLocation> findByCertificateUuidIn(List<UUID> certificateUuids);
 
-    @Modifying(flushAutomatically = true, clearAutomatically = true)
-    @Query("DELETE FROM CertificateLocation cl WHERE cl.id.locationUuid = :locationUuid")
-    void deleteByLocationUuid(@Param("locationUuid") UUID locationUuid);
+    @Query("SELECT cl FROM CertificateLocation cl JOIN FETCH cl.certificate WHERE cl.id.locationUuid = :locationUuid")
+    List<CertificateLocation> findByLocationUuidWithCertificate(@Param("locationUuid") UUID locationUuid);
 }
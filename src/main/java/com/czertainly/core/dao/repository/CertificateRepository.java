@@ -60,6 +60,9 @@ public interface CertificateRepository extends SecurityFilterRepository<Certific
     @EntityGraph(attributePaths = {"certificateContent"})
     List<Certificate> findByRaProfileUuidAndCertificateContentIdNotNullAndArchivedFalse(UUID raProfileUuid);
 
+    @Query("SELECT c.uuid FROM Certificate c WHERE c.raProfileUuid = :raProfileUuid AND c.certificateContentId IS NOT NULL AND c.archived = false")
+    List<UUID> findUuidsByRaProfileUuidAndCertificateContentIdNotNullAndArchivedFalse(@Param("raProfileUuid") UUID raProfileUuid);
+
     List<Certificate> findByKeyUuid(UUID keyUuid);
 
     List<Certificate> findByAltKeyUuid(UUID altKeyUuid);
@@ -3,8 +3,10 @@ package com.czertainly.core.dao.repository;
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.dao.entity.ComplianceProfileAssociation;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,6 +20,9 @@ public interface ComplianceProfileAssociationRepository extends SecurityFilterRe
 
     Long countByResourceAndObjectUuid(Resource resource, UUID associationObjectUuid);
 
+    @Query("SELECT DISTINCT cpa.objectUuid FROM ComplianceProfileAssociation cpa WHERE cpa.resource = ?1 AND cpa.objectUuid IN ?2")
+    List<UUID> findObjectUuidsByResourceAndObjectUuidIn(Resource resource, Collection<UUID> associationObjectUuids);
+
     void deleteByComplianceProfileUuid(UUID complianceProfileUuid);
 
     boolean existsByComplianceProfileUuidAndResourceAndObjectUuid(UUID complianceProfileUuid, Resource resource, UUID associationObjectUuid);
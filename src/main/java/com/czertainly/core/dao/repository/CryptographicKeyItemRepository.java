@@ -36,6 +36,9 @@ public interface CryptographicKeyItemRepository extends SecurityFilterRepository
 
     List<CryptographicKeyItem> findByKeyTokenProfileUuid(UUID tokenProfileUuid);
 
+    @Query("SELECT cki.uuid FROM CryptographicKeyItem cki WHERE cki.key.tokenProfileUuid = :tokenProfileUuid")
+    List<UUID> findUuidsByKeyTokenProfileUuid(@Param("tokenProfileUuid") UUID tokenProfileUuid);
+
     @Modifying
     @Query(value = """
             INSERT INTO {h-schema}cryptographic_key_item (
@@ -26,4 +26,7 @@ public interface SecretRepository extends SecurityFilterRepository<Secret, UUID>
     List<Secret> findByUuidIn(List<UUID> objectUuids);
 
     List<Secret> findBySourceVaultProfileUuid(UUID associationObjectUuid);
+
+    @Query("SELECT s.uuid FROM Secret s WHERE s.sourceVaultProfileUuid = :sourceVaultProfileUuid")
+    List<UUID> findUuidsBySourceVaultProfileUuid(UUID sourceVaultProfileUuid);
 }
@@ -1,10 +1,13 @@
 package com.czertainly.core.dao.repository.acme;
 
+import com.czertainly.api.model.core.acme.ChallengeStatus;
 import com.czertainly.core.dao.entity.acme.AcmeChallenge;
 import com.czertainly.core.dao.repository.SecurityFilterRepository;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,4 +18,6 @@ public interface AcmeChallengeRepository extends SecurityFilterRepository<AcmeCh
 
     @EntityGraph(attributePaths = {"authorization"})
     Optional<AcmeChallenge> findByChallengeId(String challengeId);
+
+    List<AcmeChallenge> findByStatusAndUpdatedBefore(ChallengeStatus status, OffsetDateTime updatedBefore);
 }
@@ -12,9 +12,9 @@ import java.util.UUID;
 public interface ScepTransactionRepository extends SecurityFilterRepository<ScepTransaction, UUID> {
     Optional<ScepProfile> findByUuid(UUID uuid);
 
-    boolean existsByTransactionIdAndScepProfile(String transactionId, ScepProfile scepProfile);
+    boolean existsByTransactionIdAndScepProfileUuid(String transactionId, UUID scepProfileUuid);
 
     Optional<ScepTransaction> findByTransactionId(String transactionId);
 
-    Optional<ScepTransaction> findByTransactionIdAndScepProfile(String transactionId, ScepProfile scepProfile);
+    Optional<ScepTransaction> findByTransactionIdAndScepProfileUuid(String transactionId, UUID scepProfileUuid);
 }
@@ -7,6 +7,7 @@ import com.czertainly.api.model.core.certificate.CertificateEventStatus;
 import com.czertainly.api.model.core.other.ResourceEvent;
 import com.czertainly.core.dao.entity.Approval;
 import com.czertainly.core.dao.entity.ApprovalProfile;
+import com.czertainly.api.exception.EventException;
 import com.czertainly.core.dao.repository.ApprovalRepository;
 import com.czertainly.core.evaluator.TriggerEvaluator;
 import com.czertainly.core.events.EventContext;
@@ -18,6 +19,7 @@ import com.czertainly.core.messaging.model.EventMessage;
 import com.czertainly.core.messaging.model.NotificationMessage;
 import com.czertainly.core.messaging.model.NotificationRecipient;
 import com.czertainly.core.util.AuthHelper;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,6 +43,24 @@ public class ApprovalClosedEventHandler extends EventHandler<Approval> {
         super(repository, ruleEvaluator);
     }
 
+    @Override
+    protected EventContext<Approval> prepareContext(EventMessage eventMessage) throws EventException {
+        if (eventMessage.getObjectUuid() != null) {
+            return super.prepareContext(eventMessage);
+        }
+
+        // aggregated event of approvals closed together, e.g. expired ones
+        List<UUID> approvalUuids = objectMapper.convertValue(eventMessage.getData(), new TypeReference<>() {});
+        EventContext<Approval> context = new EventContext<>(eventMessage, triggerEvaluator, null, null);
+        for (Approval approval : repository.findAllById(approvalUuids)) {
+            context.getResourceObjects().add(approval);
+            context.getResourceObjectsEventData().add(getEventData(approval, null));
+        }
+        fetchEventTriggers(context, null, null); // triggers without resource and its UUID are platform ones
+
+        return context;
+    }
+
     @Override
     protected Object getEventData(Approval approval, Object eventMessageData) {
         ApprovalProfile approvalProfile = approval.getApprovalProfileVersion().getApprovalProfile();
@@ -50,19 +70,30 @@ public class ApprovalClosedEventHandler extends EventHandler<Approval> {
 
     @Override
     protected void sendFollowUpEventsNotifications(EventContext<Approval> eventContext) {
-        Approval approval = eventContext.getResourceObjects().getFirst();
-        ApprovalEventData eventData = (ApprovalEventData) eventContext.getResourceObjectsEventData().getFirst();
+        for (int i = 0; i < eventContext.getResourceObjects().size(); i++) {
+            Approval approval = eventContext.getResourceObjects().get(i);
+            ApprovalEventData eventData = (ApprovalEventData) eventContext.getResourceObjectsEventData().get(i);
 
-        NotificationMessage notificationMessage = new NotificationMessage(eventContext.getEvent(), Resource.APPROVAL, approval.getUuid(), null, NotificationRecipient.buildUserNotificationRecipient(approval.getCreatorUuid()), eventData);
-        notificationProducer.produceMessage(notificationMessage);
+            NotificationMessage notificationMessage = new NotificationMessage(eventContext.getEvent(), Resource.APPROVAL, approval.getUuid(), null, NotificationRecipient.buildUserNotificationRecipient(approval.getCreatorUuid()), eventData);
+            notificationProducer.produceMessage(notificationMessage);
 
-        // produce only for certificates for now until refactoring and uniting of event history for all resources
-        if (approval.getResource() == Resource.CERTIFICATE) {
-            applicationEventPublisher.publishEvent(new UpdateCertificateHistoryEvent(approval.getObjectUuid(), CertificateEvent.APPROVAL_CLOSE, CertificateEventStatus.SUCCESS, "Approval for action %s with approval profile %s closed with status %s".formatted(approval.getAction().getCode(), eventData.getApprovalProfileName(), eventData.getStatus().getLabel()), null));
+            // produce only for certificates for now until refactoring and uniting of event history for all resources
+            if (approval.getResource() == Resource.CERTIFICATE) {
+                applicationEventPublisher.publishEvent(new UpdateCertificateHistoryEvent(approval.getObjectUuid(), CertificateEvent.APPROVAL_CLOSE, CertificateEventStatus.SUCCESS, "Approval for action %s with approval profile %s closed with status %s".formatted(approval.getAction().getCode(), eventData.getApprovalProfileName(), eventData.getStatus().getLabel()), null));
+            }
         }
     }
 
     public static EventMessage constructEventMessage(UUID approvalUuid) {
         return new EventMessage(ResourceEvent.APPROVAL_CLOSED, Resource.APPROVAL, approvalUuid, null);
     }
+
+    /**
+     * Constructs one aggregated event message for approvals closed together
+     *
+     * @param approvalUuids UUIDs of the closed approvals
+     */
+    public static EventMessage constructEventMessage(List<UUID> approvalUuids) {
+        return new EventMessage(ResourceEvent.APPROVAL_CLOSED, Resource.APPROVAL, null, approvalUuids);
+    }
 }
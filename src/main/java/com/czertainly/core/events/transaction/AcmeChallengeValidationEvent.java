@@ -0,0 +1,4 @@
+package com.czertainly.core.events.transaction;
+
+public record AcmeChallengeValidationEvent(String challengeId) {
+}
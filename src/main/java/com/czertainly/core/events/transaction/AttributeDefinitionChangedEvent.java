@@ -0,0 +1,11 @@
+package com.czertainly.core.events.transaction;
+
+import java.util.UUID;
+
+/**
+ * Published when attribute definition is created, updated or deleted.
+ *
+ * @param uuid UUID of the changed attribute definition, null when more definitions changed at once
+ */
+public record AttributeDefinitionChangedEvent(UUID uuid) {
+}
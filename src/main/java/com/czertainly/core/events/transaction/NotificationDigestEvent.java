@@ -0,0 +1,6 @@
+package com.czertainly.core.events.transaction;
+
+import com.czertainly.core.messaging.jms.listeners.notification.NotificationDigestDispatcher;
+
+public record NotificationDigestEvent(NotificationDigestDispatcher.DigestKey key, Object notificationData) {
+}
@@ -0,0 +1,8 @@
+package com.czertainly.core.events.transaction;
+
+import com.czertainly.api.model.core.auth.Resource;
+
+import java.util.UUID;
+
+public record ProtocolProfileChangedEvent(Resource resource, UUID uuid) {
+}
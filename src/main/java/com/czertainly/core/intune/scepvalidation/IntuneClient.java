@@ -37,13 +37,13 @@ import java.net.InetSocketAddress;
 import java.net.PasswordAuthentication;
 import java.net.Proxy;
 import java.net.UnknownHostException;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 import javax.naming.ServiceUnavailableException;
@@ -62,7 +62,7 @@ import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.client5.http.impl.io.BasicHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
 import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
@@ -88,7 +88,7 @@ import com.microsoft.aad.adal4j.ClientCredential;
  * IntuneClient - A client which can be used to make requests to Intune services.
  * This object uses ADAL libraries and tokens for authentication with Intune.  
  */
-class IntuneClient 
+class IntuneClient implements AutoCloseable
 {
     protected String intuneAppId = "0000000a-0000-0000-c000-000000000000";
     protected String intuneResourceUrl = "https://api.manage.microsoft.com/";
@@ -112,7 +112,9 @@ class IntuneClient
     protected String proxyUser = null;
     protected String proxyPass = null;
     
-    private final HashMap<String,String> serviceMap = new HashMap<>();
+    //MODIFICATION - The client is shared by concurrent requests, so the service map and the HTTP client are kept thread safe
+    private final Map<String,String> serviceMap = new ConcurrentHashMap<>();
+    private CloseableHttpClient httpClient = null;
     
     private static final Logger log = LoggerFactory.getLogger(IntuneClient.class);
     
@@ -236,9 +238,19 @@ class IntuneClient
                 .register("http", PlainConnectionSocketFactory.getSocketFactory())
                 .build();
         
-        HttpClientConnectionManager ccm = new BasicHttpClientConnectionManager(registry);
+        HttpClientConnectionManager ccm = new PoolingHttpClientConnectionManager(registry);
         
         this.httpClientBuilder.setConnectionManager(ccm);
+        closeHttpClient();
+    }
+    
+    /**
+     * Releases the HTTP connections kept by the client.
+     */
+    @Override
+    public void close()
+    {
+        closeHttpClient();
     }
     
     /**
@@ -351,8 +363,7 @@ class IntuneClient
         }
         finally 
         {    
-            if(httpclient != null)
-                httpclient.close();
+            //MODIFICATION - The HTTP client is reused, only the response is closed
             if(intuneResponse != null)
                 intuneResponse.close();
         }
@@ -440,8 +451,6 @@ class IntuneClient
         } 
         finally 
         {
-            if(httpclient != null)
-                httpclient.close();
             if(graphResponse != null)
                 graphResponse.close();
         }
@@ -496,14 +505,30 @@ class IntuneClient
         return jsonResult;
     }
     
-    private CloseableHttpClient getCloseableHttpClient() 
+    private synchronized CloseableHttpClient getCloseableHttpClient() 
     {
-        if(this.httpClientBuilder == null)
+        //MODIFICATION - The HTTP client is built once and its connections are reused by the subsequent requests
+        if(this.httpClient == null)
         {
-            return HttpClients.createDefault();
+            this.httpClient = this.httpClientBuilder == null ? HttpClients.createDefault() : this.httpClientBuilder.build();
+        }
+        return this.httpClient;
+    }
+    
+    private synchronized void closeHttpClient()
+    {
+        if(this.httpClient != null)
+        {
+            try
+            {
+                this.httpClient.close();
+            }
+            catch(IOException e)
+            {
+                log.warn("Failed to close HTTP client: {}", e.getMessage());
+            }
+            this.httpClient = null;
         }
-
-        return this.httpClientBuilder.build();
     }
     
     private void setProxy()
@@ -55,6 +55,8 @@ public class MSALClientWrapper
     private String azureAppId = null;
     private ExecutorService service = null;
     private Builder builder = null;
+    //MODIFICATION - The application is built once and reused, so its token cache is kept between the requests
+    private volatile ConfidentialClientApplication app = null;
     
     /**
      * MSAL Authentication Client
@@ -113,6 +115,7 @@ public class MSALClientWrapper
         }
         
         this.builder.sslSocketFactory(factory);
+        this.app = null;
     }
     
     /**
@@ -122,10 +125,12 @@ public class MSALClientWrapper
     public void SetProxy(Proxy proxy)
     {
         this.builder.proxy(proxy);
+        this.app = null;
     }
     
     /**
      * Gets an access token from MSAL for the specified scopes.
+     * Tokens are served from the token cache of the application and acquired again before they expire.
      * @param scopes Scopes to request access for.
      * @return
      * @throws MalformedURLException 
@@ -137,8 +142,8 @@ public class MSALClientWrapper
 
         ClientCredentialParameters params = ClientCredentialParameters.builder(scopes).build();
 
-        ConfidentialClientApplication app = builder.build();
-        result = app.acquireToken(params).join();
+        //MODIFICATION - Reuse the application instead of building a new one for every token
+        result = getApplication().acquireToken(params).join();
 
         if (result == null) 
         {
@@ -148,6 +153,24 @@ public class MSALClientWrapper
         return result.accessToken();
     }
     
+    private ConfidentialClientApplication getApplication()
+    {
+        ConfidentialClientApplication application = this.app;
+        if(application == null)
+        {
+            synchronized(this)
+            {
+                application = this.app;
+                if(application == null)
+                {
+                    application = builder.build();
+                    this.app = application;
+                }
+            }
+        }
+        return application;
+    }
+    
     @Override
     public void finalize()
     {
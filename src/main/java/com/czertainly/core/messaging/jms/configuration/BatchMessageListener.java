@@ -0,0 +1,19 @@
+package com.czertainly.core.messaging.jms.configuration;
+
+import jakarta.jms.Message;
+
+import java.util.List;
+
+/**
+ * Listener of batches of messages received at once by {@link BatchMessageListenerContainer}.
+ */
+public interface BatchMessageListener {
+
+    /**
+     * Processes batch of messages. Messages are acknowledged one by one by the container after the batch is processed.
+     *
+     * @param messages received messages
+     * @return messages that failed to be processed, they are rejected instead of accepted
+     */
+    List<Message> onMessages(List<Message> messages);
+}
@@ -0,0 +1,191 @@
+package com.czertainly.core.messaging.jms.configuration;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import org.apache.qpid.jms.JmsSession;
+import org.apache.qpid.jms.message.JmsMessageSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listener container that hands a {@link BatchMessageListener} all messages available at once, up to the batch size.
+ * Messages of the batch are consumed in individual acknowledge mode of the AMQP client, so that each message is acknowledged
+ * separately after the batch is processed: processed messages are accepted, failed messages are rejected and messages
+ * of batch that failed as a whole are returned to the broker for redelivery.
+ * <p>
+ * When batching is enabled and target latency is set, the maximum number of consumers is adapted from the fill of the received batches, which reflects
+ * the depth of the queue, and from the processing time of the messages. Full batches processed within the target latency
+ * increase the number of consumers up to the configured maximum, slow processing or partial batches decrease it down
+ * to the configured minimum, so that backlogs are drained quickly without overloading the database when the processing is slow.
+ * Adaptation starts from the configured minimum number of consumers.
+ */
+public class BatchMessageListenerContainer extends DefaultMessageListenerContainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchMessageListenerContainer.class);
+
+    private static final Duration DEFAULT_ADJUST_INTERVAL = Duration.ofSeconds(10);
+
+    private final Object statsMonitor = new Object();
+
+    private int batchSize = 1;
+    private Duration targetLatency = Duration.ZERO;
+    private Duration adjustInterval = DEFAULT_ADJUST_INTERVAL;
+
+    private int minConsumers;
+    private int maxConsumers;
+    private int consumersLimit;
+
+    private long statsStartedAt;
+    private long statsMessages;
+    private long statsBatches;
+    private long statsFullBatches;
+    private long statsProcessingNanos;
+
+    /**
+     * @param batchSize maximum number of messages received at once, 1 disables batching
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+        if (isBatchEnabled()) {
+            setSessionAcknowledgeMode(JmsSession.INDIVIDUAL_ACKNOWLEDGE);
+        }
+    }
+
+    /**
+     * @param targetLatency processing time of one message above which the number of consumers is reduced, zero disables adaptation
+     */
+    public void setTargetLatency(Duration targetLatency) {
+        this.targetLatency = targetLatency == null ? Duration.ZERO : targetLatency;
+    }
+
+    /**
+     * @param adjustInterval interval in which the statistics of processed batches are collected before the number of consumers is adapted
+     */
+    public void setAdjustInterval(Duration adjustInterval) {
+        this.adjustInterval = adjustInterval == null ? DEFAULT_ADJUST_INTERVAL : adjustInterval;
+    }
+
+    private boolean isBatchEnabled() {
+        return batchSize > 1;
+    }
+
+    private boolean isAdaptationEnabled() {
+        // statistics are collected from received batches only, single message consumption keeps the configured maximum
+        return isBatchEnabled() && targetLatency.isPositive() && minConsumers < maxConsumers;
+    }
+
+    @Override
+    protected void doInitialize() throws JMSException {
+        synchronized (statsMonitor) {
+            minConsumers = getConcurrentConsumers();
+            maxConsumers = getMaxConcurrentConsumers();
+            statsStartedAt = System.nanoTime();
+            // consumers are scaled up from the minimum by the adaptation, otherwise the configured maximum applies
+            consumersLimit = isAdaptationEnabled() ? minConsumers : maxConsumers;
+            if (consumersLimit != maxConsumers) {
+                setMaxConcurrentConsumers(consumersLimit);
+            }
+        }
+        super.doInitialize();
+    }
+
+    @Override
+    protected boolean doReceiveAndExecute(Object invoker, @Nullable Session session, @Nullable MessageConsumer consumer,
+                                          @Nullable TransactionStatus status) throws JMSException {
+        if (!isBatchEnabled() || session == null || consumer == null || !(getMessageListener() instanceof BatchMessageListener listener)) {
+            return super.doReceiveAndExecute(invoker, session, consumer, status);
+        }
+
+        Message message = receiveMessage(consumer);
+        if (message == null) {
+            noMessageReceived(invoker, session);
+            return false;
+        }
+        messageReceived(invoker, session);
+
+        List<Message> messages = new ArrayList<>(batchSize);
+        messages.add(message);
+        while (messages.size() < batchSize && (message = consumer.receiveNoWait()) != null) {
+            messages.add(message);
+        }
+        logger.debug("Received batch of {} messages from {}", messages.size(), getDestinationDescription());
+
+        long startedAt = System.nanoTime();
+        List<Message> failedMessages;
+        try {
+            failedMessages = listener.onMessages(messages);
+        } catch (RuntimeException e) {
+            handleListenerException(e);
+            for (Message batchMessage : messages) {
+                acknowledge(batchMessage, JmsMessageSupport.MODIFIED_FAILED);
+            }
+            return true;
+        }
+        recordBatch(messages.size(), System.nanoTime() - startedAt);
+
+        Set<Message> rejected = failedMessages == null ? Set.of() : new HashSet<>(failedMessages);
+        for (Message batchMessage : messages) {
+            acknowledge(batchMessage, rejected.contains(batchMessage) ? JmsMessageSupport.REJECTED : JmsMessageSupport.ACCEPTED);
+        }
+        return true;
+    }
+
+    private void acknowledge(Message message, int ackType) throws JMSException {
+        message.setIntProperty(JmsMessageSupport.JMS_AMQP_ACK_TYPE, ackType);
+        message.acknowledge();
+    }
+
+    private void recordBatch(int messages, long processingNanos) {
+        synchronized (statsMonitor) {
+            if (isAdaptationEnabled()) {
+                adaptConsumers(messages, processingNanos);
+            }
+        }
+    }
+
+    private void adaptConsumers(int messages, long processingNanos) {
+        statsMessages += messages;
+        statsBatches++;
+        if (messages >= batchSize) {
+            statsFullBatches++;
+        }
+        statsProcessingNanos += processingNanos;
+
+        long now = System.nanoTime();
+        if (now - statsStartedAt < adjustInterval.toNanos()) {
+            return;
+        }
+
+        long latencyNanos = statsProcessingNanos / statsMessages;
+        boolean backlog = statsFullBatches * 2 >= statsBatches;
+        int limit = consumersLimit;
+        if (latencyNanos > targetLatency.toNanos() || !backlog) {
+            limit = Math.max(minConsumers, limit - 1);
+        } else {
+            limit = Math.min(maxConsumers, limit + 1);
+        }
+        if (limit != consumersLimit) {
+            logger.debug("Adapting consumers of {} from {} to {}: latency {} ms, {}/{} full batches", getDestinationDescription(),
+                    consumersLimit, limit, latencyNanos / 1_000_000, statsFullBatches, statsBatches);
+            consumersLimit = limit;
+            setMaxConcurrentConsumers(limit);
+        }
+
+        statsStartedAt = now;
+        statsMessages = 0;
+        statsBatches = 0;
+        statsFullBatches = 0;
+        statsProcessingNanos = 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.czertainly.core.messaging.jms.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.lang.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Converter that publishes messages encoded in CBOR as {@link BytesMessage}, compressed by gzip when the encoded message
+ * is larger than the compression threshold. Encoding of the message is negotiated by the {@value #CONTENT_TYPE_PROPERTY}
+ * and {@value #CONTENT_ENCODING_PROPERTY} message properties, messages without them are JSON text messages
+ * and are converted by the JSON converter, so that messages published by nodes using JSON are still read.
+ */
+public class BinaryMessageConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE_PROPERTY = "contentType";
+    public static final String CONTENT_ENCODING_PROPERTY = "contentEncoding";
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+    public static final String CONTENT_ENCODING_GZIP = "gzip";
+
+    private final ObjectMapper binaryMapper;
+    private final MessageConverter jsonConverter;
+    private final int compressionThreshold;
+
+    /**
+     * @param objectMapper         mapper configured for messages, its modules and features are used for CBOR encoding
+     * @param jsonConverter        converter of JSON text messages
+     * @param compressionThreshold size in bytes of encoded message above which it is compressed, 0 disables compression
+     */
+    public BinaryMessageConverter(ObjectMapper objectMapper, MessageConverter jsonConverter, int compressionThreshold) {
+        this.binaryMapper = binaryMapper(objectMapper);
+        this.jsonConverter = jsonConverter;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Creates mapper of CBOR encoded messages with the same configuration as the given JSON mapper.
+     */
+    public static ObjectMapper binaryMapper(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(new CBORFactory());
+    }
+
+    /**
+     * @return true when the message is encoded in CBOR
+     */
+    public static boolean isBinaryMessage(Message message) throws JMSException {
+        return message instanceof BytesMessage && CONTENT_TYPE_CBOR.equals(message.getStringProperty(CONTENT_TYPE_PROPERTY));
+    }
+
+    /**
+     * Reads CBOR encoded payload of the message, decompressed when the message is compressed.
+     */
+    public static byte[] readPayload(Message message) throws JMSException, IOException {
+        byte[] payload = message.getBody(byte[].class);
+        if (payload == null) {
+            throw new IllegalArgumentException("Received empty message body");
+        }
+        if (CONTENT_ENCODING_GZIP.equals(message.getStringProperty(CONTENT_ENCODING_PROPERTY))) {
+            try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+                return inputStream.readAllBytes();
+            }
+        }
+        return payload;
+    }
+
+    @Override
+    @NonNull
+    public Message toMessage(@NonNull Object object, @NonNull Session session) throws JMSException, MessageConversionException {
+        try {
+            byte[] payload = binaryMapper.writeValueAsBytes(object);
+            boolean compressed = compressionThreshold > 0 && payload.length > compressionThreshold;
+            if (compressed) {
+                payload = compress(payload);
+            }
+
+            BytesMessage message = session.createBytesMessage();
+            message.writeBytes(payload);
+            message.setStringProperty(CONTENT_TYPE_PROPERTY, CONTENT_TYPE_CBOR);
+            if (compressed) {
+                message.setStringProperty(CONTENT_ENCODING_PROPERTY, CONTENT_ENCODING_GZIP);
+            }
+            return message;
+        } catch (IOException e) {
+            throw new MessageConversionException("Could not encode message of type " + object.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Converts CBOR encoded message to generic structure of maps and lists, since the message carries no type information.
+     * JSON text messages are converted by the JSON converter.
+     */
+    @Override
+    @NonNull
+    public Object fromMessage(@NonNull Message message) throws JMSException, MessageConversionException {
+        if (!isBinaryMessage(message)) {
+            return jsonConverter.fromMessage(message);
+        }
+        try {
+            return binaryMapper.readValue(readPayload(message), Object.class);
+        } catch (IOException e) {
+            throw new MessageConversionException("Could not decode CBOR message", e);
+        }
+    }
+
+    private static byte[] compress(byte[] payload) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(payload.length / 2);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(payload);
+        }
+        return outputStream.toByteArray();
+    }
+}
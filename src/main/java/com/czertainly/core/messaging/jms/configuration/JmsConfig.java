@@ -17,6 +17,7 @@ import org.springframework.jms.annotation.EnableJms;
 import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
 import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
 import org.springframework.jms.support.converter.MappingJackson2MessageConverter;
 import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.jms.support.converter.MessageType;
@@ -29,10 +30,15 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 @EnableJms
 @Configuration
-@EnableConfigurationProperties({MessagingProperties.class, MessagingConcurrencyProperties.class})
+@EnableConfigurationProperties({MessagingProperties.class, MessagingConcurrencyProperties.class, MessagingBatchProperties.class, MessagingCodecProperties.class})
 public class JmsConfig {
     private static final Logger logger = getLogger(JmsConfig.class);
 
+    /**
+     * Name of the template of internal messages, see {@link #internalJmsTemplate}
+     */
+    public static final String INTERNAL_JMS_TEMPLATE = "internalJmsTemplate";
+
     @Bean
     public ConnectionFactory connectionFactory(MessagingProperties props) {
         if (props.brokerType() == MessagingProperties.BrokerType.SERVICEBUS) {
@@ -128,7 +134,13 @@ public class JmsConfig {
             ConnectionFactory connectionFactory,
             MessageConverter messageConverter,
             MessagingProperties messagingProperties) {
-        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+        // batch consumption is configured per endpoint, see AbstractJmsEndpointConfig
+        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory() {
+            @Override
+            protected DefaultMessageListenerContainer createContainerInstance() {
+                return new BatchMessageListenerContainer();
+            }
+        };
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(messageConverter);
         if (messagingProperties.brokerType() == MessagingProperties.BrokerType.SERVICEBUS) {
@@ -168,18 +180,19 @@ public class JmsConfig {
 
     @Bean
     public MessageConverter messageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
-        ObjectMapper objectMapper = objectMapperBuilder.createXmlMapper(false)
-            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-            .build()
-            .findAndRegisterModules();
-
         MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
-        converter.setObjectMapper(objectMapper);
+        converter.setObjectMapper(createMessageObjectMapper(objectMapperBuilder));
         converter.setTargetType(MessageType.TEXT);
-
         return converter;
     }
 
+    private ObjectMapper createMessageObjectMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return objectMapperBuilder.createXmlMapper(false)
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build()
+            .findAndRegisterModules();
+    }
+
     @Bean(destroyMethod = "stop")
     public JmsPoolConnectionFactory producerConnectionFactory(ConnectionFactory connectionFactory,
                                                                MessagingProperties messagingProperties) {
@@ -216,6 +229,12 @@ public class JmsConfig {
     public JmsTemplate jmsTemplate(JmsPoolConnectionFactory producerConnectionFactory,
                                    MessageConverter messageConverter,
                                    MessagingProperties messagingProperties) {
+        return createJmsTemplate(producerConnectionFactory, messageConverter, messagingProperties);
+    }
+
+    private JmsTemplate createJmsTemplate(JmsPoolConnectionFactory producerConnectionFactory,
+                                          MessageConverter messageConverter,
+                                          MessagingProperties messagingProperties) {
         JmsTemplate template = new JmsTemplate(producerConnectionFactory);
         template.setMessageConverter(messageConverter);
         if (messagingProperties.brokerType() == MessagingProperties.BrokerType.SERVICEBUS) {
@@ -223,4 +242,22 @@ public class JmsConfig {
         }
         return template;
     }
+
+    /**
+     * Template of messages published to and consumed by Core only, encoded according to {@link MessagingCodecProperties}.
+     * Messages consumed by other components, e.g. proxy requests, are published by the shared {@link #jmsTemplate} in JSON.
+     */
+    @Bean(name = INTERNAL_JMS_TEMPLATE, defaultCandidate = false)
+    public JmsTemplate internalJmsTemplate(JmsPoolConnectionFactory producerConnectionFactory,
+                                           MessageConverter messageConverter,
+                                           Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                           MessagingCodecProperties codecProperties,
+                                           MessagingProperties messagingProperties) {
+        MessageConverter internalMessageConverter = messageConverter;
+        if (codecProperties.encoding() == MessagingCodecProperties.Encoding.CBOR) {
+            logger.info("Publishing internal JMS messages encoded in CBOR, compression threshold {} bytes", codecProperties.compressionThreshold());
+            internalMessageConverter = new BinaryMessageConverter(createMessageObjectMapper(objectMapperBuilder), messageConverter, codecProperties.compressionThreshold());
+        }
+        return createJmsTemplate(producerConnectionFactory, internalMessageConverter, messagingProperties);
+    }
 }
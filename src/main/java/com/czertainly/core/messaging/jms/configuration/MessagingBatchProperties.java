@@ -0,0 +1,29 @@
+package com.czertainly.core.messaging.jms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Batch consumption of the listeners with bursty traffic.
+ *
+ * @param auditLogs     maximum number of audit log messages received at once, 1 disables batching
+ * @param events        maximum number of event messages received at once, 1 disables batching
+ * @param validation    maximum number of validation messages received at once, 1 disables batching
+ * @param targetLatency processing time of one message above which the concurrency of batch listeners is reduced,
+ *                      zero disables adaptive concurrency
+ */
+@ConfigurationProperties(prefix = "messaging.batch")
+public record MessagingBatchProperties(
+        Integer auditLogs,
+        Integer events,
+        Integer validation,
+        Duration targetLatency
+) {
+    public MessagingBatchProperties {
+        if (auditLogs == null || auditLogs < 1) auditLogs = 1;
+        if (events == null || events < 1) events = 1;
+        if (validation == null || validation < 1) validation = 1;
+        if (targetLatency == null) targetLatency = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,26 @@
+package com.czertainly.core.messaging.jms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Encoding of the messages published for Core. Messages are always read in both encodings, so that binary encoding can be enabled
+ * once all nodes are able to read it. Messages consumed by other components, e.g. proxy requests, are always published in JSON.
+ *
+ * @param encoding             encoding of the messages published for Core
+ * @param compressionThreshold size in bytes of the binary encoded message above which it is compressed, 0 disables compression
+ */
+@ConfigurationProperties(prefix = "messaging.codec")
+public record MessagingCodecProperties(
+        Encoding encoding,
+        Integer compressionThreshold
+) {
+    public MessagingCodecProperties {
+        if (encoding == null) encoding = Encoding.JSON;
+        if (compressionThreshold == null || compressionThreshold < 0) compressionThreshold = 8192;
+    }
+
+    public enum Encoding {
+        JSON,
+        CBOR
+    }
+}
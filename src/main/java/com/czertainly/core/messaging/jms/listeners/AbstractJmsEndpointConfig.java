@@ -1,9 +1,14 @@
 package com.czertainly.core.messaging.jms.listeners;
 
+import com.czertainly.core.messaging.jms.configuration.BatchMessageListener;
+import com.czertainly.core.messaging.jms.configuration.BatchMessageListenerContainer;
+import com.czertainly.core.messaging.jms.configuration.BinaryMessageConverter;
 import com.czertainly.core.messaging.jms.configuration.JmsRetryListener;
 import com.czertainly.core.messaging.jms.configuration.MessagingProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
 import jakarta.jms.TextMessage;
 import org.slf4j.Logger;
 import org.springframework.jms.JmsException;
@@ -15,6 +20,11 @@ import org.springframework.messaging.MessagingException;
 import org.springframework.retry.support.RetryTemplate;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -26,9 +36,11 @@ public abstract class AbstractJmsEndpointConfig<T> {
     protected final RetryTemplate jmsRetryTemplate;
     protected final MessagingProperties messagingProperties;
     private final ObjectMapper objectMapper;
+    private final ObjectMapper binaryMapper;
 
     public AbstractJmsEndpointConfig(ObjectMapper objectMapper, MessageProcessor<T> listenerMessageProcessor, RetryTemplate jmsRetryTemplate, MessagingProperties messagingProperties) {
         this.objectMapper = objectMapper;
+        this.binaryMapper = BinaryMessageConverter.binaryMapper(objectMapper);
         this.listenerMessageProcessor = listenerMessageProcessor;
         this.jmsRetryTemplate = jmsRetryTemplate;
         this.messagingProperties = messagingProperties;
@@ -52,29 +64,54 @@ public abstract class AbstractJmsEndpointConfig<T> {
                                                               String routingKey,
                                                               String concurrency,
                                                               Class<T> messageClass) {
+        return listenerEndpointInternal(endpointId, destination, subscription, routingKey, concurrency, 1, Duration.ZERO, messageClass);
+    }
+
+    /**
+     *
+     * @param endpointId    unique id for the endpoint
+     * @param destination   queue path for RabbitMQ (/queues/name), or Topic name for Azure ServiceBus
+     * @param subscription  subscription name (Azure ServiceBus only; ignored for RabbitMQ)
+     * @param routingKey    routing key used as JMS message selector (Azure ServiceBus only; for RabbitMQ filtering is done by broker binding)
+     * @param concurrency   number of threads
+     * @param batchSize     maximum number of messages received at once, 1 disables batching
+     * @param targetLatency processing time of one message above which the concurrency of batch listener is reduced, zero disables adaptation
+     * @param messageClass  type of message to be processed
+     * @return endpoint to register in Spring context
+     */
+    public SimpleJmsListenerEndpoint listenerEndpointInternal(String endpointId,
+                                                              String destination,
+                                                              String subscription,
+                                                              String routingKey,
+                                                              String concurrency,
+                                                              int batchSize,
+                                                              Duration targetLatency,
+                                                              Class<T> messageClass) {
         logger.debug("Configuring JMS listener endpoint: id={}, destination={}, routingKey={}, broker={}, vhost={}",
             endpointId, destination, routingKey, messagingProperties.brokerType(), messagingProperties.virtualHost());
 
-        SimpleJmsListenerEndpoint endpoint;
-        if (messagingProperties.brokerType() == MessagingProperties.BrokerType.SERVICEBUS) {
-            endpoint = new SimpleJmsListenerEndpoint() {
-                @Override
-                public void setupListenerContainer(@NonNull MessageListenerContainer listenerContainer) {
-                    super.setupListenerContainer(listenerContainer);
-                    if (listenerContainer instanceof DefaultMessageListenerContainer container) {
-                        container.setSubscriptionShared(true);// Shared must be set to allow concurrency
-                        container.setSubscriptionDurable(true);
-                        container.setDurableSubscriptionName(subscription);
-                    }
+        boolean serviceBus = messagingProperties.brokerType() == MessagingProperties.BrokerType.SERVICEBUS;
+        SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint() {
+            @Override
+            public void setupListenerContainer(@NonNull MessageListenerContainer listenerContainer) {
+                super.setupListenerContainer(listenerContainer);
+                if (serviceBus && listenerContainer instanceof DefaultMessageListenerContainer container) {
+                    container.setSubscriptionShared(true);// Shared must be set to allow concurrency
+                    container.setSubscriptionDurable(true);
+                    container.setDurableSubscriptionName(subscription);
+                }
+                if (listenerContainer instanceof BatchMessageListenerContainer container) {
+                    container.setBatchSize(batchSize);
+                    container.setTargetLatency(targetLatency);
                 }
-            };
+            }
+        };
+        if (serviceBus) {
             endpoint.setSubscription(subscription);
 
             if (routingKey != null && !routingKey.isBlank()) {
                 endpoint.setSelector(ROUTING_KEY + " = '" + routingKey + "'");
             }
-        } else {
-            endpoint = new SimpleJmsListenerEndpoint();
         }
 
         endpoint.setId(endpointId);
@@ -82,37 +119,92 @@ public abstract class AbstractJmsEndpointConfig<T> {
         endpoint.setDestination(destination);
         endpoint.setConcurrency(concurrency);
 
-        endpoint.setMessageListener(jmsMessage -> {
-            logger.debug(">>> RECEIVED MESSAGE in endpoint: {}", endpointId);
-            jmsRetryTemplate.execute(context -> {
-                try {
-                    context.setAttribute(JmsRetryListener.ENDPOINT_ID_ATTR, endpointId);
-                    context.setAttribute("messageId", jmsMessage.getJMSMessageID());
-                    context.setAttribute("messageClass", messageClass.getSimpleName());
+        endpoint.setMessageListener(new EndpointMessageListener(endpointId, messageClass));
+
+        return endpoint;
+    }
+
+    private void processMessage(String endpointId, Message jmsMessage, Class<T> messageClass) {
+        logger.debug(">>> RECEIVED MESSAGE in endpoint: {}", endpointId);
+        jmsRetryTemplate.execute(context -> {
+            try {
+                context.setAttribute(JmsRetryListener.ENDPOINT_ID_ATTR, endpointId);
+                context.setAttribute("messageId", jmsMessage.getJMSMessageID());
+                context.setAttribute("messageClass", messageClass.getSimpleName());
+
+                T message = readMessage(jmsMessage, endpointId, messageClass);
+                listenerMessageProcessor.processMessage(message);
+            } catch (JmsException | JMSException | IOException e) {
+                // Retryable - network, broker issues
+                throw new MessagingException("Message processing failed in endpoint: " + endpointId, e);
+            } catch (IllegalArgumentException e) {
+                // Non-retryable - bad message format, validation
+                logger.error("Invalid message in endpoint '{}', will not retry: {}", endpointId, e.getMessage());
+                throw e; // Don't wrap, don't retry
+            } catch (Exception e) {
+                logger.error("Unexpected error in endpoint '{}'", endpointId, e);
+            }
+
+            return null;
+        });
+    }
 
-                    String json = extractMessageText(jmsMessage, endpointId);
-                    logger.debug("Message JSON in endpoint {}: {}", endpointId, json);
-                    T message = objectMapper.readValue(json, messageClass);
-                    listenerMessageProcessor.processMessage(message);
-                } catch (JmsException | JMSException | IOException e) {
-                    // Retryable - network, broker issues
-                    throw new MessagingException("Message processing failed in endpoint: " + endpointId, e);
-                } catch (IllegalArgumentException e) {
-                    // Non-retryable - bad message format, validation
+    /**
+     * Processes batch of messages, at once when the processor supports batches. Messages of failed batch
+     * are processed one by one, so that only the failing messages are rejected.
+     *
+     * @return messages that failed to be processed
+     */
+    private List<Message> processMessages(String endpointId, List<Message> jmsMessages, Class<T> messageClass) {
+        logger.debug(">>> RECEIVED BATCH of {} messages in endpoint: {}", jmsMessages.size(), endpointId);
+        List<Message> failedMessages = new ArrayList<>();
+        List<Message> remainingMessages = jmsMessages;
+        if (jmsMessages.size() > 1 && listenerMessageProcessor instanceof BatchMessageProcessor<T> batchMessageProcessor) {
+            Map<Message, T> messages = new LinkedHashMap<>();
+            for (Message jmsMessage : jmsMessages) {
+                try {
+                    messages.put(jmsMessage, readMessage(jmsMessage, endpointId, messageClass));
+                } catch (JMSException | IOException | IllegalArgumentException e) {
                     logger.error("Invalid message in endpoint '{}', will not retry: {}", endpointId, e.getMessage());
-                    throw e; // Don't wrap, don't retry
-                } catch (Exception e) {
-                    logger.error("Unexpected error in endpoint '{}'", endpointId, e);
+                    failedMessages.add(jmsMessage);
                 }
+            }
 
-                return null;
-            });
-        });
+            try {
+                jmsRetryTemplate.execute(context -> {
+                    context.setAttribute(JmsRetryListener.ENDPOINT_ID_ATTR, endpointId);
+                    context.setAttribute("messageClass", messageClass.getSimpleName());
+                    batchMessageProcessor.processMessages(new ArrayList<>(messages.values()));
+                    return null;
+                });
+                return failedMessages;
+            } catch (Exception e) {
+                logger.warn("Processing of batch of {} messages failed in endpoint '{}', processing messages one by one: {}", messages.size(), endpointId, e.getMessage());
+                remainingMessages = new ArrayList<>(messages.keySet());
+            }
+        }
 
-        return endpoint;
+        for (Message jmsMessage : remainingMessages) {
+            try {
+                processMessage(endpointId, jmsMessage, messageClass);
+            } catch (RuntimeException e) {
+                failedMessages.add(jmsMessage);
+            }
+        }
+        return failedMessages;
     }
 
-    private String extractMessageText(jakarta.jms.Message jmsMessage, String endpointId) throws JMSException {
+    private T readMessage(Message jmsMessage, String endpointId, Class<T> messageClass) throws JMSException, IOException {
+        if (BinaryMessageConverter.isBinaryMessage(jmsMessage)) {
+            logger.debug("Message in endpoint {} encoded in CBOR", endpointId);
+            return binaryMapper.readValue(BinaryMessageConverter.readPayload(jmsMessage), messageClass);
+        }
+        String json = extractMessageText(jmsMessage, endpointId);
+        logger.debug("Message JSON in endpoint {}: {}", endpointId, json);
+        return objectMapper.readValue(json, messageClass);
+    }
+
+    private String extractMessageText(Message jmsMessage, String endpointId) throws JMSException {
         if (!(jmsMessage instanceof TextMessage textMessage)) {
             throw new IllegalArgumentException("Expected TextMessage in endpoint '" + endpointId +
                 "' but got: " + (jmsMessage != null ? jmsMessage.getClass().getName() : "null"));
@@ -123,4 +215,25 @@ public abstract class AbstractJmsEndpointConfig<T> {
         }
         return text;
     }
+
+    private class EndpointMessageListener implements MessageListener, BatchMessageListener {
+
+        private final String endpointId;
+        private final Class<T> messageClass;
+
+        private EndpointMessageListener(String endpointId, Class<T> messageClass) {
+            this.endpointId = endpointId;
+            this.messageClass = messageClass;
+        }
+
+        @Override
+        public void onMessage(Message message) {
+            processMessage(endpointId, message, messageClass);
+        }
+
+        @Override
+        public List<Message> onMessages(List<Message> messages) {
+            return processMessages(endpointId, messages, messageClass);
+        }
+    }
 }
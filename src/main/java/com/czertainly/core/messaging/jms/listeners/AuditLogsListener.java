@@ -9,10 +9,12 @@ import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Component
 @Transactional
 @AllArgsConstructor
-public class AuditLogsListener implements MessageProcessor<AuditLogMessage> {
+public class AuditLogsListener implements BatchMessageProcessor<AuditLogMessage> {
 
     private final AuditLogService auditLogService;
     private final AuditLogEnhancer auditLogEnhancer;
@@ -37,5 +39,11 @@ public class AuditLogsListener implements MessageProcessor<AuditLogMessage> {
         auditLogService.log(builder.build(), auditLogMessage.getAuditLogOutput());
     }
 
+    @Override
+    public void processMessages(final List<AuditLogMessage> auditLogMessages) {
+        // all audit logs of the batch are stored in the single transaction
+        auditLogMessages.forEach(this::processMessage);
+    }
+
 }
 
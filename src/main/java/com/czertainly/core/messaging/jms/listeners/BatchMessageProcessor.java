@@ -0,0 +1,17 @@
+package com.czertainly.core.messaging.jms.listeners;
+
+import com.czertainly.api.exception.MessageHandlingException;
+
+import java.util.List;
+
+/**
+ * {@link MessageProcessor} that is able to process a batch of messages received at once.
+ * The batch must be processed atomically, e.g. in a single transaction, since messages of a failed batch
+ * are processed again one by one by {@link MessageProcessor#processMessage(Object)}.
+ *
+ * @param <T> the type of message to be processed
+ */
+public interface BatchMessageProcessor<T> extends MessageProcessor<T> {
+
+    void processMessages(List<T> messages) throws MessageHandlingException;
+}
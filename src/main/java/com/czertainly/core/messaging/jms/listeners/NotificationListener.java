@@ -23,16 +23,19 @@ import com.czertainly.core.dao.repository.GroupRepository;
 import com.czertainly.core.dao.repository.notifications.NotificationInstanceReferenceRepository;
 import com.czertainly.core.dao.repository.notifications.NotificationProfileVersionRepository;
 import com.czertainly.core.dao.repository.notifications.PendingNotificationRepository;
+import com.czertainly.core.events.transaction.NotificationDigestEvent;
+import com.czertainly.core.messaging.jms.listeners.notification.NotificationDigestData;
+import com.czertainly.core.messaging.jms.listeners.notification.NotificationDigestDispatcher;
 import com.czertainly.core.messaging.model.NotificationMessage;
 import com.czertainly.core.messaging.model.NotificationRecipient;
-import com.czertainly.core.security.authn.client.RoleManagementApiClient;
-import com.czertainly.core.security.authn.client.UserManagementApiClient;
+import com.czertainly.core.security.authn.client.UserDirectoryCache;
 import com.czertainly.core.service.NotificationService;
 import com.czertainly.core.service.ResourceObjectAssociationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -58,9 +61,10 @@ public class NotificationListener implements MessageProcessor<NotificationMessag
     private NotificationInstanceReferenceRepository notificationInstanceReferenceRepository;
 
     private GroupRepository groupRepository;
-    private UserManagementApiClient userManagementApiClient;
-    private RoleManagementApiClient roleManagementApiClient;
+    private UserDirectoryCache userDirectoryCache;
     private ResourceObjectAssociationService resourceObjectAssociationService;
+    private NotificationDigestDispatcher notificationDigestDispatcher;
+    private ApplicationEventPublisher applicationEventPublisher;
 
     private static final Map<ResourceEvent, String> eventToLegacyNotificationTypeMapping = new EnumMap<>(ResourceEvent.class);
 
@@ -122,7 +126,18 @@ public class NotificationListener implements MessageProcessor<NotificationMessag
 
         // send external notification
         boolean notificationSent = false;
-        if (notificationProfileVersion.getNotificationInstanceRefUuid() != null) {
+        if (notificationProfileVersion.getNotificationInstanceRefUuid() != null && notificationDigestDispatcher.isEnabled()) {
+            // notification is sent to each recipient in the digest of notifications of the profile, it is added to digest after the message is processed
+            UUID notificationInstanceUUID = notificationProfileVersion.getNotificationInstanceRefUuid();
+            logger.debug("Adding notification message to digests. Notification instance UUID: {}", notificationInstanceUUID);
+            if (recipients.isEmpty()) {
+                applicationEventPublisher.publishEvent(new NotificationDigestEvent(new NotificationDigestDispatcher.DigestKey(notificationInstanceUUID, notificationProfileUuid, message.getEvent(), message.getResource(), null, null), message.getData()));
+            }
+            for (NotificationRecipient recipient : recipients) {
+                applicationEventPublisher.publishEvent(new NotificationDigestEvent(new NotificationDigestDispatcher.DigestKey(notificationInstanceUUID, notificationProfileUuid, message.getEvent(), message.getResource(), recipient.getRecipientType(), recipient.getRecipientUuid()), message.getData()));
+            }
+            notificationSent = true;
+        } else if (notificationProfileVersion.getNotificationInstanceRefUuid() != null) {
             UUID notificationInstanceUUID = notificationProfileVersion.getNotificationInstanceRefUuid();
             logger.debug("Sending notification message externally. Notification instance UUID: {}", notificationInstanceUUID);
             try {
@@ -154,6 +169,29 @@ public class NotificationListener implements MessageProcessor<NotificationMessag
         }
     }
 
+    /**
+     * Sends the digest of notifications coalesced by {@link NotificationDigestDispatcher} in one call to the notification provider.
+     * Digest of a single notification is sent with the notification data as is, otherwise the notification data is {@link NotificationDigestData}
+     * with the data of all notifications in the digest.
+     *
+     * @param key               key of the digest
+     * @param notificationsData data of the notifications in the digest
+     */
+    public void sendNotificationDigest(NotificationDigestDispatcher.DigestKey key, List<Object> notificationsData) {
+        Object notificationData = notificationsData.size() == 1 ? notificationsData.getFirst() : new NotificationDigestData(notificationsData);
+        List<NotificationRecipient> recipients = key.recipientType() == null ? List.of() : List.of(new NotificationRecipient(key.recipientType(), key.recipientUuid()));
+        try {
+            sendExternalNotifications(key.notificationInstanceUuid(), recipients, notificationData, key.event(), key.resource());
+            logger.debug("Sending digest of {} notifications externally successful.", notificationsData.size());
+        } catch (ConnectorEntityNotFoundException e) {
+            logger.warn("Notification instance {} configured for notification profile {} in event {} was not found.", key.notificationInstanceUuid(), key.notificationProfileUuid(), key.event());
+        } catch (ValidationException e) {
+            logger.warn("Validation error in sending digest to connector of notification instance {} configured for notification profile {} in event {}: {}", key.notificationInstanceUuid(), key.notificationProfileUuid(), key.event(), e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error in external digest notification with notification instance {} configured for notification profile {} in event {}: {}", key.notificationInstanceUuid(), key.notificationProfileUuid(), key.event(), e.toString());
+        }
+    }
+
     private static PendingNotification getNewPendingNotification(NotificationMessage message, NotificationProfileVersion notificationProfileVersion, PendingNotification pendingNotification) {
         if (message.getEvent().isMonitoring() && (notificationProfileVersion.getFrequency() != null || notificationProfileVersion.getRepetitions() != null)) {
             pendingNotification = new PendingNotification();
@@ -251,6 +289,17 @@ public class NotificationListener implements MessageProcessor<NotificationMessag
             throw e;
         }
 
+        // custom attributes of the recipients are loaded at once for each type of recipients
+        Map<Resource, Set<UUID>> recipientUuidsByResource = new EnumMap<>(Resource.class);
+        for (NotificationRecipient recipient : recipients) {
+            Resource recipientResource = recipient.getRecipientType() != null ? recipient.getRecipientType().getRecipientResource() : null;
+            if (recipientResource != null) {
+                recipientUuidsByResource.computeIfAbsent(recipientResource, k -> new HashSet<>()).add(recipient.getRecipientUuid());
+            }
+        }
+        Map<Resource, Map<UUID, List<ResponseAttribute>>> recipientsCustomAttributes = new EnumMap<>(Resource.class);
+        recipientUuidsByResource.forEach((recipientResource, recipientUuids) -> recipientsCustomAttributes.put(recipientResource, attributeEngine.getObjectsCustomAttributesContent(recipientResource, recipientUuids)));
+
         List<NotificationRecipientDto> recipientsDto = new ArrayList<>();
         for (NotificationRecipient recipient : recipients) {
             logger.debug("Processing recipient {} of type {}.", recipient.getRecipientUuid(), recipient.getRecipientType());
@@ -262,7 +311,7 @@ public class NotificationListener implements MessageProcessor<NotificationMessag
                     continue;
                 }
 
-                List<ResponseAttribute> recipientCustomAttributes = attributeEngine.getObjectCustomAttributesContent(recipient.getRecipientType().getRecipientResource(), recipient.getRecipientUuid());
+                List<ResponseAttribute> recipientCustomAttributes = recipientsCustomAttributes.getOrDefault(recipient.getRecipientType().getRecipientResource(), Map.of()).getOrDefault(recipient.getRecipientUuid(), List.of());
 
                 // prepare mapped attributes
                 recipientDto.setMappedAttributes(getMappedAttributes(notificationInstanceReference, mappingAttributes, recipientCustomAttributes));
@@ -292,13 +341,13 @@ public class NotificationListener implements MessageProcessor<NotificationMessag
         NotificationRecipientDto recipientDto;
         switch (recipient.getRecipientType()) {
             case USER -> {
-                UserDetailDto userDetailDto = userManagementApiClient.getUserDetail(recipient.getRecipientUuid().toString());
+                UserDetailDto userDetailDto = userDirectoryCache.getUserDetail(recipient.getRecipientUuid().toString());
                 recipientDto = new NotificationRecipientDto();
                 recipientDto.setEmail(userDetailDto.getEmail());
                 recipientDto.setName(userDetailDto.getUsername());
             }
             case ROLE -> {
-                RoleDetailDto roleDetailDto = roleManagementApiClient.getRoleDetail(recipient.getRecipientUuid().toString());
+                RoleDetailDto roleDetailDto = userDirectoryCache.getRoleDetail(recipient.getRecipientUuid().toString());
                 String email = roleDetailDto.getEmail();
                 if (notificationProviderKind.equals(EMAIL_NOTIFICATION_PROVIDER_KIND)
                         && (email == null || email.isBlank())) {
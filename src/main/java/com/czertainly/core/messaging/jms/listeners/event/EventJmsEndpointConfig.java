@@ -1,5 +1,6 @@
 package com.czertainly.core.messaging.jms.listeners.event;
 
+import com.czertainly.core.messaging.jms.configuration.MessagingBatchProperties;
 import com.czertainly.core.messaging.jms.configuration.MessagingConcurrencyProperties;
 import com.czertainly.core.messaging.jms.configuration.MessagingProperties;
 import com.czertainly.core.messaging.jms.listeners.AbstractJmsEndpointConfig;
@@ -17,15 +18,18 @@ import org.springframework.stereotype.Component;
 public class EventJmsEndpointConfig extends AbstractJmsEndpointConfig<EventMessage> {
 
     private final MessagingConcurrencyProperties messagingConcurrencyProperties;
+    private final MessagingBatchProperties messagingBatchProperties;
 
     public EventJmsEndpointConfig(
         ObjectMapper objectMapper,
         MessageProcessor<EventMessage> listenerMessageProcessor,
         RetryTemplate jmsRetryTemplate,
         MessagingProperties messagingProperties,
-        MessagingConcurrencyProperties messagingConcurrencyProperties) {
+        MessagingConcurrencyProperties messagingConcurrencyProperties,
+        MessagingBatchProperties messagingBatchProperties) {
         super(objectMapper, listenerMessageProcessor, jmsRetryTemplate, messagingProperties);
         this.messagingConcurrencyProperties = messagingConcurrencyProperties;
+        this.messagingBatchProperties = messagingBatchProperties;
     }
 
     @Override
@@ -36,6 +40,8 @@ public class EventJmsEndpointConfig extends AbstractJmsEndpointConfig<EventMessa
             messagingProperties.queue().event(),
             messagingProperties.routingKey().event(),
             messagingConcurrencyProperties.events(),
+            messagingBatchProperties.events(),
+            messagingBatchProperties.targetLatency(),
             EventMessage.class
         );
     }
@@ -0,0 +1,18 @@
+package com.czertainly.core.messaging.jms.listeners.notification;
+
+import java.util.List;
+
+/**
+ * Notification data of the digest of more notifications sent to the notification provider, so that the provider
+ * can distinguish the digest from the data of a single notification.
+ *
+ * @param digest        always true, marks the notification data as a digest
+ * @param count         number of notifications in the digest
+ * @param notifications data of the notifications in the digest
+ */
+public record NotificationDigestData(boolean digest, int count, List<Object> notifications) {
+
+    public NotificationDigestData(List<Object> notifications) {
+        this(true, notifications.size(), notifications);
+    }
+}
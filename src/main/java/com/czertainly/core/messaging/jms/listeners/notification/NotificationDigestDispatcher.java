@@ -0,0 +1,157 @@
+package com.czertainly.core.messaging.jms.listeners.notification;
+
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.api.model.core.notification.RecipientType;
+import com.czertainly.api.model.core.other.ResourceEvent;
+import com.czertainly.core.events.transaction.NotificationDigestEvent;
+import com.czertainly.core.messaging.jms.listeners.NotificationListener;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Coalesces external notifications of the same notification profile, event and recipient within the digest window,
+ * so that a burst of notifications (e.g. expiring certificates or bulk revocation) is sent to the notification provider
+ * as one digest per recipient instead of one connector call per notification. The digest is sent when the window elapses
+ * or when it reaches its maximum size. Notifications are added to digests only after the transaction processing the notification
+ * message is committed. Pending digests are kept only in memory of the node and are sent on shutdown, so up to one window
+ * of notifications is lost when the node crashes.
+ */
+@Component
+public class NotificationDigestDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDigestDispatcher.class);
+
+    private final Duration window;
+    private final int maxSize;
+
+    private final Map<DigestKey, Digest> digests = new HashMap<>();
+
+    private TaskScheduler taskScheduler;
+    private NotificationListener notificationListener;
+
+    /**
+     * @param window  time window in which the notifications are coalesced, digests are disabled when it is zero
+     * @param maxSize maximum number of notifications in one digest
+     */
+    public NotificationDigestDispatcher(@Value("${notifications.digest.window:0s}") Duration window,
+                                        @Value("${notifications.digest.max-size:100}") int maxSize) {
+        this.window = window;
+        this.maxSize = Math.max(maxSize, 1);
+    }
+
+    @Autowired
+    public void setTaskScheduler(TaskScheduler taskScheduler) {
+        this.taskScheduler = taskScheduler;
+    }
+
+    @Lazy
+    @Autowired
+    public void setNotificationListener(NotificationListener notificationListener) {
+        this.notificationListener = notificationListener;
+    }
+
+    /**
+     * Key of the digest
+     *
+     * @param notificationInstanceUuid UUID of the notification instance the digest is sent by
+     * @param notificationProfileUuid  UUID of the notification profile
+     * @param event                    event of the notifications
+     * @param resource                 resource of the notifications
+     * @param recipientType            type of the recipient, null when notifications have no recipients
+     * @param recipientUuid            UUID of the recipient, null when notifications have no recipients
+     */
+    public record DigestKey(UUID notificationInstanceUuid, UUID notificationProfileUuid, ResourceEvent event, Resource resource,
+                            RecipientType recipientType, UUID recipientUuid) {
+    }
+
+    public boolean isEnabled() {
+        return window.isPositive();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleNotificationDigestEvent(NotificationDigestEvent event) {
+        add(event.key(), event.notificationData());
+    }
+
+    /**
+     * Adds the notification data to the digest, the digest is sent immediately when it reaches its maximum size.
+     *
+     * @param key              key of the digest
+     * @param notificationData data of the notification
+     */
+    public void add(DigestKey key, Object notificationData) {
+        List<Object> fullDigest = null;
+        synchronized (digests) {
+            Digest digest = digests.get(key);
+            if (digest == null) {
+                digest = new Digest(taskScheduler.schedule(() -> flush(key), Instant.now().plus(window)));
+                digests.put(key, digest);
+            }
+            digest.notificationsData().add(notificationData);
+            if (digest.notificationsData().size() >= maxSize) {
+                digests.remove(key);
+                digest.scheduledFlush().cancel(false);
+                fullDigest = digest.notificationsData();
+            }
+        }
+
+        if (fullDigest != null) {
+            send(key, fullDigest);
+        }
+    }
+
+    /**
+     * Sends all pending digests.
+     */
+    @PreDestroy
+    public void flushAll() {
+        List<DigestKey> keys;
+        synchronized (digests) {
+            keys = new ArrayList<>(digests.keySet());
+        }
+        keys.forEach(this::flush);
+    }
+
+    private void flush(DigestKey key) {
+        Digest digest;
+        synchronized (digests) {
+            digest = digests.remove(key);
+        }
+        if (digest != null) {
+            digest.scheduledFlush().cancel(false);
+            send(key, digest.notificationsData());
+        }
+    }
+
+    private void send(DigestKey key, List<Object> notificationsData) {
+        logger.debug("Sending digest of {} notifications of event {} to {} {} by notification profile {}", notificationsData.size(), key.event(), key.recipientType(), key.recipientUuid(), key.notificationProfileUuid());
+        try {
+            notificationListener.sendNotificationDigest(key, notificationsData);
+        } catch (Exception e) {
+            logger.error("Error in sending digest of {} notifications of event {} by notification profile {}: {}", notificationsData.size(), key.event(), key.notificationProfileUuid(), e.getMessage());
+        }
+    }
+
+    private record Digest(ScheduledFuture<?> scheduledFlush, List<Object> notificationsData) {
+        private Digest(ScheduledFuture<?> scheduledFlush) {
+            this(scheduledFlush, new ArrayList<>());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.czertainly.core.messaging.jms.listeners.validation;
 
+import com.czertainly.core.messaging.jms.configuration.MessagingBatchProperties;
 import com.czertainly.core.messaging.jms.configuration.MessagingConcurrencyProperties;
 import com.czertainly.core.messaging.jms.configuration.MessagingProperties;
 import com.czertainly.core.messaging.jms.listeners.AbstractJmsEndpointConfig;
@@ -16,15 +17,18 @@ import org.springframework.stereotype.Component;
 public class ValidationJmsEndpointConfig extends AbstractJmsEndpointConfig<ValidationMessage> {
 
     private final MessagingConcurrencyProperties messagingConcurrencyProperties;
+    private final MessagingBatchProperties messagingBatchProperties;
 
     public ValidationJmsEndpointConfig(
         ObjectMapper objectMapper,
         MessageProcessor<ValidationMessage> listenerMessageProcessor,
         RetryTemplate jmsRetryTemplate,
         MessagingProperties messagingProperties,
-        MessagingConcurrencyProperties messagingConcurrencyProperties) {
+        MessagingConcurrencyProperties messagingConcurrencyProperties,
+        MessagingBatchProperties messagingBatchProperties) {
         super(objectMapper, listenerMessageProcessor, jmsRetryTemplate, messagingProperties);
         this.messagingConcurrencyProperties = messagingConcurrencyProperties;
+        this.messagingBatchProperties = messagingBatchProperties;
     }
 
     @Override
@@ -35,6 +39,8 @@ public class ValidationJmsEndpointConfig extends AbstractJmsEndpointConfig<Valid
             messagingProperties.queue().validation(),
             messagingProperties.routingKey().validation(),
             messagingConcurrencyProperties.validation(),
+            messagingBatchProperties.validation(),
+            messagingBatchProperties.targetLatency(),
             ValidationMessage.class
         );
     }
@@ -1,21 +1,34 @@
 package com.czertainly.core.messaging.jms.producers;
 
+import com.czertainly.core.messaging.jms.configuration.JmsConfig;
 import com.czertainly.core.messaging.jms.configuration.MessagingProperties;
 import com.czertainly.core.messaging.model.ActionMessage;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.lang.NonNull;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Objects;
 
 @Component
-@AllArgsConstructor
 public class ActionProducer {
     private final JmsTemplate jmsTemplate;
     private final MessagingProperties messagingProperties;
     private final RetryTemplate producerRetryTemplate;
+    private final JmsBatchPublisher jmsBatchPublisher;
+
+    public ActionProducer(
+            @Qualifier(JmsConfig.INTERNAL_JMS_TEMPLATE) JmsTemplate jmsTemplate,
+            MessagingProperties messagingProperties,
+            RetryTemplate producerRetryTemplate,
+            JmsBatchPublisher jmsBatchPublisher) {
+        this.jmsTemplate = jmsTemplate;
+        this.messagingProperties = messagingProperties;
+        this.producerRetryTemplate = producerRetryTemplate;
+        this.jmsBatchPublisher = jmsBatchPublisher;
+    }
 
     public void produceMessage(@NonNull final ActionMessage actionMessage) {
         Objects.requireNonNull(actionMessage, "Action message cannot be null");
@@ -31,4 +44,9 @@ public class ActionProducer {
             return null;
         });
     }
+
+    public void produceMessages(@NonNull final List<ActionMessage> actionMessages) {
+        Objects.requireNonNull(actionMessages, "Action messages cannot be null");
+        jmsBatchPublisher.publish(messagingProperties.produceDestinationActions(), messagingProperties.routingKey().actions(), actionMessages);
+    }
 }
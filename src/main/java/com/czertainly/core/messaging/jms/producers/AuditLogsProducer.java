@@ -1,8 +1,9 @@
 package com.czertainly.core.messaging.jms.producers;
 
+import com.czertainly.core.messaging.jms.configuration.JmsConfig;
 import com.czertainly.core.messaging.jms.configuration.MessagingProperties;
 import com.czertainly.core.messaging.model.AuditLogMessage;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.lang.NonNull;
 import org.springframework.retry.support.RetryTemplate;
@@ -11,12 +12,20 @@ import org.springframework.stereotype.Component;
 import java.util.Objects;
 
 @Component
-@AllArgsConstructor
 public class AuditLogsProducer {
     private final JmsTemplate jmsTemplate;
     private final MessagingProperties messagingProperties;
     private final RetryTemplate producerRetryTemplate;
 
+    public AuditLogsProducer(
+            @Qualifier(JmsConfig.INTERNAL_JMS_TEMPLATE) JmsTemplate jmsTemplate,
+            MessagingProperties messagingProperties,
+            RetryTemplate producerRetryTemplate) {
+        this.jmsTemplate = jmsTemplate;
+        this.messagingProperties = messagingProperties;
+        this.producerRetryTemplate = producerRetryTemplate;
+    }
+
     public void produceMessage(@NonNull final AuditLogMessage auditLogMessage) {
         Objects.requireNonNull(auditLogMessage, "Audit log message cannot be null");
 
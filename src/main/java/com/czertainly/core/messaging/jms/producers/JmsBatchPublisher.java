@@ -0,0 +1,196 @@
+package com.czertainly.core.messaging.jms.producers;
+
+import com.czertainly.core.messaging.jms.configuration.JmsConfig;
+import com.czertainly.core.messaging.jms.configuration.MessagingProperties;
+import jakarta.jms.CompletionListener;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes lists of messages over a single pooled connection and session instead of one round-trip per message.
+ * <p>
+ * On ServiceBus, each chunk of messages is sent in a transacted session and committed at once, so the chunk is either
+ * published as a whole or retried as a whole. RabbitMQ does not support transactions over AMQP 1.0, so the messages are
+ * sent asynchronously one after another without waiting for each settlement, and only the messages not confirmed by the broker
+ * are retried.
+ */
+@Component
+public class JmsBatchPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(JmsBatchPublisher.class);
+
+    /**
+     * Maximum number of messages sent in one transaction, ServiceBus limits the number of operations per transaction to 100
+     */
+    static final int MAX_BATCH_SIZE = 100;
+
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(30);
+
+    private final JmsTemplate jmsTemplate;
+    private final MessagingProperties messagingProperties;
+    private final RetryTemplate producerRetryTemplate;
+
+    public JmsBatchPublisher(
+            @Qualifier(JmsConfig.INTERNAL_JMS_TEMPLATE) JmsTemplate jmsTemplate,
+            MessagingProperties messagingProperties,
+            RetryTemplate producerRetryTemplate) {
+        this.jmsTemplate = jmsTemplate;
+        this.messagingProperties = messagingProperties;
+        this.producerRetryTemplate = producerRetryTemplate;
+    }
+
+    /**
+     * Converts payloads to messages and publishes them to the destination.
+     *
+     * @param destinationName name of the destination the messages are published to
+     * @param routingKey      routing key set as JMS type of the messages
+     * @param payloads        payloads of the messages
+     */
+    public void publish(String destinationName, String routingKey, List<?> payloads) {
+        for (int from = 0; from < payloads.size(); from += MAX_BATCH_SIZE) {
+            List<Object> pending = new ArrayList<>(payloads.subList(from, Math.min(from + MAX_BATCH_SIZE, payloads.size())));
+            producerRetryTemplate.execute(context -> {
+                try {
+                    sendBatch(destinationName, routingKey, pending);
+                } catch (JMSException e) {
+                    throw JmsUtils.convertJmsAccessException(e);
+                }
+                return null;
+            });
+        }
+        logger.debug("Published {} messages to {}", payloads.size(), destinationName);
+    }
+
+    /**
+     * Sends pending payloads, successfully sent payloads are removed from the list.
+     */
+    private void sendBatch(String destinationName, String routingKey, List<Object> pending) throws JMSException {
+        boolean transacted = messagingProperties.brokerType() == MessagingProperties.BrokerType.SERVICEBUS;
+        ConnectionFactory connectionFactory = Objects.requireNonNull(jmsTemplate.getConnectionFactory(), "JMS connection factory is not configured");
+        try (Connection connection = connectionFactory.createConnection();
+             Session session = transacted ? connection.createSession(true, Session.SESSION_TRANSACTED) : connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+             MessageProducer producer = session.createProducer(resolveDestination(session, destinationName))) {
+            if (transacted) {
+                sendTransacted(session, producer, routingKey, pending);
+            } else {
+                sendPipelined(session, producer, routingKey, pending);
+            }
+        }
+    }
+
+    private void sendTransacted(Session session, MessageProducer producer, String routingKey, List<Object> pending) throws JMSException {
+        try {
+            for (Object payload : pending) {
+                producer.send(toMessage(session, payload, routingKey));
+            }
+            session.commit();
+        } catch (JMSException | RuntimeException e) {
+            rollback(session);
+            throw e;
+        }
+        pending.clear();
+    }
+
+    private void sendPipelined(Session session, MessageProducer producer, String routingKey, List<Object> pending) throws JMSException {
+        Set<Integer> confirmed = ConcurrentHashMap.newKeySet();
+        AtomicReference<Exception> sendError = new AtomicReference<>();
+        CountDownLatch completions = new CountDownLatch(pending.size());
+
+        for (int i = 0; i < pending.size(); i++) {
+            if (sendError.get() != null) {
+                completions.countDown();
+                continue;
+            }
+            int index = i;
+            try {
+                producer.send(toMessage(session, pending.get(i), routingKey), new CompletionListener() {
+                    @Override
+                    public void onCompletion(Message message) {
+                        confirmed.add(index);
+                        completions.countDown();
+                    }
+
+                    @Override
+                    public void onException(Message message, Exception exception) {
+                        sendError.compareAndSet(null, exception);
+                        completions.countDown();
+                    }
+                });
+            } catch (JMSException | RuntimeException e) {
+                sendError.compareAndSet(null, e);
+                completions.countDown();
+            }
+        }
+
+        try {
+            if (!completions.await(SEND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                sendError.compareAndSet(null, new JMSException("Timed out waiting for the broker to confirm sent messages"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError.compareAndSet(null, e);
+        }
+
+        List<Object> unconfirmed = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            if (!confirmed.contains(i)) {
+                unconfirmed.add(pending.get(i));
+            }
+        }
+        pending.clear();
+        pending.addAll(unconfirmed);
+
+        if (!unconfirmed.isEmpty()) {
+            Exception error = sendError.get();
+            if (error instanceof JMSException jmsException) {
+                throw jmsException;
+            }
+            if (error instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            JMSException jmsException = new JMSException("Failed to send " + unconfirmed.size() + " messages");
+            jmsException.setLinkedException(error);
+            throw jmsException;
+        }
+    }
+
+    private Destination resolveDestination(Session session, String destinationName) throws JMSException {
+        return jmsTemplate.getDestinationResolver().resolveDestinationName(session, destinationName, jmsTemplate.isPubSubDomain());
+    }
+
+    private Message toMessage(Session session, Object payload, String routingKey) throws JMSException {
+        Message message = Objects.requireNonNull(jmsTemplate.getMessageConverter(), "JMS message converter is not configured").toMessage(payload, session);
+        message.setJMSType(routingKey);
+        return message;
+    }
+
+    private static void rollback(Session session) {
+        try {
+            session.rollback();
+        } catch (JMSException | RuntimeException e) {
+            logger.warn("Failed to roll back transaction of JMS batch: {}", e.getMessage());
+        }
+    }
+}
@@ -2,12 +2,13 @@ package com.czertainly.core.messaging.jms.producers;
 
 import com.czertainly.api.model.common.events.data.InternalNotificationEventData;
 import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.messaging.jms.configuration.JmsConfig;
 import com.czertainly.core.messaging.jms.configuration.MessagingProperties;
 import com.czertainly.core.messaging.model.NotificationMessage;
 import com.czertainly.core.messaging.model.NotificationRecipient;
-import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.lang.NonNull;
 import org.springframework.retry.support.RetryTemplate;
@@ -18,7 +19,6 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Component
-@AllArgsConstructor
 public class NotificationProducer {
     private static final Logger logger = LoggerFactory.getLogger(NotificationProducer.class);
 
@@ -26,6 +26,15 @@ public class NotificationProducer {
     private final MessagingProperties messagingProperties;
     private final RetryTemplate producerRetryTemplate;
 
+    public NotificationProducer(
+            @Qualifier(JmsConfig.INTERNAL_JMS_TEMPLATE) JmsTemplate jmsTemplate,
+            MessagingProperties messagingProperties,
+            RetryTemplate producerRetryTemplate) {
+        this.jmsTemplate = jmsTemplate;
+        this.messagingProperties = messagingProperties;
+        this.producerRetryTemplate = producerRetryTemplate;
+    }
+
     private void sendMessage(final NotificationMessage notificationMessage) {
         producerRetryTemplate.execute(context -> {
             jmsTemplate.convertAndSend(
@@ -15,12 +15,16 @@ import com.czertainly.core.dao.entity.ComplianceSubject;
 import com.czertainly.core.events.handlers.CertificateNotCompliantEventHandler;
 import com.czertainly.core.messaging.jms.producers.EventProducer;
 import com.czertainly.core.service.handler.ComplianceProfileRuleHandler;
+import com.czertainly.core.service.ComplianceCheckProperties;
 import com.czertainly.core.service.handler.ComplianceSubjectHandler;
+import com.pivovarit.collectors.ParallelCollectors;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Getter
 public class ComplianceCheckContext {
@@ -39,22 +43,31 @@ public class ComplianceCheckContext {
     private final Map<String, ComplianceCheckProviderContext> providersContextMap = new HashMap<>();
 
     private final EventProducer eventProducer;
+    private final ComplianceCheckProperties checkProperties;
 
-    public ComplianceCheckContext(Resource resource, IPlatformEnum typeEnum, ComplianceProfileRuleHandler ruleHandler, Map<Resource, ComplianceSubjectHandler<? extends ComplianceSubject>> subjectHandlers, ConnectorApiFactory connectorApiFactory, EventProducer eventProducer) {
+    public ComplianceCheckContext(Resource resource, IPlatformEnum typeEnum, ComplianceProfileRuleHandler ruleHandler, Map<Resource, ComplianceSubjectHandler<? extends ComplianceSubject>> subjectHandlers, ConnectorApiFactory connectorApiFactory, EventProducer eventProducer, ComplianceCheckProperties checkProperties) {
         this.resource = resource;
         this.typeEnum = typeEnum;
         this.ruleHandler = ruleHandler;
         this.subjectHandlers = subjectHandlers;
         this.connectorApiFactory = connectorApiFactory;
         this.eventProducer = eventProducer;
+        this.checkProperties = checkProperties;
     }
 
-    public void addComplianceProfile(ComplianceProfile complianceProfile, Map<Resource, Set<ComplianceSubject>> complianceSubjects) {
-        if (complianceProfile.getComplianceRules().isEmpty() || complianceSubjects == null || complianceSubjects.isEmpty()) {
+    /**
+     * Adds compliance profile to be checked against its subjects. Only UUIDs of subjects are kept, subjects are loaded batch by batch
+     * when the compliance check is performed.
+     *
+     * @param complianceProfile      compliance profile with its rules
+     * @param complianceSubjectUuids UUIDs of the subjects by the subject resource
+     */
+    public void addComplianceProfile(ComplianceProfile complianceProfile, Map<Resource, Set<UUID>> complianceSubjectUuids) {
+        if (complianceProfile.getComplianceRules().isEmpty() || complianceSubjectUuids == null || complianceSubjectUuids.isEmpty()) {
             return;
         }
 
-        ComplianceCheckProfileContext profileContext = profilesContextMap.computeIfAbsent(complianceProfile.getUuid(), uuid -> new ComplianceCheckProfileContext(complianceProfile.getName(), complianceSubjects));
+        ComplianceCheckProfileContext profileContext = profilesContextMap.computeIfAbsent(complianceProfile.getUuid(), uuid -> new ComplianceCheckProfileContext(complianceProfile.getName(), complianceSubjectUuids));
         for (ComplianceProfileRule profileRule : complianceProfile.getComplianceRules()) {
             // skip rules that do not match the resource and type
             if (skipProfileRule(profileRule, null)) {
@@ -75,38 +88,141 @@ public class ComplianceCheckContext {
         }
     }
 
+    /**
+     * Checks compliance of all subjects of added profiles. Subjects are loaded and checked in batches, all profiles of the subject are
+     * checked within its batch: internal rules are evaluated and provider requests are prepared sequentially, the requests
+     * of the batch are sent to providers in parallel with bounded concurrency and the results of the batch are saved in bulk.
+     * Providers are not called for subjects whose content and provider rules did not change since their previous check.
+     */
     public void performComplianceCheck() {
         logger.debug("Starting performComplianceCheck for {} profiles and {} providers", profilesContextMap.size(), providersContextMap.size());
+
+        // group profiles by subjects, so that the subject result is complete after its batch is processed
+        Map<Resource, Map<UUID, List<ComplianceCheckProfileContext>>> subjectsProfileContexts = new EnumMap<>(Resource.class);
         for (ComplianceCheckProfileContext profileContext : profilesContextMap.values()) {
-            for (Map.Entry<Resource, Set<ComplianceSubject>> resourceObjects : profileContext.getComplianceSubjects().entrySet()) {
-                ComplianceSubjectHandler<? extends ComplianceSubject> subjectHandler = subjectHandlers.get(resourceObjects.getKey());
-                for (var subject : resourceObjects.getValue()) {
-                    try {
-                        subjectHandler.initSubjectComplianceResult(subject);
-                        performSubjectComplianceCheck(profileContext, subjectHandler, resourceObjects.getKey(), subject);
-                    } catch (Exception e) {
-                        logger.warn("Error checking compliance of {} with UUID {} by profile {}: {}", resourceObjects.getKey().getLabel(), subject.getUuid(), profileContext.getName(), e.getMessage());
-                        subjectHandler.finalizeComplianceCheck(subject.getUuid(), e.getMessage());
-                    }
+            for (Map.Entry<Resource, Set<UUID>> resourceObjects : profileContext.getComplianceSubjectUuids().entrySet()) {
+                Map<UUID, List<ComplianceCheckProfileContext>> resourceSubjects = subjectsProfileContexts.computeIfAbsent(resourceObjects.getKey(), r -> new LinkedHashMap<>());
+                for (UUID subjectUuid : resourceObjects.getValue()) {
+                    resourceSubjects.computeIfAbsent(subjectUuid, uuid -> new ArrayList<>()).add(profileContext);
                 }
             }
         }
 
-        // calculate all subjects overall compliance status
-        for (var subjectHandler : subjectHandlers.values()) {
-            for (var subjectContext : subjectHandler.getSubjectContexts().values()) {
-                UUID subjectUuid = subjectContext.getComplianceSubject().getUuid();
-                ComplianceStatus originalStatus = subjectContext.getComplianceSubject().getComplianceStatus();
-                ComplianceStatus newStatus = subjectHandler.finalizeComplianceCheck(subjectUuid, null);
-                if (subjectHandler.getResource() == Resource.CERTIFICATE && originalStatus != ComplianceStatus.NOK && newStatus == ComplianceStatus.NOK) {
-                    eventProducer.produceMessage(CertificateNotCompliantEventHandler.constructEventMessages(subjectUuid));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<Resource, Map<UUID, List<ComplianceCheckProfileContext>>> resourceSubjects : subjectsProfileContexts.entrySet()) {
+                ComplianceSubjectHandler<? extends ComplianceSubject> subjectHandler = subjectHandlers.get(resourceSubjects.getKey());
+                List<UUID> subjectUuids = new ArrayList<>(resourceSubjects.getValue().keySet());
+                for (int i = 0; i < subjectUuids.size(); i += checkProperties.batchSize()) {
+                    List<SubjectCheck> batch = loadBatchSubjects(subjectHandler, subjectUuids.subList(i, Math.min(i + checkProperties.batchSize(), subjectUuids.size())), resourceSubjects.getValue());
+                    performBatchComplianceCheck(subjectHandler, resourceSubjects.getKey(), batch, executor);
                 }
-                logger.debug("{} {} compliance check finalized with result: {}", subjectHandler.getResource().getLabel(), subjectUuid, newStatus.getLabel());
             }
         }
     }
 
-    private void performSubjectComplianceCheck(ComplianceCheckProfileContext profileContext, ComplianceSubjectHandler<? extends ComplianceSubject> subjectHandler, Resource resource, ComplianceSubject subject) throws ConnectorException, RuleException {
+    private List<SubjectCheck> loadBatchSubjects(ComplianceSubjectHandler<? extends ComplianceSubject> subjectHandler, List<UUID> batchUuids, Map<UUID, List<ComplianceCheckProfileContext>> subjectsProfileContexts) {
+        Map<UUID, ComplianceSubject> subjects = new HashMap<>();
+        for (ComplianceSubject subject : subjectHandler.loadSubjects(batchUuids)) {
+            subjects.put(subject.getUuid(), subject);
+        }
+
+        List<SubjectCheck> batch = new ArrayList<>(subjects.size());
+        for (UUID subjectUuid : batchUuids) {
+            ComplianceSubject subject = subjects.get(subjectUuid);
+            if (subject == null) {
+                logger.debug("{} with UUID {} not found, skipping its compliance check", subjectHandler.getResource().getLabel(), subjectUuid);
+                continue;
+            }
+            batch.add(new SubjectCheck(subject, subjectsProfileContexts.get(subjectUuid)));
+        }
+        return batch;
+    }
+
+    private void performBatchComplianceCheck(ComplianceSubjectHandler<? extends ComplianceSubject> subjectHandler, Resource resource, List<SubjectCheck> batch, ExecutorService executor) {
+        List<ProviderCheck> providerChecks = new ArrayList<>();
+        for (SubjectCheck check : batch) {
+            ComplianceSubject subject = check.subject();
+            subjectHandler.initSubjectComplianceResult(subject);
+            // rules of all profiles checked by the same provider are sent in one request
+            Map<String, List<ComplianceProfileRule>> subjectProviderRules = new LinkedHashMap<>();
+            boolean failed = false;
+            for (ComplianceCheckProfileContext profileContext : check.profileContexts()) {
+                try {
+                    evaluateSubjectInternalRules(profileContext, subjectHandler, resource, subject);
+                } catch (Exception e) {
+                    logger.warn("Error checking compliance of {} with UUID {} by profile {}: {}", resource.getLabel(), subject.getUuid(), profileContext.getName(), e.getMessage());
+                    subjectHandler.finalizeComplianceCheck(subject.getUuid(), e.getMessage());
+                    failed = true;
+                    break;
+                }
+                for (var providerRules : profileContext.getProviderRulesMapping().entrySet()) {
+                    List<ComplianceProfileRule> profileRules = subjectProviderRules.computeIfAbsent(providerRules.getKey(), k -> new ArrayList<>());
+                    for (ComplianceProfileRule profileRule : providerRules.getValue()) {
+                        // skip rules that do not match the resource and type
+                        if (!skipProfileRule(profileRule, resource)) {
+                            profileRules.add(profileRule);
+                        }
+                    }
+                }
+            }
+            if (failed) {
+                continue;
+            }
+
+            for (var providerRules : subjectProviderRules.entrySet()) {
+                try {
+                    ProviderCheck providerCheck = prepareProviderComplianceCheck(subjectHandler, resource, subject, providerRules.getKey(), providerRules.getValue());
+                    if (providerCheck != null) {
+                        providerChecks.add(providerCheck);
+                    }
+                } catch (Exception e) {
+                    logger.warn("Error checking compliance of {} with UUID {} by provider {}: {}", resource.getLabel(), subject.getUuid(), providerRules.getKey(), e.getMessage());
+                    subjectHandler.finalizeComplianceCheck(subject.getUuid(), e.getMessage());
+                    providerChecks.removeIf(providerCheck -> providerCheck.request().getSubjectUuid().equals(subject.getUuid()));
+                    break;
+                }
+            }
+        }
+
+        // provider requests of the batch are independent of each other, only their results are applied sequentially
+        List<ProviderCheckResult> providerCheckResults = providerChecks.stream()
+                .collect(ParallelCollectors.parallel(this::executeProviderCheck, executor, checkProperties.maxParallelism()))
+                .join()
+                .toList();
+        for (ProviderCheckResult checkResult : providerCheckResults) {
+            ProviderCheck providerCheck = checkResult.providerCheck();
+            UUID subjectUuid = providerCheck.request().getSubjectUuid();
+            if (checkResult.error() != null) {
+                logger.warn("Error checking compliance of {} with UUID {} by provider {}: {}", resource.getLabel(), subjectUuid, providerCheck.providerKey(), checkResult.error().getMessage());
+                subjectHandler.finalizeComplianceCheck(subjectUuid, checkResult.error().getMessage());
+                continue;
+            }
+            ComplianceCheckProviderContext providerContext = providerCheck.providerContext();
+            for (ComplianceResponseRuleDto responseRule : checkResult.response().getRules()) {
+                subjectHandler.addProviderRuleResult(subjectUuid, providerCheck.providerKey(), providerContext.getConnectorUuid(), providerContext.getKind(), responseRule.getUuid(), null, responseRule.getStatus());
+            }
+        }
+
+        // calculate subjects overall compliance status and save the results of the batch
+        List<UUID> notCompliantCertificateUuids = new ArrayList<>();
+        for (SubjectCheck check : batch) {
+            UUID subjectUuid = check.subject().getUuid();
+            ComplianceStatus originalStatus = check.originalStatus();
+            ComplianceStatus newStatus = subjectHandler.finalizeComplianceCheck(subjectUuid, null);
+            if (subjectHandler.getResource() == Resource.CERTIFICATE && originalStatus != ComplianceStatus.NOK && newStatus == ComplianceStatus.NOK) {
+                notCompliantCertificateUuids.add(subjectUuid);
+            }
+            logger.debug("{} {} compliance check finalized with result: {}", subjectHandler.getResource().getLabel(), subjectUuid, newStatus.getLabel());
+        }
+        int savedSubjects = subjectHandler.persistFinalizedSubjects();
+        logger.debug("Compliance check results of {} {} subjects saved", savedSubjects, resource.getLabel());
+
+        if (!notCompliantCertificateUuids.isEmpty()) {
+            eventProducer.produceMessages(notCompliantCertificateUuids.stream().map(CertificateNotCompliantEventHandler::constructEventMessages).toList());
+        }
+    }
+
+    private void evaluateSubjectInternalRules(ComplianceCheckProfileContext profileContext, ComplianceSubjectHandler<? extends ComplianceSubject> subjectHandler, Resource resource, ComplianceSubject subject) throws RuleException {
         for (ComplianceProfileRule profileRule : profileContext.getInternalRules()) {
             // skip rules that do not match the resource and type
             if (skipProfileRule(profileRule, resource)) {
@@ -114,26 +230,56 @@ public class ComplianceCheckContext {
             }
             subjectHandler.evaluateInternalRule(subject.getUuid(), profileRule);
         }
+    }
 
-        for (var providerRules : profileContext.getProviderRulesMapping().entrySet()) {
-            ComplianceCheckProviderContext providerContext = providersContextMap.get(providerRules.getKey());
-            providerContext.prepareComplianceCheckRequestForSubject(subject, resource, subject.getType());
-            for (ComplianceProfileRule profileRule : providerRules.getValue()) {
-                // skip rules that do not match the resource and type
-                if (skipProfileRule(profileRule, resource)
-                        // skip if rule was already checked for compliance check of this subject
-                        || subjectHandler.wasAlreadyChecked(subject.getUuid(), providerRules.getKey(), profileRule)) {
-                    continue;
-                }
+    /**
+     * Prepares the request of the provider for the subject. Rules already checked against the same subject content by the same rule definition
+     * are not sent to the provider again.
+     *
+     * @return check of the provider, null if the provider does not need to be called
+     */
+    private ProviderCheck prepareProviderComplianceCheck(ComplianceSubjectHandler<? extends ComplianceSubject> subjectHandler, Resource resource, ComplianceSubject subject, String providerKey, List<ComplianceProfileRule> profileRules) throws ConnectorException {
+        ComplianceCheckProviderContext providerContext = providersContextMap.get(providerKey);
+        providerContext.loadProviderRules();
+
+        // the first rule of the key is the one sent to the provider, the same rules of other profiles are skipped as already checked
+        Map<String, String> ruleFingerprints = new LinkedHashMap<>();
+        for (ComplianceProfileRule profileRule : profileRules) {
+            ruleFingerprints.putIfAbsent(providerContext.getRuleKey(profileRule), providerContext.getRuleFingerprint(profileRule));
+        }
+        if (subjectHandler.reuseProviderResults(subject.getUuid(), providerKey, providerContext.getConnectorUuid(), providerContext.getKind(), ruleFingerprints)) {
+            logger.debug("{} {} compliance check by provider {} skipped, subject content and rules are unchanged", resource.getLabel(), subject.getUuid(), providerKey);
+            return null;
+        }
 
-                // add rule to compliance check request, if returns non-null status, it means the rule is not available or not applicable. In case of null, the rule will be checked by the provider.
-                ComplianceRuleStatus ruleStatus = providerContext.addProviderRuleToCheck(profileRule);
-                subjectHandler.addProviderRuleResult(subject.getUuid(), providerRules.getKey(), providerContext.getConnectorUuid(), providerContext.getKind(), profileRule.getComplianceRuleUuid(), profileRule.getComplianceGroupUuid(), ruleStatus);
+        ComplianceCheckProviderContext.ComplianceCheckRequest request = providerContext.prepareComplianceCheckRequestForSubject(subject, resource, subject.getType());
+        for (ComplianceProfileRule profileRule : profileRules) {
+            // skip if rule was already checked for compliance check of this subject
+            if (subjectHandler.wasAlreadyChecked(subject.getUuid(), providerKey, profileRule)) {
+                continue;
             }
-            ComplianceResponseDto complianceResponse = providerContext.executeComplianceCheck();
-            for (ComplianceResponseRuleDto responseRule : complianceResponse.getRules()) {
-                subjectHandler.addProviderRuleResult(subject.getUuid(), providerRules.getKey(), providerContext.getConnectorUuid(), providerContext.getKind(), responseRule.getUuid(), null, responseRule.getStatus());
+
+            String ruleKey = providerContext.getRuleKey(profileRule);
+            String ruleFingerprint = ruleFingerprints.get(ruleKey);
+            if (subjectHandler.isProviderRuleUnchanged(subject.getUuid(), ruleKey, ruleFingerprint)) {
+                // only mark the rule as checked, its previous result is kept
+                subjectHandler.addProviderRuleResult(subject.getUuid(), providerKey, providerContext.getConnectorUuid(), providerContext.getKind(), profileRule.getComplianceRuleUuid(), profileRule.getComplianceGroupUuid(), null);
+                continue;
             }
+
+            // add rule to compliance check request, if returns non-null status, it means the rule is not available or not applicable. In case of null, the rule will be checked by the provider.
+            ComplianceRuleStatus ruleStatus = providerContext.addProviderRuleToCheck(request, profileRule);
+            subjectHandler.addProviderRuleResult(subject.getUuid(), providerKey, providerContext.getConnectorUuid(), providerContext.getKind(), profileRule.getComplianceRuleUuid(), profileRule.getComplianceGroupUuid(), ruleStatus);
+            subjectHandler.setProviderRuleFingerprint(subject.getUuid(), ruleKey, ruleFingerprint);
+        }
+        return new ProviderCheck(providerKey, providerContext, request);
+    }
+
+    private ProviderCheckResult executeProviderCheck(ProviderCheck providerCheck) {
+        try {
+            return new ProviderCheckResult(providerCheck, providerCheck.providerContext().executeComplianceCheck(providerCheck.request()), null);
+        } catch (Exception e) {
+            return new ProviderCheckResult(providerCheck, null, e);
         }
     }
 
@@ -144,4 +290,16 @@ public class ComplianceCheckContext {
         return (resource != null && resource != profileRule.getResource()) || (typeEnum != null && !typeEnum.name().equals(profileRule.getType()));
     }
 
+    private record SubjectCheck(ComplianceSubject subject, ComplianceStatus originalStatus, List<ComplianceCheckProfileContext> profileContexts) {
+        private SubjectCheck(ComplianceSubject subject, List<ComplianceCheckProfileContext> profileContexts) {
+            this(subject, subject.getComplianceStatus(), profileContexts);
+        }
+    }
+
+    private record ProviderCheck(String providerKey, ComplianceCheckProviderContext providerContext, ComplianceCheckProviderContext.ComplianceCheckRequest request) {
+    }
+
+    private record ProviderCheckResult(ProviderCheck providerCheck, ComplianceResponseDto response, Exception error) {
+    }
+
 }
@@ -2,7 +2,6 @@ package com.czertainly.core.model.compliance;
 
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.dao.entity.ComplianceProfileRule;
-import com.czertainly.core.dao.entity.ComplianceSubject;
 import lombok.Getter;
 
 import java.util.*;
@@ -11,13 +10,13 @@ import java.util.*;
 public class ComplianceCheckProfileContext {
 
     private final String name;
-    private final Map<Resource, Set<ComplianceSubject>> complianceSubjects;
+    private final Map<Resource, Set<UUID>> complianceSubjectUuids;
     private final List<ComplianceProfileRule> internalRules = new ArrayList<>();
     private final Map<String, List<ComplianceProfileRule>> providerRulesMapping = new HashMap<>();
 
-    public ComplianceCheckProfileContext(String name, Map<Resource, Set<ComplianceSubject>> complianceSubjects) {
+    public ComplianceCheckProfileContext(String name, Map<Resource, Set<UUID>> complianceSubjectUuids) {
         this.name = name;
-        this.complianceSubjects = complianceSubjects;
+        this.complianceSubjectUuids = complianceSubjectUuids;
     }
 
     /**
@@ -17,16 +17,26 @@ import com.czertainly.core.dao.entity.ComplianceProfileRule;
 import com.czertainly.core.dao.entity.ComplianceSubject;
 import com.czertainly.core.dao.entity.Connector;
 import com.czertainly.core.service.handler.ComplianceProfileRuleHandler;
+import com.czertainly.core.util.CertificateUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.ArrayList;
-import java.util.Objects;
-import java.util.UUID;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
 
 @Getter
 @Setter
 public class ComplianceCheckProviderContext {
+
+    private static final ObjectMapper FINGERPRINT_OBJECT_MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .build();
+
     private final UUID connectorUuid;
     private final ConnectorDto connectorDto;
     private final String kind;
@@ -38,9 +48,7 @@ public class ComplianceCheckProviderContext {
     private final ComplianceRulesBatchRequestDto rulesBatchRequestDto = new ComplianceRulesBatchRequestDto();
     private ComplianceRulesGroupsBatchDto rulesGroupsBatchDto;
     private ConnectorException failedStatusException;
-
-    private ComplianceRequestDto complianceRequestDto;
-    private com.czertainly.api.model.connector.compliance.ComplianceRequestDto complianceRequestDtoV1;
+    private final Map<UUID, String> ruleFingerprints = new HashMap<>();
 
     public ComplianceCheckProviderContext(Connector connector, String kind, ComplianceProfileRuleHandler ruleHandler, ConnectorApiFactory connectorApiFactory) {
         this.connectorUuid = connector.getUuid();
@@ -53,14 +61,11 @@ public class ComplianceCheckProviderContext {
     }
 
     /**
-     * Prepares the compliance check request for the given subject and resource/type.
+     * Loads rules and groups of the provider used by the checked profiles, they are loaded only once for the whole compliance check.
      *
-     * @param subject  Compliance subject for which the check is being prepared
-     * @param resource Resource of the compliance subject (null if not applicable)
-     * @param type     Type of the compliance subject (null if not applicable)
      * @throws ConnectorException If there is an error communicating with the connector
      */
-    public void prepareComplianceCheckRequestForSubject(ComplianceSubject subject, Resource resource, IPlatformEnum type) throws ConnectorException {
+    public void loadProviderRules() throws ConnectorException {
         if (rulesGroupsBatchDto == null) {
             if (failedStatusException != null) {
                 throw failedStatusException;
@@ -72,30 +77,92 @@ public class ComplianceCheckProviderContext {
                 throw failedStatusException;
             }
         }
+    }
+
+    /**
+     * @param profileRule Compliance profile rule of the provider
+     * @return key of the provider rule or group in compliance result fingerprints
+     */
+    public String getRuleKey(ComplianceProfileRule profileRule) {
+        return "%s|%s|%s".formatted(connectorUuid, kind, profileRule.getComplianceRuleUuid() != null ? profileRule.getComplianceRuleUuid() : profileRule.getComplianceGroupUuid());
+    }
+
+    /**
+     * Computes the fingerprint of the provider rule or group, i.e. the version of the rule the compliance result is produced by.
+     * It covers the rule settings in the compliance profile and the rule or group definition returned by the provider,
+     * so it changes when the rule attributes are edited as well as when the provider changes the rule or rules of the group.
+     * Provider rules must be loaded before.
+     *
+     * @param profileRule Compliance profile rule of the provider
+     * @return fingerprint of the rule, null if it cannot be computed
+     */
+    public String getRuleFingerprint(ComplianceProfileRule profileRule) {
+        return ruleFingerprints.computeIfAbsent(profileRule.getUuid(), uuid -> {
+            Object providerDefinition = profileRule.getComplianceRuleUuid() != null
+                    ? rulesGroupsBatchDto.getRules().get(profileRule.getComplianceRuleUuid())
+                    : rulesGroupsBatchDto.getGroups().get(profileRule.getComplianceGroupUuid());
+            try {
+                return CertificateUtil.getThumbprint(FINGERPRINT_OBJECT_MAPPER.writeValueAsBytes(Arrays.asList(profileRule.getResource(), profileRule.getType(),
+                        profileRule.getComplianceRuleUuid(), profileRule.getComplianceGroupUuid(), profileRule.getAttributes(), providerDefinition)));
+            } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Compliance check request of one subject. Requests are prepared sequentially and can be executed concurrently,
+     * since the provider context is not modified by their execution.
+     */
+    @Getter
+    public static class ComplianceCheckRequest {
+        private final UUID subjectUuid;
+        private ComplianceRequestDto complianceRequestDto;
+        private com.czertainly.api.model.connector.compliance.ComplianceRequestDto complianceRequestDtoV1;
+
+        private ComplianceCheckRequest(UUID subjectUuid) {
+            this.subjectUuid = subjectUuid;
+        }
+    }
+
+    /**
+     * Prepares the compliance check request for the given subject and resource/type.
+     *
+     * @param subject  Compliance subject for which the check is being prepared
+     * @param resource Resource of the compliance subject (null if not applicable)
+     * @param type     Type of the compliance subject (null if not applicable)
+     * @return compliance check request of the subject without rules
+     * @throws ConnectorException If there is an error communicating with the connector
+     */
+    public ComplianceCheckRequest prepareComplianceCheckRequestForSubject(ComplianceSubject subject, Resource resource, IPlatformEnum type) throws ConnectorException {
+        loadProviderRules();
 
+        ComplianceCheckRequest request = new ComplianceCheckRequest(subject.getUuid());
         if (functionGroup == FunctionGroupCode.COMPLIANCE_PROVIDER) {
-            complianceRequestDtoV1 = new com.czertainly.api.model.connector.compliance.ComplianceRequestDto();
-            complianceRequestDtoV1.setCertificate(subject.getContentData());
-            complianceRequestDtoV1.setRules(new ArrayList<>());
+            request.complianceRequestDtoV1 = new com.czertainly.api.model.connector.compliance.ComplianceRequestDto();
+            request.complianceRequestDtoV1.setCertificate(subject.getContentData());
+            request.complianceRequestDtoV1.setRules(new ArrayList<>());
         } else {
-            complianceRequestDto = new ComplianceRequestDto();
-            complianceRequestDto.setResource(resource);
-            complianceRequestDto.setType(type != null ? type.getCode() : null);
-            complianceRequestDto.setData(subject.getContentData());
-            complianceRequestDto.setRules(new ArrayList<>());
+            request.complianceRequestDto = new ComplianceRequestDto();
+            request.complianceRequestDto.setResource(resource);
+            request.complianceRequestDto.setType(type != null ? type.getCode() : null);
+            request.complianceRequestDto.setData(subject.getContentData());
+            request.complianceRequestDto.setRules(new ArrayList<>());
         }
+        return request;
     }
 
 
     /**
      * Adds a provider compliance profile rule to the compliance check request.
      *
+     * @param request     Compliance check request of the subject
      * @param profileRule Compliance profile rule to be added to check request
      * @return null if the rule/group was added successfully
      * ComplianceRuleStatus.NA if the rule is not applicable (e.g. resource/type do not match)
      * ComplianceRuleStatus.NOT_AVAILABLE if the rule/group is not available in the provider
      */
-    public ComplianceRuleStatus addProviderRuleToCheck(ComplianceProfileRule profileRule) {
+    public ComplianceRuleStatus addProviderRuleToCheck(ComplianceCheckRequest request, ComplianceProfileRule profileRule) {
         if (profileRule.getComplianceRuleUuid() != null) {
             ComplianceRuleResponseDto providerRule = rulesGroupsBatchDto.getRules().get(profileRule.getComplianceRuleUuid());
             ComplianceRuleAvailabilityStatus availabilityStatus = getRuleAvailabilityStatus(profileRule, providerRule);
@@ -107,12 +174,12 @@ public class ComplianceCheckProviderContext {
                 ComplianceRequestRulesDto providerRuleRequest = new ComplianceRequestRulesDto();
                 providerRuleRequest.setUuid(providerRule.getUuid().toString());
                 providerRuleRequest.setAttributes(profileRule.getAttributes());
-                complianceRequestDtoV1.getRules().add(providerRuleRequest);
+                request.complianceRequestDtoV1.getRules().add(providerRuleRequest);
             } else {
                 ComplianceRuleRequestDto providerRuleRequest = new ComplianceRuleRequestDto();
                 providerRuleRequest.setUuid(providerRule.getUuid());
                 providerRuleRequest.setAttributes(profileRule.getAttributes());
-                complianceRequestDto.getRules().add(providerRuleRequest);
+                request.complianceRequestDto.getRules().add(providerRuleRequest);
             }
             return null;
         }
@@ -127,25 +194,28 @@ public class ComplianceCheckProviderContext {
             for (ComplianceRuleResponseDto providerRule : providerGroup.getRules()) {
                 ComplianceRequestRulesDto providerRuleRequest = new ComplianceRequestRulesDto();
                 providerRuleRequest.setUuid(providerRule.getUuid().toString());
-                complianceRequestDtoV1.getRules().add(providerRuleRequest);
+                request.complianceRequestDtoV1.getRules().add(providerRuleRequest);
             }
         } else {
             ComplianceRuleRequestDto providerGroupRequest = new ComplianceRuleRequestDto();
             providerGroupRequest.setUuid(providerGroup.getUuid());
-            complianceRequestDto.getGroups().add(providerGroup.getUuid());
+            request.complianceRequestDto.getGroups().add(providerGroup.getUuid());
         }
         return null;
     }
 
     /**
      * Executes the compliance check request against the compliance provider according to the function group.
+     * It does not modify the provider context, so requests of different subjects can be executed concurrently.
      *
+     * @param request Compliance check request of the subject
      * @return ComplianceResponseDto containing the results of the compliance check
      * @throws ConnectorException If there is an error communicating with the connector
      */
-    public ComplianceResponseDto executeComplianceCheck() throws ConnectorException {
+    public ComplianceResponseDto executeComplianceCheck(ComplianceCheckRequest request) throws ConnectorException {
         ComplianceResponseDto complianceResponse = new ComplianceResponseDto();
         if (functionGroup == FunctionGroupCode.COMPLIANCE_PROVIDER) {
+            var complianceRequestDtoV1 = request.complianceRequestDtoV1;
             if (!complianceRequestDtoV1.getRules().isEmpty()) {
                 com.czertainly.api.interfaces.client.v1.ComplianceSyncApiClient complianceApiClientV1 = connectorApiFactory.getComplianceApiClient(connectorDto);
                 var complianceResponseV1 = complianceApiClientV1.checkCompliance(connectorDto, kind, complianceRequestDtoV1);
@@ -159,6 +229,7 @@ public class ComplianceCheckProviderContext {
                 }).toList());
             }
         } else {
+            ComplianceRequestDto complianceRequestDto = request.complianceRequestDto;
             if (!complianceRequestDto.getRules().isEmpty() || !complianceRequestDto.getGroups().isEmpty()) {
                 ComplianceSyncApiClient complianceApiClientV2 = connectorApiFactory.getComplianceApiClientV2(connectorDto);
                 complianceResponse = complianceApiClientV2.checkCompliance(connectorDto, kind, complianceRequestDto);
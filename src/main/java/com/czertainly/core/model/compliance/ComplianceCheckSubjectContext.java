@@ -1,5 +1,6 @@
 package com.czertainly.core.model.compliance;
 
+import com.czertainly.api.model.core.compliance.ComplianceStatus;
 import com.czertainly.core.dao.entity.ComplianceSubject;
 import lombok.Getter;
 import lombok.Setter;
@@ -18,8 +19,23 @@ public class ComplianceCheckSubjectContext<T extends ComplianceSubject> {
     private final Map<String, Set<UUID>> checkedProviderGroupsMap = new HashMap<>();
     private final ComplianceResultDto complianceResult;
 
+    // fingerprints of the previous compliance result, captured before the result is updated by the current check
+    private final String previousContentFingerprint;
+    private final Map<String, String> previousRuleFingerprints;
+    private final ComplianceStatus previousStatus;
+    private final List<ComplianceResultProviderRulesDto> previousProviderRules;
+
+    @Setter
+    private String contentFingerprint;
+
     public ComplianceCheckSubjectContext(T complianceSubject, ComplianceResultDto complianceResult) {
         this.complianceSubject = complianceSubject;
         this.complianceResult = complianceResult;
+
+        ComplianceResultDto previousResult = complianceSubject.getComplianceResult();
+        this.previousContentFingerprint = previousResult != null ? previousResult.getContentFingerprint() : null;
+        this.previousRuleFingerprints = previousResult != null && previousResult.getProviderRuleFingerprints() != null ? new HashMap<>(previousResult.getProviderRuleFingerprints()) : Map.of();
+        this.previousStatus = previousResult != null ? previousResult.getStatus() : null;
+        this.previousProviderRules = previousResult != null && previousResult.getProviderRules() != null ? new ArrayList<>(previousResult.getProviderRules()) : List.of();
     }
 }
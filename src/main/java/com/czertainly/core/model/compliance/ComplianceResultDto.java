@@ -10,7 +10,9 @@ import lombok.ToString;
 import java.io.Serializable;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Getter
@@ -34,6 +36,12 @@ public class ComplianceResultDto implements Serializable {
     @Schema(description = "List of groups", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
     private List<ComplianceResultProviderRulesDto> providerRules = new ArrayList<>();
 
+    @Schema(description = "Fingerprint of the subject content the provider rules were checked against", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private String contentFingerprint;
+
+    @Schema(description = "Fingerprints of the provider rules and groups the result was produced by, keyed by provider and rule or group UUID", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private Map<String, String> providerRuleFingerprints = new HashMap<>();
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,194 @@
+package com.czertainly.core.security.authn.client;
+
+import com.czertainly.api.model.core.auth.RoleDetailDto;
+import com.czertainly.api.model.core.auth.RoleDto;
+import com.czertainly.api.model.core.auth.UserDetailDto;
+import com.czertainly.api.model.core.auth.UserDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-node cache of the users and roles directory of the authentication service, used to resolve recipients of notifications
+ * and approvals. Users and roles, their details and users of the roles are loaded from the authentication service only once
+ * per TTL, users of the groups and names of users and roles are resolved from the cached lists. Failure of loading an entry
+ * is cached for a short time too, so that unavailable authentication service is not called again for every lookup.
+ * Returned objects are shared and must not be modified.
+ * Entries are invalidated when users or roles are changed through this node, changes made on other nodes or directly
+ * in the authentication service are picked up after the TTL.
+ */
+@Component
+public class UserDirectoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDirectoryCache.class);
+
+    private static final String USERS_KEY = "users";
+    private static final String ROLES_KEY = "roles";
+    private static final String USERNAMES_KEY = "usernames";
+    private static final String ROLE_NAMES_KEY = "roleNames";
+
+    private static final long FAILURE_TTL_MILLIS = 10_000;
+
+    private final Map<Object, CachedEntry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    private UserManagementApiClient userManagementApiClient;
+    private RoleManagementApiClient roleManagementApiClient;
+
+    /**
+     * @param ttlSeconds time for which the directory entries are cached, caching is disabled when not positive
+     */
+    public UserDirectoryCache(@Value("${auth-service.directory-cache-ttl:60}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    @Autowired
+    public void setUserManagementApiClient(UserManagementApiClient userManagementApiClient) {
+        this.userManagementApiClient = userManagementApiClient;
+    }
+
+    @Autowired
+    public void setRoleManagementApiClient(RoleManagementApiClient roleManagementApiClient) {
+        this.roleManagementApiClient = roleManagementApiClient;
+    }
+
+    public List<UserDto> getUsers() {
+        return get(USERS_KEY, () -> userManagementApiClient.getUsers().getData());
+    }
+
+    /**
+     * @param userUuid UUID of the user
+     * @return username of the user, null if the user does not exist
+     */
+    public String getUsername(String userUuid) {
+        return this.<Map<String, String>>get(USERNAMES_KEY, () -> namesByUuid(getUsers(), UserDto::getUuid, UserDto::getUsername)).get(userUuid);
+    }
+
+    public UserDetailDto getUserDetail(String userUuid) {
+        return get(new UserKey(userUuid), () -> userManagementApiClient.getUserDetail(userUuid));
+    }
+
+    public List<RoleDto> getRoles() {
+        return get(ROLES_KEY, () -> roleManagementApiClient.getRoles().getData());
+    }
+
+    /**
+     * @param roleUuid UUID of the role
+     * @return name of the role, null if the role does not exist
+     */
+    public String getRoleName(String roleUuid) {
+        return this.<Map<String, String>>get(ROLE_NAMES_KEY, () -> namesByUuid(getRoles(), RoleDto::getUuid, RoleDto::getName)).get(roleUuid);
+    }
+
+    public RoleDetailDto getRoleDetail(String roleUuid) {
+        return get(new RoleKey(roleUuid), () -> roleManagementApiClient.getRoleDetail(roleUuid));
+    }
+
+    /**
+     * @param roleUuid UUID of the role
+     * @return UUIDs of the users having the role
+     */
+    public List<String> getRoleUserUuids(String roleUuid) {
+        return get(new RoleUsersKey(roleUuid), () -> roleManagementApiClient.getRoleUsers(roleUuid).stream().map(UserDto::getUuid).toList());
+    }
+
+    /**
+     * @param groupUuid UUID of the group
+     * @return UUIDs of the users that are members of the group
+     */
+    public List<String> getGroupUserUuids(String groupUuid) {
+        return getUsers().stream()
+                .filter(user -> user.getGroups() != null && user.getGroups().stream().anyMatch(group -> group.getUuid().equals(groupUuid)))
+                .map(UserDto::getUuid)
+                .toList();
+    }
+
+    /**
+     * Invalidates cached details of the user and all cached lists of users, since the user could be added or removed
+     * from the roles and groups.
+     *
+     * @param userUuid UUID of the changed user
+     */
+    public void invalidateUser(String userUuid) {
+        logger.debug("Invalidating cached directory entries of user {}", userUuid);
+        entries.keySet().removeIf(key -> key.equals(new UserKey(userUuid)) || key.equals(USERS_KEY) || key.equals(USERNAMES_KEY) || key instanceof RoleUsersKey);
+    }
+
+    /**
+     * Invalidates cached details and users of the role and the list of roles.
+     *
+     * @param roleUuid UUID of the changed role
+     */
+    public void invalidateRole(String roleUuid) {
+        logger.debug("Invalidating cached directory entries of role {}", roleUuid);
+        entries.keySet().removeIf(key -> key.equals(new RoleKey(roleUuid)) || key.equals(new RoleUsersKey(roleUuid)) || key.equals(ROLES_KEY) || key.equals(ROLE_NAMES_KEY));
+    }
+
+    /**
+     * Invalidates all cached directory entries, e.g. after change of users of the role.
+     */
+    public void invalidateAll() {
+        logger.debug("Invalidating all cached directory entries");
+        entries.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Object key, Supplier<T> loader) {
+        if (ttlMillis <= 0) {
+            return loader.get();
+        }
+
+        long now = System.currentTimeMillis();
+        CachedEntry cached = entries.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            if (cached.failure() != null) {
+                throw cached.failure();
+            }
+            return (T) cached.value();
+        }
+
+        T value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            entries.put(key, new CachedEntry(null, e, now + Math.min(ttlMillis, FAILURE_TTL_MILLIS)));
+            throw e;
+        }
+        if (value != null) {
+            entries.put(key, new CachedEntry(value, null, now + ttlMillis));
+        }
+        return value;
+    }
+
+    private static <T> Map<String, String> namesByUuid(List<T> items, Function<T, String> uuid, Function<T, String> name) {
+        Map<String, String> names = new HashMap<>();
+        if (items == null) {
+            return names;
+        }
+        for (T item : items) {
+            names.put(uuid.apply(item), name.apply(item));
+        }
+        return names;
+    }
+
+    private record UserKey(String userUuid) {
+    }
+
+    private record RoleKey(String roleUuid) {
+    }
+
+    private record RoleUsersKey(String roleUuid) {
+    }
+
+    private record CachedEntry(Object value, RuntimeException failure, long expiresAt) {
+    }
+}
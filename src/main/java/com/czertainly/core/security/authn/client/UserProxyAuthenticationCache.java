@@ -0,0 +1,81 @@
+package com.czertainly.core.security.authn.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-node cache of user proxy authentications, keyed by the system username or by the user UUID. Protocol requests,
+ * messages and scheduled jobs authenticate the same few principals over and over, so the authentication is resolved by
+ * the authentication service only once per TTL. Entries are invalidated when roles, permissions or users are changed
+ * through this node, changes made on other nodes or directly in the authentication service are picked up after the TTL.
+ */
+@Component
+public class UserProxyAuthenticationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserProxyAuthenticationCache.class);
+
+    private final Map<Object, CachedAuthentication> authentications = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    /**
+     * @param ttlSeconds time for which the authentications are cached, caching is disabled when not positive
+     */
+    public UserProxyAuthenticationCache(@Value("${auth-service.user-proxy-cache-ttl:30}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * @param principal system username or user UUID
+     * @return cached authentication, null when it is not cached or expired
+     */
+    public AuthenticationInfo get(Object principal) {
+        CachedAuthentication cached = authentications.get(principal);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt() <= System.currentTimeMillis()) {
+            authentications.remove(principal, cached);
+            return null;
+        }
+        return cached.authenticationInfo();
+    }
+
+    /**
+     * Caches the authentication of the principal. Anonymous authentications are not cached.
+     *
+     * @param principal          system username or user UUID
+     * @param authenticationInfo authentication resolved by the authentication service
+     */
+    public void put(Object principal, AuthenticationInfo authenticationInfo) {
+        if (ttlMillis <= 0 || authenticationInfo == null || authenticationInfo.isAnonymous()) {
+            return;
+        }
+        authentications.put(principal, new CachedAuthentication(authenticationInfo, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Invalidates cached authentications of the user, both by its UUID and by its username.
+     *
+     * @param userUuid UUID of the changed user
+     */
+    public void invalidateUser(String userUuid) {
+        logger.debug("Invalidating cached user proxy authentications of user {}", userUuid);
+        authentications.values().removeIf(cached -> userUuid.equals(cached.authenticationInfo().getUserUuid()));
+    }
+
+    /**
+     * Invalidates all cached authentications, e.g. after change of role or its permissions.
+     */
+    public void invalidateAll() {
+        logger.debug("Invalidating all cached user proxy authentications");
+        authentications.clear();
+    }
+
+    private record CachedAuthentication(AuthenticationInfo authenticationInfo, long expiresAt) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.czertainly.core.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "cbom.sync")
+public record CbomSyncProperties(
+        int batchSize,
+        int maxParallelism
+) {
+
+    public CbomSyncProperties {
+        if (batchSize <= 0) batchSize = 100;
+        if (maxParallelism <= 0) maxParallelism = 5;
+    }
+
+}
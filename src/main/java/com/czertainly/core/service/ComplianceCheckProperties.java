@@ -0,0 +1,16 @@
+package com.czertainly.core.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "compliance.check")
+public record ComplianceCheckProperties(
+        int batchSize,
+        int maxParallelism
+) {
+
+    public ComplianceCheckProperties {
+        if (batchSize <= 0) batchSize = 100;
+        if (maxParallelism <= 0) maxParallelism = 5;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.czertainly.core.service.acme;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "acme.challenge-validation")
+public record AcmeChallengeValidationProperties(
+        int workerThreads,
+        int queueCapacity,
+        int maxAttempts,
+        long retryIntervalMs,
+        double retryMultiplier,
+        long maxRetryIntervalMs,
+        int connectTimeoutMs,
+        int readTimeoutMs,
+        int dnsCacheTtlSeconds,
+        long sweepIntervalMs
+) {
+
+    public AcmeChallengeValidationProperties {
+        if (workerThreads <= 0) workerThreads = 4;
+        if (queueCapacity <= 0) queueCapacity = 1000;
+        if (maxAttempts <= 0) maxAttempts = 3;
+        if (retryIntervalMs <= 0) retryIntervalMs = 10000;
+        if (retryMultiplier < 1) retryMultiplier = 2.0;
+        if (maxRetryIntervalMs <= 0) maxRetryIntervalMs = 60000;
+        if (connectTimeoutMs <= 0) connectTimeoutMs = 5000;
+        if (readTimeoutMs <= 0) readTimeoutMs = 10000;
+        if (dnsCacheTtlSeconds <= 0) dnsCacheTtlSeconds = 5;
+        if (sweepIntervalMs <= 0) sweepIntervalMs = 60000;
+    }
+
+    /**
+     * Time after which a challenge still being processed is considered abandoned, twice the longest possible validation
+     * including all attempts, their timeouts and retry intervals.
+     *
+     * @return validation timeout in milliseconds
+     */
+    public long validationTimeoutMs() {
+        long timeout = 0;
+        double retryInterval = retryIntervalMs;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            timeout += connectTimeoutMs + readTimeoutMs;
+            if (attempt < maxAttempts) {
+                timeout += (long) Math.min(retryInterval, maxRetryIntervalMs);
+                retryInterval *= retryMultiplier;
+            }
+        }
+        return 2 * timeout;
+    }
+
+}
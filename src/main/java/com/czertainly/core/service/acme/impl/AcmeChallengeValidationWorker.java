@@ -0,0 +1,278 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.api.model.core.acme.AuthorizationStatus;
+import com.czertainly.api.model.core.acme.ChallengeStatus;
+import com.czertainly.api.model.core.acme.ChallengeType;
+import com.czertainly.api.model.core.acme.OrderStatus;
+import com.czertainly.core.dao.entity.acme.AcmeAuthorization;
+import com.czertainly.core.dao.entity.acme.AcmeChallenge;
+import com.czertainly.core.dao.entity.acme.AcmeOrder;
+import com.czertainly.core.dao.entity.acme.AcmeProfile;
+import com.czertainly.core.dao.repository.acme.AcmeAuthorizationRepository;
+import com.czertainly.core.dao.repository.acme.AcmeChallengeRepository;
+import com.czertainly.core.dao.repository.acme.AcmeOrderRepository;
+import com.czertainly.core.events.transaction.AcmeChallengeValidationEvent;
+import com.czertainly.core.events.transaction.TransactionHandler;
+import com.czertainly.core.service.acme.AcmeChallengeValidationProperties;
+import com.czertainly.core.util.AcmePublicKeyProcessor;
+import com.czertainly.core.util.SerializationUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.PublicKey;
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates ACME challenges outside the client request thread. Challenges are handed over after the transaction that
+ * switched them to {@link ChallengeStatus#PROCESSING} is committed and are processed by a bounded pool of workers.
+ * Unsuccessful attempts are retried with exponential backoff until the configured number of attempts is reached,
+ * after which the challenge is marked as invalid.
+ * <p>
+ * Challenges whose validation cannot be scheduled or is interrupted by shutdown are returned to {@link ChallengeStatus#PENDING}
+ * state, so that the client can request the validation again. Challenges abandoned in processing state, e.g. by a node that
+ * was stopped without shutdown, are returned to pending state by periodic sweep once the validation timeout elapses.
+ */
+@Component
+public class AcmeChallengeValidationWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcmeChallengeValidationWorker.class);
+
+    private final AcmeChallengeValidationProperties properties;
+    private final AcmeChallengeValidator challengeValidator;
+    private final AcmeChallengeRepository acmeChallengeRepository;
+    private final AcmeAuthorizationRepository acmeAuthorizationRepository;
+    private final AcmeOrderRepository acmeOrderRepository;
+    private final TransactionHandler transactionHandler;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final AtomicInteger queuedValidations = new AtomicInteger();
+    private final Set<String> queuedChallenges = ConcurrentHashMap.newKeySet();
+    private final Set<String> runningChallenges = ConcurrentHashMap.newKeySet();
+
+    public AcmeChallengeValidationWorker(AcmeChallengeValidationProperties properties, AcmeChallengeValidator challengeValidator,
+                                         AcmeChallengeRepository acmeChallengeRepository, AcmeAuthorizationRepository acmeAuthorizationRepository,
+                                         AcmeOrderRepository acmeOrderRepository, TransactionHandler transactionHandler) {
+        this.properties = properties;
+        this.challengeValidator = challengeValidator;
+        this.acmeChallengeRepository = acmeChallengeRepository;
+        this.acmeAuthorizationRepository = acmeAuthorizationRepository;
+        this.acmeOrderRepository = acmeOrderRepository;
+        this.transactionHandler = transactionHandler;
+        this.executor = new ScheduledThreadPoolExecutor(properties.workerThreads(), new ValidationThreadFactory());
+        // queued validations and retries are returned to pending state on shutdown instead of delaying it
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Waits for running validations to complete for at most the timeout of one validation attempt,
+     * challenges whose validation was not completed are returned to pending state.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(properties.connectTimeoutMs() + (long) properties.readTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        Set<String> unfinishedChallenges = new HashSet<>(queuedChallenges);
+        unfinishedChallenges.addAll(runningChallenges);
+        if (!unfinishedChallenges.isEmpty()) {
+            logger.info("Returning {} ACME challenges with unfinished validation to pending state", unfinishedChallenges.size());
+            for (String challengeId : unfinishedChallenges) {
+                resetChallengeInNewTransaction(challengeId);
+            }
+        }
+    }
+
+    /**
+     * Returns challenges abandoned in processing state for longer than the validation timeout to pending state.
+     */
+    @Scheduled(fixedDelayString = "${acme.challenge-validation.sweep-interval-ms:60000}")
+    public void resetAbandonedChallenges() {
+        OffsetDateTime updatedBefore = OffsetDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(properties.validationTimeoutMs()));
+        try {
+            List<String> challengeIds = transactionHandler.runInTransaction(() -> acmeChallengeRepository.findByStatusAndUpdatedBefore(ChallengeStatus.PROCESSING, updatedBefore)
+                    .stream().map(AcmeChallenge::getChallengeId).filter(challengeId -> !queuedChallenges.contains(challengeId) && !runningChallenges.contains(challengeId)).toList());
+            for (String challengeId : challengeIds) {
+                logger.warn("Validation of ACME challenge {} was abandoned, challenge is returned to pending state", challengeId);
+                resetChallengeInNewTransaction(challengeId);
+            }
+        } catch (Exception e) {
+            logger.error("Unable to reset abandoned ACME challenges: {}", e.getMessage(), e);
+        }
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleChallengeValidationEvent(AcmeChallengeValidationEvent event) {
+        if (queuedValidations.get() >= properties.queueCapacity()) {
+            logger.warn("ACME challenge validation queue is full, challenge {} is returned to pending state", event.challengeId());
+            resetChallengeInNewTransaction(event.challengeId());
+            return;
+        }
+        schedule(event.challengeId(), 1, 0);
+    }
+
+    private void schedule(String challengeId, int attempt, long delayMs) {
+        queuedValidations.incrementAndGet();
+        queuedChallenges.add(challengeId);
+        try {
+            executor.schedule(() -> {
+                runningChallenges.add(challengeId);
+                queuedChallenges.remove(challengeId);
+                queuedValidations.decrementAndGet();
+                try {
+                    processChallenge(challengeId, attempt);
+                } finally {
+                    runningChallenges.remove(challengeId);
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            queuedChallenges.remove(challengeId);
+            queuedValidations.decrementAndGet();
+            logger.warn("Validation of ACME challenge {} could not be scheduled, challenge is returned to pending state: {}", challengeId, e.getMessage());
+            resetChallengeInNewTransaction(challengeId);
+        }
+    }
+
+    private void processChallenge(String challengeId, int attempt) {
+        try {
+            ChallengeValidationData data = transactionHandler.runInTransaction(() -> loadValidationData(challengeId));
+            if (data == null) {
+                return;
+            }
+
+            logger.debug("Validating ACME challenge {} of type {}, attempt {} of {}", challengeId, data.type(), attempt, properties.maxAttempts());
+            boolean isValid;
+            if (data.type() == ChallengeType.HTTP01) {
+                isValid = challengeValidator.validateHttpChallenge(data.identifier().replace("*.", ""), data.token(), data.accountPublicKey());
+            } else {
+                isValid = challengeValidator.validateDnsChallenge(data.identifier(), data.token(), data.accountPublicKey(), data.dnsResolverIp(), data.dnsResolverPort());
+            }
+
+            if (isValid) {
+                transactionHandler.runInNewTransaction(() -> completeChallenge(challengeId, true));
+            } else if (attempt < properties.maxAttempts()) {
+                long delay = getRetryDelay(attempt);
+                logger.debug("Validation of ACME challenge {} was not successful, retrying in {} ms", challengeId, delay);
+                schedule(challengeId, attempt + 1, delay);
+            } else {
+                logger.info("Validation of ACME challenge {} failed after {} attempts", challengeId, attempt);
+                transactionHandler.runInNewTransaction(() -> completeChallenge(challengeId, false));
+            }
+        } catch (Exception e) {
+            if (executor.isShutdown()) {
+                logger.info("Validation of ACME challenge {} interrupted by shutdown, challenge is returned to pending state", challengeId);
+                resetChallengeInNewTransaction(challengeId);
+                return;
+            }
+            logger.error("Unable to validate ACME challenge {}: {}", challengeId, e.getMessage(), e);
+            transactionHandler.runInNewTransaction(() -> completeChallenge(challengeId, false));
+        }
+    }
+
+    private long getRetryDelay(int attempt) {
+        double delay = properties.retryIntervalMs() * Math.pow(properties.retryMultiplier(), attempt - 1d);
+        return (long) Math.min(delay, properties.maxRetryIntervalMs());
+    }
+
+    private ChallengeValidationData loadValidationData(String challengeId) {
+        AcmeChallenge challenge = acmeChallengeRepository.findByChallengeId(challengeId).orElse(null);
+        if (challenge == null || challenge.getStatus() != ChallengeStatus.PROCESSING) {
+            logger.debug("ACME challenge {} is no longer being processed, validation skipped", challengeId);
+            return null;
+        }
+
+        AcmeAuthorization authorization = challenge.getAuthorization();
+        AcmeProfile acmeProfile = authorization.getOrder().getAcmeAccount().getAcmeProfile();
+        PublicKey publicKey;
+        try {
+            publicKey = AcmePublicKeyProcessor.publicKeyObjectFromString(authorization.getOrder().getAcmeAccount().getPublicKey());
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to parse public key of ACME account: " + e.getMessage(), e);
+        }
+        return new ChallengeValidationData(
+                challenge.getType(),
+                SerializationUtil.deserializeIdentifier(authorization.getIdentifier()).getValue(),
+                challenge.getToken(),
+                publicKey,
+                acmeProfile.getDnsResolverIp(),
+                acmeProfile.getDnsResolverPort());
+    }
+
+    private void completeChallenge(String challengeId, boolean isValid) {
+        AcmeChallenge challenge = acmeChallengeRepository.findByChallengeId(challengeId).orElse(null);
+        if (challenge == null || challenge.getStatus() != ChallengeStatus.PROCESSING) {
+            return;
+        }
+
+        if (isValid) {
+            AcmeAuthorization authorization = challenge.getAuthorization();
+            AcmeOrder order = authorization.getOrder();
+            challenge.setValidated(new Date());
+            challenge.setStatus(ChallengeStatus.VALID);
+            authorization.setStatus(AuthorizationStatus.VALID);
+            order.setStatus(OrderStatus.READY);
+            acmeOrderRepository.save(order);
+            acmeAuthorizationRepository.save(authorization);
+        } else {
+            challenge.setStatus(ChallengeStatus.INVALID);
+        }
+        acmeChallengeRepository.save(challenge);
+        logger.debug("Validation of the Challenge is completed: {}", challenge);
+    }
+
+    private void resetChallengeInNewTransaction(String challengeId) {
+        try {
+            transactionHandler.runInNewTransaction(() -> resetChallenge(challengeId));
+        } catch (Exception e) {
+            logger.error("Unable to return ACME challenge {} to pending state: {}", challengeId, e.getMessage(), e);
+        }
+    }
+
+    private void resetChallenge(String challengeId) {
+        acmeChallengeRepository.findByChallengeId(challengeId).ifPresent(challenge -> {
+            if (challenge.getStatus() == ChallengeStatus.PROCESSING) {
+                challenge.setStatus(ChallengeStatus.PENDING);
+                acmeChallengeRepository.save(challenge);
+            }
+        });
+    }
+
+    private record ChallengeValidationData(ChallengeType type, String identifier, String token, PublicKey accountPublicKey,
+                                           String dnsResolverIp, String dnsResolverPort) {
+    }
+
+    private static class ValidationThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "acme-challenge-validation-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
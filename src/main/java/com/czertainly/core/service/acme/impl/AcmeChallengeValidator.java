@@ -0,0 +1,181 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.api.exception.AcmeProblemDocumentException;
+import com.czertainly.api.model.core.acme.Problem;
+import com.czertainly.core.service.acme.AcmeChallengeValidationProperties;
+import com.czertainly.core.service.acme.AcmeConstants;
+import com.czertainly.core.util.AcmeCommonHelper;
+import com.nimbusds.jose.util.Base64URL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.naming.Context;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Performs the network part of the HTTP-01 and DNS-01 challenge validation. The HTTP client is shared, so the
+ * connections to the validated hosts are pooled, and the TXT records are cached for a short time to avoid repeated
+ * lookups when the same identifier is validated several times in a row.
+ */
+@Component
+public class AcmeChallengeValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcmeChallengeValidator.class);
+
+    private static final int MAX_DNS_CACHE_ENTRIES = 10000;
+
+    private final Duration readTimeout;
+    private final long dnsCacheTtlMillis;
+    private final HttpClient httpClient;
+    private final Map<String, CachedTxtRecords> txtRecordsCache = new ConcurrentHashMap<>();
+
+    public AcmeChallengeValidator(AcmeChallengeValidationProperties properties) {
+        this.readTimeout = Duration.ofMillis(properties.readTimeoutMs());
+        this.dnsCacheTtlMillis = Duration.ofSeconds(properties.dnsCacheTtlSeconds()).toMillis();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.connectTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    public boolean validateHttpChallenge(String domain, String token, PublicKey accountPublicKey) throws AcmeProblemDocumentException {
+        String response = getResponseFollowRedirects(AcmeConstants.HTTP_CHALLENGE_BASE_URL.formatted(domain, token));
+        String expectedResponse = AcmeCommonHelper.createKeyAuthorization(token, accountPublicKey);
+        logger.debug("HTTP01 validation response from the server: {}, expected response: {}", response, expectedResponse);
+        return response.equals(expectedResponse);
+    }
+
+    public boolean validateDnsChallenge(String domain, String token, PublicKey accountPublicKey, String dnsResolverIp, String dnsResolverPort) throws AcmeProblemDocumentException {
+        String expectedKeyAuthorization = generateDnsValidationToken(accountPublicKey, token);
+        List<String> txtRecords = lookupTxtRecords(AcmeConstants.DNS_ACME_PREFIX + domain, getDnsProviderUrl(dnsResolverIp, dnsResolverPort));
+        if (txtRecords.isEmpty()) {
+            logger.debug("TXT record is empty for domain: {}", domain);
+            return false;
+        }
+        if (!txtRecords.contains(expectedKeyAuthorization)) {
+            logger.debug("Expected TXT record not found for domain: {}", domain);
+            return false;
+        }
+        return true;
+    }
+
+    public List<String> lookupTxtRecords(String recordName, String providerUrl) {
+        String cacheKey = providerUrl + "|" + recordName;
+        long now = System.currentTimeMillis();
+        CachedTxtRecords cached = txtRecordsCache.get(cacheKey);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.records();
+        }
+
+        Properties env = new Properties();
+        env.setProperty(Context.INITIAL_CONTEXT_FACTORY, AcmeConstants.DNS_CONTENT_FACTORY);
+        env.setProperty(Context.PROVIDER_URL, providerUrl);
+
+        List<String> txtRecords = new ArrayList<>();
+        try {
+            DirContext context = new InitialDirContext(env);
+            try {
+                Attributes list = context.getAttributes(recordName, new String[]{AcmeConstants.DNS_RECORD_TYPE});
+                NamingEnumeration<? extends Attribute> records = list.getAll();
+                while (records.hasMore()) {
+                    Attribute dnsRecord = records.next();
+                    txtRecords.add(dnsRecord.get().toString());
+                }
+            } finally {
+                context.close();
+            }
+        } catch (NamingException e) {
+            logger.debug("Unable to resolve TXT record {}: {}", recordName, e.getMessage());
+        }
+
+        if (txtRecordsCache.size() >= MAX_DNS_CACHE_ENTRIES) {
+            txtRecordsCache.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+        if (txtRecordsCache.size() < MAX_DNS_CACHE_ENTRIES) {
+            txtRecordsCache.put(cacheKey, new CachedTxtRecords(List.copyOf(txtRecords), now + dnsCacheTtlMillis));
+        }
+        return txtRecords;
+    }
+
+    private String getResponseFollowRedirects(String url) throws AcmeProblemDocumentException {
+        URI finalUri = URI.create(url);
+        String acmeChallengeOutput = "";
+        int redirectFollowCount = 0;
+        try {
+            while (redirectFollowCount < AcmeConstants.MAX_REDIRECT_COUNT) {
+                redirectFollowCount += 1;
+                if (!(finalUri.getPort() == 80 || finalUri.getPort() == 443 || finalUri.getPort() == -1)) {
+                    throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.TLS, "Only 80 and 443 ports can be followed");
+                }
+                HttpRequest request = HttpRequest.newBuilder(finalUri)
+                        .timeout(readTimeout)
+                        .method(AcmeConstants.HTTP_CHALLENGE_REQUEST_METHOD, HttpRequest.BodyPublishers.noBody())
+                        .build();
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                int responseCode = response.statusCode();
+                if (100 <= responseCode && responseCode <= 399) {
+                    acmeChallengeOutput = response.body().lines().collect(Collectors.joining());
+                }
+                if (responseCode < 300 || responseCode >= 400) {
+                    break;
+                }
+                String redirectedUrl = response.headers().firstValue(AcmeConstants.LOCATION_HEADER_NAME).orElse(null);
+                if (redirectedUrl == null) {
+                    break;
+                }
+                finalUri = finalUri.resolve(redirectedUrl);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.debug("HTTP challenge response retrieval from {} interrupted", finalUri);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Unable to retrieve HTTP challenge response from {}: {}", finalUri, e.getMessage());
+        }
+        return acmeChallengeOutput;
+    }
+
+    private String generateDnsValidationToken(PublicKey publicKey, String token) throws AcmeProblemDocumentException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(AcmeConstants.MESSAGE_DIGEST_ALGORITHM);
+            final byte[] encodedHashOfExpectedKeyAuthorization = digest.digest(AcmeCommonHelper.createKeyAuthorization(token, publicKey).getBytes(StandardCharsets.UTF_8));
+            return Base64URL.encode(encodedHashOfExpectedKeyAuthorization).toString();
+        } catch (NoSuchAlgorithmException e) {
+            logger.error(e.getMessage());
+            throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.SERVER_INTERNAL);
+        }
+    }
+
+    private static String getDnsProviderUrl(String dnsResolverIp, String dnsResolverPort) {
+        if (dnsResolverIp == null || dnsResolverIp.isEmpty()) {
+            return AcmeConstants.DNS_ENV_PREFIX;
+        }
+        return AcmeConstants.DNS_ENV_PREFIX + dnsResolverIp + ":" + (dnsResolverPort == null ? AcmeConstants.DEFAULT_DNS_PORT : dnsResolverPort);
+    }
+
+    private record CachedTxtRecords(List<String> records, long expiresAt) {
+    }
+}
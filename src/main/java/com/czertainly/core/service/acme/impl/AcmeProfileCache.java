@@ -0,0 +1,56 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.core.cache.ProtocolProfileCache;
+import com.czertainly.core.dao.entity.RaProfile;
+import com.czertainly.core.dao.entity.acme.AcmeProfile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Caches the ACME profile settings needed to resolve and validate the {@code /acme/{profile}} and
+ * {@code /acme/raProfile/{profile}} paths, so that they do not need to be loaded from the database for each request.
+ */
+@Component
+public class AcmeProfileCache extends ProtocolProfileCache<AcmeProfileCache.Key, AcmeProfileCache.AcmeProfileInfo> {
+
+    public AcmeProfileCache(@Value("${settings.cache.refresh-interval}") long ttlSeconds) {
+        super(ttlSeconds);
+    }
+
+    public record Key(String profileName, boolean raProfileBased) {
+    }
+
+    /**
+     * Immutable snapshot of the ACME profile and its RA profile.
+     * When the path is RA profile based and no ACME profile is associated, {@code acmeProfileUuid} is null.
+     * When no RA profile is associated with the ACME profile, {@code raProfileUuid} is null.
+     */
+    public record AcmeProfileInfo(
+            UUID acmeProfileUuid,
+            String acmeProfileName,
+            boolean acmeProfileEnabled,
+            UUID raProfileUuid,
+            boolean raProfileEnabled,
+            boolean disableNewOrders,
+            String termsOfServiceUrl,
+            String termsOfServiceChangeUrl,
+            String website
+    ) {
+
+        public static AcmeProfileInfo of(AcmeProfile acmeProfile, RaProfile raProfile) {
+            return new AcmeProfileInfo(
+                    acmeProfile == null ? null : acmeProfile.getUuid(),
+                    acmeProfile == null ? null : acmeProfile.getName(),
+                    acmeProfile != null && Boolean.TRUE.equals(acmeProfile.isEnabled()),
+                    raProfile == null ? null : raProfile.getUuid(),
+                    raProfile != null && Boolean.TRUE.equals(raProfile.getEnabled()),
+                    acmeProfile != null && Boolean.TRUE.equals(acmeProfile.isDisableNewOrders()),
+                    acmeProfile == null ? null : acmeProfile.getTermsOfServiceUrl(),
+                    acmeProfile == null ? null : acmeProfile.getTermsOfServiceChangeUrl(),
+                    acmeProfile == null ? null : acmeProfile.getWebsite()
+            );
+        }
+    }
+}
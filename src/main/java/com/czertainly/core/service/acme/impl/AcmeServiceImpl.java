@@ -25,6 +25,7 @@ import com.czertainly.core.dao.entity.acme.*;
 import com.czertainly.core.dao.repository.AcmeProfileRepository;
 import com.czertainly.core.dao.repository.RaProfileRepository;
 import com.czertainly.core.dao.repository.acme.*;
+import com.czertainly.core.events.transaction.AcmeChallengeValidationEvent;
 import com.czertainly.core.logging.LoggingHelper;
 import com.czertainly.core.model.auth.CertificateProtocolInfo;
 import com.czertainly.core.security.authz.SecuredParentUUID;
@@ -37,7 +38,6 @@ import com.czertainly.core.service.v2.ClientOperationService;
 import com.czertainly.core.util.*;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSObject;
-import com.nimbusds.jose.util.Base64URL;
 import jakarta.transaction.Transactional;
 import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
 import org.bouncycastle.asn1.x500.style.BCStyle;
@@ -52,32 +52,25 @@ import org.bouncycastle.util.io.pem.PemObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import javax.naming.Context;
-import javax.naming.NamingEnumeration;
-import javax.naming.NamingException;
-import javax.naming.directory.Attribute;
-import javax.naming.directory.Attributes;
-import javax.naming.directory.DirContext;
-import javax.naming.directory.InitialDirContext;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.StringWriter;
-import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.cert.CertificateException;
@@ -103,6 +96,18 @@ public class AcmeServiceImpl implements AcmeService {
     private ClientOperationService clientOperationService;
     private CertificateService certificateService;
     private AttributeEngine attributeEngine;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private AcmeProfileCache acmeProfileCache;
+
+    @Autowired
+    public void setAcmeProfileCache(AcmeProfileCache acmeProfileCache) {
+        this.acmeProfileCache = acmeProfileCache;
+    }
+
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
 
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
@@ -159,29 +164,22 @@ public class AcmeServiceImpl implements AcmeService {
     public ResponseEntity<Directory> getDirectory(String acmeProfileName, URI requestUri, boolean isRaProfileBased) throws AcmeProblemDocumentException {
         logger.debug("Gathering Directory information for ACME: {}", acmeProfileName);
 
-        Directory directory = new Directory();
-        String baseUri = getAcmeBaseUri();
-        String replaceUrl;
-        if (isRaProfileBased) {
-            replaceUrl = "%s/raProfile/%s/";
-        } else {
-            replaceUrl = "%s/%s/";
-        }
-        directory.setNewNonce((replaceUrl + "new-nonce").formatted(baseUri, acmeProfileName));
-        directory.setNewAccount((replaceUrl + "new-account").formatted(baseUri, acmeProfileName));
-        directory.setNewOrder((replaceUrl + "new-order").formatted(baseUri, acmeProfileName));
-        directory.setNewAuthz((replaceUrl + "new-authz").formatted(baseUri, acmeProfileName));
-        directory.setRevokeCert((replaceUrl + "revoke-cert").formatted(baseUri, acmeProfileName));
-        directory.setKeyChange((replaceUrl + "key-change").formatted(baseUri, acmeProfileName));
-        try {
-            directory.setMeta(frameDirectoryMeta(acmeProfileName, isRaProfileBased));
-        } catch (NotFoundException e) {
-            throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.SERVER_INTERNAL, "Given profile name is not found");
-        }
+        // the directory is framed per request from cached profile, since its URLs depend on the host requested by the client
+        Directory directory = frameDirectory(getAcmeBaseUri(), acmeProfileName, isRaProfileBased);
         logger.debug("Directory information retrieved: {}", directory);
 
+        String eTag = getDirectoryETag(directory);
+        if (isNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(eTag)
+                    .header(AcmeConstants.NONCE_HEADER_NAME, generateNonce())
+                    .build();
+        }
+
         return ResponseEntity.ok()
-                .cacheControl(CacheControl.noStore())
+                .cacheControl(CacheControl.noCache())
+                .eTag(eTag)
                 .header(AcmeConstants.NONCE_HEADER_NAME, generateNonce())
                 .body(directory);
     }
@@ -501,32 +499,22 @@ public class AcmeServiceImpl implements AcmeService {
         logger.debug("Order corresponding to the Challenge: {}", order.toString());
         LoggingHelper.putLogResourceInfo(com.czertainly.api.model.core.auth.Resource.ACME_ORDER, true, order.getUuid().toString(), order.getOrderId());
 
-        boolean isValid;
-        if (challenge.getType().equals(ChallengeType.HTTP01)) {
-            isValid = validateHttpChallenge(challenge);
-        } else {
-            isValid = validateDnsChallenge(challenge);
-        }
-
-        if (isValid) {
-            challenge.setValidated(new Date());
-            challenge.setStatus(ChallengeStatus.VALID);
-            authorization.setStatus(AuthorizationStatus.VALID);
-            order.setStatus(OrderStatus.READY);
+        // RFC 8555 Section 7.5.1: the server validates the challenge asynchronously and the client polls the
+        // challenge or authorization resource until the validation is completed
+        if (challenge.getStatus() == ChallengeStatus.PENDING) {
+            challenge.setStatus(ChallengeStatus.PROCESSING);
+            acmeChallengeRepository.save(challenge);
+            applicationEventPublisher.publishEvent(new AcmeChallengeValidationEvent(challenge.getChallengeId()));
+            logger.debug("Validation of the Challenge is scheduled: {}", challenge);
         } else {
-            challenge.setStatus(ChallengeStatus.INVALID);
+            logger.debug("Challenge is not pending, returning current state: {}", challenge);
         }
 
-        acmeOrderRepository.save(order);
-        acmeChallengeRepository.save(challenge);
-        acmeAuthorizationRepository.save(authorization);
-
-        logger.debug("Validation of the Challenge is completed: {}", challenge);
-
         return ResponseEntity.ok()
                 .header(AcmeConstants.NONCE_HEADER_NAME, generateNonce())
                 .header(AcmeConstants.LINK_HEADER_NAME, generateLinkHeader(acmeProfileName, isRaProfileBased))
                 .header(AcmeConstants.LINK_HEADER_NAME, "<" + challenge.getAuthorization().getUrl() + ">;rel=\"up\"")
+                .header(AcmeConstants.RETRY_HEADER_NAME, order.getAcmeAccount().getAcmeProfile().getRetryInterval().toString())
                 .body(challenge.mapToDto());
     }
 
@@ -722,23 +710,74 @@ public class AcmeServiceImpl implements AcmeService {
         return ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString() + AcmeConstants.ACME_URI_HEADER;
     }
 
-    private DirectoryMeta frameDirectoryMeta(String profileName, boolean isRaProfileBased) throws NotFoundException {
-        AcmeProfile acmeProfile;
+    private Directory frameDirectory(String baseUri, String profileName, boolean isRaProfileBased) throws AcmeProblemDocumentException {
+        AcmeProfileCache.AcmeProfileInfo profileInfo = getAcmeProfileInfo(profileName, isRaProfileBased);
+        if (profileInfo == null || profileInfo.acmeProfileUuid() == null) {
+            throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.SERVER_INTERNAL, "Given profile name is not found");
+        }
+
+        Directory directory = new Directory();
+        String replaceUrl;
         if (isRaProfileBased) {
-            acmeProfile = getRaProfileEntity(profileName).getAcmeProfile();
+            replaceUrl = "%s/raProfile/%s/";
         } else {
-            acmeProfile = acmeProfileRepository.findByName(profileName).orElse(null);
-        }
-        if (acmeProfile == null) {
-            throw new NotFoundException(AcmeProfile.class, profileName);
+            replaceUrl = "%s/%s/";
         }
+        directory.setNewNonce((replaceUrl + "new-nonce").formatted(baseUri, profileName));
+        directory.setNewAccount((replaceUrl + "new-account").formatted(baseUri, profileName));
+        directory.setNewOrder((replaceUrl + "new-order").formatted(baseUri, profileName));
+        directory.setNewAuthz((replaceUrl + "new-authz").formatted(baseUri, profileName));
+        directory.setRevokeCert((replaceUrl + "revoke-cert").formatted(baseUri, profileName));
+        directory.setKeyChange((replaceUrl + "key-change").formatted(baseUri, profileName));
+
         DirectoryMeta meta = new DirectoryMeta();
         meta.setCaaIdentities(new String[0]);
-        meta.setTermsOfService(acmeProfile.getTermsOfServiceUrl());
+        meta.setTermsOfService(profileInfo.termsOfServiceUrl());
         meta.setExternalAccountRequired(false);
-        meta.setWebsite(acmeProfile.getWebsite());
+        meta.setWebsite(profileInfo.website());
+        directory.setMeta(meta);
         logger.debug("Directory meta: {}", meta);
-        return meta;
+        return directory;
+    }
+
+    private String getDirectoryETag(Directory directory) {
+        String eTagSource = String.join("|", directory.getNewNonce(), directory.getNewAccount(), directory.getNewOrder(),
+                directory.getNewAuthz(), directory.getRevokeCert(), directory.getKeyChange(),
+                String.valueOf(directory.getMeta().getTermsOfService()), String.valueOf(directory.getMeta().getWebsite()));
+        return "\"" + DigestUtils.md5DigestAsHex(eTagSource.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private boolean isNotModified(String eTag) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes requestAttributes)) {
+            return false;
+        }
+        String ifNoneMatch = requestAttributes.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AcmeProfileCache.AcmeProfileInfo getAcmeProfileInfo(String profileName, boolean isRaProfileBased) {
+        return acmeProfileCache.get(new AcmeProfileCache.Key(profileName, isRaProfileBased), key -> {
+            if (key.raProfileBased()) {
+                return raProfileRepository.findByName(key.profileName())
+                        .map(raProfile -> AcmeProfileCache.AcmeProfileInfo.of(raProfile.getAcmeProfile(), raProfile))
+                        .orElse(null);
+            }
+            return acmeProfileRepository.findByName(key.profileName())
+                    .map(acmeProfile -> AcmeProfileCache.AcmeProfileInfo.of(acmeProfile, acmeProfile.getRaProfile()))
+                    .orElse(null);
+        });
     }
 
     private String generateNonce() {
@@ -950,129 +989,6 @@ public class AcmeServiceImpl implements AcmeService {
         return challenge;
     }
 
-    private boolean validateHttpChallenge(AcmeChallenge challenge) throws AcmeProblemDocumentException {
-        logger.debug("Initiating HTTP-01 Challenge validation: {}", challenge.toString());
-        String response = getHttpChallengeResponse(
-                SerializationUtil.deserializeIdentifier(
-                                challenge
-                                        .getAuthorization()
-                                        .getIdentifier()
-                        )
-                        .getValue().replace("*.", ""),
-                challenge.getToken());
-        PublicKey pubKey;
-        try {
-            pubKey = AcmePublicKeyProcessor.publicKeyObjectFromString(challenge.getAuthorization().getOrder().getAcmeAccount().getPublicKey());
-        } catch (Exception e) {
-            throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.SERVER_INTERNAL);
-        }
-        String expectedResponse = AcmeCommonHelper.createKeyAuthorization(challenge.getToken(), pubKey);
-        logger.debug("HTTP01 validation response from the server: {}, expected response: {}", response, expectedResponse);
-        return response.equals(expectedResponse);
-    }
-
-    private boolean validateDnsChallenge(AcmeChallenge challenge) throws AcmeProblemDocumentException {
-        logger.info("Initiating DNS-01 validation for challenge: {}", challenge.toString());
-        Properties env = getEnv(challenge);
-        List<String> txtRecords = new ArrayList<>();
-        String expectedKeyAuthorization = generateDnsValidationToken(challenge.getAuthorization().getOrder().getAcmeAccount().getPublicKey(), challenge.getToken());
-        DirContext context;
-        try {
-            context = new InitialDirContext(env);
-            Attributes list = context.getAttributes(AcmeConstants.DNS_ACME_PREFIX
-                            + SerializationUtil.deserializeIdentifier(
-                            challenge.getAuthorization().getIdentifier()).getValue(),
-                    new String[]{AcmeConstants.DNS_RECORD_TYPE});
-            NamingEnumeration<? extends Attribute> records = list.getAll();
-
-            while (records.hasMore()) {
-                javax.naming.directory.Attribute record = records.next();
-                txtRecords.add(record.get().toString());
-            }
-        } catch (NamingException e) {
-            logger.error(e.getMessage());
-        }
-        if (txtRecords.isEmpty()) {
-            logger.error("TXT record is empty for Challenge: {}", challenge);
-            return false;
-        }
-        if (!txtRecords.contains(expectedKeyAuthorization)) {
-            logger.error("TXT record not found for Challenge: {}", challenge);
-            return false;
-        }
-        return true;
-    }
-
-    private static Properties getEnv(AcmeChallenge challenge) {
-        Properties env = new Properties();
-        env.setProperty(Context.INITIAL_CONTEXT_FACTORY, AcmeConstants.DNS_CONTENT_FACTORY);
-        AcmeProfile acmeProfile = challenge.getAuthorization().getOrder().getAcmeAccount().getAcmeProfile();
-        if (acmeProfile.getDnsResolverIp() == null || acmeProfile.getDnsResolverIp().isEmpty()) {
-            env.setProperty(Context.PROVIDER_URL, AcmeConstants.DNS_ENV_PREFIX);
-        } else {
-            env.setProperty(Context.PROVIDER_URL, AcmeConstants.DNS_ENV_PREFIX + acmeProfile.getDnsResolverIp() + ":" + Optional.ofNullable(acmeProfile.getDnsResolverPort())
-                    .orElse(AcmeConstants.DEFAULT_DNS_PORT));
-        }
-        return env;
-    }
-
-    private String getHttpChallengeResponse(String domain, String token) throws AcmeProblemDocumentException {
-        return getResponseFollowRedirects(AcmeConstants.HTTP_CHALLENGE_BASE_URL.formatted(domain, token));
-    }
-
-    private String getResponseFollowRedirects(String url) throws AcmeProblemDocumentException {
-        String finalUrl = url;
-        String acmeChallengeOutput = "";
-        int redirectFollowCount = 0;
-        try {
-            HttpURLConnection connection;
-            do {
-                redirectFollowCount += 1;
-                URL urlObject = new URL(finalUrl);
-                if (!(urlObject.getPort() == 80 || urlObject.getPort() == 443 || urlObject.getPort() == -1)) {
-                    throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.TLS, "Only 80 and 443 ports can be followed");
-                }
-                connection = (HttpURLConnection) new URL(finalUrl).openConnection();
-                connection.setInstanceFollowRedirects(false);
-                connection.setUseCaches(false);
-                connection.setRequestMethod(AcmeConstants.HTTP_CHALLENGE_REQUEST_METHOD);
-                connection.connect();
-                int responseCode = connection.getResponseCode();
-                if (100 <= connection.getResponseCode() && connection.getResponseCode() <= 399) {
-                    BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                    acmeChallengeOutput = bufferedReader.lines().collect(Collectors.joining());
-                }
-                if (responseCode >= 300 && responseCode < 400) {
-                    String redirectedUrl = connection.getHeaderField(AcmeConstants.LOCATION_HEADER_NAME);
-                    if (null == redirectedUrl) {
-                        break;
-                    }
-                    finalUrl = redirectedUrl;
-                } else
-                    break;
-            } while (connection.getResponseCode() != HttpURLConnection.HTTP_OK && redirectFollowCount < AcmeConstants.MAX_REDIRECT_COUNT);
-            connection.disconnect();
-        } catch (AcmeProblemDocumentException e) {
-            throw e;
-        } catch (Exception e) {
-            logger.error(e.getMessage());
-        }
-        return acmeChallengeOutput;
-    }
-
-    private String generateDnsValidationToken(String publicKey, String token) throws AcmeProblemDocumentException {
-        MessageDigest digest;
-        try {
-            PublicKey pubKey = AcmePublicKeyProcessor.publicKeyObjectFromString(publicKey);
-            digest = MessageDigest.getInstance(AcmeConstants.MESSAGE_DIGEST_ALGORITHM);
-            final byte[] encodedHashOfExpectedKeyAuthorization = digest.digest(AcmeCommonHelper.createKeyAuthorization(token, pubKey).getBytes(StandardCharsets.UTF_8));
-            return Base64URL.encode(encodedHashOfExpectedKeyAuthorization).toString();
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
-            logger.error(e.getMessage());
-            throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.SERVER_INTERNAL);
-        }
-    }
-
     private void validateCSR(JcaPKCS10CertificationRequest csr, AcmeOrder order) throws AcmeProblemDocumentException {
         List<String> sans = new ArrayList<>();
         List<String> dnsIdentifiers = new ArrayList<>();
@@ -1319,49 +1235,51 @@ public class AcmeServiceImpl implements AcmeService {
     }
 
     public void validateRaBasedAcme(String raProfileName) throws AcmeProblemDocumentException {
-        RaProfile raProfile = raProfileRepository.findByName(raProfileName).orElseThrow(() ->
-                new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
-                        "Given RA Profile in the request URL is not found"));
-        if (raProfile.getAcmeProfile() == null) {
+        AcmeProfileCache.AcmeProfileInfo profileInfo = getAcmeProfileInfo(raProfileName, true);
+        if (profileInfo == null) {
+            throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
+                    "Given RA Profile in the request URL is not found");
+        }
+        if (profileInfo.acmeProfileUuid() == null) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "ACME Profile is not associated with the RA Profile");
         }
-        if (!raProfile.getEnabled()) {
+        if (!profileInfo.raProfileEnabled()) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "RA Profile is not enabled");
         }
 
-        if (!raProfile.getAcmeProfile().isEnabled()) {
+        if (!profileInfo.acmeProfileEnabled()) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "ACME Profile is not enabled");
         }
     }
 
     private void validateAcme(String acmeProfileName) throws AcmeProblemDocumentException {
-        AcmeProfile acmeProfile = acmeProfileRepository.findByName(acmeProfileName).orElse(null);
-        if (acmeProfile == null) {
+        AcmeProfileCache.AcmeProfileInfo profileInfo = getAcmeProfileInfo(acmeProfileName, false);
+        if (profileInfo == null) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "Given ACME Profile in the request URL is not found");
         }
 
-        if (!acmeProfile.isEnabled()) {
+        if (!profileInfo.acmeProfileEnabled()) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "ACME Profile is not enabled");
         }
-        if (acmeProfile.getRaProfile() == null) {
+        if (profileInfo.raProfileUuid() == null) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "RA Profile is not found");
         }
-        if (!acmeProfile.getRaProfile().getEnabled()) {
+        if (!profileInfo.raProfileEnabled()) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "RA Profile is not enabled");
         }
-        if (acmeProfile.isDisableNewOrders()) {
+        if (profileInfo.disableNewOrders()) {
             ProblemDocument problemDocument = new ProblemDocument(Problem.USER_ACTION_REQUIRED);
-            problemDocument.setInstance(acmeProfile.getTermsOfServiceUrl());
+            problemDocument.setInstance(profileInfo.termsOfServiceUrl());
             problemDocument.setDetail("Terms of service have changed");
             Map<String, String> additionalHeaders = new HashMap<>();
-            additionalHeaders.put("Link", "<" + acmeProfile.getTermsOfServiceChangeUrl() + ">;rel=\"terms-of-service\"");
+            additionalHeaders.put("Link", "<" + profileInfo.termsOfServiceChangeUrl() + ">;rel=\"terms-of-service\"");
             throw new AcmeProblemDocumentException(HttpStatus.FORBIDDEN, problemDocument, additionalHeaders);
         }
     }
@@ -0,0 +1,162 @@
+package com.czertainly.core.service.cmp.configurations;
+
+import com.czertainly.api.model.client.attribute.RequestAttribute;
+import com.czertainly.api.model.core.cmp.CmpProfileVariant;
+import com.czertainly.api.model.core.cmp.ProtectionMethod;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.RaProfile;
+import com.czertainly.core.dao.entity.cmp.CmpProfile;
+import com.czertainly.core.provider.CzertainlyProvider;
+import com.czertainly.core.provider.key.CzertainlyPrivateKey;
+import com.czertainly.core.service.cmp.message.CertificateKeyService;
+import com.czertainly.core.service.cmp.message.protection.CmpProtectionMaterial;
+import com.czertainly.core.util.CertificateUtil;
+import org.bouncycastle.asn1.cmp.CMPCertificate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the CMP profile configuration needed to process CMP messages. It is built once per profile,
+ * shared by concurrent requests through their {@link ConfigurationContext} and rebuilt after the CMP profile, its
+ * RA profile or its signing certificate changes.
+ *
+ * @param raProfileBased     whether the profile was requested through the RA profile based URL
+ * @param cmpProfile         CMP profile, null when not found
+ * @param raProfile          RA profile used to issue and revoke certificates, null when not found
+ * @param signing            signing certificate of the CMP profile with its private key, null when not assigned
+ * @param issueAttributes    attributes used to issue certificates
+ * @param revokeAttributes   attributes used to revoke certificates
+ * @param protectionMaterial material used to create and verify protection of the messages of the profile
+ * @param configurationError reason why the profile cannot serve the requests, null when the profile is usable
+ */
+public record CmpProfileConfiguration(
+        boolean raProfileBased,
+        CmpProfileInfo cmpProfile,
+        RaProfileInfo raProfile,
+        SigningInfo signing,
+        List<RequestAttribute> issueAttributes,
+        List<RequestAttribute> revokeAttributes,
+        CmpProtectionMaterial protectionMaterial,
+        String configurationError
+) {
+
+    private static final Logger logger = LoggerFactory.getLogger(CmpProfileConfiguration.class);
+
+    public record CmpProfileInfo(
+            UUID uuid,
+            String name,
+            Boolean enabled,
+            CmpProfileVariant variant,
+            ProtectionMethod requestProtectionMethod,
+            ProtectionMethod responseProtectionMethod,
+            String sharedSecret,
+            boolean raProfileAssociated
+    ) {
+    }
+
+    public record RaProfileInfo(
+            UUID uuid,
+            String name,
+            Boolean enabled,
+            UUID authorityInstanceUuid,
+            boolean cmpProfileAssociated
+    ) {
+    }
+
+    /**
+     * @param certificateUuid UUID of the signing certificate in the inventory
+     * @param certificate     the signing certificate, null when it cannot be parsed
+     * @param privateKey      private key of the signing certificate, null when it is not available
+     * @param provider        provider performing operations with the private key, null when it is not available
+     */
+    public record SigningInfo(
+            UUID certificateUuid,
+            X509Certificate certificate,
+            CzertainlyPrivateKey privateKey,
+            CzertainlyProvider provider
+    ) {
+    }
+
+    /**
+     * Creates the snapshot of the profiles. The entities must be attached to the persistence context, since their
+     * associations are read.
+     */
+    public static CmpProfileConfiguration of(CmpProfile cmpProfile, RaProfile raProfile, boolean raProfileBased,
+                                             List<RequestAttribute> issueAttributes, List<RequestAttribute> revokeAttributes,
+                                             CertificateKeyService certificateKeyService) {
+        CmpProfileInfo cmpProfileInfo = null;
+        SigningInfo signingInfo = null;
+        if (cmpProfile != null) {
+            cmpProfileInfo = new CmpProfileInfo(
+                    cmpProfile.getUuid(),
+                    cmpProfile.getName(),
+                    cmpProfile.getEnabled(),
+                    cmpProfile.getVariant(),
+                    cmpProfile.getRequestProtectionMethod(),
+                    cmpProfile.getResponseProtectionMethod(),
+                    cmpProfile.getSharedSecret(),
+                    cmpProfile.getRaProfile() != null);
+            if (cmpProfile.getSigningCertificate() != null) {
+                signingInfo = createSigningInfo(cmpProfile.getName(), cmpProfile.getSigningCertificate(), certificateKeyService);
+            }
+        }
+
+        RaProfileInfo raProfileInfo = null;
+        if (raProfile != null) {
+            raProfileInfo = new RaProfileInfo(
+                    raProfile.getUuid(),
+                    raProfile.getName(),
+                    raProfile.getEnabled(),
+                    raProfile.getAuthorityInstanceReferenceUuid(),
+                    raProfile.getCmpProfile() != null);
+        }
+
+        return new CmpProfileConfiguration(raProfileBased, cmpProfileInfo, raProfileInfo, signingInfo,
+                issueAttributes, revokeAttributes, createProtectionMaterial(signingInfo), null);
+    }
+
+    public CmpProfileConfiguration withConfigurationError(String configurationError) {
+        return new CmpProfileConfiguration(raProfileBased, cmpProfile, raProfile, signing, issueAttributes,
+                revokeAttributes, protectionMaterial, configurationError);
+    }
+
+    private static CmpProtectionMaterial createProtectionMaterial(SigningInfo signingInfo) {
+        List<CMPCertificate> signingExtraCerts = List.of();
+        if (signingInfo != null && signingInfo.certificate() != null) {
+            try {
+                // self-signed CA structure, the signing certificate is the only one in the chain
+                signingExtraCerts = List.of(CertificateUtil.toCmpCertificate(signingInfo.certificate()));
+            } catch (CertificateException e) {
+                logger.debug("signing certificate {} cannot be encoded: {}", signingInfo.certificateUuid(), e.getMessage());
+            }
+        }
+        return new CmpProtectionMaterial(signingExtraCerts);
+    }
+
+    private static SigningInfo createSigningInfo(String cmpProfileName, Certificate signingCertificate,
+                                                 CertificateKeyService certificateKeyService) {
+        X509Certificate certificate = null;
+        try {
+            certificate = CertificateUtil.parseCertificate(signingCertificate.getCertificateContent().getContent());
+        } catch (CertificateException e) {
+            logger.debug("PN={} | signing certificate {} cannot be parsed: {}", cmpProfileName, signingCertificate.getUuid(), e.getMessage());
+        }
+
+        CzertainlyPrivateKey privateKey = null;
+        CzertainlyProvider provider = null;
+        if (signingCertificate.getKey() != null) {
+            try {
+                privateKey = certificateKeyService.getPrivateKey(signingCertificate);
+                provider = certificateKeyService.getProvider(cmpProfileName, signingCertificate);
+            } catch (RuntimeException e) {
+                logger.debug("PN={} | private key of signing certificate {} is not available: {}", cmpProfileName, signingCertificate.getUuid(), e.getMessage());
+            }
+        }
+        return new SigningInfo(signingCertificate.getUuid(), certificate, privateKey, provider);
+    }
+}
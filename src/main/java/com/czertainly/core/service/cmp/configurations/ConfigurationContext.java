@@ -5,8 +5,6 @@ import com.czertainly.api.model.core.cmp.ProtectionMethod;
 import com.czertainly.api.interfaces.core.cmp.error.CmpBaseException;
 import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
 import com.czertainly.api.interfaces.core.cmp.error.CmpConfigurationException;
-import com.czertainly.core.dao.entity.RaProfile;
-import com.czertainly.core.dao.entity.cmp.CmpProfile;
 import com.czertainly.core.service.cmp.message.protection.ProtectionStrategy;
 import org.bouncycastle.asn1.ASN1OctetString;
 import org.bouncycastle.asn1.cmp.PKIMessage;
@@ -16,9 +14,14 @@ import java.util.List;
 
 public interface ConfigurationContext {
 
-    CmpProfile getCmpProfile();
+    /**
+     * @return cached configuration of the profile shared by all requests of the profile
+     */
+    CmpProfileConfiguration getProfileConfiguration();
+
+    CmpProfileConfiguration.CmpProfileInfo getCmpProfile();
 
-    RaProfile getRaProfile();
+    CmpProfileConfiguration.RaProfileInfo getRaProfile();
 
     GeneralName getRecipient();
 
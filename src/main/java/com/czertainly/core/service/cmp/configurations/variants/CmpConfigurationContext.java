@@ -5,9 +5,7 @@ import com.czertainly.api.interfaces.core.cmp.error.CmpBaseException;
 import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
 import com.czertainly.api.interfaces.core.cmp.error.CmpConfigurationException;
 import com.czertainly.api.model.core.cmp.ProtectionMethod;
-import com.czertainly.core.dao.entity.RaProfile;
-import com.czertainly.core.dao.entity.cmp.CmpProfile;
-import com.czertainly.core.service.cmp.message.CertificateKeyService;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
 import com.czertainly.core.service.cmp.message.protection.ProtectionStrategy;
 import com.czertainly.core.service.cmp.message.protection.impl.PasswordBasedMacProtectionStrategy;
@@ -19,37 +17,37 @@ import org.bouncycastle.asn1.cmp.PKIFailureInfo;
 import org.bouncycastle.asn1.cmp.PKIMessage;
 import org.bouncycastle.asn1.x509.GeneralName;
 
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Context of one CMP request. The profile configuration is shared by all requests of the profile, only the request
+ * message is specific to the context.
+ */
 public class CmpConfigurationContext implements ConfigurationContext {
 
     protected final PKIMessage requestMessage;
-    protected final CmpProfile cmpProfile;
-    private final RaProfile raProfile;
-    private final CertificateKeyService certificateKeyService;
-    private final List<RequestAttribute> issueAttributes;
-    private final List<RequestAttribute> revokeAttributes;
-
-    public CmpConfigurationContext(CmpProfile cmpProfile, RaProfile raProfile, PKIMessage pkiRequest,
-                                   CertificateKeyService certificateKeyServiceImpl,
-                                   List<RequestAttribute> issueAttributes,
-                                   List<RequestAttribute> revokeAttributes) {
+    protected final CmpProfileConfiguration profileConfiguration;
+    private ProtectionStrategy protectionStrategy;
+
+    public CmpConfigurationContext(CmpProfileConfiguration profileConfiguration, PKIMessage pkiRequest) {
         this.requestMessage = pkiRequest;
-        this.cmpProfile = cmpProfile;
-        this.raProfile = raProfile;
-        this.certificateKeyService = certificateKeyServiceImpl;
-        this.issueAttributes = issueAttributes;
-        this.revokeAttributes = revokeAttributes;
+        this.profileConfiguration = profileConfiguration;
     }
 
     @Override
-    public CmpProfile getCmpProfile() {
-        return cmpProfile;
+    public CmpProfileConfiguration getProfileConfiguration() {
+        return profileConfiguration;
     }
 
     @Override
-    public RaProfile getRaProfile() {
-        return raProfile;
+    public CmpProfileConfiguration.CmpProfileInfo getCmpProfile() {
+        return profileConfiguration.cmpProfile();
+    }
+
+    @Override
+    public CmpProfileConfiguration.RaProfileInfo getRaProfile() {
+        return profileConfiguration.raProfile();
     }
 
     /**
@@ -83,16 +81,27 @@ public class CmpConfigurationContext implements ConfigurationContext {
 
     @Override
     public ProtectionMethod getProtectionMethod() {
-        return getCmpProfile().getRequestProtectionMethod();
+        return getCmpProfile().requestProtectionMethod();
     }
 
+    /**
+     * The strategy is created once per request, as it is used to check the protection of the request, to protect
+     * the response and to check the protection of the response.
+     */
     @Override
     public ProtectionStrategy getProtectionStrategy() throws CmpBaseException {
-        ProtectionMethod czrtProtectionMethod = getCmpProfile().getResponseProtectionMethod();
+        if (protectionStrategy == null) {
+            protectionStrategy = createProtectionStrategy();
+        }
+        return protectionStrategy;
+    }
+
+    private ProtectionStrategy createProtectionStrategy() throws CmpBaseException {
+        ProtectionMethod czrtProtectionMethod = getCmpProfile().responseProtectionMethod();
         switch (czrtProtectionMethod) {
             case SIGNATURE:
                 return new SingatureBaseProtectionStrategy(this,
-                        requestMessage.getHeader().getProtectionAlg(), certificateKeyService);
+                        requestMessage.getHeader().getProtectionAlg());
             case SHARED_SECRET:
                 byte[] salt = CertificateUtil.generateRandomBytes(20);
                 int iterationCount = 1000;
@@ -112,12 +121,14 @@ public class CmpConfigurationContext implements ConfigurationContext {
          *    that indicates to the receiver the appropriate shared secret
          *    information to use to verify the message */
         // ASN1OctetString senderKID = requestMessage.getHeader().getSenderKID();
-        return getCmpProfile().getSharedSecret().getBytes();
+        return getCmpProfile().sharedSecret().getBytes();
     }
 
     @Override
     public List<RequestAttribute> getClientOperationAttributes(boolean isRevoke) {
-        return (isRevoke) ? revokeAttributes : issueAttributes;
+        List<RequestAttribute> attributes = (isRevoke) ? profileConfiguration.revokeAttributes() : profileConfiguration.issueAttributes();
+        // the attributes are shared by all requests of the profile
+        return attributes == null ? null : new ArrayList<>(attributes);
     }
 
     @Override
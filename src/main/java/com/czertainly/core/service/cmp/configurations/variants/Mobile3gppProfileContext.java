@@ -1,11 +1,8 @@
 package com.czertainly.core.service.cmp.configurations.variants;
 
-import com.czertainly.api.model.client.attribute.RequestAttribute;
 import com.czertainly.api.interfaces.core.cmp.error.CmpCrmfValidationException;
 import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
-import com.czertainly.core.dao.entity.RaProfile;
-import com.czertainly.core.service.cmp.message.CertificateKeyService;
-import com.czertainly.core.dao.entity.cmp.CmpProfile;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import org.bouncycastle.asn1.ASN1OctetString;
 import org.bouncycastle.asn1.cmp.*;
 import org.bouncycastle.asn1.crmf.CertReqMessages;
@@ -13,18 +10,13 @@ import org.bouncycastle.asn1.crmf.CertReqMsg;
 import org.bouncycastle.asn1.crmf.CertTemplate;
 import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
 
-import java.util.List;
-
 /**
  * Implementation/variation of CMP protocol for 3GPP standard
  */
 public class Mobile3gppProfileContext extends CmpConfigurationContext {
 
-    public Mobile3gppProfileContext(CmpProfile cmpProfile, RaProfile raProfile, PKIMessage pkiRequest,
-                                    CertificateKeyService certificateKeyServiceImpl,
-                                    List<RequestAttribute> issueAttributes,
-                                    List<RequestAttribute> revokeAttributes) {
-        super(cmpProfile, raProfile, pkiRequest, certificateKeyServiceImpl, issueAttributes, revokeAttributes);
+    public Mobile3gppProfileContext(CmpProfileConfiguration profileConfiguration, PKIMessage pkiRequest) {
+        super(profileConfiguration, pkiRequest);
     }
 
     /**
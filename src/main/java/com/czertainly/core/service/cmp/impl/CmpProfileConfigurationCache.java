@@ -0,0 +1,20 @@
+package com.czertainly.core.service.cmp.impl;
+
+import com.czertainly.core.cache.ProtocolProfileCache;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches {@link CmpProfileConfiguration} per CMP profile and per the way the profile is addressed in the request URL.
+ */
+@Component
+public class CmpProfileConfigurationCache extends ProtocolProfileCache<CmpProfileConfigurationCache.Key, CmpProfileConfiguration> {
+
+    public CmpProfileConfigurationCache(@Value("${settings.cache.refresh-interval}") long ttlSeconds) {
+        super(ttlSeconds);
+    }
+
+    public record Key(String profileName, boolean raProfileBased) {
+    }
+}
@@ -15,6 +15,7 @@ import com.czertainly.core.dao.entity.cmp.CmpTransaction;
 import com.czertainly.core.logging.LoggingHelper;
 import com.czertainly.core.service.CertificateService;
 import com.czertainly.core.service.cmp.message.CertificateKeyServiceImpl;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
 import com.czertainly.core.service.cmp.message.CmpTransactionService;
 import com.czertainly.core.service.cmp.message.PkiMessageDumper;
@@ -64,8 +65,6 @@ public class CmpServiceImpl implements CmpService {
     private static final Logger LOG = LoggerFactory.getLogger(CmpServiceImpl.class.getName());
 
     // -- RA PROFILE
-    private boolean raProfileBased;
-    private RaProfile raProfile;
     private RaProfileRepository raProfileRepository;
 
     @Autowired
@@ -74,16 +73,18 @@ public class CmpServiceImpl implements CmpService {
     }
 
     // -- CMP PROFILE
-    private CmpProfile cmpProfile;
     private CmpProfileRepository cmpProfileRepository;
+    private CmpProfileConfigurationCache cmpProfileConfigurationCache;
 
     @Autowired
     public void setCmpProfileRepository(CmpProfileRepository cmpProfileRepository) {
         this.cmpProfileRepository = cmpProfileRepository;
     }
 
-    private List<RequestAttribute> issueAttributes;
-    private List<RequestAttribute> revokeAttributes;
+    @Autowired
+    public void setCmpProfileConfigurationCache(CmpProfileConfigurationCache cmpProfileConfigurationCache) {
+        this.cmpProfileConfigurationCache = cmpProfileConfigurationCache;
+    }
 
     // -- CRYPTO
     private CertificateKeyServiceImpl certificateKeyServiceImpl;
@@ -183,7 +184,8 @@ public class CmpServiceImpl implements CmpService {
                     ImplFailureInfo.CMPSRV100));
         }
         ASN1OctetString tid = pkiRequest.getHeader().getTransactionID();
-        String requestAsString = PkiMessageDumper.dumpPkiMessage(pkiRequest);
+        // rendered only when the request is logged after failure
+        Object requestAsString = PkiMessageDumper.lazyDumpPkiMessage(pkiRequest);
         String logPrefix = PkiMessageDumper.logPrefix(pkiRequest, profileName);
 
         if (LOG.isInfoEnabled()) {
@@ -194,14 +196,19 @@ public class CmpServiceImpl implements CmpService {
         }
 
         // -- (processing) part
-        init(profileName);
-        ConfigurationContext configuration = switch (cmpProfile.getVariant()) {
+        CmpProfileConfiguration profileConfiguration = getProfileConfiguration(profileName);
+        if (profileConfiguration.cmpProfile() == null) {
+            // there is no profile to protect the response with
+            LOG.error("{} | processing failed: {}", logPrefix, profileConfiguration.configurationError());
+            return buildBadRequest(PkiMessageError.unprotectedMessage(pkiRequest.getHeader(),
+                    new CmpConfigurationException(PKIFailureInfo.systemFailure, profileConfiguration.configurationError())));
+        }
+        LoggingHelper.putLogResourceInfo(Resource.CMP_PROFILE, true, profileConfiguration.cmpProfile().uuid().toString(), profileConfiguration.cmpProfile().name());
+        ConfigurationContext configuration = switch (profileConfiguration.cmpProfile().variant()) {
             /*   3gpp*/
-            case V2_3GPP -> new Mobile3gppProfileContext(cmpProfile, raProfile, pkiRequest,
-                    certificateKeyServiceImpl, issueAttributes, revokeAttributes);
+            case V2_3GPP -> new Mobile3gppProfileContext(profileConfiguration, pkiRequest);
             /*rfc4210*/
-            case V2 -> new CmpConfigurationContext(cmpProfile, raProfile, pkiRequest,
-                    certificateKeyServiceImpl, issueAttributes, revokeAttributes);
+            case V2 -> new CmpConfigurationContext(profileConfiguration, pkiRequest);
             /*rfc9483*/
             case V3 -> throw new UnsupportedOperationException("not implemented");
         };
@@ -209,7 +216,7 @@ public class CmpServiceImpl implements CmpService {
         try {
             PKIMessage pkiResponse;
             int bodyType = pkiRequest.getBody().getType();
-            validateProfile(tid, bodyType, profileName);
+            validateProfile(tid, bodyType, profileConfiguration);
 
             headerValidator.validate(pkiRequest, configuration);
             bodyValidator.validate(pkiRequest, configuration);
@@ -341,55 +348,65 @@ public class CmpServiceImpl implements CmpService {
                 .body(pkiMessage.getEncoded());
     }
 
-    private void init(String profileName) {
-        this.raProfileBased = ServletUriComponentsBuilder.fromCurrentRequestUri().build()
+    private CmpProfileConfiguration getProfileConfiguration(String profileName) {
+        boolean raProfileBased = ServletUriComponentsBuilder.fromCurrentRequestUri().build()
                 .toUriString().contains("/raProfile/");
-        if (raProfileBased) {
+        return cmpProfileConfigurationCache.get(new CmpProfileConfigurationCache.Key(profileName, raProfileBased), this::createProfileConfiguration);
+    }
+
+    private CmpProfileConfiguration createProfileConfiguration(CmpProfileConfigurationCache.Key key) {
+        String profileName = key.profileName();
+        RaProfile raProfile;
+        CmpProfile cmpProfile = null;
+        List<RequestAttribute> issueAttributes = null;
+        List<RequestAttribute> revokeAttributes = null;
+        if (key.raProfileBased()) {
             raProfile = raProfileRepository.findByName(profileName).orElse(null);
-            if (raProfile == null) {
-                return;
+            if (raProfile != null) {
+                cmpProfile = raProfile.getCmpProfile();
             }
-            cmpProfile = raProfile.getCmpProfile();
-            if (cmpProfile == null) {
-                return;
+            if (cmpProfile != null) {
+                String attributesJson = raProfile.getProtocolAttribute() != null ? raProfile.getProtocolAttribute().getCmpIssueCertificateAttributes() : null;
+                issueAttributes = AttributeDefinitionUtils.getClientAttributes(AttributeDefinitionUtils.deserialize(attributesJson, DataAttributeV2.class));
+                String revokeAttributesJson = raProfile.getProtocolAttribute() != null ? raProfile.getProtocolAttribute().getCmpRevokeCertificateAttributes() : null;
+                revokeAttributes = AttributeDefinitionUtils.getClientAttributes(AttributeDefinitionUtils.deserialize(revokeAttributesJson, DataAttributeV2.class));
             }
-            LoggingHelper.putLogResourceInfo(Resource.CMP_PROFILE, true, cmpProfile.getUuid().toString(), cmpProfile.getName());
-
-            String attributesJson = raProfile.getProtocolAttribute() != null ? raProfile.getProtocolAttribute().getCmpIssueCertificateAttributes() : null;
-            issueAttributes = AttributeDefinitionUtils.getClientAttributes(AttributeDefinitionUtils.deserialize(attributesJson, DataAttributeV2.class));
-            String revokeAttributesJson = raProfile.getProtocolAttribute() != null ? raProfile.getProtocolAttribute().getCmpRevokeCertificateAttributes() : null;
-            revokeAttributes = AttributeDefinitionUtils.getClientAttributes(AttributeDefinitionUtils.deserialize(revokeAttributesJson, DataAttributeV2.class));
         } else {
             cmpProfile = cmpProfileRepository.findByName(profileName).orElse(null);
-            if (cmpProfile == null) {
-                return;
+            raProfile = cmpProfile != null ? cmpProfile.getRaProfile() : null;
+            if (raProfile != null) {
+                issueAttributes = attributeEngine.getRequestObjectDataAttributesContent(ObjectAttributeContentInfo.builder(Resource.CMP_PROFILE, cmpProfile.getUuid()).connector(cmpProfile.getRaProfile().getAuthorityInstanceReference().getConnectorUuid()).operation(AttributeOperation.CERTIFICATE_ISSUE).build());
+                revokeAttributes = attributeEngine.getRequestObjectDataAttributesContent(ObjectAttributeContentInfo.builder(Resource.CMP_PROFILE, cmpProfile.getUuid()).connector(cmpProfile.getRaProfile().getAuthorityInstanceReference().getConnectorUuid()).operation(AttributeOperation.CERTIFICATE_REVOKE).build());
             }
-            LoggingHelper.putLogResourceInfo(Resource.CMP_PROFILE, true, cmpProfile.getUuid().toString(), cmpProfile.getName());
-            raProfile = cmpProfile.getRaProfile();
-            if (raProfile == null) {
-                return;
-            }
-            issueAttributes = attributeEngine.getRequestObjectDataAttributesContent(ObjectAttributeContentInfo.builder(Resource.CMP_PROFILE, cmpProfile.getUuid()).connector(cmpProfile.getRaProfile().getAuthorityInstanceReference().getConnectorUuid()).operation(AttributeOperation.CERTIFICATE_ISSUE).build());
-            revokeAttributes = attributeEngine.getRequestObjectDataAttributesContent(ObjectAttributeContentInfo.builder(Resource.CMP_PROFILE, cmpProfile.getUuid()).connector(cmpProfile.getRaProfile().getAuthorityInstanceReference().getConnectorUuid()).operation(AttributeOperation.CERTIFICATE_REVOKE).build());
         }
-        LOG.debug("PN={} | CMP service initialized: isRaProfileBased: {}, raProfile: {}, cmpProfile: {}", profileName, raProfileBased, raProfile, cmpProfile);
-    }
 
-    private void validateProfile(ASN1OctetString tid, int bodyType, String incomingProfileName) throws CmpBaseException {
+        CmpProfileConfiguration configuration = CmpProfileConfiguration.of(cmpProfile, raProfile, key.raProfileBased(),
+                issueAttributes == null ? null : List.copyOf(issueAttributes),
+                revokeAttributes == null ? null : List.copyOf(revokeAttributes),
+                certificateKeyServiceImpl);
         try {
-            validateCmpProfile(incomingProfileName);
-            validateRaProfile(incomingProfileName);
+            validateCmpProfile(cmpProfile, key.raProfileBased(), profileName);
+            validateRaProfile(raProfile, key.raProfileBased(), profileName);
         } catch (CmpConfigurationException e) {
-            switch (bodyType) {
-                case PKIBody.TYPE_INIT_REQ, PKIBody.TYPE_CERT_REQ, PKIBody.TYPE_KEY_UPDATE_REQ:
-                    throw new CmpCrmfValidationException(tid, bodyType, PKIFailureInfo.systemFailure, e.getMessage());
-                default:
-                    throw new CmpProcessingException(PKIFailureInfo.systemFailure, e.getMessage());
-            }
+            configuration = configuration.withConfigurationError(e.getMessage());
+        }
+        LOG.debug("PN={} | CMP configuration initialized: isRaProfileBased: {}, raProfile: {}, cmpProfile: {}", profileName, key.raProfileBased(), raProfile, cmpProfile);
+        return configuration;
+    }
+
+    private void validateProfile(ASN1OctetString tid, int bodyType, CmpProfileConfiguration profileConfiguration) throws CmpBaseException {
+        if (profileConfiguration.configurationError() == null) {
+            return;
+        }
+        switch (bodyType) {
+            case PKIBody.TYPE_INIT_REQ, PKIBody.TYPE_CERT_REQ, PKIBody.TYPE_KEY_UPDATE_REQ:
+                throw new CmpCrmfValidationException(tid, bodyType, PKIFailureInfo.systemFailure, profileConfiguration.configurationError());
+            default:
+                throw new CmpProcessingException(PKIFailureInfo.systemFailure, profileConfiguration.configurationError());
         }
     }
 
-    private void validateCmpProfile(String incomingProfileName) throws CmpConfigurationException {
+    private void validateCmpProfile(CmpProfile cmpProfile, boolean raProfileBased, String incomingProfileName) throws CmpConfigurationException {
         if (cmpProfile == null) {
             throw new CmpConfigurationException(PKIFailureInfo.systemFailure,
                     "PN=" + incomingProfileName + " | Requested CMP Profile not found");
@@ -434,7 +451,7 @@ public class CmpServiceImpl implements CmpService {
                         "PN=" + incomingProfileName + " | CMP Profile does not have associated CA certificate chain");
             } catch (CertificateException e) {
                 // This should not happen
-                throw new IllegalArgumentException("PN=" + this.cmpProfile.getName() + " | Failed to parse certificate content: " +
+                throw new CmpConfigurationException(PKIFailureInfo.systemFailure, "PN=" + cmpProfile.getName() + " | Failed to parse certificate content: " +
                         certificateContent);
             }
 
@@ -448,7 +465,7 @@ public class CmpServiceImpl implements CmpService {
         }
     }
 
-    private void validateRaProfile(String incomingProfileName) throws CmpConfigurationException {
+    private void validateRaProfile(RaProfile raProfile, boolean raProfileBased, String incomingProfileName) throws CmpConfigurationException {
         if (raProfile == null) {
             throw new CmpConfigurationException(PKIFailureInfo.systemFailure,
                     "PN=" + incomingProfileName + " | Requested RA Profile not found");
@@ -1,7 +1,6 @@
 package com.czertainly.core.service.cmp.message;
 
 import com.czertainly.api.model.core.cmp.CmpTransactionState;
-import com.czertainly.core.dao.entity.cmp.CmpProfile;
 import com.czertainly.core.dao.entity.cmp.CmpTransaction;
 import com.czertainly.core.dao.repository.cmp.CmpTransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,11 +50,11 @@ public class CmpTransactionService {
      * @param state           state of transaction
      * @return new instance of {@link CmpTransaction}
      */
-    public CmpTransaction createTransactionEntity(String transactionId, CmpProfile cmpProfile,
+    public CmpTransaction createTransactionEntity(String transactionId, UUID cmpProfileUuid,
                                                   String certificateUuid, CmpTransactionState state) {
         CmpTransaction cmpTransaction = new CmpTransaction();
         cmpTransaction.setTransactionId(transactionId);
-        cmpTransaction.setCmpProfile(cmpProfile);
+        cmpTransaction.setCmpProfileUuid(cmpProfileUuid);
         cmpTransaction.setCertificateUuid(UUID.fromString(certificateUuid));
         cmpTransaction.setState(state);
         return cmpTransaction;
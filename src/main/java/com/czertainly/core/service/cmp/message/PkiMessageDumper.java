@@ -222,6 +222,27 @@ public class PkiMessageDumper {
         return " [" + msg.getHeader().getSender() + " => " + msg.getHeader().getRecipient() + "]";
     }
 
+    /**
+     * Deferred dump of PKI message to be used as a log statement argument. The message is rendered only when
+     * the statement is actually logged, and at most once.
+     *
+     * @param msg PKI message to be dumped
+     * @return object whose {@link Object#toString()} is the string representation of the PKI message
+     */
+    public static Object lazyDumpPkiMessage(PKIMessage msg) {
+        return new Object() {
+            private String dump;
+
+            @Override
+            public String toString() {
+                if (dump == null) {
+                    dump = dumpPkiMessage(msg);
+                }
+                return dump;
+            }
+        };
+    }
+
     /**
      * Dump PKI message to a string.
      *
@@ -9,9 +9,10 @@ import com.czertainly.api.model.core.cmp.CmpTransactionState;
 import com.czertainly.api.model.core.enums.CertificateRequestFormat;
 import com.czertainly.api.model.core.v2.ClientCertificateDataResponseDto;
 import com.czertainly.api.model.core.v2.ClientCertificateSignRequestDto;
-import com.czertainly.core.dao.entity.RaProfile;
 import com.czertainly.core.model.auth.CertificateProtocolInfo;
 import com.czertainly.core.security.authz.SecuredParentUUID;
+import com.czertainly.core.security.authz.SecuredUUID;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
 import com.czertainly.core.service.cmp.message.PkiMessageDumper;
 import com.czertainly.core.service.v2.ClientOperationService;
@@ -79,12 +80,12 @@ public class CrmfIrCrMessageHandler implements MessageHandler<ClientCertificateD
             ClientCertificateSignRequestDto dto = new ClientCertificateSignRequestDto();
             dto.setRequest(Base64.getEncoder().encodeToString(crmf.getEncoded()));
             dto.setFormat(CertificateRequestFormat.CRMF);
-            RaProfile raProfile = configuration.getRaProfile();
+            CmpProfileConfiguration.RaProfileInfo raProfile = configuration.getRaProfile();
             // -- (1)certification request (ask for issue)
             return clientOperationService.issueCertificate(
-                    SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()),
-                    raProfile.getSecuredUuid(),
-                    dto, CertificateProtocolInfo.Cmp(raProfile.getUuid()));
+                    SecuredParentUUID.fromUUID(raProfile.authorityInstanceUuid()),
+                    SecuredUUID.fromUUID(raProfile.uuid()),
+                    dto, CertificateProtocolInfo.Cmp(raProfile.uuid()));
         } catch (CertificateRequestException | NotFoundException | CertificateException | IOException |
                  NoSuchAlgorithmException | InvalidKeyException | CertificateOperationException e) {
             throw new CmpProcessingException(tid, PKIFailureInfo.systemFailure,
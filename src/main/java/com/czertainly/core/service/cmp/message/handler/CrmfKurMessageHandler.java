@@ -11,10 +11,11 @@ import com.czertainly.api.model.core.v2.ClientCertificateRekeyRequestDto;
 import com.czertainly.api.interfaces.core.cmp.error.CmpBaseException;
 import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
 import com.czertainly.core.dao.entity.Certificate;
-import com.czertainly.core.dao.entity.RaProfile;
 import com.czertainly.core.dao.repository.CertificateRepository;
 import com.czertainly.core.logging.LoggingHelper;
 import com.czertainly.core.security.authz.SecuredParentUUID;
+import com.czertainly.core.security.authz.SecuredUUID;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
 import com.czertainly.core.service.cmp.message.PkiMessageDumper;
 import com.czertainly.core.service.v2.ClientOperationService;
@@ -106,11 +107,11 @@ public class CrmfKurMessageHandler implements MessageHandler<ClientCertificateDa
                     ClientCertificateRekeyRequestDto.builder();
             dtoBuilder.request(Base64.getEncoder().encodeToString(crmf.getEncoded()));
             dtoBuilder.format(CertificateRequestFormat.CRMF);
-            RaProfile raProfile = configuration.getRaProfile();
+            CmpProfileConfiguration.RaProfileInfo raProfile = configuration.getRaProfile();
             // -- (1)certification request (ask for issue)
             return clientOperationService.rekeyCertificate(
-                    SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()),
-                    raProfile.getSecuredUuid(),
+                    SecuredParentUUID.fromUUID(raProfile.authorityInstanceUuid()),
+                    SecuredUUID.fromUUID(raProfile.uuid()),
                     certificateUUID,
                     dtoBuilder.build());
         } catch (NotFoundException | CertificateException | IOException |
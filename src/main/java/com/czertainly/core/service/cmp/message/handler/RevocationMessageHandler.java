@@ -11,11 +11,11 @@ import com.czertainly.api.model.core.v2.ClientCertificateRevocationDto;
 import com.czertainly.api.interfaces.core.cmp.error.CmpBaseException;
 import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
 import com.czertainly.core.dao.entity.Certificate;
-import com.czertainly.core.dao.entity.RaProfile;
 import com.czertainly.core.dao.entity.cmp.CmpTransaction;
 import com.czertainly.core.dao.repository.CertificateRepository;
 import com.czertainly.core.logging.LoggingHelper;
 import com.czertainly.core.security.authz.SecuredParentUUID;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
 import com.czertainly.core.service.cmp.message.CmpTransactionService;
 import com.czertainly.core.service.cmp.message.PkiMessageDumper;
@@ -139,7 +139,7 @@ public class RevocationMessageHandler implements MessageHandler<PKIMessage> {
                         certificate.getSerialNumber(), certificate.getUuid().toString(), CertificateState.REVOKED);
                 cmpTransactionService.save(cmpTransactionService.createTransactionEntity(
                         tid.toString(),
-                        configuration.getCmpProfile(),
+                        configuration.getCmpProfile().uuid(),
                         certificate.getUuid().toString(),
                         CmpTransactionState.CERT_REVOKED));
 
@@ -213,11 +213,11 @@ public class RevocationMessageHandler implements MessageHandler<PKIMessage> {
             ClientCertificateRevocationDto dto = new ClientCertificateRevocationDto();
             dto.setReason(reason);
             dto.setAttributes(configuration.getClientOperationAttributes(true));
-            RaProfile raProfile = configuration.getRaProfile();
+            CmpProfileConfiguration.RaProfileInfo raProfile = configuration.getRaProfile();
             // -- (1)revoke request (ask for issue)
             LOG.trace("TID={}, SN={} | revocation request (begin)", tid, sn);
             clientOperationService.revokeCertificate(
-                    SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()),
+                    SecuredParentUUID.fromUUID(raProfile.authorityInstanceUuid()),
                     certificate.getRaProfile().getSecuredUuid(),
                     certificate.getUuid().toString(),
                     dto);
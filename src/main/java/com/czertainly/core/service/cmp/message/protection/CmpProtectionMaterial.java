@@ -0,0 +1,155 @@
+package com.czertainly.core.service.cmp.message.protection;
+
+import com.czertainly.core.util.CertificateUtil;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.cmp.CMPCertificate;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Material used to create and verify protection of {@link org.bouncycastle.asn1.cmp.PKIMessage} of one CMP profile.
+ * It holds the extra certificates sent with signature-based protection, and caches the signer certificates parsed
+ * from the requests and the keys derived from the shared secret of password-based MAC protection, as the messages
+ * of one transaction (e.g. ir/cr/kur followed by certConf) use the same ones. The material lives as long as the
+ * cached configuration of the profile, so it is dropped after the profile changes.
+ */
+public class CmpProtectionMaterial {
+
+    /**
+     * Maximum number of cached signer certificates and derived keys. When it is reached, the least recently used
+     * entry is evicted, so the material cannot grow with the number of clients (and random salts) of the profile.
+     */
+    static final int MAX_CACHED_ENTRIES = 1024;
+
+    private final List<CMPCertificate> signingExtraCerts;
+    private final Map<EncodedKey, X509Certificate> signerCertificates = boundedMap();
+    private final Map<PasswordBasedMacKey, byte[]> passwordBasedMacKeys = boundedMap();
+
+    /**
+     * @param signingExtraCerts extra certificates sent with the messages protected by the signing certificate
+     *                          of the profile, empty when the profile has no signing certificate
+     */
+    public CmpProtectionMaterial(List<CMPCertificate> signingExtraCerts) {
+        this.signingExtraCerts = List.copyOf(signingExtraCerts);
+    }
+
+    /**
+     * @return extra certificates sent with the messages protected by the signing certificate of the profile
+     */
+    public List<CMPCertificate> getSigningExtraCerts() {
+        return signingExtraCerts;
+    }
+
+    /**
+     * Returns the signer certificate carried in the message, parsed only for the first message it is seen in.
+     *
+     * @param cmpCertificate certificate from <code>extraCerts</code> of the message
+     * @return parsed certificate
+     * @throws IOException          if the certificate cannot be encoded
+     * @throws CertificateException if the certificate cannot be parsed
+     */
+    public X509Certificate getSignerCertificate(CMPCertificate cmpCertificate) throws IOException, CertificateException {
+        EncodedKey key = new EncodedKey(cmpCertificate.getEncoded(ASN1Encoding.DER));
+        X509Certificate certificate = signerCertificates.get(key);
+        if (certificate == null) {
+            certificate = CertificateUtil.getX509Certificate(key.encoded());
+            signerCertificates.put(key, certificate);
+        }
+        return certificate;
+    }
+
+    /**
+     * Returns the key of password-based MAC of received messages, see {@link #derivePasswordBasedMacKey}.
+     * The key is derived only for the first message with the given parameters.
+     *
+     * @param sharedSecret   shared secret of the profile
+     * @param salt           salt from the PBM parameters
+     * @param owf            one-way function from the PBM parameters
+     * @param iterationCount iteration count from the PBM parameters
+     * @return derived key, it must not be modified
+     * @throws GeneralSecurityException if the one-way function is not supported
+     */
+    public byte[] getPasswordBasedMacKey(byte[] sharedSecret, byte[] salt, AlgorithmIdentifier owf, int iterationCount)
+            throws GeneralSecurityException {
+        PasswordBasedMacKey key = new PasswordBasedMacKey(sharedSecret, salt, owf.getAlgorithm().getId(), iterationCount);
+        byte[] baseKey = passwordBasedMacKeys.get(key);
+        if (baseKey == null) {
+            baseKey = derivePasswordBasedMacKey(sharedSecret, salt, owf, iterationCount);
+            passwordBasedMacKeys.put(key, baseKey);
+        }
+        return baseKey;
+    }
+
+    /**
+     * Derives the key of password-based MAC (see rfc4210, section 5.1.3.1), i.e. the shared secret concatenated
+     * with the salt and digested <code>iterationCount</code> times by the one-way function. Used directly for
+     * the responses, which are protected with a fresh random salt, so their keys are never reused.
+     *
+     * @param sharedSecret   shared secret of the profile
+     * @param salt           salt of the PBM parameters
+     * @param owf            one-way function of the PBM parameters
+     * @param iterationCount iteration count of the PBM parameters
+     * @return derived key
+     * @throws GeneralSecurityException if the one-way function is not supported
+     */
+    public static byte[] derivePasswordBasedMacKey(byte[] sharedSecret, byte[] salt, AlgorithmIdentifier owf, int iterationCount)
+            throws GeneralSecurityException {
+        byte[] baseKey = new byte[sharedSecret.length + salt.length];
+        System.arraycopy(sharedSecret, 0, baseKey, 0, sharedSecret.length);
+        System.arraycopy(salt, 0, baseKey, sharedSecret.length, salt.length);
+        MessageDigest digest = MessageDigest.getInstance(owf.getAlgorithm().getId(), BouncyCastleProvider.PROVIDER_NAME);
+        for (int i = 0; i < iterationCount; i++) {
+            baseKey = digest.digest(baseKey);
+            digest.reset();
+        }
+        return baseKey;
+    }
+
+    private static <K, V> Map<K, V> boundedMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > MAX_CACHED_ENTRIES;
+            }
+        });
+    }
+
+    private record EncodedKey(byte[] encoded) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof EncodedKey other && Arrays.equals(encoded, other.encoded);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(encoded);
+        }
+    }
+
+    private record PasswordBasedMacKey(byte[] sharedSecret, byte[] salt, String owf, int iterationCount) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PasswordBasedMacKey other
+                    && iterationCount == other.iterationCount
+                    && owf.equals(other.owf)
+                    && Arrays.equals(salt, other.salt)
+                    && Arrays.equals(sharedSecret, other.sharedSecret);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(salt) + iterationCount;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.czertainly.api.interfaces.core.cmp.error.CmpBaseException;
 import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
 import com.czertainly.api.interfaces.core.cmp.error.CmpConfigurationException;
 import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
+import com.czertainly.core.service.cmp.message.protection.CmpProtectionMaterial;
 import com.czertainly.core.service.cmp.message.protection.ProtectionStrategy;
 import org.bouncycastle.asn1.ASN1Encoding;
 import org.bouncycastle.asn1.ASN1OctetString;
@@ -18,7 +19,6 @@ import org.bouncycastle.operator.DefaultMacAlgorithmIdentifierFinder;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
-import java.security.MessageDigest;
 import java.util.List;
 
 /**
@@ -43,18 +43,11 @@ public class PasswordBasedMacProtectionStrategy extends BaseProtectionStrategy i
                                               int iterationCount)
             throws CmpBaseException {
         super(configuration, headerProtectionAlgorithm);
-        byte[] calculatingBaseKey = new byte[sharedSecret.length + protectionSalt.length];
-        System.arraycopy(sharedSecret, 0, calculatingBaseKey, 0, sharedSecret.length);
-        System.arraycopy(protectionSalt, 0, calculatingBaseKey, sharedSecret.length, protectionSalt.length);
-
         try {
             AlgorithmIdentifier digestAlgorithm = getDigestAlgorithm();
-            MessageDigest digest = MessageDigest.getInstance(digestAlgorithm.getAlgorithm().getId(),
-                    BouncyCastleProvider.PROVIDER_NAME);
-            for (int i = 0; i < iterationCount; i++) {
-                calculatingBaseKey = digest.digest(calculatingBaseKey);
-                digest.reset();
-            }
+            // the salt of the response is random, so the key is not cached in the protection material of the profile
+            byte[] calculatingBaseKey = CmpProtectionMaterial.derivePasswordBasedMacKey(
+                    sharedSecret, protectionSalt, digestAlgorithm, iterationCount);
 
             AlgorithmIdentifier macAlgorithm = getMacAlgorithm();
             this.mac = Mac.getInstance(macAlgorithm.getAlgorithm().getId(),
@@ -7,14 +7,12 @@ import com.czertainly.api.model.common.enums.cryptography.RsaSignatureScheme;
 import com.czertainly.api.interfaces.core.cmp.error.CmpConfigurationException;
 import com.czertainly.core.attribute.EcdsaSignatureAttributes;
 import com.czertainly.core.attribute.RsaSignatureAttributes;
-import com.czertainly.core.dao.entity.Certificate;
-import com.czertainly.core.dao.entity.cmp.CmpProfile;
+import com.czertainly.core.provider.CzertainlyProvider;
 import com.czertainly.core.provider.key.CzertainlyPrivateKey;
-import com.czertainly.core.service.cmp.message.CertificateKeyService;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
 import com.czertainly.core.service.cmp.message.PkiMessageDumper;
 import com.czertainly.core.service.cmp.message.protection.ProtectionStrategy;
-import com.czertainly.core.util.CertificateUtil;
 import com.czertainly.core.util.CryptographyUtil;
 import org.bouncycastle.asn1.ASN1Encodable;
 import org.bouncycastle.asn1.ASN1EncodableVector;
@@ -34,13 +32,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.OutputStream;
 import java.security.PublicKey;
-import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static com.czertainly.core.service.cmp.message.PkiMessageDumper.ifNotNull;
 
@@ -64,28 +59,30 @@ public class SingatureBaseProtectionStrategy extends BaseProtectionStrategy impl
     private static final Logger logger = LoggerFactory.getLogger(SingatureBaseProtectionStrategy.class.getName());
 
     private final List<X509Certificate> certificationsChain;
-    private final CertificateKeyService certificateKeyService;
+    private final List<CMPCertificate> protectingExtraCerts;
     private final CzertainlyPrivateKey privateKey;
-    private final CmpProfile profile;
-    private final Certificate signingCertificate;
+    private final CzertainlyProvider provider;
+    private final X509Certificate signingCertificate;
     private final AlgorithmIdentifier signatureAlg;
 
     public SingatureBaseProtectionStrategy(ConfigurationContext configuration,
-                                           AlgorithmIdentifier headerProtectionAlgorithm,
-                                           CertificateKeyService certificateKeyServiceImpl)
+                                           AlgorithmIdentifier headerProtectionAlgorithm)
             throws CmpConfigurationException {
         super(configuration, headerProtectionAlgorithm);
-        this.profile = configuration.getCmpProfile();
-        this.signingCertificate = profile.getSigningCertificate();
-        try {
-            this.certificationsChain = List.of(CertificateUtil.getX509Certificate(
-                    signingCertificate.getCertificateContent().getContent()));
-        } catch (CertificateException e) {
+        CmpProfileConfiguration.SigningInfo signing = configuration.getProfileConfiguration().signing();
+        if (signing == null || signing.certificate() == null) {
             throw new CmpConfigurationException(PKIFailureInfo.systemFailure,
                     "problem to get singerCertificate");
         }
-        this.certificateKeyService = certificateKeyServiceImpl;
-        this.privateKey = certificateKeyServiceImpl.getPrivateKey(signingCertificate);
+        if (signing.privateKey() == null) {
+            throw new CmpConfigurationException(PKIFailureInfo.systemFailure,
+                    "problem to get private key of singerCertificate");
+        }
+        this.signingCertificate = signing.certificate();
+        this.certificationsChain = List.of(signingCertificate);
+        this.protectingExtraCerts = configuration.getProfileConfiguration().protectionMaterial().getSigningExtraCerts();
+        this.privateKey = signing.privateKey();
+        this.provider = signing.provider();
 
         String algorithmName = privateKey.getAlgorithm();// AlgorithmUtil.getSignatureAlgorithmName();
         KeyAlgorithm keyAlgorithm = KeyAlgorithm.findByCode(algorithmName);
@@ -107,14 +104,7 @@ public class SingatureBaseProtectionStrategy extends BaseProtectionStrategy impl
                     "unsupported key algorithm for signature protection: " + keyAlgorithm);
         }
 
-        PublicKey publicKey;
-        try {
-            X509Certificate x509Certificate = CertificateUtil.parseCertificate(signingCertificate.getCertificateContent().getContent());
-            publicKey = x509Certificate.getPublicKey();
-        } catch (CertificateException e) {
-            throw new CmpConfigurationException(PKIFailureInfo.systemFailure,
-                    "problem to parse signing certificate (to get the public key)");
-        }
+        PublicKey publicKey = signingCertificate.getPublicKey();
         if (publicKey == null) {
             throw new CmpConfigurationException(PKIFailureInfo.systemFailure,
                     "extracted public key is null");
@@ -162,13 +152,16 @@ public class SingatureBaseProtectionStrategy extends BaseProtectionStrategy impl
         if (configuration.dumpSigning()) {
             PkiMessageDumper.dumpSingerCertificate(
                     "protection",
-                    CertificateUtil.parseCertificate(signingCertificate.getCertificateContent().getContent()),
+                    signingCertificate,
                     null);
         }
+        if (provider == null) {
+            throw new IllegalStateException("Signing certificate has no associated cryptographic provider");
+        }
         ContentSigner signer = new JcaContentSignerBuilder(
                 new DefaultAlgorithmNameFinder().getAlgorithmName(getProtectionAlg())
         )
-                .setProvider(certificateKeyService.getProvider(profile.getName(), signingCertificate))
+                .setProvider(provider)
                 .build(privateKey);
         OutputStream sOut = signer.getOutputStream();
         sOut.write(new org.bouncycastle.asn1.DERSequence(v).getEncoded(ASN1Encoding.DER));
@@ -177,22 +170,9 @@ public class SingatureBaseProtectionStrategy extends BaseProtectionStrategy impl
     }
 
     @Override
-    public List<CMPCertificate> getProtectingExtraCerts() throws CertificateException {
-        final List<X509Certificate> certChain = certificationsChain;
-        if (certChain.size() <= 1) {
-            return Arrays.asList(CertificateUtil.toCmpCertificates(certChain));//self-signed CA structure
-        }
-        // if exist self-signed, remove them
-        return certChain.stream()
-                .filter(CertificateUtil::isIntermediateCertificate)//filter self-signed
-                .map(t -> {
-                    try {
-                        return CertificateUtil.toCmpCertificate(t);
-                    } catch (final CertificateException e) {
-                        throw new RuntimeException(e);
-                    }
-                })
-                .collect(Collectors.toList());
+    public List<CMPCertificate> getProtectingExtraCerts() {
+        // encoded once per profile, see CmpProtectionMaterial
+        return new ArrayList<>(protectingExtraCerts);
     }
 
     /**
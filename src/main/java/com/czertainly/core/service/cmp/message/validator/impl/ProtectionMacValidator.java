@@ -12,7 +12,6 @@ import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
-import java.security.MessageDigest;
 import java.util.Arrays;
 
 /**
@@ -46,24 +45,13 @@ public class ProtectionMacValidator implements Validator<PKIMessage, Void> {
                     header.getProtectionAlg().getParameters());      // -- PBMParameter
             byte[] salt = pbmParameter.getSalt().getOctets();        // --    salt (octetstring)
             AlgorithmIdentifier owf = pbmParameter.getOwf();         // --    owf  (algIdentifier)
-            // The output of the final iteration (called
-            //   "BASEKEY" for ease of reference, with a size of "H") is what is used
-            //   to form the symmetric key.
-            byte[] basekey = new byte[passwordAsBytes.length + salt.length];
-            // The OWF is then applied iterationCount times, where
-            //   the salted secret is the input to the first iteration and
-            System.arraycopy(passwordAsBytes, 0, basekey, 0, passwordAsBytes.length);
-            System.arraycopy(salt, 0, basekey, passwordAsBytes.length, salt.length);
-            // for each
-            //   successive iteration, the input is set to be the output of the
-            //   previous iteration.  The output of the final iteration (called
-            //   "BASEKEY" for ease of reference, with a size of "H")
-            MessageDigest dig = MessageDigest.getInstance(owf.getAlgorithm().getId(),
-                    BouncyCastleProvider.PROVIDER_NAME);
-            for (int i = 0; i < pbmParameter.getIterationCount().getValue().intValue(); i++) {
-                basekey = dig.digest(basekey);
-                dig.reset();
-            }
+            // The OWF is applied iterationCount times to the salted secret. The output
+            //   of the final iteration (called "BASEKEY" for ease of reference, with
+            //   a size of "H") is what is used to form the symmetric key. Messages of
+            //   one transaction share the parameters, so the key is derived once.
+            byte[] basekey = configuration.getProfileConfiguration().protectionMaterial()
+                    .getPasswordBasedMacKey(passwordAsBytes, salt, owf,
+                            pbmParameter.getIterationCount().getValue().intValue());
             // create mac instance
             String macId = pbmParameter.getMac().getAlgorithm().getId();
             Mac mac = Mac.getInstance(macId, BouncyCastleProvider.PROVIDER_NAME);
@@ -6,7 +6,6 @@ import com.czertainly.api.interfaces.core.cmp.error.ImplFailureInfo;
 import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
 import com.czertainly.core.service.cmp.message.PkiMessageDumper;
 import com.czertainly.core.service.cmp.message.validator.Validator;
-import com.czertainly.core.util.CertificateUtil;
 import org.bouncycastle.asn1.ASN1Encoding;
 import org.bouncycastle.asn1.ASN1OctetString;
 import org.bouncycastle.asn1.cmp.*;
@@ -57,7 +56,7 @@ class ProtectionSignatureValidator implements Validator<PKIMessage, Void> {
         CMPCertificate[] extraCerts = message.getExtraCerts();
         // TODO: improvement, add configuration to CMP Profile to configure location of signing certificate
         if (extraCerts == null || extraCerts.length == 0 || extraCerts[0] == null) {
-            LOG.error("TID={}, TP={}, PN={} | extraCerts are empty", tid, msgType, configuration.getCmpProfile().getName());
+            LOG.error("TID={}, TP={}, PN={} | extraCerts are empty", tid, msgType, configuration.getCmpProfile().name());
             throw new CmpProcessingException(PKIFailureInfo.addInfoNotAvailable,
                     ImplFailureInfo.CRYPTOSIG541);
         }
@@ -66,7 +65,8 @@ class ProtectionSignatureValidator implements Validator<PKIMessage, Void> {
             PKIHeader header = message.getHeader();
             byte[] protectedBytes = new ProtectedPart(header, message.getBody()).getEncoded(ASN1Encoding.DER);
             byte[] protectionBytes = message.getProtection().getBytes();
-            X509Certificate singerCertificate = CertificateUtil.getX509Certificate(extraCerts[0].getEncoded());
+            X509Certificate singerCertificate = configuration.getProfileConfiguration().protectionMaterial()
+                    .getSignerCertificate(extraCerts[0]);
             if (configuration.dumpSigning()) {
                 PkiMessageDumper.dumpSingerCertificate("validator", singerCertificate, null);
             }
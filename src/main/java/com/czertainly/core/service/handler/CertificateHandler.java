@@ -127,6 +127,7 @@ public class CertificateHandler {
 
     @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.DEFAULT)
     public void createDiscoveredCertificate(String batch, DiscoveryHistory discovery, List<DiscoveryProviderCertificateDataDto> discoveredCertificates) {
+        Map<UUID, List<MetadataAttribute>> existingCertificatesMetadata = new HashMap<>();
         for (DiscoveryProviderCertificateDataDto certificate : discoveredCertificates) {
             DiscoveryCertificate discoveryCertificate = null;
             try {
@@ -142,7 +143,8 @@ public class CertificateHandler {
                 if (existingCertificate == null) {
                     discoveryCertificate.setCertificateContent(certificateService.checkAddCertificateContent(fingerprint, X509ObjectToString.toPem(x509Cert)));
                 } else {
-                    updateDiscoveredCertificate(discovery, existingCertificate, certificate.getMeta());
+                    existingCertificatesMetadata.put(existingCertificate.getUuid(), certificate.getMeta());
+                    addDiscoveryEventHistory(discovery, existingCertificate);
                     discoveryCertificate.setProcessed(true);
                 }
 
@@ -152,6 +154,15 @@ public class CertificateHandler {
             }
         }
 
+        // metadata of already existing certificates are updated at once for the whole batch
+        if (!existingCertificatesMetadata.isEmpty()) {
+            try {
+                attributeEngine.updateObjectsMetadataAttributes(Resource.CERTIFICATE, existingCertificatesMetadata, discovery.getConnectorUuid(), Resource.DISCOVERY, discovery.getUuid(), discovery.getName());
+            } catch (AttributeException e) {
+                logger.error("Could not update metadata of {} existing certificates in batch {} for discovery {}. Message: {}", existingCertificatesMetadata.size(), batch, discovery.getName(), e.getMessage());
+            }
+        }
+
         // report progress
         Long currentCount = discoveryCertificateRepository.countByDiscovery(discovery);
         discovery.setMessage(String.format("Downloaded %d %% of discovered certificates from provider (%d / %d)", (int) ((currentCount / (double) discovery.getConnectorTotalCertificatesDiscovered()) * 100), currentCount, discovery.getConnectorTotalCertificatesDiscovered()));
@@ -187,6 +198,10 @@ public class CertificateHandler {
         } catch (AttributeException e) {
             logger.error("Could not update metadata for discovery certificate {}.", certificate.getUuid());
         }
+        addDiscoveryEventHistory(discovery, certificate);
+    }
+
+    private void addDiscoveryEventHistory(DiscoveryHistory discovery, Certificate certificate) {
         Map<String, Object> additionalInfo = new HashMap<>();
         additionalInfo.put("Discovery Name", discovery.getName());
         additionalInfo.put("Discovery UUID", discovery.getUuid());
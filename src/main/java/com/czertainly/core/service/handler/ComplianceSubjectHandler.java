@@ -12,12 +12,16 @@ import com.czertainly.core.model.compliance.ComplianceCheckSubjectContext;
 import com.czertainly.core.model.compliance.ComplianceResultDto;
 import com.czertainly.core.model.compliance.ComplianceResultProviderRulesDto;
 import com.czertainly.core.model.compliance.ComplianceResultRulesDto;
+import com.czertainly.core.util.CertificateUtil;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.function.Function;
 
 @Getter
 public class ComplianceSubjectHandler<T extends ComplianceSubject> {
@@ -30,14 +34,29 @@ public class ComplianceSubjectHandler<T extends ComplianceSubject> {
     private final Resource resource;
     private final TriggerEvaluator<T> triggerEvaluator;
     private final SecurityFilterRepository<T, UUID> repository;
+    private final Function<List<UUID>, List<T>> subjectsLoader;
 
     private final Map<UUID, ComplianceCheckSubjectContext<T>> subjectContexts = new HashMap<>();
 
-    public ComplianceSubjectHandler(boolean checkByProfiles, Resource resource, TriggerEvaluator<T> triggerEvaluator, SecurityFilterRepository<T, UUID> repository) {
+    /**
+     * @param subjectsLoader loads subjects with associations needed for the compliance check by their UUIDs
+     */
+    public ComplianceSubjectHandler(boolean checkByProfiles, Resource resource, TriggerEvaluator<T> triggerEvaluator, SecurityFilterRepository<T, UUID> repository, Function<List<UUID>, List<T>> subjectsLoader) {
         this.checkByProfiles = checkByProfiles;
         this.resource = resource;
         this.triggerEvaluator = triggerEvaluator;
         this.repository = repository;
+        this.subjectsLoader = subjectsLoader;
+    }
+
+    /**
+     * Loads subjects of one batch of the compliance check, so that only subjects of the processed batch are held in memory.
+     *
+     * @param subjectUuids UUIDs of the subjects
+     * @return loaded subjects, subjects that do not exist anymore are omitted
+     */
+    public List<T> loadSubjects(List<UUID> subjectUuids) {
+        return subjectsLoader.apply(subjectUuids);
     }
 
     public void initSubjectComplianceResult(ComplianceSubject subject) {
@@ -48,6 +67,112 @@ public class ComplianceSubjectHandler<T extends ComplianceSubject> {
         });
     }
 
+    /**
+     * Reuses the provider rules results of the previous compliance check of the subject, when its content and all given rules
+     * of the provider are unchanged since then. When compliance is checked by profiles, the previous results are kept in the updated result,
+     * otherwise the provider results are copied to the result built from scratch, only if the previous check was done by the same set of rules.
+     * Internal rules are not covered, since they evaluate properties of the subject that can change independently of its content.
+     *
+     * @param subjectUuid      UUID of the subject being evaluated
+     * @param providerKey      key of the provider
+     * @param connectorUuid    UUID identifying the provider connector
+     * @param kind             kind identifier
+     * @param ruleFingerprints fingerprints of the provider rules and groups to be checked, keyed by the rule key
+     * @return true if the previous results were reused and the provider does not need to be called
+     */
+    public boolean reuseProviderResults(UUID subjectUuid, String providerKey, UUID connectorUuid, String kind, Map<String, String> ruleFingerprints) {
+        ComplianceCheckSubjectContext<T> subjectContext = subjectContexts.get(subjectUuid);
+        if (!isContentUnchanged(subjectContext)) {
+            return false;
+        }
+        for (Map.Entry<String, String> ruleFingerprint : ruleFingerprints.entrySet()) {
+            if (ruleFingerprint.getValue() == null || !ruleFingerprint.getValue().equals(subjectContext.getPreviousRuleFingerprints().get(ruleFingerprint.getKey()))) {
+                return false;
+            }
+        }
+        if (checkByProfiles) {
+            return true;
+        }
+
+        String providerKeyPrefix = providerKey + "|";
+        long previousRulesCount = subjectContext.getPreviousRuleFingerprints().keySet().stream().filter(ruleKey -> ruleKey.startsWith(providerKeyPrefix)).count();
+        if (previousRulesCount != ruleFingerprints.size()) {
+            return false;
+        }
+
+        ComplianceResultDto complianceResultDto = subjectContext.getComplianceResult();
+        subjectContext.getPreviousProviderRules().stream()
+                .filter(provider -> provider.getConnectorUuid().equals(connectorUuid) && provider.getKind().equals(kind))
+                .findFirst()
+                .ifPresent(providerResult -> complianceResultDto.getProviderRules().add(providerResult));
+        complianceResultDto.getProviderRuleFingerprints().putAll(ruleFingerprints);
+        return true;
+    }
+
+    /**
+     * Checks whether the provider rule can be skipped, because it was already checked against the same subject content by the same rule definition.
+     * Only applicable when compliance is checked by profiles, since the previous results of the rules are kept in the updated result.
+     *
+     * @param subjectUuid     UUID of the subject being evaluated
+     * @param ruleKey         key of the provider rule or group
+     * @param ruleFingerprint fingerprint of the provider rule or group
+     * @return true if the rule result of the previous check is still valid
+     */
+    public boolean isProviderRuleUnchanged(UUID subjectUuid, String ruleKey, String ruleFingerprint) {
+        ComplianceCheckSubjectContext<T> subjectContext = subjectContexts.get(subjectUuid);
+        return checkByProfiles && ruleFingerprint != null && isContentUnchanged(subjectContext)
+                && ruleFingerprint.equals(subjectContext.getPreviousRuleFingerprints().get(ruleKey));
+    }
+
+    /**
+     * Records the fingerprint of the provider rule or group checked for the subject in its compliance result.
+     *
+     * @param subjectUuid     UUID of the subject being evaluated
+     * @param ruleKey         key of the provider rule or group
+     * @param ruleFingerprint fingerprint of the provider rule or group, rule is not recorded when null
+     */
+    public void setProviderRuleFingerprint(UUID subjectUuid, String ruleKey, String ruleFingerprint) {
+        ComplianceCheckSubjectContext<T> subjectContext = subjectContexts.get(subjectUuid);
+        getContentFingerprint(subjectContext);
+        Map<String, String> ruleFingerprints = subjectContext.getComplianceResult().getProviderRuleFingerprints();
+        if (ruleFingerprint == null) {
+            ruleFingerprints.remove(ruleKey);
+        } else {
+            ruleFingerprints.put(ruleKey, ruleFingerprint);
+        }
+    }
+
+    private boolean isContentUnchanged(ComplianceCheckSubjectContext<T> subjectContext) {
+        if (subjectContext.getPreviousContentFingerprint() == null || subjectContext.getPreviousStatus() == ComplianceStatus.FAILED) {
+            return false;
+        }
+        return subjectContext.getPreviousContentFingerprint().equals(getContentFingerprint(subjectContext));
+    }
+
+    /**
+     * Fingerprint of the subject content is computed only when the subject is checked by provider rules. The content fingerprint
+     * of the result is updated at the same time, and the fingerprints of rules checked against a different content are dropped.
+     */
+    private String getContentFingerprint(ComplianceCheckSubjectContext<T> subjectContext) {
+        if (subjectContext.getContentFingerprint() == null) {
+            String contentData = subjectContext.getComplianceSubject().getContentData();
+            String contentFingerprint;
+            try {
+                contentFingerprint = CertificateUtil.getThumbprint((contentData == null ? "" : contentData).getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Cannot compute fingerprint of compliance subject content: " + e.getMessage(), e);
+            }
+            subjectContext.setContentFingerprint(contentFingerprint);
+
+            ComplianceResultDto complianceResultDto = subjectContext.getComplianceResult();
+            if (!contentFingerprint.equals(complianceResultDto.getContentFingerprint()) || complianceResultDto.getProviderRuleFingerprints() == null) {
+                complianceResultDto.setContentFingerprint(contentFingerprint);
+                complianceResultDto.setProviderRuleFingerprints(new HashMap<>());
+            }
+        }
+        return subjectContext.getContentFingerprint();
+    }
+
     /**
      * Evaluate internal rule for the given subject. If the rule was already checked for the subject, it will be skipped.
      *
@@ -170,13 +295,13 @@ public class ComplianceSubjectHandler<T extends ComplianceSubject> {
     }
 
     /**
-     * Persists the calculated compliance result for the provided subject.
-     * The method sets the result timestamp, computes the overall compliance status,
-     * stores the result on the subject entity and saves it via the repository.
+     * Finalizes the calculated compliance result for the provided subject.
+     * The method sets the result timestamp, computes the overall compliance status
+     * and stores the result on the subject entity. The subject is saved by {@link #persistFinalizedSubjects()}.
      *
      * @param subjectUuid the subject UUID whose compliance result should be saved
      * @param errorMessage optional error message, if provided the compliance status will be set to FAILED
-     * @return the overall compliance status after saving the result
+     * @return the overall compliance status of the subject
      */
     public ComplianceStatus finalizeComplianceCheck(UUID subjectUuid, String errorMessage) {
         ComplianceCheckSubjectContext<T> subjectContext = subjectContexts.get(subjectUuid);
@@ -197,13 +322,34 @@ public class ComplianceSubjectHandler<T extends ComplianceSubject> {
 
         complianceSubject.setComplianceResult(complianceResultDto);
         complianceSubject.setComplianceStatus(complianceResultDto.getStatus());
-
-        repository.save(subjectContext.getComplianceSubject());
         subjectContext.setFinalized(true);
 
         return complianceResultDto.getStatus();
     }
 
+    /**
+     * Saves all finalized subjects in one transaction and releases their contexts, so that the memory used by the check
+     * is bounded by the size of the processed batch of subjects.
+     *
+     * @return number of saved subjects
+     */
+    public int persistFinalizedSubjects() {
+        List<T> finalizedSubjects = new ArrayList<>();
+        Iterator<ComplianceCheckSubjectContext<T>> iterator = subjectContexts.values().iterator();
+        while (iterator.hasNext()) {
+            ComplianceCheckSubjectContext<T> subjectContext = iterator.next();
+            if (subjectContext.isFinalized()) {
+                finalizedSubjects.add(subjectContext.getComplianceSubject());
+                iterator.remove();
+            }
+        }
+
+        if (!finalizedSubjects.isEmpty()) {
+            repository.saveAll(finalizedSubjects);
+        }
+        return finalizedSubjects.size();
+    }
+
     private ComplianceStatus calculateComplianceStatus(ComplianceResultDto resultDto) {
         ComplianceStatus status = ComplianceStatus.OK;
         if (resultDto.getInternalRules() != null) {
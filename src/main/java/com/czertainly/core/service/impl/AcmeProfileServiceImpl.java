@@ -23,6 +23,7 @@ import com.czertainly.core.dao.entity.acme.AcmeProfile_;
 import com.czertainly.core.dao.repository.AcmeProfileRepository;
 import com.czertainly.core.dao.repository.ProtocolCertificateAssociationsRepository;
 import com.czertainly.core.dao.repository.acme.AcmeAccountRepository;
+import com.czertainly.core.events.transaction.ProtocolProfileChangedEvent;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
@@ -35,6 +36,7 @@ import com.czertainly.core.util.ValidatorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -55,6 +57,12 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
     private ExtendedAttributeService extendedAttributeService;
     private AttributeEngine attributeEngine;
     private ProtocolCertificateAssociationsRepository certificateAssociationRepository;
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
 
     @Autowired
     public void setCertificateAssociationRepository(ProtocolCertificateAssociationsRepository certificateAssociationRepository) {
@@ -163,6 +171,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
             acmeProfile.setCertificateAssociationsUuid(certificateAssociation.getUuid());
         }
         acmeProfile = acmeProfileRepository.save(acmeProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.ACME_PROFILE, acmeProfile.getUuid()));
 
         return updateAndMapDtoAttributes(
                 acmeProfile,
@@ -252,6 +261,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
         acmeProfile.setCertificateAssociationsUuid(certificateAssociationUuid);
 
         acmeProfile = acmeProfileRepository.save(acmeProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.ACME_PROFILE, acmeProfile.getUuid()));
 
         if (raProfile != null) {
             // Keep as the last because it will flush and evict all entities from the Hibernate first-level cache.
@@ -333,6 +343,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
         }
         acmeProfile.setEnabled(true);
         acmeProfileRepository.save(acmeProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.ACME_PROFILE, acmeProfile.getUuid()));
     }
 
     @Override
@@ -344,6 +355,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
         }
         acmeProfile.setEnabled(false);
         acmeProfileRepository.save(acmeProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.ACME_PROFILE, acmeProfile.getUuid()));
     }
 
     @Override
@@ -357,6 +369,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
                 }
                 acmeProfile.setEnabled(true);
                 acmeProfileRepository.save(acmeProfile);
+                applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.ACME_PROFILE, acmeProfile.getUuid()));
             } catch (NotFoundException e) {
                 logger.warn(e.getMessage());
             }
@@ -374,6 +387,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
                 }
                 acmeProfile.setEnabled(false);
                 acmeProfileRepository.save(acmeProfile);
+                applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.ACME_PROFILE, acmeProfile.getUuid()));
             } catch (NotFoundException e) {
                 logger.warn(e.getMessage());
             }
@@ -404,6 +418,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
         RaProfile newRaProfile = getRaProfile(raProfileUuid);
         acmeProfile.setRaProfile(newRaProfile);
         acmeProfileRepository.save(acmeProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.ACME_PROFILE, acmeProfile.getUuid()));
         acmeAccountRepository.updateRaProfileForDefaultAccounts(acmeProfile.getUuid(), newRaProfile.getUuid());
     }
 
@@ -475,6 +490,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
         } else {
             attributeEngine.deleteObjectAttributeContent(Resource.ACME_PROFILE, acmeProfile.getUuid());
             acmeProfileRepository.delete(acmeProfile);
+            applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.ACME_PROFILE, acmeProfile.getUuid()));
         }
     }
 }
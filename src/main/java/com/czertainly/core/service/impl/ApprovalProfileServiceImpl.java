@@ -79,7 +79,7 @@ public class ApprovalProfileServiceImpl implements ApprovalProfileService {
             approvalProfileDetailDto = findApprovalProfileByUuid(uuid).getApprovalProfileVersionByVersion(version).mapToDtoWithSteps();
         }
 
-        approvalProfileDetailDto.getApprovalSteps().forEach(approvalStep -> approvalRecipientHelper.fillApprovalStepDto(approvalStep));
+        approvalRecipientHelper.fillApprovalStepDtos(approvalProfileDetailDto.getApprovalSteps());
         return approvalProfileDetailDto;
     }
 
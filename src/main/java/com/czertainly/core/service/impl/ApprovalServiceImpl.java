@@ -8,11 +8,13 @@ import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.api.model.core.auth.UserProfileDto;
 import com.czertainly.api.model.core.scheduler.PaginationRequestDto;
 import com.czertainly.core.dao.entity.*;
+import com.czertainly.core.dao.repository.ApprovalInboxRepository;
 import com.czertainly.core.dao.repository.ApprovalRecipientRepository;
 import com.czertainly.core.dao.repository.ApprovalRepository;
 import com.czertainly.core.dao.repository.ApprovalStepRepository;
 import com.czertainly.core.events.handlers.ApprovalClosedEventHandler;
 import com.czertainly.core.events.handlers.ApprovalRequestedEventHandler;
+import com.czertainly.core.events.transaction.TransactionHandler;
 import com.czertainly.core.messaging.jms.producers.ActionProducer;
 import com.czertainly.core.messaging.jms.producers.EventProducer;
 import com.czertainly.core.messaging.model.ActionMessage;
@@ -21,6 +23,7 @@ import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.service.ApprovalService;
+import com.czertainly.core.tasks.ApprovalExpirationScheduler;
 import com.czertainly.core.util.ApprovalRecipientHelper;
 import com.czertainly.core.util.AuthHelper;
 import com.czertainly.core.util.RequestValidatorHelper;
@@ -32,10 +35,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @Transactional
@@ -43,10 +48,14 @@ public class ApprovalServiceImpl implements ApprovalService {
 
     private static final Logger logger = LoggerFactory.getLogger(ApprovalServiceImpl.class);
 
+    private static final int EXPIRATION_BATCH_SIZE = 500;
+
     private ApprovalRepository approvalRepository;
 
     private ApprovalRecipientRepository approvalRecipientRepository;
 
+    private ApprovalInboxRepository approvalInboxRepository;
+
     private ApprovalStepRepository approvalStepRepository;
 
     private ApprovalRecipientHelper approvalRecipientHelper;
@@ -55,6 +64,10 @@ public class ApprovalServiceImpl implements ApprovalService {
 
     private EventProducer eventProducer;
 
+    private TransactionHandler transactionHandler;
+
+    private ApprovalExpirationScheduler approvalExpirationScheduler;
+
     @Override
     @ExternalAuthorization(resource = Resource.APPROVAL, action = ResourceAction.LIST)
     public ApprovalResponseDto listApprovals(final SecurityFilter filter, final PaginationRequestDto paginationRequestDto) {
@@ -74,6 +87,18 @@ public class ApprovalServiceImpl implements ApprovalService {
     @Override
     public ApprovalResponseDto listUserApprovals(final SecurityFilter securityFilter, final boolean withHistory, final PaginationRequestDto paginationRequestDto) {
         final UserProfileDto userProfileDto = AuthHelper.getUserProfile();
+        if (!withHistory) {
+            // pending approvals are looked up in the inbox materialized per principal
+            final List<UUID> principalUuids = getPrincipalUuids(userProfileDto);
+            final TriFunction<Root<Approval>, CriteriaBuilder, CriteriaQuery<?>, Predicate> inboxWhereClause = (root, cb, cr) -> {
+                final Subquery<UUID> inboxSubquery = cr.subquery(UUID.class);
+                final Root<ApprovalInbox> inboxRoot = inboxSubquery.from(ApprovalInbox.class);
+                inboxSubquery.select(inboxRoot.get("approvalUuid")).where(inboxRoot.get("principalUuid").in(principalUuids));
+                return root.get("uuid").in(inboxSubquery);
+            };
+            return listOfApprovals(securityFilter, inboxWhereClause, paginationRequestDto);
+        }
+
         final TriFunction<Root<Approval>, CriteriaBuilder, CriteriaQuery<?>, Predicate> additionalWhereClause = (root, cb, cr) -> {
             final Join joinApprovalRecipient = root.join("approvalRecipients", JoinType.LEFT);
             final Predicate statusPredicate = joinApprovalRecipient.get("status").in(prepareApprovalRecipientStatuses(withHistory));
@@ -85,6 +110,18 @@ public class ApprovalServiceImpl implements ApprovalService {
         return listOfApprovals(securityFilter, additionalWhereClause, paginationRequestDto);
     }
 
+    private static List<UUID> getPrincipalUuids(final UserProfileDto userProfileDto) {
+        final List<UUID> principalUuids = new ArrayList<>();
+        principalUuids.add(UUID.fromString(userProfileDto.getUser().getUuid()));
+        if (userProfileDto.getRoles() != null) {
+            userProfileDto.getRoles().forEach(role -> principalUuids.add(UUID.fromString(role.getUuid())));
+        }
+        if (userProfileDto.getUser().getGroups() != null) {
+            userProfileDto.getUser().getGroups().forEach(group -> principalUuids.add(UUID.fromString(group.getUuid())));
+        }
+        return principalUuids;
+    }
+
     private List<ApprovalStatusEnum> prepareApprovalRecipientStatuses(final boolean withHistory) {
         final List<ApprovalStatusEnum> approvalStatusList = new ArrayList<>();
         if (withHistory) {
@@ -100,7 +137,7 @@ public class ApprovalServiceImpl implements ApprovalService {
         ApprovalDetailDto approvalDetailDto = findApprovalByUuid(uuid).mapToDetailDto();
 
         approvalDetailDto.setCreatorUsername(approvalRecipientHelper.getUsername(approvalDetailDto.getCreatorUuid()));
-        approvalDetailDto.getApprovalSteps().forEach(approvalStep -> approvalRecipientHelper.fillApprovalDetailStepDto(approvalStep));
+        approvalRecipientHelper.fillApprovalDetailStepDtos(approvalDetailDto.getApprovalSteps());
 
         return approvalDetailDto;
     }
@@ -166,21 +203,48 @@ public class ApprovalServiceImpl implements ApprovalService {
         approvalRepository.save(approval);
 
         processApprovalToTheNextStep(approval.getUuid().toString(), null);
+        approvalExpirationScheduler.scheduleExpiration(approval.getExpiryAt());
         return approval;
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int checkApprovalsExpiration() {
-        List<Approval> expiredApprovals = approvalRepository.findByStatusAndExpiryAtLessThan(ApprovalStatusEnum.PENDING, new Date());
-        for (Approval approval : expiredApprovals) {
-            try {
-                closeApproval(approval, ApprovalStatusEnum.EXPIRED, true);
-            } catch (Exception e) {
-                logger.error("Failed to close expired approval {} for {} {} action", approval.getUuid(), approval.getResource().getLabel(), approval.getAction().getCode());
-            }
+        final Date now = new Date();
+        int expiredApprovals = 0;
+        final AtomicInteger batchExpiredApprovals = new AtomicInteger();
+        do {
+            transactionHandler.runInNewTransaction(() -> batchExpiredApprovals.set(expireApprovals(now)));
+            expiredApprovals += batchExpiredApprovals.get();
+        } while (batchExpiredApprovals.get() == EXPIRATION_BATCH_SIZE);
+
+        approvalExpirationScheduler.scheduleNextExpiration();
+        return expiredApprovals;
+    }
+
+    /**
+     * Expires the batch of pending approvals with bulk status update of the approvals and their pending recipients.
+     * One aggregated approval closed event is produced for the whole batch.
+     *
+     * @return number of expired approvals
+     */
+    private int expireApprovals(final Date expiryAt) {
+        final List<UUID> approvalUuids = approvalRepository.findExpiredPendingApprovalUuidsForUpdate(expiryAt, EXPIRATION_BATCH_SIZE);
+        if (approvalUuids.isEmpty()) {
+            return 0;
         }
 
-        return expiredApprovals.size();
+        final List<Approval> approvals = approvalRepository.findAllById(approvalUuids);
+        final Date closedAt = new Date();
+        int expiredRecipients = approvalRecipientRepository.updateStatusByApprovalUuidInAndStatus(approvalUuids, ApprovalStatusEnum.PENDING, ApprovalStatusEnum.EXPIRED, closedAt, "Approval expired");
+        approvalInboxRepository.deleteByApprovalUuidIn(approvalUuids);
+        int expiredApprovals = approvalRepository.updateStatusByUuidInAndStatus(approvalUuids, ApprovalStatusEnum.PENDING, ApprovalStatusEnum.EXPIRED, closedAt);
+        logger.info("Marked {} approvals and {} their pending ApprovalRecipients as {}", expiredApprovals, expiredRecipients, ApprovalStatusEnum.EXPIRED.getCode());
+
+        actionProducer.produceMessages(approvals.stream().map(approval -> createActionMessage(approval, ApprovalStatusEnum.EXPIRED)).toList());
+        eventProducer.produceMessage(ApprovalClosedEventHandler.constructEventMessage(approvalUuids));
+
+        return approvalUuids.size();
     }
 
     private ApprovalRecipient validateAndSetPendingApprovalRecipient(final UUID approvalUuid, final UserApprovalDto userApprovalDto, final ApprovalStatusEnum statusEnum) throws NotFoundException {
@@ -196,13 +260,10 @@ public class ApprovalServiceImpl implements ApprovalService {
             throw new ValidationException("User " + userProfileDto.getUser().getUsername() + " already made decision about the approval " + approvalUuid + ". Can't approve/reject it again.");
         }
 
-        final List<ApprovalRecipient> approvalRecipients
-                = approvalRecipientRepository.findByResponsiblePersonAndStatusAndApproval(
-                UUID.fromString(userProfileDto.getUser().getUuid()),
-                userProfileDto.getRoles().stream().map(role -> UUID.fromString(role.getUuid())).toList(),
-                userProfileDto.getUser().getGroups().stream().map(g -> UUID.fromString(g.getUuid())).toList(),
-                ApprovalStatusEnum.PENDING,
-                approvalUuid);
+        final List<UUID> approvalRecipientUuids = approvalInboxRepository.findByApprovalUuidAndPrincipalUuidIn(approvalUuid, getPrincipalUuids(userProfileDto))
+                .stream().map(ApprovalInbox::getApprovalRecipientUuid).toList();
+        final List<ApprovalRecipient> approvalRecipients = approvalRecipientRepository.findAllById(approvalRecipientUuids).stream()
+                .filter(approvalRecipient -> approvalRecipient.getStatus() == ApprovalStatusEnum.PENDING).toList();
 
         if (approvalRecipients == null || approvalRecipients.isEmpty()) {
             throw new NotFoundException("There is NOT expected step for current user " + userProfileDto.getUser().getUsername() + " for approval " + approvalUuid);
@@ -216,6 +277,7 @@ public class ApprovalServiceImpl implements ApprovalService {
         approvalRecipient.setUserUuid(UUID.fromString(userProfileDto.getUser().getUuid()));
         approvalRecipient.setComment(userApprovalDto.getComment());
         approvalRecipientRepository.save(approvalRecipient);
+        approvalInboxRepository.deleteByApprovalUuidIn(List.of(approvalUuid));
 
         logger.info("User {} {} the ApprovalRecipient {}", userProfileDto.getUser().getUuid(), statusEnum.getCode(), approvalRecipient.getUuid());
         return approvalRecipient;
@@ -238,6 +300,7 @@ public class ApprovalServiceImpl implements ApprovalService {
             approvalRecipient.setStatus(ApprovalStatusEnum.PENDING);
             approvalRecipient.setCreatedAt(lastProcessedApprovalRecipient != null ? lastProcessedApprovalRecipient.getCreatedAt() : new Date());
             approvalRecipientRepository.save(approvalRecipient);
+            addToInbox(approvalRecipient, nextApprovalStep);
 
             if (lastProcessedApprovalRecipient == null
                     || lastProcessedApprovalRecipient.getApprovalStep().getOrder() != nextApprovalStep.getOrder()) {
@@ -274,6 +337,7 @@ public class ApprovalServiceImpl implements ApprovalService {
                 logger.info("User {} marked the ApprovalRecipient {} as {}", userProfileDto.getUser().getUsername(), approvalRecipient.getUuid(), approvalStatus.getCode());
             }
             approvalRecipientRepository.save(approvalRecipient);
+            approvalInboxRepository.deleteByApprovalUuidIn(List.of(approval.getUuid()));
         }
 
         // change approval status
@@ -283,6 +347,29 @@ public class ApprovalServiceImpl implements ApprovalService {
         approvalRepository.save(approval);
 
         // if approved, perform action linked with approval
+        actionProducer.produceMessage(createActionMessage(approval, approvalStatus));
+
+        // send event of approval closed
+        eventProducer.produceMessage(ApprovalClosedEventHandler.constructEventMessage(approval.getUuid()));
+    }
+
+    private void addToInbox(final ApprovalRecipient approvalRecipient, final ApprovalStep approvalStep) {
+        final UUID principalUuid = approvalStep.getUserUuid() != null ? approvalStep.getUserUuid()
+                : approvalStep.getRoleUuid() != null ? approvalStep.getRoleUuid() : approvalStep.getGroupUuid();
+        if (principalUuid == null) {
+            logger.warn("ApprovalStep {} has no responsible user, role or group, ApprovalRecipient {} is not added to any inbox", approvalStep.getUuid(), approvalRecipient.getUuid());
+            return;
+        }
+
+        final ApprovalInbox approvalInbox = new ApprovalInbox();
+        approvalInbox.setApprovalRecipientUuid(approvalRecipient.getUuid());
+        approvalInbox.setApprovalUuid(approvalRecipient.getApprovalUuid());
+        approvalInbox.setPrincipalUuid(principalUuid);
+        approvalInbox.setCreatedAt(approvalRecipient.getCreatedAt());
+        approvalInboxRepository.save(approvalInbox);
+    }
+
+    private static ActionMessage createActionMessage(final Approval approval, final ApprovalStatusEnum approvalStatus) {
         final ActionMessage actionMessage = new ActionMessage();
         actionMessage.setUserUuid(approval.getCreatorUuid());
         actionMessage.setApprovalUuid(approval.getUuid());
@@ -291,10 +378,7 @@ public class ApprovalServiceImpl implements ApprovalService {
         actionMessage.setResourceUuid(approval.getObjectUuid());
         actionMessage.setResource(approval.getResource());
         actionMessage.setResourceAction(approval.getAction());
-        actionProducer.produceMessage(actionMessage);
-
-        // send event of approval closed
-        eventProducer.produceMessage(ApprovalClosedEventHandler.constructEventMessage(approval.getUuid()));
+        return actionMessage;
     }
 
     private Approval findApprovalByUuid(final String uuid) throws NotFoundException {
@@ -336,6 +420,11 @@ public class ApprovalServiceImpl implements ApprovalService {
         this.approvalRecipientRepository = approvalRecipientRepository;
     }
 
+    @Autowired
+    public void setApprovalInboxRepository(ApprovalInboxRepository approvalInboxRepository) {
+        this.approvalInboxRepository = approvalInboxRepository;
+    }
+
     @Autowired
     public void setApprovalStepRepository(ApprovalStepRepository approvalStepRepository) {
         this.approvalStepRepository = approvalStepRepository;
@@ -351,6 +440,16 @@ public class ApprovalServiceImpl implements ApprovalService {
         this.eventProducer = eventProducer;
     }
 
+    @Autowired
+    public void setTransactionHandler(TransactionHandler transactionHandler) {
+        this.transactionHandler = transactionHandler;
+    }
+
+    @Autowired
+    public void setApprovalExpirationScheduler(ApprovalExpirationScheduler approvalExpirationScheduler) {
+        this.approvalExpirationScheduler = approvalExpirationScheduler;
+    }
+
     @Autowired
     public void setApprovalRecipientHelper(ApprovalRecipientHelper approvalRecipientHelper) {
         this.approvalRecipientHelper = approvalRecipientHelper;
@@ -28,6 +28,7 @@ import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.AttributeVersionHelper;
 import com.czertainly.core.dao.entity.AttributeDefinition;
 import com.czertainly.core.dao.repository.AttributeDefinitionRepository;
+import com.czertainly.core.events.transaction.AttributeDefinitionChangedEvent;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
@@ -37,6 +38,7 @@ import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -52,6 +54,7 @@ public class AttributeServiceImpl implements AttributeService {
 
     private AttributeEngine attributeEngine;
     private AttributeDefinitionRepository attributeDefinitionRepository;
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
@@ -63,6 +66,11 @@ public class AttributeServiceImpl implements AttributeService {
         this.attributeDefinitionRepository = attributeDefinitionRepository;
     }
 
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
     @Override
     @ExternalAuthorization(resource = Resource.ATTRIBUTE, action = ResourceAction.LIST)
     public List<CustomAttributeDefinitionDto> listCustomAttributes(SecurityFilter filter, AttributeContentType attributeContentType) {
@@ -240,6 +248,7 @@ public class AttributeServiceImpl implements AttributeService {
         AttributeDefinition definition = attributeDefinitionRepository.findByUuidAndType(uuid, AttributeType.CUSTOM).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, uuid.toString()));
         definition.setEnabled(enable);
         attributeDefinitionRepository.save(definition);
+        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(definition.getUuid()));
     }
 
     @Override
@@ -286,6 +295,7 @@ public class AttributeServiceImpl implements AttributeService {
         AttributeDefinition definition = attributeDefinitionRepository.findByConnectorUuidAndAttributeUuid(connectorUUid, uuid).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, uuid.toString()));
         definition.setGlobal(true);
         attributeDefinitionRepository.save(definition);
+        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(definition.getUuid()));
         return getGlobalMetadata(definition.getUuid());
     }
 
@@ -295,6 +305,7 @@ public class AttributeServiceImpl implements AttributeService {
         AttributeDefinition definition = attributeDefinitionRepository.findByUuidAndTypeAndGlobalTrue(uuid, AttributeType.META).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, uuid.toString()));
         definition.setGlobal(false);
         attributeDefinitionRepository.save(definition);
+        applicationEventPublisher.publishEvent(new AttributeDefinitionChangedEvent(definition.getUuid()));
     }
 
     @Override
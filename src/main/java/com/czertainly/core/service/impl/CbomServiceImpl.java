@@ -1,13 +1,18 @@
 package com.czertainly.core.service.impl;
 
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -45,12 +50,16 @@ import com.czertainly.api.model.core.search.SearchFieldDataByGroupDto;
 import com.czertainly.api.model.core.search.SearchFieldDataDto;
 import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
 import com.czertainly.core.attribute.engine.AttributeEngine;
+import com.czertainly.core.cbom.cache.CbomDocumentCache;
 import com.czertainly.core.cbom.client.CbomRepositoryClient;
 import com.czertainly.core.comparator.SearchFieldDataComparator;
 import com.czertainly.core.dao.entity.Cbom;
+import com.czertainly.core.dao.entity.CbomDocumentId;
+import com.czertainly.core.dao.entity.CbomSyncWatermark;
 import com.czertainly.core.dao.entity.Cbom_;
 import com.czertainly.core.dao.entity.ScheduledJobHistory;
 import com.czertainly.core.dao.repository.CbomRepository;
+import com.czertainly.core.dao.repository.CbomSyncWatermarkRepository;
 import com.czertainly.core.dao.repository.ScheduledJobHistoryRepository;
 import com.czertainly.core.enums.FilterField;
 import com.czertainly.core.events.transaction.TransactionHandler;
@@ -66,11 +75,13 @@ import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.service.CbomService;
+import com.czertainly.core.service.CbomSyncProperties;
 import com.czertainly.core.tasks.CbomSyncTask;
 import com.czertainly.core.util.CbomUtil;
 import com.czertainly.core.util.FilterPredicatesBuilder;
 import com.czertainly.core.util.RequestValidatorHelper;
 import com.czertainly.core.util.SearchHelper;
+import com.pivovarit.collectors.ParallelCollectors;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
@@ -83,16 +94,24 @@ public class CbomServiceImpl implements CbomService {
 
     private static final LoggerWrapper logger = new LoggerWrapper(CbomServiceImpl.class, Module.CORE, Resource.CBOM);
 
+    private static final long SYNC_SAFETY_OVERLAP_SECONDS = 60L;
+
     private CbomRepository cbomRepository;
 
     private CbomRepositoryClient cbomRepositoryClient;
 
+    private CbomDocumentCache cbomDocumentCache;
+
     private AttributeEngine attributeEngine;
 
     private ScheduledJobHistoryRepository scheduledJobHistoryRepository;
 
     private TransactionHandler transactionHandler;
 
+    private CbomSyncWatermarkRepository cbomSyncWatermarkRepository;
+
+    private CbomSyncProperties cbomSyncProperties;
+
     @Autowired
     public void setCbomRepository(CbomRepository cbomRepository) {
         this.cbomRepository = cbomRepository;
@@ -103,6 +122,11 @@ public class CbomServiceImpl implements CbomService {
         this.cbomRepositoryClient = cbomRepositoryClient;
     }
 
+    @Autowired
+    public void setCbomDocumentCache(CbomDocumentCache cbomDocumentCache) {
+        this.cbomDocumentCache = cbomDocumentCache;
+    }
+
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
         this.attributeEngine = attributeEngine;
@@ -118,6 +142,16 @@ public class CbomServiceImpl implements CbomService {
         this.transactionHandler = transactionHandler;
     }
 
+    @Autowired
+    public void setCbomSyncWatermarkRepository(CbomSyncWatermarkRepository cbomSyncWatermarkRepository) {
+        this.cbomSyncWatermarkRepository = cbomSyncWatermarkRepository;
+    }
+
+    @Autowired
+    public void setCbomSyncProperties(CbomSyncProperties cbomSyncProperties) {
+        this.cbomSyncProperties = cbomSyncProperties;
+    }
+
     @Override
     @ExternalAuthorization(resource = Resource.CBOM, action = ResourceAction.LIST)
     public PaginationResponseDto<CbomDto> listCboms(SecurityFilter filter, SearchRequestDto request) {
@@ -401,87 +435,188 @@ public class CbomServiceImpl implements CbomService {
         sync();
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String sync() throws CbomRepositoryException {
-        long timestamp = getLastSyncTimestamp();
+        String repositoryUrl = cbomRepositoryClient.getCbomRepositoryBaseUrl();
+        long timestamp = getLastSyncTimestamp(repositoryUrl);
         BomSearchRequestDto query = new BomSearchRequestDto();
         query.setAfter(timestamp);
         List<BomEntryDto> cboms = cbomRepositoryClient.search(query);
         logger.getLogger().debug("CBOM sync: {} CBOM entries retrieved from repository for after: {}", cboms.size(), query.getAfter());
 
-        int skipped = 0;
-        int duplicates = 0;
-        int stored = 0;
+        // entries are synced in the order they were created in the repository, so the sync watermark only moves forward
+        List<BomEntryDto> orderedEntries = cboms.stream()
+                .sorted(Comparator.comparing(BomEntryDto::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+
+        SyncResult result = new SyncResult();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < orderedEntries.size(); i += cbomSyncProperties.batchSize()) {
+                List<BomEntryDto> batch = orderedEntries.subList(i, Math.min(i + cbomSyncProperties.batchSize(), orderedEntries.size()));
+                syncBatch(repositoryUrl, batch, executor, result);
+            }
+        }
 
-        for (BomEntryDto entry : cboms) {
+        String syncResultMessage = "Read %d entries, skipped due to an error %d, skipped duplicates %d, stored %d new entries".formatted(
+                cboms.size(),
+                result.skipped,
+                result.duplicates,
+                result.stored
+        );
+        logger.getLogger().info("CBOM Sync: finished. {}", syncResultMessage);
+
+        return syncResultMessage;
+    }
+
+    /**
+     * Syncs the batch of repository entries. CBOM documents that are not cached yet are read from the repository in parallel,
+     * and the new CBOM entries are stored together with the sync watermark in one transaction. When the transaction fails,
+     * entries are stored one by one, so that one invalid entry does not prevent the others from being synced.
+     */
+    private void syncBatch(String repositoryUrl, List<BomEntryDto> batch, ExecutorService executor, SyncResult result) {
+        Map<CbomDocumentId, BomEntryDto> entries = new LinkedHashMap<>();
+        for (BomEntryDto entry : batch) {
             int version;
             try {
                 version = validateSyncedCbomEntry(entry);
             } catch (AlreadyExistException e) {
                 logger.getLogger().debug("CBOM Sync: {}", e.getMessage());
-                duplicates++;
+                result.duplicates++;
                 continue;
             } catch (ValidationException e) {
                 logger.getLogger().debug("CBOM Sync: {}", e.getMessage());
-                skipped++;
+                result.skipped++;
                 continue;
             }
-
-            // specVersion, source and metadata.timestamp arguments missing from BomEntryDto
-            // - load them from CBOM itself
-            BomResponseDto response;
-            try {
-                response = read(entry.getSerialNumber(), version);
-            } catch (NotFoundException e) {
-                logger.getLogger().warn("CBOM Sync: CBOM serialNumber {} and version {}: not exists. Skipping the sync", entry.getSerialNumber(), version);
-                skipped++;
-                continue;
-            } catch (Exception ex) {
-                logger.getLogger().warn("CBOM Sync: CBOM serialNumber {} and version {}: error while reading the CBOM document from repository. Skipping the sync. Error: {}", entry.getSerialNumber(), version, ex.getMessage());
-                skipped++;
-                continue;
+            if (entries.putIfAbsent(new CbomDocumentId(repositoryUrl, entry.getSerialNumber(), version), entry) != null) {
+                logger.getLogger().debug("CBOM Sync: CBOM serialNumber {} and version {}: listed multiple times. Skipping the sync", entry.getSerialNumber(), version);
+                result.duplicates++;
             }
+        }
 
+        // specVersion, source and metadata.timestamp arguments missing from BomEntryDto
+        // - load them from CBOM itself, from cache when available
+        Map<CbomDocumentId, BomResponseDto> documents = new HashMap<>(cbomDocumentCache.getAll(entries.keySet()));
+        List<CbomDocumentCache.FetchedDocument> fetchedDocuments = new ArrayList<>();
+        List<SyncedDocument> syncedDocuments = entries.keySet().stream()
+                .filter(id -> !documents.containsKey(id))
+                .collect(ParallelCollectors.parallel(this::fetchSyncedDocument, executor, cbomSyncProperties.maxParallelism()))
+                .join()
+                .toList();
+        for (SyncedDocument syncedDocument : syncedDocuments) {
+            CbomDocumentId id = syncedDocument.id();
+            if (syncedDocument.document() != null) {
+                documents.put(id, syncedDocument.document().document());
+                fetchedDocuments.add(syncedDocument.document());
+            } else if (syncedDocument.error() instanceof CbomRepositoryException ex && ex.getProblemDetail() != null && ex.getProblemDetail().getStatus() == 404) {
+                logger.getLogger().warn("CBOM Sync: CBOM serialNumber {} and version {}: not exists. Skipping the sync", id.getSerialNumber(), id.getVersion());
+                result.skipped++;
+            } else {
+                logger.getLogger().warn("CBOM Sync: CBOM serialNumber {} and version {}: error while reading the CBOM document from repository. Skipping the sync. Error: {}", id.getSerialNumber(), id.getVersion(), syncedDocument.error().getMessage());
+                result.skipped++;
+            }
+        }
+        entries.keySet().retainAll(documents.keySet());
 
-            AtomicBoolean isDuplicate = new AtomicBoolean(false);
-            try {
-                transactionHandler.runInNewTransaction(() -> {
+        AtomicInteger batchDuplicates = new AtomicInteger();
+        try {
+            transactionHandler.runInNewTransaction(() -> {
+                for (Map.Entry<CbomDocumentId, BomEntryDto> entry : entries.entrySet()) {
                     try {
-                        createCbomEntry(entry, version, response);
+                        createCbomEntry(entry.getValue(), entry.getKey().getVersion(), documents.get(entry.getKey()));
                     } catch (AlreadyExistException e) {
                         // Pre-check duplicate: no DB operation occurred, transaction is healthy.
-                        // AlreadyExistException is checked so it cannot cross the Runnable boundary;
-                        // handle it here and signal the result via isDuplicate.
-                        isDuplicate.set(true);
+                        logger.getLogger().debug("CBOM Sync: CBOM serialNumber {} and version {}: already exists. Skipping the sync", entry.getKey().getSerialNumber(), entry.getKey().getVersion());
+                        batchDuplicates.incrementAndGet();
                     }
-                });
-            } catch (DataIntegrityViolationException e) {
-                // Race condition: unique constraint hit at DB level. The REQUIRES_NEW transaction
-                // is already rolled back; count as duplicate rather than an error.
-                logger.getLogger().debug("CBOM Sync: CBOM serialNumber {} and version {}: already exists (unique constraint). Skipping the sync", entry.getSerialNumber(), version);
-                duplicates++;
-                continue;
-            } catch (Exception e) {
-                logger.getLogger().debug("CBOM Sync: CBOM serialNumber {} and version {} syncing error {}.", entry.getSerialNumber(), version, e.getMessage());
-                skipped++;
-                continue;
+                }
+                cbomDocumentCache.put(fetchedDocuments);
+                updateSyncWatermark(repositoryUrl, batch);
+            });
+        } catch (Exception e) {
+            // Whole batch is rolled back, e.g. due to unique constraint hit at DB level or invalid CBOM document
+            logger.getLogger().debug("CBOM Sync: batch of {} entries cannot be stored, storing entries one by one. Error: {}", entries.size(), e.getMessage());
+            Map<CbomDocumentId, CbomDocumentCache.FetchedDocument> fetchedDocumentsById = new HashMap<>();
+            fetchedDocuments.forEach(document -> fetchedDocumentsById.put(document.id(), document));
+            for (Map.Entry<CbomDocumentId, BomEntryDto> entry : entries.entrySet()) {
+                syncEntry(entry.getValue(), entry.getKey().getVersion(), documents.get(entry.getKey()), fetchedDocumentsById.get(entry.getKey()), result);
             }
-            if (isDuplicate.get()) {
-                logger.getLogger().debug("CBOM Sync: CBOM serialNumber {} and version {}: already exists. Skipping the sync", entry.getSerialNumber(), version);
-                duplicates++;
-                continue;
-            }
-            stored++;
+            transactionHandler.runInNewTransaction(() -> updateSyncWatermark(repositoryUrl, batch));
+            return;
         }
+        result.duplicates += batchDuplicates.get();
+        result.stored += entries.size() - batchDuplicates.get();
+    }
 
-        String syncResultMessage = "Read %d entries, skipped due to an error %d, skipped duplicates %d, stored %d new entries".formatted(
-                cboms.size(),
-                skipped,
-                duplicates,
-                stored
-        );
-        logger.getLogger().info("CBOM Sync: finished. {}", syncResultMessage);
+    private void syncEntry(BomEntryDto entry, int version, BomResponseDto response, CbomDocumentCache.FetchedDocument fetchedDocument, SyncResult result) {
+        AtomicBoolean isDuplicate = new AtomicBoolean(false);
+        try {
+            transactionHandler.runInNewTransaction(() -> {
+                try {
+                    createCbomEntry(entry, version, response);
+                } catch (AlreadyExistException e) {
+                    // Pre-check duplicate: no DB operation occurred, transaction is healthy.
+                    // AlreadyExistException is checked so it cannot cross the Runnable boundary;
+                    // handle it here and signal the result via isDuplicate.
+                    isDuplicate.set(true);
+                }
+                if (fetchedDocument != null) {
+                    cbomDocumentCache.put(List.of(fetchedDocument));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Race condition: unique constraint hit at DB level. The REQUIRES_NEW transaction
+            // is already rolled back; count as duplicate rather than an error.
+            logger.getLogger().debug("CBOM Sync: CBOM serialNumber {} and version {}: already exists (unique constraint). Skipping the sync", entry.getSerialNumber(), version);
+            result.duplicates++;
+            return;
+        } catch (Exception e) {
+            logger.getLogger().debug("CBOM Sync: CBOM serialNumber {} and version {} syncing error {}.", entry.getSerialNumber(), version, e.getMessage());
+            result.skipped++;
+            return;
+        }
+        if (isDuplicate.get()) {
+            logger.getLogger().debug("CBOM Sync: CBOM serialNumber {} and version {}: already exists. Skipping the sync", entry.getSerialNumber(), version);
+            result.duplicates++;
+            return;
+        }
+        result.stored++;
+    }
 
-        return syncResultMessage;
+    private SyncedDocument fetchSyncedDocument(CbomDocumentId id) {
+        try {
+            return new SyncedDocument(id, cbomDocumentCache.fetch(id), null);
+        } catch (Exception e) {
+            return new SyncedDocument(id, null, e);
+        }
+    }
+
+    /**
+     * Moves the sync watermark to the last entry of the synced batch, including entries that were skipped.
+     */
+    private void updateSyncWatermark(String repositoryUrl, List<BomEntryDto> batch) {
+        BomEntryDto lastEntry = null;
+        for (BomEntryDto entry : batch) {
+            if (entry.getTimestamp() != null) {
+                lastEntry = entry;
+            }
+        }
+        if (lastEntry == null) {
+            return;
+        }
+
+        CbomSyncWatermark watermark = cbomSyncWatermarkRepository.findById(repositoryUrl).orElseGet(() -> {
+            CbomSyncWatermark newWatermark = new CbomSyncWatermark();
+            newWatermark.setRepositoryUrl(repositoryUrl);
+            return newWatermark;
+        });
+        if (watermark.getTimestamp() != null && watermark.getTimestamp().isAfter(lastEntry.getTimestamp())) {
+            return;
+        }
+        watermark.setTimestamp(lastEntry.getTimestamp());
+        watermark.setSerialNumber(lastEntry.getSerialNumber());
+        watermark.setVersion(lastEntry.getVersion());
+        cbomSyncWatermarkRepository.save(watermark);
     }
 
     public boolean isCbomRepositoryClientConfigured() {
@@ -491,10 +626,10 @@ public class CbomServiceImpl implements CbomService {
     private BomResponseDto read(String serialNumber, int version) throws CbomRepositoryException, NotFoundException {
         BomResponseDto response;
         try {
-            response = cbomRepositoryClient.read(
+            response = cbomDocumentCache.read(
                     serialNumber,
                     version);
-            logger.getLogger().debug("CBOM document retrieved from repository for serialNumber {} and version {}: {}", serialNumber, version, response);
+            logger.getLogger().debug("CBOM document retrieved for serialNumber {} and version {}: {}", serialNumber, version, response);
         } catch (CbomRepositoryException ex) {
             if (ex.getProblemDetail() != null && ex.getProblemDetail().getStatus() == 404) {
                 throw new NotFoundException("CBOM Repository entry", serialNumber);
@@ -525,23 +660,26 @@ public class CbomServiceImpl implements CbomService {
         return version;
     }
 
-    private long getLastSyncTimestamp() {
+    private long getLastSyncTimestamp(String repositoryUrl) {
+        long timestamp = 0L;
         Optional<ScheduledJobHistory> lastSync = scheduledJobHistoryRepository.findFirstByScheduledJobJobNameAndSchedulerExecutionStatusOrderByJobExecutionDesc(CbomSyncTask.NAME, SchedulerJobExecutionStatus.SUCCESS);
-
         if (lastSync.isEmpty()) {
             logger.getLogger().debug("CBOM sync: no previous run found, performing initial sync.");
-            return 0L;
-        }
-
-        long timestamp = 0L;
-        ScheduledJobHistory lastSyncJob = lastSync.get();
-        Date jobExecution = lastSyncJob.getJobExecution();
-        if (jobExecution == null) {
+        } else if (lastSync.get().getJobExecution() == null) {
             logger.getLogger().debug("CBOM sync: last sync job has no execution start time, performing initial sync.");
         } else {
-            long safetyOverlapSeconds = 60L;
-            long baseTimestamp = jobExecution.getTime() / 1000;
-            timestamp = Math.max(0L, baseTimestamp - safetyOverlapSeconds);
+            long baseTimestamp = lastSync.get().getJobExecution().getTime() / 1000;
+            timestamp = Math.max(0L, baseTimestamp - SYNC_SAFETY_OVERLAP_SECONDS);
+        }
+
+        // resume interrupted or failed sync from the last committed entry
+        Optional<CbomSyncWatermark> watermark = cbomSyncWatermarkRepository.findById(repositoryUrl);
+        if (watermark.isPresent()) {
+            long watermarkTimestamp = Math.max(0L, watermark.get().getTimestamp().toEpochSecond() - SYNC_SAFETY_OVERLAP_SECONDS);
+            if (watermarkTimestamp > timestamp) {
+                logger.getLogger().debug("CBOM sync: resuming from the last synced entry with serialNumber {} and version {}.", watermark.get().getSerialNumber(), watermark.get().getVersion());
+                timestamp = watermarkTimestamp;
+            }
         }
         return timestamp;
     }
@@ -575,4 +713,13 @@ public class CbomServiceImpl implements CbomService {
         // The sync loop catches it specifically and counts it as a duplicate.
         cbomRepository.save(cbom);
     }
+
+    private record SyncedDocument(CbomDocumentId id, CbomDocumentCache.FetchedDocument document, Exception error) {
+    }
+
+    private static class SyncResult {
+        private int skipped;
+        private int duplicates;
+        private int stored;
+    }
 }
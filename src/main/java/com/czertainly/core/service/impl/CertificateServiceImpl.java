@@ -1360,10 +1360,12 @@ public class CertificateServiceImpl implements CertificateService, AttributeReso
     private void sendValidationBatches(List<UUID> certificateUuids) {
         if (certificateUuids == null || certificateUuids.isEmpty()) return;
         final int size = certificateUuids.size();
+        List<ValidationMessage> validationMessages = new ArrayList<>();
         for (int i = 0; i < size; i += VALIDATION_BATCH_SIZE) {
             List<UUID> batch = certificateUuids.subList(i, Math.min(i + VALIDATION_BATCH_SIZE, size));
-            validationProducer.produceMessage(new ValidationMessage(Resource.CERTIFICATE, batch, null, null, null, null));
+            validationMessages.add(new ValidationMessage(Resource.CERTIFICATE, batch, null, null, null, null));
         }
+        validationProducer.produceMessages(validationMessages);
     }
 
     @Override
@@ -1851,9 +1853,7 @@ public class CertificateServiceImpl implements CertificateService, AttributeReso
     @Override
     public int handleExpiringCertificates() {
         List<UUID> expiringCertificates = certificateRepository.findExpiringCertificatesWithoutRenewal();
-        for (UUID uuid : expiringCertificates) {
-            eventProducer.produceMessage(CertificateExpiringEventHandler.constructEventMessages(uuid));
-        }
+        eventProducer.produceMessages(expiringCertificates.stream().map(CertificateExpiringEventHandler::constructEventMessages).toList());
         return expiringCertificates.size();
     }
 
@@ -23,6 +23,7 @@ import com.czertainly.core.dao.entity.cmp.CmpProfile;
 import com.czertainly.core.dao.entity.cmp.CmpProfile_;
 import com.czertainly.core.dao.repository.ProtocolCertificateAssociationsRepository;
 import com.czertainly.core.dao.repository.cmp.CmpProfileRepository;
+import com.czertainly.core.events.transaction.ProtocolProfileChangedEvent;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
@@ -37,6 +38,7 @@ import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -62,6 +64,12 @@ public class CmpProfileServiceImpl implements CmpProfileService {
     private CertificateService certificateService;
     private AttributeEngine attributeEngine;
     private ProtocolCertificateAssociationsRepository certificateAssociationRepository;
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
 
     @Autowired
     public void setCertificateAssociationRepository(ProtocolCertificateAssociationsRepository certificateAssociationRepository) {
@@ -158,6 +166,7 @@ public class CmpProfileServiceImpl implements CmpProfileService {
         }
 
         cmpProfile = cmpProfileRepository.save(cmpProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.CMP_PROFILE, cmpProfile.getUuid()));
 
         CmpProfileDetailDto dto = updateAndMapDtoAttributes(
                 cmpProfile,
@@ -221,6 +230,7 @@ public class CmpProfileServiceImpl implements CmpProfileService {
         cmpProfile.setCertificateAssociationsUuid(certificateAssociationUuid);
 
         cmpProfileRepository.save(cmpProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.CMP_PROFILE, cmpProfile.getUuid()));
 
         CmpProfileDetailDto dto = updateAndMapDtoAttributes(
                 cmpProfile,
@@ -323,6 +333,7 @@ public class CmpProfileServiceImpl implements CmpProfileService {
         CmpProfile cmpProfile = getCmpProfileEntity(cmpProfileUuid);
         cmpProfile.setRaProfile(getRaProfile(raProfileUuid));
         cmpProfileRepository.save(cmpProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.CMP_PROFILE, cmpProfile.getUuid()));
     }
 
     @Override
@@ -546,6 +557,7 @@ public class CmpProfileServiceImpl implements CmpProfileService {
         } else {
             attributeEngine.deleteObjectAttributeContent(Resource.CMP_PROFILE, cmpProfile.getUuid());
             cmpProfileRepository.delete(cmpProfile);
+            applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.CMP_PROFILE, cmpProfile.getUuid()));
         }
     }
 
@@ -553,6 +565,7 @@ public class CmpProfileServiceImpl implements CmpProfileService {
         CmpProfile cmpProfile = getCmpProfileEntity(cmpProfileUuid);
         cmpProfile.setEnabled(enabled);
         cmpProfileRepository.save(cmpProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.CMP_PROFILE, cmpProfile.getUuid()));
     }
 
 }
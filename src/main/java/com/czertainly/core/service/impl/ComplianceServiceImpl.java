@@ -17,6 +17,8 @@ import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.model.compliance.*;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
+import com.czertainly.core.security.authz.SecurityFilter;
+import com.czertainly.core.service.ComplianceCheckProperties;
 import com.czertainly.core.service.ComplianceService;
 import com.czertainly.core.service.handler.ComplianceProfileRuleHandler;
 import com.czertainly.core.service.handler.ComplianceSubjectHandler;
@@ -60,6 +62,13 @@ public class ComplianceServiceImpl implements ComplianceService {
 
     private EventProducer eventProducer;
 
+    private ComplianceCheckProperties complianceCheckProperties;
+
+    @Autowired
+    public void setComplianceCheckProperties(ComplianceCheckProperties complianceCheckProperties) {
+        this.complianceCheckProperties = complianceCheckProperties;
+    }
+
     @Autowired
     public void setEventProducer(EventProducer eventProducer) {
         this.eventProducer = eventProducer;
@@ -253,32 +262,32 @@ public class ComplianceServiceImpl implements ComplianceService {
         }
 
         // load compliance profiles
-        ComplianceCheckContext context = new ComplianceCheckContext(resource, typeEnum, ruleHandler, getSubjectHandlers(true), connectorApiFactory, eventProducer);
+        ComplianceCheckContext context = new ComplianceCheckContext(resource, typeEnum, ruleHandler, getSubjectHandlers(true), connectorApiFactory, eventProducer, complianceCheckProperties);
         List<ComplianceProfile> complianceProfiles = complianceProfileRepository.findWithAssociationsByUuidIn(uuids.stream().map(SecuredUUID::getValue).toList()).stream()
                 .filter(p -> !p.getAssociations().isEmpty() && !p.getComplianceRules().isEmpty()).toList();
         logger.debug("Loaded {} compliance profiles to be checked", complianceProfiles.size());
         for (ComplianceProfile profile : complianceProfiles) {
             // load compliance subjects
-            Map<Resource, Set<ComplianceSubject>> complianceSubjects = new EnumMap<>(Resource.class);
+            Map<Resource, Set<UUID>> complianceSubjectUuids = new EnumMap<>(Resource.class);
             for (ComplianceProfileAssociation association : profile.getAssociations()) {
                 if (!isAssociationResourceCompatible(association.getResource(), resource)) {
                     logger.debug("Skipping association resource {} for requested resource {}", association.getResource(), resource);
                     continue;
                 }
 
-                List<ComplianceSubject> subjects = getComplianceSubjects(association.getResource(), association.getObjectUuid());
-                if (!subjects.isEmpty()) {
-                    complianceSubjects.computeIfAbsent(getSubjectResouceByAssociationResource(association.getResource()), r -> new HashSet<>()).addAll(subjects);
+                List<UUID> subjectUuids = getComplianceSubjectUuids(association.getResource(), association.getObjectUuid());
+                if (!subjectUuids.isEmpty()) {
+                    complianceSubjectUuids.computeIfAbsent(getSubjectResouceByAssociationResource(association.getResource()), r -> new HashSet<>()).addAll(subjectUuids);
                 }
             }
 
             // if no subjects found for any association, skip the profile
-            if (complianceSubjects.isEmpty()) {
+            if (complianceSubjectUuids.isEmpty()) {
                 logger.debug("No subjects found for compliance profile {}, skipping", profile.getUuid());
                 continue;
             }
-            logger.debug("Adding compliance profile {} with {} subject resource entries", profile.getUuid(), complianceSubjects.size());
-            context.addComplianceProfile(profile, complianceSubjects);
+            logger.debug("Adding compliance profile {} with {} subject resource entries", profile.getUuid(), complianceSubjectUuids.size());
+            context.addComplianceProfile(profile, complianceSubjectUuids);
         }
         context.performComplianceCheck();
         logger.info("Completed compliance check for provided profiles");
@@ -289,23 +298,23 @@ public class ComplianceServiceImpl implements ComplianceService {
         if (resource == Resource.CERTIFICATE_REQUEST || (!resource.complianceSubject() && !resource.hasComplianceProfiles() && resource != Resource.CRYPTOGRAPHIC_KEY_ITEM)) {
             throw new ValidationException("Cannot check compliance for resource %s. Resource does not support compliance check or does not allow association of compliance profiles".formatted(resource.getLabel()));
         }
+        if (objectUuids.isEmpty()) {
+            return;
+        }
 
+        // existence of all objects is checked by one query
+        Set<UUID> existingUuids = new HashSet<>(switch (resource) {
+            case CERTIFICATE -> certificateRepository.findUuidsUsingSecurityFilter(SecurityFilter.create(), (root, cb, cr) -> root.get("uuid").in(objectUuids), null, null);
+            case CRYPTOGRAPHIC_KEY -> cryptographicKeyRepository.findUuidsUsingSecurityFilter(SecurityFilter.create(), (root, cb, cr) -> root.get("uuid").in(objectUuids), null, null);
+            case CRYPTOGRAPHIC_KEY_ITEM -> cryptographicKeyItemRepository.findUuidsUsingSecurityFilter(SecurityFilter.create(), (root, cb, cr) -> root.get("uuid").in(objectUuids), null, null);
+            case SECRET -> secretRepository.findUuidsUsingSecurityFilter(SecurityFilter.create(), (root, cb, cr) -> root.get("uuid").in(objectUuids), null, null);
+            case RA_PROFILE, TOKEN_PROFILE, VAULT_PROFILE ->
+                    complianceProfileAssociationRepository.findObjectUuidsByResourceAndObjectUuidIn(resource, objectUuids);
+            default ->
+                    throw new ValidationException(COMPLIANCE_CHECK_VALIDATION_INVALID_RESOURCE_MESSAGE.formatted(resource.getLabel()));
+        });
         for (UUID objectUuid : objectUuids) {
-            boolean exists = switch (resource) {
-                case CERTIFICATE -> certificateRepository.existsById(objectUuid);
-                case CRYPTOGRAPHIC_KEY -> cryptographicKeyRepository.existsById(objectUuid);
-                case CRYPTOGRAPHIC_KEY_ITEM -> cryptographicKeyItemRepository.existsById(objectUuid);
-                case SECRET -> secretRepository.existsById(objectUuid);
-                case RA_PROFILE ->
-                        complianceProfileAssociationRepository.countByResourceAndObjectUuid(Resource.RA_PROFILE, objectUuid) > 0;
-                case TOKEN_PROFILE ->
-                        complianceProfileAssociationRepository.countByResourceAndObjectUuid(Resource.TOKEN_PROFILE, objectUuid) > 0;
-                case VAULT_PROFILE ->
-                    complianceProfileAssociationRepository.countByResourceAndObjectUuid(Resource.VAULT_PROFILE, objectUuid) > 0;
-                default ->
-                        throw new ValidationException(COMPLIANCE_CHECK_VALIDATION_INVALID_RESOURCE_MESSAGE.formatted(resource.getLabel()));
-            };
-            if (!exists) {
+            if (!existingUuids.contains(objectUuid)) {
                 throw new NotFoundException("Cannot check compliance. %s with UUID %s not found".formatted(resource.getLabel(), objectUuid));
             }
         }
@@ -343,10 +352,10 @@ public class ComplianceServiceImpl implements ComplianceService {
         }
 
         Map<UUID, ComplianceProfile> complianceProfilesMap = new HashMap<>();
-        Map<UUID, Map<Resource, Set<ComplianceSubject>>> complianceProfileSubjectsMap = new HashMap<>();
+        Map<UUID, Map<Resource, Set<UUID>>> complianceProfileSubjectsMap = new HashMap<>();
         loadComplianceProfilesFromComplianceSubjects(resource, objectUuids, complianceProfilesMap, complianceProfileSubjectsMap);
 
-        ComplianceCheckContext context = new ComplianceCheckContext(null, null, ruleHandler, getSubjectHandlers(false), connectorApiFactory, eventProducer);
+        ComplianceCheckContext context = new ComplianceCheckContext(null, null, ruleHandler, getSubjectHandlers(false), connectorApiFactory, eventProducer, complianceCheckProperties);
         for (ComplianceProfile profile : complianceProfilesMap.values()) {
             context.addComplianceProfile(profile, complianceProfileSubjectsMap.get(profile.getUuid()));
         }
@@ -354,7 +363,7 @@ public class ComplianceServiceImpl implements ComplianceService {
         logger.info("Completed compliance check for resource {} on {} objects", resource, objectUuids.size());
     }
 
-    private void loadComplianceProfilesFromComplianceSubjects(Resource resource, List<UUID> objectUuids, Map<UUID, ComplianceProfile> complianceProfilesMap, Map<UUID, Map<Resource, Set<ComplianceSubject>>> complianceProfileSubjectsMap) {
+    private void loadComplianceProfilesFromComplianceSubjects(Resource resource, List<UUID> objectUuids, Map<UUID, ComplianceProfile> complianceProfilesMap, Map<UUID, Map<Resource, Set<UUID>>> complianceProfileSubjectsMap) {
         switch (resource) {
             case CERTIFICATE -> {
                 List<Certificate> certificates = certificateRepository.findByUuidInAndArchivedFalse(objectUuids);
@@ -362,54 +371,45 @@ public class ComplianceServiceImpl implements ComplianceService {
                     ComplianceSubject subject = certificate.getCertificateContentId() != null ? certificate : certificate.getCertificateRequestEntity();
                     if (certificate.getRaProfileUuid() == null || subject == null) continue;
 
-                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.RA_PROFILE, certificate.getRaProfileUuid(), certificate.getCertificateContentId() != null ? Resource.CERTIFICATE : Resource.CERTIFICATE_REQUEST, List.of(subject));
+                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.RA_PROFILE, certificate.getRaProfileUuid(), certificate.getCertificateContentId() != null ? Resource.CERTIFICATE : Resource.CERTIFICATE_REQUEST, List.of(subject.getUuid()));
                 }
             }
             case CRYPTOGRAPHIC_KEY -> {
                 List<CryptographicKey> keys = cryptographicKeyRepository.findByUuidIn(objectUuids);
                 for (CryptographicKey key : keys) {
                     if (key.getTokenProfileUuid() == null) continue;
-                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.TOKEN_PROFILE, key.getTokenProfileUuid(), Resource.CRYPTOGRAPHIC_KEY, new ArrayList<>(key.getItems()));
+                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.TOKEN_PROFILE, key.getTokenProfileUuid(), Resource.CRYPTOGRAPHIC_KEY, key.getItems().stream().map(CryptographicKeyItem::getUuid).toList());
                 }
             }
             case CRYPTOGRAPHIC_KEY_ITEM -> {
                 List<CryptographicKeyItem> keyItems = cryptographicKeyItemRepository.findByUuidIn(objectUuids);
                 for (CryptographicKeyItem keyItem : keyItems) {
                     if (keyItem.getKey() == null || keyItem.getKey().getTokenProfileUuid() == null) continue;
-                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.TOKEN_PROFILE, keyItem.getKey().getTokenProfileUuid(), Resource.CRYPTOGRAPHIC_KEY, List.of(keyItem));
+                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.TOKEN_PROFILE, keyItem.getKey().getTokenProfileUuid(), Resource.CRYPTOGRAPHIC_KEY, List.of(keyItem.getUuid()));
                 }
             }
             case SECRET -> {
                 List<Secret> secrets = secretRepository.findByUuidIn(objectUuids);
                 for (Secret secret : secrets) {
-                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.VAULT_PROFILE, secret.getSourceVaultProfileUuid(), Resource.SECRET, List.of(secret));
+                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.VAULT_PROFILE, secret.getSourceVaultProfileUuid(), Resource.SECRET, List.of(secret.getUuid()));
                 }
             }
             case RA_PROFILE -> {
-                for (UUID associationObjectUuid : objectUuids) {
-                    if (complianceProfileAssociationRepository.countByResourceAndObjectUuid(Resource.RA_PROFILE, associationObjectUuid) == 0) {
-                        continue;
-                    }
-                    List<Certificate> certificates = certificateRepository.findByRaProfileUuidAndCertificateContentIdNotNullAndArchivedFalse(associationObjectUuid);
-                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.RA_PROFILE, associationObjectUuid, Resource.CERTIFICATE, new ArrayList<>(certificates));
+                for (UUID associationObjectUuid : complianceProfileAssociationRepository.findObjectUuidsByResourceAndObjectUuidIn(Resource.RA_PROFILE, objectUuids)) {
+                    List<UUID> certificateUuids = certificateRepository.findUuidsByRaProfileUuidAndCertificateContentIdNotNullAndArchivedFalse(associationObjectUuid);
+                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.RA_PROFILE, associationObjectUuid, Resource.CERTIFICATE, certificateUuids);
                 }
             }
             case TOKEN_PROFILE -> {
-                for (UUID associationObjectUuid : objectUuids) {
-                    if (complianceProfileAssociationRepository.countByResourceAndObjectUuid(Resource.TOKEN_PROFILE, associationObjectUuid) == 0) {
-                        continue;
-                    }
-                    List<CryptographicKeyItem> keyItems = cryptographicKeyItemRepository.findByKeyTokenProfileUuid(associationObjectUuid);
-                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.TOKEN_PROFILE, associationObjectUuid, Resource.CRYPTOGRAPHIC_KEY, new ArrayList<>(keyItems));
+                for (UUID associationObjectUuid : complianceProfileAssociationRepository.findObjectUuidsByResourceAndObjectUuidIn(Resource.TOKEN_PROFILE, objectUuids)) {
+                    List<UUID> keyItemUuids = cryptographicKeyItemRepository.findUuidsByKeyTokenProfileUuid(associationObjectUuid);
+                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.TOKEN_PROFILE, associationObjectUuid, Resource.CRYPTOGRAPHIC_KEY, keyItemUuids);
                 }
             }
             case VAULT_PROFILE -> {
-                for (UUID associationObjectUuid : objectUuids) {
-                    if (complianceProfileAssociationRepository.countByResourceAndObjectUuid(Resource.VAULT_PROFILE, associationObjectUuid) == 0) {
-                        continue;
-                    }
-                    List<Secret> secrets = secretRepository.findBySourceVaultProfileUuid(associationObjectUuid);
-                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.VAULT_PROFILE, associationObjectUuid, Resource.SECRET, new ArrayList<>(secrets));
+                for (UUID associationObjectUuid : complianceProfileAssociationRepository.findObjectUuidsByResourceAndObjectUuidIn(Resource.VAULT_PROFILE, objectUuids)) {
+                    List<UUID> secretUuids = secretRepository.findUuidsBySourceVaultProfileUuid(associationObjectUuid);
+                    loadComplianceProfilesWithSubjects(complianceProfilesMap, complianceProfileSubjectsMap, Resource.VAULT_PROFILE, associationObjectUuid, Resource.SECRET, secretUuids);
                 }
             }
             default ->
@@ -428,13 +428,13 @@ public class ComplianceServiceImpl implements ComplianceService {
         return ComplianceRuleStatus.NOT_AVAILABLE;
     }
 
-    private void loadComplianceProfilesWithSubjects(Map<UUID, ComplianceProfile> complianceProfilesMap, Map<UUID, Map<Resource, Set<ComplianceSubject>>> complianceProfileSubjectsMap, Resource resource, UUID associationObjectUuid, Resource subjectResource, Collection<ComplianceSubject> complianceSubjects) {
+    private void loadComplianceProfilesWithSubjects(Map<UUID, ComplianceProfile> complianceProfilesMap, Map<UUID, Map<Resource, Set<UUID>>> complianceProfileSubjectsMap, Resource resource, UUID associationObjectUuid, Resource subjectResource, Collection<UUID> complianceSubjectUuids) {
         List<ComplianceProfile> complianceProfiles = complianceProfileAssociationRepository.findDistinctByResourceAndObjectUuid(resource, associationObjectUuid).stream().map(ComplianceProfileAssociation::getComplianceProfile).toList();
         for (ComplianceProfile profile : complianceProfiles) {
             complianceProfilesMap.putIfAbsent(profile.getUuid(), profile);
             complianceProfileSubjectsMap.computeIfAbsent(profile.getUuid(), k -> new EnumMap<>(Resource.class))
                     .computeIfAbsent(subjectResource, r -> new HashSet<>())
-                    .addAll(complianceSubjects);
+                    .addAll(complianceSubjectUuids);
         }
     }
 
@@ -465,31 +465,36 @@ public class ComplianceServiceImpl implements ComplianceService {
         };
     }
 
-    private <T extends ComplianceSubject> List<T> getComplianceSubjects(Resource associationResource, UUID associationObjectUuid) {
+    /**
+     * Only UUIDs of subjects are loaded, since profile associations can cover large number of subjects, e.g. all certificates of RA profile.
+     * Subjects are loaded by batches when their compliance is checked.
+     */
+    private List<UUID> getComplianceSubjectUuids(Resource associationResource, UUID associationObjectUuid) {
         // Filter by access control or if user can check compliance, allow listing of objects as subjects for compliance check?
-        return (List<T>) switch (associationResource) {
+        return switch (associationResource) {
             case CERTIFICATE ->
-                    certificateRepository.findByUuidInAndCertificateContentIdNotNullAndArchivedFalse(List.of(associationObjectUuid));
+                    certificateRepository.findByUuidInAndCertificateContentIdNotNullAndArchivedFalse(List.of(associationObjectUuid)).stream().map(Certificate::getUuid).toList();
             case CERTIFICATE_REQUEST ->
-                    certificateRequestRepository.findByUuidIn(List.of(associationObjectUuid)).map(List::of).orElse(List.of());
-            case CRYPTOGRAPHIC_KEY -> cryptographicKeyItemRepository.findByKeyUuidIn(List.of(associationObjectUuid));
+                    certificateRequestRepository.findByUuidIn(List.of(associationObjectUuid)).map(request -> List.of(request.getUuid())).orElse(List.of());
+            case CRYPTOGRAPHIC_KEY ->
+                    cryptographicKeyItemRepository.findByKeyUuidIn(List.of(associationObjectUuid)).stream().map(CryptographicKeyItem::getUuid).toList();
             case CRYPTOGRAPHIC_KEY_ITEM ->
-                    cryptographicKeyItemRepository.findByUuid(associationObjectUuid).map(List::of).orElse(List.of());
-            case SECRET -> secretRepository.findByUuidIn(List.of(associationObjectUuid));
+                    cryptographicKeyItemRepository.findByUuid(associationObjectUuid).map(keyItem -> List.of(keyItem.getUuid())).orElse(List.of());
+            case SECRET -> secretRepository.findByUuidIn(List.of(associationObjectUuid)).stream().map(Secret::getUuid).toList();
             case RA_PROFILE ->
-                    certificateRepository.findByRaProfileUuidAndCertificateContentIdNotNullAndArchivedFalse(associationObjectUuid);
-            case TOKEN_PROFILE -> cryptographicKeyItemRepository.findByKeyTokenProfileUuid(associationObjectUuid);
-            case VAULT_PROFILE -> secretRepository.findBySourceVaultProfileUuid(associationObjectUuid);
+                    certificateRepository.findUuidsByRaProfileUuidAndCertificateContentIdNotNullAndArchivedFalse(associationObjectUuid);
+            case TOKEN_PROFILE -> cryptographicKeyItemRepository.findUuidsByKeyTokenProfileUuid(associationObjectUuid);
+            case VAULT_PROFILE -> secretRepository.findUuidsBySourceVaultProfileUuid(associationObjectUuid);
             default -> List.of();
         };
     }
 
     private Map<Resource, ComplianceSubjectHandler<? extends ComplianceSubject>> getSubjectHandlers(boolean checkByProfiles) {
         Map<Resource, ComplianceSubjectHandler<? extends ComplianceSubject>> map = new EnumMap<>(Resource.class);
-        map.put(Resource.CERTIFICATE, new ComplianceSubjectHandler<>(checkByProfiles, Resource.CERTIFICATE, certificateTriggerEvaluator, certificateRepository));
-        map.put(Resource.CERTIFICATE_REQUEST, new ComplianceSubjectHandler<>(checkByProfiles, Resource.CERTIFICATE_REQUEST, certificateRequestTriggerEvaluator, certificateRequestRepository));
-        map.put(Resource.CRYPTOGRAPHIC_KEY, new ComplianceSubjectHandler<>(checkByProfiles, Resource.CRYPTOGRAPHIC_KEY_ITEM, cryptographicKeyItemTriggerEvaluator, cryptographicKeyItemRepository));
-        map.put(Resource.SECRET, new ComplianceSubjectHandler<>(checkByProfiles, Resource.SECRET, secretTriggerEvaluator, secretRepository));
+        map.put(Resource.CERTIFICATE, new ComplianceSubjectHandler<>(checkByProfiles, Resource.CERTIFICATE, certificateTriggerEvaluator, certificateRepository, certificateRepository::findByUuidInAndCertificateContentIdNotNullAndArchivedFalse));
+        map.put(Resource.CERTIFICATE_REQUEST, new ComplianceSubjectHandler<>(checkByProfiles, Resource.CERTIFICATE_REQUEST, certificateRequestTriggerEvaluator, certificateRequestRepository, certificateRequestRepository::findAllById));
+        map.put(Resource.CRYPTOGRAPHIC_KEY, new ComplianceSubjectHandler<>(checkByProfiles, Resource.CRYPTOGRAPHIC_KEY_ITEM, cryptographicKeyItemTriggerEvaluator, cryptographicKeyItemRepository, cryptographicKeyItemRepository::findByUuidIn));
+        map.put(Resource.SECRET, new ComplianceSubjectHandler<>(checkByProfiles, Resource.SECRET, secretTriggerEvaluator, secretRepository, secretRepository::findByUuidIn));
 
         return map;
     }
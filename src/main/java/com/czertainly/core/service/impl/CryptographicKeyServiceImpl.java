@@ -7,6 +7,7 @@ import com.czertainly.api.model.client.certificate.SearchFilterRequestDto;
 import com.czertainly.api.model.client.certificate.SearchRequestDto;
 import com.czertainly.api.model.client.cryptography.CryptographicKeyResponseDto;
 import com.czertainly.api.model.client.cryptography.key.*;
+import com.czertainly.api.model.client.metadata.MetadataResponseDto;
 import com.czertainly.api.model.common.NameAndUuidDto;
 import com.czertainly.api.model.common.attribute.common.BaseAttribute;
 import com.czertainly.api.model.common.enums.cryptography.KeyAlgorithm;
@@ -293,7 +294,8 @@ public class CryptographicKeyServiceImpl implements CryptographicKeyService {
             dto.setAttributes(attributeEngine.getObjectDataAttributesContent(ObjectAttributeContentInfo.builder(Resource.CRYPTOGRAPHIC_KEY, key.getUuid()).connector(key.getTokenInstanceReference().getConnectorUuid()).build()));
         }
         dto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.CRYPTOGRAPHIC_KEY, key.getUuid()));
-        dto.getItems().forEach(k -> k.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.CRYPTOGRAPHIC_KEY, UUID.fromString(k.getUuid())).build())));
+        Map<UUID, List<MetadataResponseDto>> itemsMetadata = attributeEngine.getMappedMetadataContent(Resource.CRYPTOGRAPHIC_KEY, dto.getItems().stream().map(k -> UUID.fromString(k.getUuid())).toList(), null, null, null);
+        dto.getItems().forEach(k -> k.setMetadata(itemsMetadata.getOrDefault(UUID.fromString(k.getUuid()), new ArrayList<>())));
         logger.debug("Key details with attributes {}", dto);
         return dto;
     }
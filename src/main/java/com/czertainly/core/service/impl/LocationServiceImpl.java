@@ -10,7 +10,9 @@ import com.czertainly.api.model.client.location.AddLocationRequestDto;
 import com.czertainly.api.model.client.location.EditLocationRequestDto;
 import com.czertainly.api.model.client.location.IssueToLocationRequestDto;
 import com.czertainly.api.model.client.location.PushToLocationRequestDto;
+import com.czertainly.api.model.client.metadata.MetadataResponseDto;
 import com.czertainly.api.model.common.NameAndUuidDto;
+import com.czertainly.api.model.common.attribute.common.AttributeContent;
 import com.czertainly.api.model.common.attribute.common.BaseAttribute;
 import com.czertainly.api.model.common.attribute.common.DataAttribute;
 import com.czertainly.api.model.common.attribute.common.MetadataAttribute;
@@ -31,6 +33,7 @@ import com.czertainly.api.model.core.v2.ClientCertificateDataResponseDto;
 import com.czertainly.api.model.core.v2.ClientCertificateRenewRequestDto;
 import com.czertainly.api.model.core.v2.ClientCertificateSignRequestDto;
 import com.czertainly.core.attribute.engine.AttributeEngine;
+import com.czertainly.core.attribute.engine.records.ObjectAttributeContentDetail;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
 import com.czertainly.core.comparator.SearchFieldDataComparator;
 import com.czertainly.core.dao.entity.*;
@@ -48,6 +51,7 @@ import com.czertainly.core.service.LocationService;
 import com.czertainly.core.service.PermissionEvaluator;
 import com.czertainly.core.service.v2.ClientOperationService;
 import com.czertainly.core.util.AttributeDefinitionUtils;
+import com.czertainly.core.util.CertificateUtil;
 import com.czertainly.core.util.FilterPredicatesBuilder;
 import com.czertainly.core.util.RequestValidatorHelper;
 import com.czertainly.core.util.SearchHelper;
@@ -204,7 +208,7 @@ public class LocationServiceImpl implements LocationService {
         locationDto.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.LOCATION, location.getUuid()).build()));
         locationDto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.LOCATION, location.getUuid(), dto.getCustomAttributes()));
         locationDto.setAttributes(attributeEngine.updateObjectDataAttributesContent(ObjectAttributeContentInfo.builder(Resource.LOCATION, location.getUuid()).connector(entityInstanceRef.getConnectorUuid()).build(), dto.getAttributes()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid())).connector(entityInstanceRef.getConnectorUuid()).source(Resource.LOCATION, location.getUuid()).build())));
+        setCertificatesMetadata(locationDto, entityInstanceRef.getConnectorUuid(), location.getUuid());
 
         return locationDto;
     }
@@ -218,7 +222,7 @@ public class LocationServiceImpl implements LocationService {
         dto.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.LOCATION, location.getUuid()).build()));
         dto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
         dto.setAttributes(attributeEngine.getObjectDataAttributesContent(ObjectAttributeContentInfo.builder(Resource.LOCATION, location.getUuid()).connector(location.getEntityInstanceReference().getConnectorUuid()).build()));
-        dto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid())).source(Resource.LOCATION, location.getUuid()).build())));
+        setCertificatesMetadata(dto, null, location.getUuid());
         return dto;
     }
 
@@ -248,7 +252,7 @@ public class LocationServiceImpl implements LocationService {
         locationDto.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.LOCATION, updatedLocationUuid).build()));
         locationDto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.LOCATION, updatedLocationUuid, dto.getCustomAttributes()));
         locationDto.setAttributes(attributeEngine.updateObjectDataAttributesContent(ObjectAttributeContentInfo.builder(Resource.LOCATION, updatedLocationUuid).connector(entityInstanceRef.getConnectorUuid()).build(), dto.getAttributes()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid())).connector(entityInstanceRef.getConnectorUuid()).source(Resource.LOCATION, updatedLocationUuid).build())));
+        setCertificatesMetadata(locationDto, entityInstanceRef.getConnectorUuid(), updatedLocationUuid);
         return locationDto;
     }
 
@@ -373,7 +377,7 @@ public class LocationServiceImpl implements LocationService {
         logger.info("Certificate {} removed from Location {}", certificateUuid, location.getName());
         LocationDto locationDto = mapLocationToDto(location);
         locationDto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid())).source(Resource.LOCATION, location.getUuid()).build())));
+        setCertificatesMetadata(locationDto, null, location.getUuid());
         return locationDto;
     }
 
@@ -460,7 +464,7 @@ public class LocationServiceImpl implements LocationService {
 
         final LocationDto dto = mapLocationToDto(location);
         dto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
-        dto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid())).source(Resource.LOCATION, location.getUuid()).build())));
+        setCertificatesMetadata(dto, null, location.getUuid());
         return dto;
     }
 
@@ -585,7 +589,7 @@ public class LocationServiceImpl implements LocationService {
 
         LocationDto locationDto = mapLocationToDto(location);
         locationDto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid())).source(Resource.LOCATION, location.getUuid()).build())));
+        setCertificatesMetadata(locationDto, null, location.getUuid());
         return locationDto;
     }
 
@@ -625,7 +629,7 @@ public class LocationServiceImpl implements LocationService {
         UUID syncedLocationUuid = location.getUuid();
         LocationDto locationDto = mapLocationToDto(location);
         locationDto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, syncedLocationUuid));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid())).connector(entityInstanceRef.getConnectorUuid()).source(Resource.LOCATION, syncedLocationUuid).build())));
+        setCertificatesMetadata(locationDto, entityInstanceRef.getConnectorUuid(), syncedLocationUuid);
 
         return locationDto;
     }
@@ -698,11 +702,17 @@ public class LocationServiceImpl implements LocationService {
 
         LocationDto locationDto = mapLocationToDto(location);
         locationDto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(ObjectAttributeContentInfo.builder(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid())).source(Resource.LOCATION, location.getUuid()).build())));
+        setCertificatesMetadata(locationDto, null, location.getUuid());
 
         return locationDto;
     }
 
+    private void setCertificatesMetadata(LocationDto locationDto, UUID connectorUuid, UUID locationUuid) {
+        List<UUID> certificateUuids = locationDto.getCertificates().stream().map(e -> UUID.fromString(e.getCertificateUuid())).toList();
+        Map<UUID, List<MetadataResponseDto>> certificatesMetadata = attributeEngine.getMappedMetadataContent(Resource.CERTIFICATE, certificateUuids, connectorUuid, Resource.LOCATION, locationUuid);
+        locationDto.getCertificates().forEach(e -> e.setMetadata(certificatesMetadata.getOrDefault(UUID.fromString(e.getCertificateUuid()), new ArrayList<>())));
+    }
+
     private LocationDto mapLocationToDto(Location location) {
         LocationDto locationDto = location.mapToDto();
         for (CertificateLocation certificateLocation : location.getCertificates()) {
@@ -1016,58 +1026,164 @@ public class LocationServiceImpl implements LocationService {
         UUID locationUuid = location.getUuid();
         String locationName = location.getName();
 
-        // Drop all existing metadata and certificate-location rows for this location
-        attributeEngine.deleteObjectAttributesContent(AttributeType.META,
-                ObjectAttributeContentInfo.builder(Resource.LOCATION, locationUuid).connector(connectorUuid).build());
-        attributeEngine.deleteObjectAttributesContentBySource(AttributeType.META, connectorUuid, Resource.CERTIFICATE, Resource.LOCATION, locationUuid);
-
-        // clearAutomatically on this query evicts stale CertificateLocation references
-        // from the session (reachable via Certificate.locations) to prevent identity conflicts
-        certificateLocationRepository.deleteByLocationUuid(locationUuid);
-
-        // Re-fetch location evicted by the session clear
-        location = locationRepository.findByUuid(locationUuid)
-                .orElseThrow(() -> new IllegalStateException("Location " + locationUuid + " could not be reloaded after clearing certificate-location mappings"));
         location.setSupportMultipleEntries(supportMultipleEntries);
         location.setSupportKeyManagement(supportKeyManagement);
 
-        // Deduplicate by certificate UUID — JPA identity is (locationUuid, certificateUuid)
+        // Group entries by certificate fingerprint — JPA identity is (locationUuid, certificateUuid)
         // so only one row per certificate can exist. Metadata accumulates across all alias
         // occurrences via overwrite=false on the alias attribute definition.
-        int duplicatesCount = 0;
-        Set<UUID> processedCertUuids = new HashSet<>();
+        Map<String, List<CertificateLocationDto>> entriesByFingerprint = new LinkedHashMap<>();
         for (CertificateLocationDto dto : certificates) {
-            Certificate certificate = certificateService.createCertificate(dto.getCertificateData(), dto.getCertificateType());
-            UUID certUuid = certificate.getUuid();
-
-            if (processedCertUuids.add(certUuid)) {
-                CertificateLocation cl = new CertificateLocation();
-                cl.setWithKey(dto.isWithKey());
-                cl.setCertificate(certificate);
-                cl.setLocation(location);
-                cl.setPushAttributes(dto.getPushAttributes());
-                cl.setCsrAttributes(dto.getCsrAttributes());
-                location.getCertificates().add(cl);
+            entriesByFingerprint.computeIfAbsent(getCertificateFingerprint(dto), k -> new ArrayList<>()).add(dto);
+        }
+
+        // Diff the received entries against the stored ones, certificates are fetched with the rows to avoid loading them one by one
+        Map<String, CertificateLocation> storedByFingerprint = new HashMap<>();
+        List<CertificateLocation> removedCertificateLocations = new ArrayList<>();
+        for (CertificateLocation certificateLocation : certificateLocationRepository.findByLocationUuidWithCertificate(locationUuid)) {
+            String fingerprint = certificateLocation.getCertificate().getFingerprint();
+            if (fingerprint != null && entriesByFingerprint.containsKey(fingerprint)) {
+                storedByFingerprint.put(fingerprint, certificateLocation);
             } else {
-                duplicatesCount++;
+                removedCertificateLocations.add(certificateLocation);
             }
+        }
 
-            attributeEngine.updateMetadataAttributes(dto.getMetadata(),
-                    ObjectAttributeContentInfo.builder(Resource.CERTIFICATE, certUuid).connector(connectorUuid).source(Resource.LOCATION, locationUuid).sourceName(locationName).build());
+        if (!removedCertificateLocations.isEmpty()) {
+            attributeEngine.bulkDeleteObjectAttributesContent(AttributeType.META, connectorUuid, Resource.CERTIFICATE,
+                    removedCertificateLocations.stream().map(cl -> cl.getCertificate().getUuid()).toList(), Resource.LOCATION, locationUuid);
+            removedCertificateLocations.forEach(location.getCertificates()::remove);
+            certificateLocationRepository.deleteAll(removedCertificateLocations);
         }
 
-        attributeEngine.updateMetadataAttributes(metadata,
-                ObjectAttributeContentInfo.builder(Resource.LOCATION, locationUuid).connector(connectorUuid).build());
+        int addedCount = 0;
+        Map<UUID, List<CertificateLocationDto>> entriesByCertificateUuid = new LinkedHashMap<>();
+        for (Map.Entry<String, List<CertificateLocationDto>> entries : entriesByFingerprint.entrySet()) {
+            CertificateLocationDto dto = entries.getValue().getFirst();
+            CertificateLocation certificateLocation = storedByFingerprint.get(entries.getKey());
+            if (certificateLocation == null) {
+                certificateLocation = new CertificateLocation();
+                certificateLocation.setCertificate(certificateService.createCertificate(dto.getCertificateData(), dto.getCertificateType()));
+                certificateLocation.setLocation(location);
+                location.getCertificates().add(certificateLocation);
+                ++addedCount;
+            }
+
+            // stored rows are updated only when the values changed, as unchanged values do not make them dirty
+            certificateLocation.setWithKey(dto.isWithKey());
+            certificateLocation.setPushAttributes(dto.getPushAttributes());
+            certificateLocation.setCsrAttributes(dto.getCsrAttributes());
+            entriesByCertificateUuid.put(certificateLocation.getCertificate().getUuid(), entries.getValue());
+        }
+
+        // Metadata of certificates is replaced only when it differs from the content stored for this location
+        int metadataUpdatedCount = 0;
+        Map<UUID, List<ObjectAttributeContentDetail>> storedMetadata = attributeEngine.getObjectsMetadataContentDetail(Resource.CERTIFICATE, entriesByCertificateUuid.keySet(), connectorUuid, Resource.LOCATION, locationUuid);
+        for (Map.Entry<UUID, List<CertificateLocationDto>> entries : entriesByCertificateUuid.entrySet()) {
+            List<List<MetadataAttribute>> entriesMetadata = entries.getValue().stream().map(CertificateLocationDto::getMetadata).toList();
+            if (replaceMetadata(storedMetadata.getOrDefault(entries.getKey(), List.of()), entriesMetadata,
+                    ObjectAttributeContentInfo.builder(Resource.CERTIFICATE, entries.getKey()).connector(connectorUuid).source(Resource.LOCATION, locationUuid).sourceName(locationName).build())) {
+                ++metadataUpdatedCount;
+            }
+        }
+
+        replaceMetadata(attributeEngine.getObjectsMetadataContentDetail(Resource.LOCATION, List.of(locationUuid), connectorUuid, null, null).getOrDefault(locationUuid, List.of()),
+                Collections.singletonList(metadata), ObjectAttributeContentInfo.builder(Resource.LOCATION, locationUuid).connector(connectorUuid).build());
 
         locationRepository.save(location);
 
-        logger.debug("Sync finished. Location has {} certificates. Encountered {} duplicate certificates", location.getCertificates().size(), duplicatesCount);
+        logger.debug("Sync finished. Location has {} certificates. Added {}, removed {} certificates and updated metadata of {} certificates. Encountered {} duplicate certificates",
+                location.getCertificates().size(), addedCount, removedCertificateLocations.size(), metadataUpdatedCount, certificates.size() - entriesByFingerprint.size());
 
         applicationEventPublisher.publishEvent(new CertificateValidationEvent(null, null, null, locationUuid, locationName));
 
         return location;
     }
 
+    private static String getCertificateFingerprint(CertificateLocationDto dto) throws CertificateException {
+        if (dto.getCertificateType() != null && dto.getCertificateType() != CertificateType.X509) {
+            throw new CertificateException("Unsupported type of the certificate: " + dto.getCertificateType());
+        }
+        try {
+            return CertificateUtil.getThumbprint(CertificateUtil.getX509Certificate(CertificateUtil.normalizeCertificateContent(dto.getCertificateData())));
+        } catch (java.security.cert.CertificateException | NoSuchAlgorithmException | IllegalArgumentException e) {
+            throw new CertificateException("Failed to get fingerprint of the certificate: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the stored metadata content of the object with the metadata received in the entries unless the stored content is up to date.
+     * Definitions of the metadata are updated also when the content is up to date, as the connector can change them without changing the content.
+     *
+     * @return true if the metadata was replaced
+     */
+    private boolean replaceMetadata(List<ObjectAttributeContentDetail> storedContent, List<List<MetadataAttribute>> entriesMetadata, ObjectAttributeContentInfo contentInfo) throws AttributeException {
+        if (isMetadataUpToDate(storedContent, entriesMetadata)) {
+            for (List<MetadataAttribute> entryMetadata : entriesMetadata) {
+                if (entryMetadata == null) {
+                    continue;
+                }
+                for (MetadataAttribute attribute : entryMetadata) {
+                    if (attribute.getType() == AttributeType.META) {
+                        attributeEngine.updateMetadataAttributeDefinition(attribute, contentInfo.connectorUuid());
+                    }
+                }
+            }
+            return false;
+        }
+        if (!storedContent.isEmpty()) {
+            attributeEngine.deleteObjectAttributesContent(AttributeType.META, contentInfo);
+        }
+        for (List<MetadataAttribute> entryMetadata : entriesMetadata) {
+            attributeEngine.updateMetadataAttributes(entryMetadata, contentInfo);
+        }
+        return true;
+    }
+
+    /**
+     * Compares the stored metadata content with the content that storing the metadata of the entries one by one would produce,
+     * i.e. content of attributes with overwrite property is replaced by the following entries, otherwise it accumulates.
+     * Content that cannot be compared is considered changed.
+     */
+    private static boolean isMetadataUpToDate(List<ObjectAttributeContentDetail> storedContent, List<List<MetadataAttribute>> entriesMetadata) {
+        Map<String, Set<MetadataContent>> expectedContent = new HashMap<>();
+        for (List<MetadataAttribute> entryMetadata : entriesMetadata) {
+            if (entryMetadata == null) {
+                continue;
+            }
+            for (MetadataAttribute attribute : entryMetadata) {
+                if (attribute.getType() != AttributeType.META) {
+                    continue;
+                }
+                if (attribute.getProperties() == null || attribute.getContent() == null) {
+                    return false;
+                }
+                Set<MetadataContent> content = new HashSet<>();
+                if (!attribute.getProperties().isOverwrite()) {
+                    content.addAll(expectedContent.getOrDefault(attribute.getName(), Set.of()));
+                }
+                for (AttributeContent contentItem : attribute.getContent()) {
+                    if (contentItem.getData() != null) {
+                        content.add(new MetadataContent(contentItem.getReference(), contentItem.getData()));
+                    }
+                }
+                expectedContent.put(attribute.getName(), content);
+            }
+        }
+        expectedContent.values().removeIf(Set::isEmpty);
+
+        Map<String, Set<MetadataContent>> currentContent = new HashMap<>();
+        for (ObjectAttributeContentDetail contentDetail : storedContent) {
+            if (contentDetail.contentItem().getData() != null) {
+                currentContent.computeIfAbsent(contentDetail.name(), k -> new HashSet<>()).add(new MetadataContent(contentDetail.contentItem().getReference(), contentDetail.contentItem().getData()));
+            }
+        }
+        return currentContent.equals(expectedContent);
+    }
+
+    private record MetadataContent(String reference, Object data) {
+    }
+
     private void authorityPreChecks(RaProfile raProfile) throws ValidationException {
         //Check if RA Profile is enabled
         if (Boolean.FALSE.equals(raProfile.getEnabled())) {
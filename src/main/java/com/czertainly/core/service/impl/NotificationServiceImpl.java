@@ -6,13 +6,11 @@ import com.czertainly.api.model.client.notification.NotificationDto;
 import com.czertainly.api.model.client.notification.NotificationRequestDto;
 import com.czertainly.api.model.client.notification.NotificationResponseDto;
 import com.czertainly.api.model.core.auth.Resource;
-import com.czertainly.api.model.core.auth.UserDto;
 import com.czertainly.core.dao.entity.notifications.Notification;
 import com.czertainly.core.dao.entity.notifications.NotificationRecipient;
 import com.czertainly.core.dao.repository.notifications.NotificationRecipientRepository;
 import com.czertainly.core.dao.repository.notifications.NotificationRepository;
-import com.czertainly.core.security.authn.client.RoleManagementApiClient;
-import com.czertainly.core.security.authn.client.UserManagementApiClient;
+import com.czertainly.core.security.authn.client.UserDirectoryCache;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.NotificationService;
 import com.czertainly.core.util.AuthHelper;
@@ -36,8 +34,7 @@ public class NotificationServiceImpl implements NotificationService {
 
     private NotificationRepository notificationRepository;
     private NotificationRecipientRepository notificationRecipientRepository;
-    private UserManagementApiClient userManagementApiClient;
-    private RoleManagementApiClient roleManagementApiClient;
+    private UserDirectoryCache userDirectoryCache;
 
     @Autowired
     public void setNotificationRepository(NotificationRepository notificationRepository) {
@@ -50,13 +47,8 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Autowired
-    public void setUserManagementApiClient(UserManagementApiClient userManagementApiClient) {
-        this.userManagementApiClient = userManagementApiClient;
-    }
-
-    @Autowired
-    public void setRoleManagementApiClient(RoleManagementApiClient roleManagementApiClient) {
-        this.roleManagementApiClient = roleManagementApiClient;
+    public void setUserDirectoryCache(UserDirectoryCache userDirectoryCache) {
+        this.userDirectoryCache = userDirectoryCache;
     }
 
     @Override
@@ -92,12 +84,12 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public NotificationDto createNotificationForGroup(String message, String detail, String groupUuid, Resource target, String targetUuids) throws ValidationException {
-        return createNotificationForUsers(message, detail, userManagementApiClient.getUsers().getData().stream().filter(u -> u.getGroups().stream().anyMatch(g -> g.getUuid().equals(groupUuid))).map(UserDto::getUuid).toList(), target, targetUuids);
+        return createNotificationForUsers(message, detail, userDirectoryCache.getGroupUserUuids(groupUuid), target, targetUuids);
     }
 
     @Override
     public NotificationDto createNotificationForRole(String message, String detail, String roleUuid, Resource target, String targetUuids) throws ValidationException {
-        return createNotificationForUsers(message, detail, roleManagementApiClient.getRoleUsers(roleUuid).stream().map(UserDto::getUuid).toList(), target, targetUuids);
+        return createNotificationForUsers(message, detail, userDirectoryCache.getRoleUserUuids(roleUuid), target, targetUuids);
     }
 
     @Override
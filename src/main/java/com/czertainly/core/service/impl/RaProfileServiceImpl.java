@@ -28,6 +28,7 @@ import com.czertainly.core.dao.entity.scep.ScepProfile;
 import com.czertainly.core.dao.repository.*;
 import com.czertainly.core.dao.repository.cmp.CmpProfileRepository;
 import com.czertainly.core.dao.repository.scep.ScepProfileRepository;
+import com.czertainly.core.events.transaction.ProtocolProfileChangedEvent;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredParentUUID;
@@ -50,6 +51,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.framework.AopContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -79,6 +81,7 @@ public class RaProfileServiceImpl implements RaProfileService {
     private ApprovalProfileRelationRepository approvalProfileRelationRepository;
     private CertificateContentRepository certificateContentRepository;
     private ApprovalProfileService approvalProfileService;
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     @ExternalAuthorization(resource = Resource.RA_PROFILE, action = ResourceAction.LIST, parentResource = Resource.AUTHORITY, parentAction = ResourceAction.LIST)
@@ -112,6 +115,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
         RaProfile raProfile = createRaProfile(request, authorityInstanceRef);
         raProfileRepository.save(raProfile);
+        publishRaProfileChanged(raProfile);
 
         setAuthorityCertificates(authorityInstanceRef, raProfile);
 
@@ -163,6 +167,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
         updateRaProfile(raProfile, authorityInstanceRef, request);
         raProfileRepository.save(raProfile);
+        publishRaProfileChanged(raProfile);
 
         RaProfileDto raProfileDto = raProfile.mapToDto();
         raProfileDto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.RA_PROFILE, raProfile.getUuid(), request.getCustomAttributes()));
@@ -184,6 +189,7 @@ public class RaProfileServiceImpl implements RaProfileService {
             raProfile.setExpiringThreshold(null);
         }
         raProfileRepository.save(raProfile);
+        publishRaProfileChanged(raProfile);
         return raProfile.mapToDto();
     }
 
@@ -208,6 +214,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
         entity.setEnabled(true);
         raProfileRepository.save(entity);
+        publishRaProfileChanged(entity);
     }
 
     @Override
@@ -218,6 +225,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
         entity.setEnabled(false);
         raProfileRepository.save(entity);
+        publishRaProfileChanged(entity);
     }
 
     @Override
@@ -242,6 +250,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
                 entity.setEnabled(false);
                 raProfileRepository.save(entity);
+                publishRaProfileChanged(entity);
             } catch (NotFoundException e) {
                 logger.warn("Unable to disable RA Profile with uuid {}. It may have been deleted", uuid);
             }
@@ -258,6 +267,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
                 entity.setEnabled(true);
                 raProfileRepository.save(entity);
+                publishRaProfileChanged(entity);
             } catch (NotFoundException e) {
                 logger.warn("Unable to enable RA Profile with uuid {}. It may have been deleted", uuids);
             }
@@ -271,6 +281,7 @@ public class RaProfileServiceImpl implements RaProfileService {
                 uuids.stream().map(SecuredUUID::getValue).toList());
         raProfiles.forEach(raProfile -> raProfile.setAcmeProfile(null));
         raProfileRepository.saveAll(raProfiles);
+        raProfiles.forEach(this::publishRaProfileChanged);
     }
 
     @Override
@@ -279,6 +290,7 @@ public class RaProfileServiceImpl implements RaProfileService {
                 uuids.stream().map(SecuredUUID::getValue).toList());
         raProfiles.forEach(raProfile -> raProfile.setScepProfile(null));
         raProfileRepository.saveAll(raProfiles);
+        raProfiles.forEach(this::publishRaProfileChanged);
     }
 
     @Override
@@ -312,6 +324,7 @@ public class RaProfileServiceImpl implements RaProfileService {
         raProfile.setAcmeProfile(acmeProfile);
         raProfile.setProtocolAttribute(raProfileProtocolAttribute);
         raProfileRepository.save(raProfile);
+        publishRaProfileChanged(raProfile);
 
         return raProfile.mapToAcmeDto();
     }
@@ -326,6 +339,7 @@ public class RaProfileServiceImpl implements RaProfileService {
         raProfileProtocolAttribute.setAcmeIssueCertificateAttributes(null);
         raProfile.setProtocolAttribute(raProfileProtocolAttribute);
         raProfileRepository.save(raProfile);
+        publishRaProfileChanged(raProfile);
     }
 
     @Override
@@ -348,6 +362,7 @@ public class RaProfileServiceImpl implements RaProfileService {
         raProfile.setScepProfile(scepProfile);
         raProfile.setProtocolAttribute(raProfileProtocolAttribute);
         raProfileRepository.save(raProfile);
+        publishRaProfileChanged(raProfile);
 
         return raProfile.mapToScepDto();
     }
@@ -361,6 +376,7 @@ public class RaProfileServiceImpl implements RaProfileService {
         raProfileProtocolAttribute.setScepIssueCertificateAttributes(null);
         raProfile.setProtocolAttribute(raProfileProtocolAttribute);
         raProfileRepository.save(raProfile);
+        publishRaProfileChanged(raProfile);
     }
 
     // -----------------------------------------------------------------------------------------------------------------
@@ -428,6 +444,7 @@ public class RaProfileServiceImpl implements RaProfileService {
         raProfile.setCmpProfile(cmpProfile);
         raProfile.setProtocolAttribute(raProfileProtocolAttribute);
         raProfileRepository.save(raProfile);
+        publishRaProfileChanged(raProfile);
 
         return raProfile.mapToCmpDto();
     }
@@ -447,6 +464,7 @@ public class RaProfileServiceImpl implements RaProfileService {
         raProfileProtocolAttribute.setCmpIssueCertificateAttributes(null);
         raProfile.setProtocolAttribute(raProfileProtocolAttribute);
         raProfileRepository.save(raProfile);
+        publishRaProfileChanged(raProfile);
     }
 
     @Override
@@ -462,6 +480,7 @@ public class RaProfileServiceImpl implements RaProfileService {
                 uuids.stream().map(SecuredUUID::getValue).toList());
         raProfiles.forEach(raProfile -> raProfile.setCmpProfile(null));
         raProfileRepository.saveAll(raProfiles);
+        raProfiles.forEach(this::publishRaProfileChanged);
     }
 
     @Override
@@ -482,6 +501,7 @@ public class RaProfileServiceImpl implements RaProfileService {
     // TODO - remove, service should not allow modifying RaProfile entity outside of it.
     public RaProfile updateRaProfileEntity(RaProfile raProfile) {
         raProfileRepository.save(raProfile);
+        publishRaProfileChanged(raProfile);
         return raProfile;
     }
 
@@ -711,6 +731,11 @@ public class RaProfileServiceImpl implements RaProfileService {
 
         attributeEngine.deleteObjectAttributeContent(Resource.RA_PROFILE, raProfile.getUuid());
         raProfileRepository.delete(raProfile);
+        publishRaProfileChanged(raProfile);
+    }
+
+    private void publishRaProfileChanged(RaProfile raProfile) {
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.RA_PROFILE, raProfile.getUuid()));
     }
 
     private void setAuthorityCertificates(AuthorityInstanceReference authorityInstanceRef, RaProfile raProfile) {
@@ -728,6 +753,11 @@ public class RaProfileServiceImpl implements RaProfileService {
 
     // SETTERs
 
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
     @Autowired
     public void setRaProfileRepository(RaProfileRepository raProfileRepository) {
         this.raProfileRepository = raProfileRepository;
@@ -9,6 +9,8 @@ import com.czertainly.api.model.core.scheduler.PaginationRequestDto;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authn.client.RoleManagementApiClient;
+import com.czertainly.core.security.authn.client.UserDirectoryCache;
+import com.czertainly.core.security.authn.client.UserProxyAuthenticationCache;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
@@ -26,6 +28,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
 
     private RoleManagementApiClient roleManagementApiClient;
     private AttributeEngine attributeEngine;
+    private UserProxyAuthenticationCache userProxyAuthenticationCache;
+    private UserDirectoryCache userDirectoryCache;
 
     @Autowired
     public void setRoleManagementApiClient(RoleManagementApiClient roleManagementApiClient) {
@@ -37,6 +41,16 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setUserProxyAuthenticationCache(UserProxyAuthenticationCache userProxyAuthenticationCache) {
+        this.userProxyAuthenticationCache = userProxyAuthenticationCache;
+    }
+
+    @Autowired
+    public void setUserDirectoryCache(UserDirectoryCache userDirectoryCache) {
+        this.userDirectoryCache = userDirectoryCache;
+    }
+
     @Override
     @ExternalAuthorization(resource = Resource.ROLE, action = ResourceAction.LIST)
     public List<RoleDto> listRoles() {
@@ -61,6 +75,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         requestDto.setEmail(request.getEmail());
         requestDto.setSystemRole(false);
         RoleDetailDto dto = roleManagementApiClient.createRole(requestDto);
+        userDirectoryCache.invalidateRole(dto.getUuid());
         dto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.ROLE, UUID.fromString(dto.getUuid()), request.getCustomAttributes()));
         return dto;
     }
@@ -75,6 +90,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         requestDto.setEmail(request.getEmail());
         requestDto.setSystemRole(false);
         RoleDetailDto dto = roleManagementApiClient.updateRole(roleUuid, requestDto);
+        userProxyAuthenticationCache.invalidateAll();
+        userDirectoryCache.invalidateRole(roleUuid);
         dto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.ROLE, UUID.fromString(dto.getUuid()), request.getCustomAttributes()));
 
         return dto;
@@ -84,6 +101,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     @ExternalAuthorization(resource = Resource.ROLE, action = ResourceAction.DELETE)
     public void deleteRole(String roleUuid) {
         roleManagementApiClient.deleteRole(roleUuid);
+        userProxyAuthenticationCache.invalidateAll();
+        userDirectoryCache.invalidateAll();
         attributeEngine.deleteObjectAttributeContent(Resource.ROLE, UUID.fromString(roleUuid));
     }
 
@@ -98,7 +117,9 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     public SubjectPermissionsDto addPermissions(String roleUuid, RolePermissionsRequestDto request) {
         checkSystemRole(roleUuid);
 
-        return roleManagementApiClient.savePermissions(roleUuid, request);
+        SubjectPermissionsDto permissions = roleManagementApiClient.savePermissions(roleUuid, request);
+        userProxyAuthenticationCache.invalidateAll();
+        return permissions;
     }
 
     @Override
@@ -119,6 +140,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         checkSystemRole(roleUuid);
 
         roleManagementApiClient.addResourcePermissionObjects(roleUuid, resourceUuid, request);
+        userProxyAuthenticationCache.invalidateAll();
     }
 
     @Override
@@ -127,6 +149,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         checkSystemRole(roleUuid);
 
         roleManagementApiClient.updateResourcePermissionObjects(roleUuid, resourceUuid, objectUuid, request);
+        userProxyAuthenticationCache.invalidateAll();
     }
 
     @Override
@@ -135,6 +158,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         checkSystemRole(roleUuid);
 
         roleManagementApiClient.removeResourcePermissionObjects(roleUuid, resourceUuid, objectUuid);
+        userProxyAuthenticationCache.invalidateAll();
     }
 
     @Override
@@ -146,7 +170,10 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.ROLE, action = ResourceAction.UPDATE)
     public RoleDetailDto updateUsers(String roleUuid, List<String> userUuids) {
-        return roleManagementApiClient.updateUsers(roleUuid, userUuids);
+        RoleDetailDto dto = roleManagementApiClient.updateUsers(roleUuid, userUuids);
+        userProxyAuthenticationCache.invalidateAll();
+        userDirectoryCache.invalidateAll();
+        return dto;
     }
 
     @Override
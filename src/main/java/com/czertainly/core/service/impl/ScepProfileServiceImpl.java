@@ -21,6 +21,7 @@ import com.czertainly.core.dao.entity.scep.ScepProfile;
 import com.czertainly.core.dao.entity.scep.ScepProfile_;
 import com.czertainly.core.dao.repository.ProtocolCertificateAssociationsRepository;
 import com.czertainly.core.dao.repository.scep.ScepProfileRepository;
+import com.czertainly.core.events.transaction.ProtocolProfileChangedEvent;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
@@ -33,6 +34,7 @@ import com.czertainly.core.util.ValidatorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -52,6 +54,12 @@ public class ScepProfileServiceImpl implements ScepProfileService {
     private CertificateService certificateService;
     private AttributeEngine attributeEngine;
     private ProtocolCertificateAssociationsRepository certificateAssociationRepository;
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
 
     @Autowired
     public void setCertificateAssociationRepository(ProtocolCertificateAssociationsRepository certificateAssociationRepository) {
@@ -166,6 +174,7 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         }
 
         scepProfile = scepProfileRepository.save(scepProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.SCEP_PROFILE, scepProfile.getUuid()));
 
         return updateAndMapDtoAttributes(
                 scepProfile,
@@ -234,6 +243,7 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         scepProfile.setCertificateAssociationsUuid(certificateAssociationUuid);
 
         scepProfile = scepProfileRepository.save(scepProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.SCEP_PROFILE, scepProfile.getUuid()));
 
         return updateAndMapDtoAttributes(
                 scepProfile,
@@ -345,6 +355,7 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         ScepProfile scepProfile = getScepProfileEntity(uuid);
         scepProfile.setRaProfile(getRaProfile(raProfileUuid));
         scepProfileRepository.save(scepProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.SCEP_PROFILE, scepProfile.getUuid()));
     }
 
     @Override
@@ -408,12 +419,14 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         ScepProfile scepProfile = getScepProfileEntity(uuid);
         scepProfile.setEnabled(true);
         scepProfileRepository.save(scepProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.SCEP_PROFILE, scepProfile.getUuid()));
     }
 
     private void disable(SecuredUUID uuid) throws NotFoundException {
         ScepProfile scepProfile = getScepProfileEntity(uuid);
         scepProfile.setEnabled(false);
         scepProfileRepository.save(scepProfile);
+        applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.SCEP_PROFILE, scepProfile.getUuid()));
     }
 
     private void deleteScepProfile(ScepProfile scepProfile) {
@@ -431,6 +444,7 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         } else {
             attributeEngine.deleteObjectAttributeContent(Resource.SCEP_PROFILE, scepProfile.getUuid());
             scepProfileRepository.delete(scepProfile);
+            applicationEventPublisher.publishEvent(new ProtocolProfileChangedEvent(Resource.SCEP_PROFILE, scepProfile.getUuid()));
         }
     }
 }
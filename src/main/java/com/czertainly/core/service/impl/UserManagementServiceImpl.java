@@ -29,7 +29,9 @@ import com.czertainly.core.messaging.jms.producers.AuditLogsProducer;
 import com.czertainly.core.messaging.model.AuditLogMessage;
 import com.czertainly.core.model.auth.AuthenticationRequestDto;
 import com.czertainly.core.model.auth.ResourceAction;
+import com.czertainly.core.security.authn.client.UserDirectoryCache;
 import com.czertainly.core.security.authn.client.UserManagementApiClient;
+import com.czertainly.core.security.authn.client.UserProxyAuthenticationCache;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
@@ -62,6 +64,8 @@ public class UserManagementServiceImpl implements UserManagementService {
     private String schemaVersion;
 
     private UserManagementApiClient userManagementApiClient;
+    private UserProxyAuthenticationCache userProxyAuthenticationCache;
+    private UserDirectoryCache userDirectoryCache;
 
     private CertificateService certificateService;
     private GroupService groupService;
@@ -87,6 +91,16 @@ public class UserManagementServiceImpl implements UserManagementService {
         this.userManagementApiClient = userManagementApiClient;
     }
 
+    @Autowired
+    public void setUserProxyAuthenticationCache(UserProxyAuthenticationCache userProxyAuthenticationCache) {
+        this.userProxyAuthenticationCache = userProxyAuthenticationCache;
+    }
+
+    @Autowired
+    public void setUserDirectoryCache(UserDirectoryCache userDirectoryCache) {
+        this.userDirectoryCache = userDirectoryCache;
+    }
+
     @Autowired
     public void setCertificateService(CertificateService certificateService) {
         this.certificateService = certificateService;
@@ -150,6 +164,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         requestDto.setGroups(groups);
 
         UserDetailDto response = userManagementApiClient.createUser(requestDto);
+        userDirectoryCache.invalidateUser(response.getUuid());
         if (certificate != null) {
             certificateService.updateCertificateUser(certificate.getUuid(), response.getUuid());
         }
@@ -188,6 +203,9 @@ public class UserManagementServiceImpl implements UserManagementService {
     }
 
     private void clearAuthenticationData(String userUuid, String actionName) {
+        userProxyAuthenticationCache.invalidateUser(userUuid);
+        userDirectoryCache.invalidateUser(userUuid);
+
         Map<String, ? extends Session> userSessions =
                 sessionRepository.findByPrincipalName(userUuid);
 
@@ -215,13 +233,19 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.UPDATE)
     public UserDetailDto updateRoles(String userUuid, List<String> roleUuids) {
-        return userManagementApiClient.updateRoles(userUuid, roleUuids);
+        UserDetailDto result = userManagementApiClient.updateRoles(userUuid, roleUuids);
+        userProxyAuthenticationCache.invalidateUser(userUuid);
+        userDirectoryCache.invalidateUser(userUuid);
+        return result;
     }
 
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.UPDATE)
     public UserDetailDto updateRole(String userUuid, String roleUuid) {
-        return userManagementApiClient.updateRole(userUuid, roleUuid);
+        UserDetailDto result = userManagementApiClient.updateRole(userUuid, roleUuid);
+        userProxyAuthenticationCache.invalidateUser(userUuid);
+        userDirectoryCache.invalidateUser(userUuid);
+        return result;
     }
 
     @Override
@@ -233,7 +257,10 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.ENABLE)
     public UserDetailDto enableUser(String userUuid) {
-        return userManagementApiClient.enableUser(userUuid);
+        UserDetailDto result = userManagementApiClient.enableUser(userUuid);
+        userProxyAuthenticationCache.invalidateUser(userUuid);
+        userDirectoryCache.invalidateUser(userUuid);
+        return result;
     }
 
     @Override
@@ -253,7 +280,10 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.UPDATE)
     public UserDetailDto removeRole(String userUuid, String roleUuid) {
-        return userManagementApiClient.removeRole(userUuid, roleUuid);
+        UserDetailDto result = userManagementApiClient.removeRole(userUuid, roleUuid);
+        userProxyAuthenticationCache.invalidateUser(userUuid);
+        userDirectoryCache.invalidateUser(userUuid);
+        return result;
     }
 
     @Override
@@ -376,6 +406,8 @@ public class UserManagementServiceImpl implements UserManagementService {
         }
 
         UserDetailDto response = userManagementApiClient.updateUser(userUuid, requestDto);
+        userProxyAuthenticationCache.invalidateUser(userUuid);
+        userDirectoryCache.invalidateUser(userUuid);
 
         try {
             certificateService.removeCertificateUser(UUID.fromString(response.getUuid()));
@@ -0,0 +1,28 @@
+package com.czertainly.core.service.scep;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the Intune clients used to validate SCEP requests. The endpoint overrides are meant for environments
+ * where Intune is replaced by a stand-in service, when not set the public Microsoft endpoints are used.
+ *
+ * @param clientMaxLifetimeSeconds how long a pooled client with its discovered service endpoints is reused
+ * @param authAuthority            authority used to acquire the access tokens
+ * @param graphResourceUrl         Microsoft Graph URL used to discover the Intune service endpoints
+ * @param intuneResourceUrl        Intune resource for which the access tokens are requested
+ * @param intuneAppId              application ID of the Intune service principal
+ */
+@ConfigurationProperties(prefix = "scep.intune")
+public record ScepIntuneProperties(
+        long clientMaxLifetimeSeconds,
+        String authAuthority,
+        String graphResourceUrl,
+        String intuneResourceUrl,
+        String intuneAppId
+) {
+
+    public ScepIntuneProperties {
+        if (clientMaxLifetimeSeconds <= 0) clientMaxLifetimeSeconds = 3600;
+    }
+
+}
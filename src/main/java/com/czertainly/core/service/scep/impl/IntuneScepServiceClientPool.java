@@ -0,0 +1,139 @@
+package com.czertainly.core.service.scep.impl;
+
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.events.transaction.ProtocolProfileChangedEvent;
+import com.czertainly.core.intune.scepvalidation.IntuneScepServiceClient;
+import com.czertainly.core.service.scep.ScepIntuneProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps one long-lived Intune client per SCEP profile. The client caches the discovered Intune service endpoints,
+ * its access tokens and HTTP connections, so they are not negotiated again for every SCEP request. The client is
+ * replaced when the Intune settings of the profile change or after the configured lifetime, so the service endpoints
+ * are discovered again from time to time. Replaced clients are closed only after a grace period, since they may
+ * still be used by requests in progress.
+ */
+@Component
+public class IntuneScepServiceClientPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntuneScepServiceClientPool.class);
+
+    private static final long RETIRED_CLIENT_GRACE_MILLIS = 60_000;
+
+    private final ScepIntuneProperties properties;
+    private final String appVersion;
+
+    private final Map<UUID, PooledClient> clients = new ConcurrentHashMap<>();
+    private final Queue<RetiredClient> retiredClients = new ConcurrentLinkedQueue<>();
+
+    public IntuneScepServiceClientPool(ScepIntuneProperties properties, @Value("${app.version}") String appVersion) {
+        this.properties = properties;
+        this.appVersion = appVersion;
+    }
+
+    /**
+     * Returns Intune client configured with the Intune settings of the SCEP profile.
+     *
+     * @param context context of the SCEP profile with Intune enabled
+     * @return client shared by all requests of the SCEP profile
+     */
+    public IntuneScepServiceClient getClient(ScepProfileContext context) {
+        long now = System.currentTimeMillis();
+        closeRetiredClients(now);
+
+        IntuneSettings settings = new IntuneSettings(
+                context.settings().intuneTenant(),
+                context.settings().intuneApplicationId(),
+                context.settings().intuneApplicationKey());
+        PooledClient pooledClient = clients.compute(context.scepProfileUuid(), (uuid, current) -> {
+            if (current != null && current.settings().equals(settings) && current.expiresAt() > now) {
+                return current;
+            }
+            if (current != null) {
+                retire(current.client(), now);
+            }
+            logger.debug("Creating Intune client for SCEP profile {}", context.scepProfileName());
+            return new PooledClient(settings, createClient(getIntuneConfiguration(settings)), now + properties.clientMaxLifetimeSeconds() * 1000);
+        });
+        return pooledClient.client();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleProtocolProfileChangedEvent(ProtocolProfileChangedEvent event) {
+        if (event.resource() != Resource.SCEP_PROFILE || event.uuid() == null) {
+            return;
+        }
+        PooledClient removed = clients.remove(event.uuid());
+        if (removed != null) {
+            logger.debug("Removing Intune client of SCEP profile {} after its change", event.uuid());
+            retire(removed.client(), System.currentTimeMillis());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(pooledClient -> pooledClient.client().close());
+        clients.clear();
+        retiredClients.forEach(retiredClient -> retiredClient.client().close());
+        retiredClients.clear();
+    }
+
+    protected IntuneScepServiceClient createClient(Properties configProperties) {
+        return new IntuneScepServiceClient(configProperties);
+    }
+
+    private Properties getIntuneConfiguration(IntuneSettings settings) {
+        // Create the properties based on the SCEP profile Intune properties
+        Properties configProperties = new Properties();
+        configProperties.put("AAD_APP_ID", settings.applicationId());
+        configProperties.put("AAD_APP_KEY", settings.applicationKey());
+        configProperties.put("TENANT", settings.tenant());
+        configProperties.put("PROVIDER_NAME_AND_VERSION", "CZERTAINLY-V" + appVersion);
+        putIfNotEmpty(configProperties, "AUTH_AUTHORITY", properties.authAuthority());
+        putIfNotEmpty(configProperties, "MS_GRAPH_RESOURCE_URL", properties.graphResourceUrl());
+        putIfNotEmpty(configProperties, "INTUNE_RESOURCE_URL", properties.intuneResourceUrl());
+        putIfNotEmpty(configProperties, "INTUNE_APP_ID", properties.intuneAppId());
+        return configProperties;
+    }
+
+    private void retire(IntuneScepServiceClient client, long now) {
+        retiredClients.add(new RetiredClient(client, now + RETIRED_CLIENT_GRACE_MILLIS));
+    }
+
+    private void closeRetiredClients(long now) {
+        RetiredClient retiredClient;
+        while ((retiredClient = retiredClients.peek()) != null && retiredClient.closeAt() <= now) {
+            if (retiredClients.remove(retiredClient)) {
+                retiredClient.client().close();
+            }
+        }
+    }
+
+    private static void putIfNotEmpty(Properties configProperties, String name, String value) {
+        if (value != null && !value.isEmpty()) {
+            configProperties.put(name, value);
+        }
+    }
+
+    private record IntuneSettings(String tenant, String applicationId, String applicationKey) {
+    }
+
+    private record PooledClient(IntuneSettings settings, IntuneScepServiceClient client, long expiresAt) {
+    }
+
+    private record RetiredClient(IntuneScepServiceClient client, long closeAt) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.czertainly.core.service.scep.impl;
+
+import com.czertainly.api.model.client.attribute.RequestAttribute;
+import com.czertainly.api.model.common.enums.cryptography.KeyAlgorithm;
+import com.czertainly.core.provider.CzertainlyProvider;
+import com.czertainly.core.provider.key.CzertainlyPrivateKey;
+
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of everything needed to serve SCEP requests of one SCEP profile. It is built once per profile,
+ * shared by concurrent requests and rebuilt after the SCEP profile, its RA profile or its CA certificate changes.
+ *
+ * @param raProfileBased          whether the profile was requested through the RA profile based URL
+ * @param scepProfileUuid         UUID of the SCEP profile
+ * @param scepProfileName         name of the SCEP profile
+ * @param scepProfileEnabled      whether the SCEP profile is enabled
+ * @param settings                settings of the SCEP profile used while processing the requests
+ * @param raProfile               RA profile used to issue certificates, null when not associated
+ * @param caCertificateAssigned   whether the SCEP profile has CA certificate
+ * @param caCertificateAcceptable whether the CA certificate of the SCEP profile can be used for SCEP
+ * @param ca                      CA certificate of the SCEP profile with its chain and private key, null when there is
+ *                                no RA profile to serve the requests
+ * @param issueAttributes         attributes used to issue certificates
+ */
+public record ScepProfileContext(
+        boolean raProfileBased,
+        UUID scepProfileUuid,
+        String scepProfileName,
+        boolean scepProfileEnabled,
+        Settings settings,
+        RaProfileInfo raProfile,
+        boolean caCertificateAssigned,
+        boolean caCertificateAcceptable,
+        CaInfo ca,
+        List<RequestAttribute> issueAttributes
+) {
+
+    public record Settings(
+            String challengePassword,
+            boolean requireManualApproval,
+            boolean includeCaCertificate,
+            boolean includeCaCertificateChain,
+            Integer renewalThreshold,
+            boolean intuneEnabled,
+            String intuneTenant,
+            String intuneApplicationId,
+            String intuneApplicationKey
+    ) {
+    }
+
+    public record RaProfileInfo(
+            UUID uuid,
+            String name,
+            boolean enabled,
+            UUID authorityInstanceUuid,
+            boolean scepProfileAssociated
+    ) {
+    }
+
+    /**
+     * @param certificateUuid      UUID of the CA certificate in the inventory
+     * @param certificate          the CA certificate, used as recipient of the requests and signer of the responses
+     * @param certificateChain     chain of the CA certificate including the CA certificate itself
+     * @param getCaCertResponse    encoded body of the GetCACert response, it must not be modified
+     * @param getCaCertContentType content type of the GetCACert response
+     * @param privateKey           private key of the CA certificate, null when the certificate is not acceptable
+     * @param keyAlgorithm         algorithm of the private key, null when the certificate is not acceptable
+     * @param provider             provider performing operations with the private key, null when the certificate is not acceptable
+     */
+    public record CaInfo(
+            UUID certificateUuid,
+            X509Certificate certificate,
+            List<X509Certificate> certificateChain,
+            byte[] getCaCertResponse,
+            String getCaCertContentType,
+            CzertainlyPrivateKey privateKey,
+            KeyAlgorithm keyAlgorithm,
+            CzertainlyProvider provider
+    ) {
+    }
+}
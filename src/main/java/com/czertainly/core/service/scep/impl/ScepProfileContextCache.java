@@ -0,0 +1,19 @@
+package com.czertainly.core.service.scep.impl;
+
+import com.czertainly.core.cache.ProtocolProfileCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches {@link ScepProfileContext} per SCEP profile and per the way the profile is addressed in the request URL.
+ */
+@Component
+public class ScepProfileContextCache extends ProtocolProfileCache<ScepProfileContextCache.Key, ScepProfileContext> {
+
+    public ScepProfileContextCache(@Value("${settings.cache.refresh-interval}") long ttlSeconds) {
+        super(ttlSeconds);
+    }
+
+    public record Key(String profileName, boolean raProfileBased) {
+    }
+}
@@ -35,6 +35,7 @@ import com.czertainly.core.logging.LoggingHelper;
 import com.czertainly.core.model.auth.CertificateProtocolInfo;
 import com.czertainly.core.provider.CzertainlyProvider;
 import com.czertainly.core.provider.key.CzertainlyPrivateKey;
+import com.czertainly.core.security.authz.SecuredParentUUID;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.CertificateService;
 import com.czertainly.core.service.CryptographicKeyService;
@@ -57,7 +58,6 @@ import org.bouncycastle.pkcs.jcajce.JcaPKCS10CertificationRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -94,16 +94,8 @@ public class ScepServiceImpl implements ScepService {
             "Renewal",
             "SCEPStandard"
     );
+    private static final String SCEP_CA_CAPABILITIES_RESPONSE = String.join(System.lineSeparator(), SCEP_CA_CAPABILITIES);
 
-    @Value("${app.version}")
-    private String appVersion;
-
-    private List<X509Certificate> caCertificateChain = new ArrayList<>();
-    private X509Certificate recipient;
-    private boolean raProfileBased;
-    private RaProfile raProfile;
-    private List<RequestAttribute> issueAttributes;
-    private ScepProfile scepProfile;
     private RaProfileRepository raProfileRepository;
     private ScepProfileRepository scepProfileRepository;
     private ScepTransactionRepository scepTransactionRepository;
@@ -112,6 +104,8 @@ public class ScepServiceImpl implements ScepService {
     private CryptographicKeyService cryptographicKeyService;
     private ConnectorApiFactory connectorApiFactory;
     private AttributeEngine attributeEngine;
+    private ScepProfileContextCache scepProfileContextCache;
+    private IntuneScepServiceClientPool intuneScepServiceClientPool;
 
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
@@ -153,13 +147,14 @@ public class ScepServiceImpl implements ScepService {
         this.connectorApiFactory = connectorApiFactory;
     }
 
-    public void setRecipient(String certificateContent) {
-        try {
-            this.recipient = CertificateUtil.parseCertificate(certificateContent);
-        } catch (CertificateException e) {
-            // This should not occur
-            throw new IllegalArgumentException("Error converting the certificate to x509 object");
-        }
+    @Autowired
+    public void setScepProfileContextCache(ScepProfileContextCache scepProfileContextCache) {
+        this.scepProfileContextCache = scepProfileContextCache;
+    }
+
+    @Autowired
+    public void setIntuneScepServiceClientPool(IntuneScepServiceClientPool intuneScepServiceClientPool) {
+        this.intuneScepServiceClientPool = intuneScepServiceClientPool;
     }
 
     @Override
@@ -181,111 +176,187 @@ public class ScepServiceImpl implements ScepService {
     }
 
     private ResponseEntity<Object> service(String profileName, String operation, byte[] message) throws ScepException {
-        init(profileName);
-        validateProfile();
+        boolean raProfileBased = ServletUriComponentsBuilder.fromCurrentRequestUri().build().toUriString().contains("/raProfile/");
+        ScepProfileContext context = scepProfileContextCache.get(new ScepProfileContextCache.Key(profileName, raProfileBased), this::buildContext);
+        LoggingHelper.putLogResourceInfo(Resource.SCEP_PROFILE, true, context.scepProfileUuid().toString(), context.scepProfileName());
+        validateProfile(context);
         logger.info("SCEP request received for profile: {}, operation: {}", profileName, operation);
         return switch (operation) {
             case SCEP_OPERATION_GET_CA_CERT -> {
                 LoggingHelper.putAuditLogOperation(Operation.LIST_PROTOCOL_CERTIFICATES);
-                yield getCaCerts();
+                yield getCaCerts(context);
             }
             case SCEP_OPERATION_GET_CA_CAPS -> {
                 LoggingHelper.putAuditLogOperation(Operation.SCEP_CA_CAPABILITIES);
                 yield getCaCaps();
             }
-            case SCEP_OPERATION_PKI_OPERATION -> pkiOperation(message);
+            case SCEP_OPERATION_PKI_OPERATION -> pkiOperation(context, message);
             default ->
-                    buildResponse(null, buildFailedResponse(new ScepException("Unsupported Operation", FailInfo.BAD_REQUEST), null));
+                    buildResponse(context, null, buildFailedResponse(context, new ScepException("Unsupported Operation", FailInfo.BAD_REQUEST), null));
         };
     }
 
-    private void init(String profileName) throws ScepException {
-        this.raProfileBased = ServletUriComponentsBuilder.fromCurrentRequestUri().build().toUriString().contains("/raProfile/");
-        if (raProfileBased) {
-            raProfile = raProfileRepository.findByName(profileName).orElse(null);
-            if (raProfile == null) {
-                return;
+    private ScepProfileContext buildContext(ScepProfileContextCache.Key key) throws ScepException {
+        RaProfile raProfile;
+        ScepProfile scepProfile;
+        List<RequestAttribute> issueAttributes;
+        if (key.raProfileBased()) {
+            raProfile = raProfileRepository.findByName(key.profileName()).orElse(null);
+            scepProfile = raProfile != null ? raProfile.getScepProfile() : null;
+            if (scepProfile == null) {
+                throw new ScepException("Requested SCEP Profile not found", FailInfo.BAD_REQUEST);
             }
-            scepProfile = raProfile.getScepProfile();
             String attributesJson = raProfile.getProtocolAttribute() != null ? raProfile.getProtocolAttribute().getScepIssueCertificateAttributes() : null;
             issueAttributes = AttributeDefinitionUtils.getClientAttributes(AttributeDefinitionUtils.deserialize(attributesJson, DataAttributeV2.class));
         } else {
-            scepProfile = scepProfileRepository.findByName(profileName).orElse(null);
+            scepProfile = scepProfileRepository.findByName(key.profileName()).orElse(null);
             if (scepProfile == null) {
-                return;
+                throw new ScepException("Requested SCEP Profile not found", FailInfo.BAD_REQUEST);
             }
             raProfile = scepProfile.getRaProfile();
             if (raProfile == null) {
-                return;
+                // profile without RA profile cannot serve any request, the validation reports the reason
+                return createContext(key, scepProfile, null, null, List.of());
             }
-
-            issueAttributes = attributeEngine.getRequestObjectDataAttributesContent(ObjectAttributeContentInfo.builder(Resource.SCEP_PROFILE, scepProfile.getUuid()).connector(scepProfile.getRaProfile().getAuthorityInstanceReference().getConnectorUuid()).operation(AttributeOperation.CERTIFICATE_ISSUE).build());
+            issueAttributes = attributeEngine.getRequestObjectDataAttributesContent(ObjectAttributeContentInfo.builder(Resource.SCEP_PROFILE, scepProfile.getUuid()).connector(raProfile.getAuthorityInstanceReference().getConnectorUuid()).operation(AttributeOperation.CERTIFICATE_ISSUE).build());
         }
-        LoggingHelper.putLogResourceInfo(Resource.SCEP_PROFILE, true, scepProfile.getUuid().toString(), scepProfile.getName());
 
         Certificate scepCaCertificate = scepProfile.getCaCertificate();
         if (scepCaCertificate == null) {
             throw new ScepException("SCEP Profile does not have any associated CA certificate", FailInfo.BAD_REQUEST);
         }
 
-        setRecipient(scepCaCertificate.getCertificateContent().getContent());
+        ScepProfileContext context = createContext(key, scepProfile, raProfile, loadCaInfo(scepProfile), issueAttributes);
+        logger.debug("SCEP profile context initialized: isRaProfileBased: {}, raProfile: {}, scepProfile: {}", key.raProfileBased(), raProfile, scepProfile);
+        return context;
+    }
+
+    private ScepProfileContext createContext(ScepProfileContextCache.Key key, ScepProfile scepProfile, RaProfile raProfile, ScepProfileContext.CaInfo ca, List<RequestAttribute> issueAttributes) {
+        ScepProfileContext.Settings settings = new ScepProfileContext.Settings(
+                scepProfile.getChallengePassword(),
+                !Boolean.FALSE.equals(scepProfile.getRequireManualApproval()),
+                scepProfile.isIncludeCaCertificate(),
+                scepProfile.isIncludeCaCertificateChain(),
+                scepProfile.getRenewalThreshold(),
+                scepProfile.isIntuneEnabled(),
+                scepProfile.getIntuneTenant(),
+                scepProfile.getIntuneApplicationId(),
+                scepProfile.getIntuneApplicationKey()
+        );
+        ScepProfileContext.RaProfileInfo raProfileInfo = raProfile == null ? null : new ScepProfileContext.RaProfileInfo(
+                raProfile.getUuid(),
+                raProfile.getName(),
+                Boolean.TRUE.equals(raProfile.getEnabled()),
+                raProfile.getAuthorityInstanceReferenceUuid(),
+                raProfile.getScepProfile() != null
+        );
+        Certificate caCertificate = scepProfile.getCaCertificate();
+        return new ScepProfileContext(
+                key.raProfileBased(),
+                scepProfile.getUuid(),
+                scepProfile.getName(),
+                Boolean.TRUE.equals(scepProfile.isEnabled()),
+                settings,
+                raProfileInfo,
+                caCertificate != null,
+                caCertificate != null && CertificateUtil.isCertificateScepCaCertAcceptable(caCertificate, scepProfile.isIntuneEnabled()),
+                ca,
+                issueAttributes == null ? List.of() : List.copyOf(issueAttributes)
+        );
+    }
+
+    private ScepProfileContext.CaInfo loadCaInfo(ScepProfile scepProfile) throws ScepException {
+        Certificate caCertificate = scepProfile.getCaCertificate();
+        X509Certificate certificate;
+        try {
+            certificate = CertificateUtil.parseCertificate(caCertificate.getCertificateContent().getContent());
+        } catch (CertificateException e) {
+            // This should not occur
+            throw new IllegalArgumentException("Error converting the certificate to x509 object");
+        }
+
+        List<X509Certificate> certificateChain;
         try {
-            this.caCertificateChain = loadCertificateChain(scepCaCertificate);
+            certificateChain = List.copyOf(loadCertificateChain(caCertificate));
         } catch (NotFoundException e) {
             throw new ScepException("Failed to load certificate chain of SCEP profile CA certificate");
         }
 
-        logger.debug("SCEP service initialized: isRaProfileBased: {}, raProfile: {}, scepProfile: {}", raProfileBased, raProfile, scepProfile);
+        // GetCACert response is the same for all requests, so it is encoded only once
+        byte[] getCaCertResponse = encodeCaCertificates(certificate, certificateChain);
+        String getCaCertContentType = certificateChain.size() > 1 ? "application/x-x509-ca-ra-cert" : "application/x-x509-ca-cert";
+
+        if (!CertificateUtil.isCertificateScepCaCertAcceptable(caCertificate, scepProfile.isIntuneEnabled())) {
+            return new ScepProfileContext.CaInfo(caCertificate.getUuid(), certificate, certificateChain, getCaCertResponse, getCaCertContentType, null, null, null);
+        }
+
+        // Get the private key from the configuration of SCEP Profile
+        CryptographicKey key = caCertificate.getKey();
+        CryptographicKeyItem item = cryptographicKeyService.getKeyItemFromKey(key, KeyType.PRIVATE_KEY);
+        var connectorDto = key.getTokenInstanceReference().getConnector().mapToDto();
+        CzertainlyPrivateKey czertainlyPrivateKey = new CzertainlyPrivateKey(
+                key.getTokenInstanceReference().getTokenInstanceUuid(),
+                item.getKeyReferenceUuid().toString(),
+                connectorDto,
+                item.getKeyAlgorithm().getLabel()
+        );
+        CryptographicOperationsSyncApiClient cryptoApiClient = connectorApiFactory.getCryptographicOperationsApiClient(connectorDto);
+        CzertainlyProvider czertainlyProvider = CzertainlyProvider.getInstance(scepProfile.getName(), true, cryptoApiClient);
+        return new ScepProfileContext.CaInfo(caCertificate.getUuid(), certificate, certificateChain, getCaCertResponse, getCaCertContentType, czertainlyPrivateKey, item.getKeyAlgorithm(), czertainlyProvider);
     }
 
-    private void validateProfile() throws ScepException {
-        validateScepProfile();
-        validateRaProfile();
+    private void validateProfile(ScepProfileContext context) throws ScepException {
+        validateScepProfile(context);
+        validateRaProfile(context);
     }
 
-    private void validateScepProfile() throws ScepException {
-        if (scepProfile == null) {
-            throw new ScepException("Requested SCEP Profile not found", FailInfo.BAD_REQUEST);
-        }
-        if (scepProfile.isEnabled() == null || Boolean.FALSE.equals(scepProfile.isEnabled())) {
+    private void validateScepProfile(ScepProfileContext context) throws ScepException {
+        if (!context.scepProfileEnabled()) {
             throw new ScepException("SCEP Profile is not enabled", FailInfo.BAD_REQUEST);
         }
-        if (scepProfile.getCaCertificate() == null) {
+        if (!context.caCertificateAssigned()) {
             throw new ScepException("SCEP Profile does not have any associated CA certificate", FailInfo.BAD_REQUEST);
         }
-        if (!CertificateUtil.isCertificateScepCaCertAcceptable(scepProfile.getCaCertificate(), scepProfile.isIntuneEnabled())) {
+        if (!context.caCertificateAcceptable()) {
             throw new ScepException("SCEP Profile does not have associated acceptable CA certificate", FailInfo.BAD_REQUEST);
         }
-        if (!raProfileBased && scepProfile.getRaProfile() == null) {
+        if (!context.raProfileBased() && context.raProfile() == null) {
             throw new ScepException("SCEP Profile does not contain associated RA Profile", FailInfo.BAD_REQUEST);
         }
     }
 
-    private void validateRaProfile() throws ScepException {
-        if (raProfile == null) {
+    private void validateRaProfile(ScepProfileContext context) throws ScepException {
+        if (context.raProfile() == null) {
             throw new ScepException("Requested RA Profile not found", FailInfo.BAD_REQUEST);
         }
-        if (raProfile.getEnabled() == null || Boolean.FALSE.equals(raProfile.getEnabled())) {
+        if (!context.raProfile().enabled()) {
             throw new ScepException("RA Profile is not enabled", FailInfo.BAD_REQUEST);
         }
-        if (raProfileBased && raProfile.getScepProfile() == null) {
+        if (context.raProfileBased() && !context.raProfile().scepProfileAssociated()) {
             throw new ScepException("RA Profile does not contain associated SCEP Profile", FailInfo.BAD_REQUEST);
         }
     }
 
-    private ResponseEntity<Object> getCaCerts() {
-        byte[] encoded;
+    private ResponseEntity<Object> getCaCerts(ScepProfileContext context) {
+        byte[] encoded = context.ca().getCaCertResponse();
+        return getResponseEntity(encoded, context.ca().getCaCertContentType(), encoded.length);
+    }
+
+    private ResponseEntity<Object> getCaCaps() {
+        logger.debug("Returning CA capabilities");
+        return getResponseEntity(SCEP_CA_CAPABILITIES_RESPONSE, "text/plain", null);
+    }
+
+    private static byte[] encodeCaCertificates(X509Certificate caCertificate, List<X509Certificate> caCertificateChain) {
         try {
             if (caCertificateChain.size() > 1) {
                 logger.debug("Certificate chain is more than one, returning CA-RA certificate");
                 CMSSignedDataGenerator generator = new CMSSignedDataGenerator();
                 generator.addCertificates(new JcaCertStore(caCertificateChain));
-                encoded = generator.generate(new CMSProcessableByteArray(new byte[0])).getEncoded();
-                return getResponseEntity(encoded, "application/x-x509-ca-ra-cert", encoded.length);
+                return generator.generate(new CMSProcessableByteArray(new byte[0])).getEncoded();
             } else {
                 logger.debug("Certificate chain is one, returning CA certificate");
-                encoded = recipient.getEncoded();
-                return getResponseEntity(encoded, "application/x-x509-ca-cert", encoded.length);
+                return caCertificate.getEncoded();
             }
         } catch (CertificateException | CMSException | IOException e) {
             // This should not happen
@@ -293,11 +364,6 @@ public class ScepServiceImpl implements ScepService {
         }
     }
 
-    private ResponseEntity<Object> getCaCaps() {
-        logger.debug("Returning CA capabilities");
-        return getResponseEntity(String.join(System.lineSeparator(), SCEP_CA_CAPABILITIES), "text/plain", null);
-    }
-
     private ResponseEntity<Object> getResponseEntity(Object body, String contentType, Integer contentLength) {
         HttpHeaders responseHeaders = new HttpHeaders();
         responseHeaders.set("Content-Type", contentType);
@@ -305,7 +371,7 @@ public class ScepServiceImpl implements ScepService {
         return new ResponseEntity<>(body, responseHeaders, HttpStatus.OK);
     }
 
-    private ResponseEntity<Object> pkiOperation(byte[] body) throws ScepException {
+    private ResponseEntity<Object> pkiOperation(ScepProfileContext context, byte[] body) throws ScepException {
         ScepRequest scepRequest;
         ScepResponse scepResponse;
         IntuneScepServiceClient intuneClient = null;
@@ -314,76 +380,61 @@ public class ScepServiceImpl implements ScepService {
 
         logger.debug("Processing SCEP request: transactionId={}", scepRequest.getTransactionId());
 
-        CryptographicKey key = scepProfile.getCaCertificate().getKey();
-        CryptographicKeyItem item = cryptographicKeyService.getKeyItemFromKey(key, KeyType.PRIVATE_KEY);
-        var connectorDto = key.getTokenInstanceReference().getConnector().mapToDto();
-        // Get the private key from the configuration of SCEP Profile
-        CzertainlyPrivateKey czertainlyPrivateKey = new CzertainlyPrivateKey(
-                key.getTokenInstanceReference().getTokenInstanceUuid(),
-                item.getKeyReferenceUuid().toString(),
-                connectorDto,
-                item.getKeyAlgorithm().getLabel()
-        );
-
-        CryptographicOperationsSyncApiClient cryptoApiClient = connectorApiFactory.getCryptographicOperationsApiClient(connectorDto);
-        CzertainlyProvider czertainlyProvider = CzertainlyProvider.getInstance(scepProfile.getName(), true, cryptoApiClient);
-
         // decrypt the PKCS#10 request
         try {
             scepRequest.decryptData(
-                    czertainlyPrivateKey,
-                    czertainlyProvider,
-                    cryptographicKeyService.getKeyItemFromKey(scepProfile.getCaCertificate().getKey(), KeyType.PRIVATE_KEY).getKeyAlgorithm(),
-                    scepProfile.getChallengePassword()
+                    context.ca().privateKey(),
+                    context.ca().provider(),
+                    context.ca().keyAlgorithm(),
+                    context.settings().challengePassword()
             );
         } catch (CMSException e) {
-            return buildResponse(scepRequest, buildFailedResponse(new ScepException("Unable to decrypt the data. " + e.getMessage(), FailInfo.BAD_REQUEST), scepRequest.getTransactionId()));
+            return buildResponse(context, scepRequest, buildFailedResponse(context, new ScepException("Unable to decrypt the data. " + e.getMessage(), FailInfo.BAD_REQUEST), scepRequest.getTransactionId()));
         }
 
-        if (scepProfile.isIntuneEnabled()) {
-            Properties properties = getIntuneConfiguration();
-            intuneClient = buildIntuneClient(properties);
+        if (context.settings().intuneEnabled()) {
+            intuneClient = intuneScepServiceClientPool.getClient(context);
         }
 
         // validate challenge password, if configured
         if (scepRequest.getMessageType().equals(MessageType.PKCS_REQ) || scepRequest.getMessageType().equals(MessageType.RENEWAL_REQ)) {
-            if (!validateScepChallengePassword(scepRequest.getChallengePassword())) {
-                return buildResponse(scepRequest, buildFailedResponse(new ScepException("Challenge password validation failed.", FailInfo.BAD_MESSAGE_CHECK), scepRequest.getTransactionId()));
+            if (!validateScepChallengePassword(context, scepRequest.getChallengePassword())) {
+                return buildResponse(context, scepRequest, buildFailedResponse(context, new ScepException("Challenge password validation failed.", FailInfo.BAD_MESSAGE_CHECK), scepRequest.getTransactionId()));
             }
             // validate the request POP
             try {
-                verifyRequest(scepRequest);
+                verifyRequest(context, scepRequest);
             } catch (ScepException e) {
-                return buildResponse(scepRequest, buildFailedResponse(e, scepRequest.getTransactionId()));
+                return buildResponse(context, scepRequest, buildFailedResponse(context, e, scepRequest.getTransactionId()));
             }
         }
 
-        if (scepTransactionRepository.existsByTransactionIdAndScepProfile(scepRequest.getTransactionId(), scepProfile)) {
+        if (scepTransactionRepository.existsByTransactionIdAndScepProfileUuid(scepRequest.getTransactionId(), context.scepProfileUuid())) {
             LoggingHelper.putAuditLogOperation(Operation.SCEP_TRANSACTION_CHECK);
             try {
-                scepResponse = getExistingTransaction(scepRequest.getTransactionId());
+                scepResponse = getExistingTransaction(context, scepRequest.getTransactionId());
             } catch (ScepException e) {
-                scepResponse = buildFailedResponse(new ScepException("Error while formatting certificate", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
+                scepResponse = buildFailedResponse(context, new ScepException("Error while formatting certificate", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
             } catch (NotFoundException e) {
-                scepResponse = buildFailedResponse(new ScepException("Transaction certificate not found", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
+                scepResponse = buildFailedResponse(context, new ScepException("Transaction certificate not found", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
             }
         } else if (scepRequest.getMessageType().equals(MessageType.PKCS_REQ)) {
             try {
                 // Manual approval for the SCEP clients are configured in the SCEP Profile.
                 // If the SCEP Profile has the manual approval set to true, only the CSR will be generated
-                if (scepProfile.getRequireManualApproval() != null && !scepProfile.getRequireManualApproval()) {
+                if (!context.settings().requireManualApproval()) {
                     LoggingHelper.putAuditLogOperation(Operation.ISSUE);
-                    scepResponse = issueCertificate(scepRequest, intuneClient);
+                    scepResponse = issueCertificate(context, scepRequest, intuneClient);
                 } else {
                     LoggingHelper.putAuditLogOperation(Operation.REQUEST);
-                    scepResponse = generateCsr(scepRequest, intuneClient);
+                    scepResponse = generateCsr(context, scepRequest, intuneClient);
                 }
             } catch (ScepException e) {
-                scepResponse = buildFailedResponse(e, scepRequest.getTransactionId());
+                scepResponse = buildFailedResponse(context, e, scepRequest.getTransactionId());
                 // 32-bit error code formulated using the instructions specified in https://msdn.microsoft.com/en-us/library/cc231198.aspx
                 // this is a vendor specific error code
                 final long errorCode = 0x20000000L + e.getFailInfo().getValue();
-                if (scepProfile.isIntuneEnabled()) {
+                if (context.settings().intuneEnabled()) {
                     sendIntuneFailureMessage(
                             intuneClient,
                             scepRequest,
@@ -394,14 +445,14 @@ public class ScepServiceImpl implements ScepService {
             }
         } else if (scepRequest.getMessageType().equals(MessageType.CERT_POLL)) {
             LoggingHelper.putAuditLogOperation(Operation.SCEP_CERTIFICATE_POLL);
-            scepResponse = pollCertificate(scepRequest, intuneClient);
+            scepResponse = pollCertificate(context, scepRequest, intuneClient);
         } else {
-            scepResponse = buildFailedResponse(new ScepException("Unsupported Operation. The requested operation is not supported", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
+            scepResponse = buildFailedResponse(context, new ScepException("Unsupported Operation. The requested operation is not supported", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
         }
-        return buildResponse(scepRequest, scepResponse);
+        return buildResponse(context, scepRequest, scepResponse);
     }
 
-    private ScepResponse buildFailedResponse(ScepException scepException, String transactionId) {
+    private ScepResponse buildFailedResponse(ScepProfileContext context, ScepException scepException, String transactionId) {
         ScepResponse scepResponse = new ScepResponse();
         scepResponse.setPkiStatus(PkiStatus.FAILURE);
         scepResponse.setFailInfo(scepException.getFailInfo());
@@ -415,37 +466,20 @@ public class ScepServiceImpl implements ScepService {
                 scepException.getFailInfo(),
                 scepException.getCause() != null ? scepException.getCause().getMessage() : null,
                 transactionId,
-                this.scepProfile.getName(),
-                this.raProfileBased ? this.raProfile.getName() : null
+                context.scepProfileName(),
+                context.raProfileBased() ? context.raProfile().name() : null
         );
 
         return scepResponse;
     }
 
-    private ResponseEntity<Object> buildResponse(ScepRequest scepRequest, ScepResponse scepResponse) throws ScepException {
-        prepareMessage(scepRequest, scepResponse);
-        CryptographicKey key = scepProfile.getCaCertificate().getKey();
-        var connectorDto = key.getTokenInstanceReference().getConnector().mapToDto();
-        CryptographicOperationsSyncApiClient cryptoApiClient = connectorApiFactory.getCryptographicOperationsApiClient(connectorDto);
-        CzertainlyProvider czertainlyProvider = CzertainlyProvider.getInstance(scepProfile.getName(), true, cryptoApiClient);
-        CryptographicKeyItem item = cryptographicKeyService.getKeyItemFromKey(key, KeyType.PRIVATE_KEY);
-        // Get the private key from the configuration of SCEP Profile
-        CzertainlyPrivateKey czertainlyPrivateKey = new CzertainlyPrivateKey(
-                key.getTokenInstanceReference().getTokenInstanceUuid(),
-                item.getKeyReferenceUuid().toString(),
-                connectorDto,
-                item.getKeyAlgorithm().getLabel()
+    private ResponseEntity<Object> buildResponse(ScepProfileContext context, ScepRequest scepRequest, ScepResponse scepResponse) throws ScepException {
+        prepareMessage(context, scepRequest, scepResponse);
+        scepResponse.setSigningAttributes(
+                context.ca().certificate(),
+                context.ca().privateKey(),
+                context.ca().provider()
         );
-        try {
-            scepResponse.setSigningAttributes(
-                    CertificateUtil.getX509Certificate(scepProfile.getCaCertificate().getCertificateContent().getContent()),
-                    czertainlyPrivateKey,
-                    czertainlyProvider
-
-            );
-        } catch (CertificateException e) {
-            throw new ScepException("Unable to set certificate for signing SCEP response", e, FailInfo.BAD_REQUEST);
-        }
         scepResponse.generate();
         byte[] responseBody;
         try {
@@ -456,8 +490,8 @@ public class ScepServiceImpl implements ScepService {
         return getResponseEntity(responseBody, "application/x-pki-message", responseBody.length);
     }
 
-    private ScepResponse issueCertificate(ScepRequest scepRequest, IntuneScepServiceClient intuneClient) throws ScepException {
-        if (scepProfile.isIntuneEnabled()) {
+    private ScepResponse issueCertificate(ScepProfileContext context, ScepRequest scepRequest, IntuneScepServiceClient intuneClient) throws ScepException {
+        if (context.settings().intuneEnabled()) {
             validateIntuneRequest(
                     intuneClient,
                     scepRequest
@@ -467,13 +501,13 @@ public class ScepServiceImpl implements ScepService {
         try {
             requestDto.setRequest(new String(Base64.getEncoder().encode(scepRequest.getPkcs10Request().getEncoded())));
             requestDto.setFormat(CertificateRequestFormat.PKCS10);
-            requestDto.setAttributes(issueAttributes);
+            requestDto.setAttributes(new ArrayList<>(context.issueAttributes()));
         } catch (IOException e) {
             throw new ScepException("Unable to decode PKCS#10 request", e, FailInfo.BAD_REQUEST);
         }
         ClientCertificateDataResponseDto response;
         try {
-            response = clientOperationService.issueCertificate(raProfile.getAuthorityInstanceReference().getSecuredParentUuid(), raProfile.getSecuredUuid(), requestDto, CertificateProtocolInfo.Scep(scepProfile.getUuid()));
+            response = clientOperationService.issueCertificate(SecuredParentUUID.fromUUID(context.raProfile().authorityInstanceUuid()), SecuredUUID.fromUUID(context.raProfile().uuid()), requestDto, CertificateProtocolInfo.Scep(context.scepProfileUuid()));
         } catch (CertificateException | NotFoundException | CertificateOperationException e) {
             throw new ScepException("Unable to issue certificate", e, FailInfo.BAD_REQUEST);
         } catch (NoSuchAlgorithmException e) {
@@ -487,7 +521,7 @@ public class ScepServiceImpl implements ScepService {
         ScepResponse scepResponse = new ScepResponse();
         if (response.getCertificateData() == null || response.getCertificateData().isEmpty()) {
             // certificate is not yet issued
-            addTransactionEntity(scepRequest.getTransactionId(), response.getUuid());
+            addTransactionEntity(context, scepRequest.getTransactionId(), response.getUuid());
             scepResponse.setPkiStatus(PkiStatus.PENDING);
             return scepResponse;
         }
@@ -502,15 +536,15 @@ public class ScepServiceImpl implements ScepService {
         Certificate certificateEntity;
         try {
             certificateEntity = certificateService.getCertificateEntity(SecuredUUID.fromString(response.getUuid()));
-            scepResponse.setCertificateChain(getIssuedCertificateChain(certificateEntity));
+            scepResponse.setCertificateChain(getIssuedCertificateChain(context, certificateEntity));
         } catch (NotFoundException e) {
             throw new ScepException(String.format("Issued certificate not found in inventory: uuid=%s", response.getUuid()), FailInfo.BAD_REQUEST);
         }
 
-        addTransactionEntity(scepRequest.getTransactionId(), response.getUuid());
+        addTransactionEntity(context, scepRequest.getTransactionId(), response.getUuid());
 
         scepResponse.setPkiStatus(PkiStatus.SUCCESS);
-        if (scepProfile.isIntuneEnabled()) sendIntuneSuccessNotification(
+        if (context.settings().intuneEnabled()) sendIntuneSuccessNotification(
                 intuneClient,
                 scepRequest,
                 certificate
@@ -519,8 +553,8 @@ public class ScepServiceImpl implements ScepService {
     }
 
 
-    private ScepResponse generateCsr(ScepRequest scepRequest, IntuneScepServiceClient intuneClient) throws ScepException {
-        if (scepProfile.isIntuneEnabled()) {
+    private ScepResponse generateCsr(ScepProfileContext context, ScepRequest scepRequest, IntuneScepServiceClient intuneClient) throws ScepException {
+        if (context.settings().intuneEnabled()) {
             validateIntuneRequest(
                     intuneClient,
                     scepRequest
@@ -528,7 +562,7 @@ public class ScepServiceImpl implements ScepService {
         }
         ScepResponse scepResponse = new ScepResponse();
         ClientCertificateRequestDto requestDto = new ClientCertificateRequestDto();
-        if (raProfile != null) requestDto.setRaProfileUuid(raProfile.getUuid());
+        if (context.raProfile() != null) requestDto.setRaProfileUuid(context.raProfile().uuid());
         try {
             requestDto.setRequest(new String(Base64.getEncoder().encode(scepRequest.getPkcs10Request().getEncoded())));
             requestDto.setFormat(CertificateRequestFormat.PKCS10);
@@ -537,64 +571,64 @@ public class ScepServiceImpl implements ScepService {
         }
         CertificateDetailDto response;
         try {
-            response = clientOperationService.submitCertificateRequest(requestDto, CertificateProtocolInfo.Scep(scepProfile.getUuid()));
+            response = clientOperationService.submitCertificateRequest(requestDto, CertificateProtocolInfo.Scep(context.scepProfileUuid()));
         } catch (CertificateException | NotFoundException | NoSuchAlgorithmException | AttributeException |
                  ConnectorException | CertificateRequestException e) {
             throw new ScepException("Unable to submit certificate request", e, FailInfo.BAD_REQUEST);
         }
 
-        addTransactionEntity(scepRequest.getTransactionId(), response.getUuid());
+        addTransactionEntity(context, scepRequest.getTransactionId(), response.getUuid());
         scepResponse.setPkiStatus(PkiStatus.PENDING);
 
         return scepResponse;
     }
 
-    private ScepResponse getExistingTransaction(String transactionId) throws ScepException, NotFoundException {
-        ScepTransaction scepTransaction = scepTransactionRepository.findByTransactionIdAndScepProfile(transactionId, scepProfile).orElse(null);
+    private ScepResponse getExistingTransaction(ScepProfileContext context, String transactionId) throws ScepException, NotFoundException {
+        ScepTransaction scepTransaction = scepTransactionRepository.findByTransactionIdAndScepProfileUuid(transactionId, context.scepProfileUuid()).orElse(null);
         assert scepTransaction != null;
         Certificate certificate = scepTransaction.getCertificate();
 
         if (certificate.getState() == CertificateState.REJECTED) {
-            return buildFailedResponse(new ScepException("Certificate issuance was rejected", FailInfo.BAD_REQUEST), transactionId);
+            return buildFailedResponse(context, new ScepException("Certificate issuance was rejected", FailInfo.BAD_REQUEST), transactionId);
         }
         if (certificate.getState() == CertificateState.FAILED) {
-            return buildFailedResponse(new ScepException("Certificate issuance failed", FailInfo.BAD_REQUEST), transactionId);
+            return buildFailedResponse(context, new ScepException("Certificate issuance failed", FailInfo.BAD_REQUEST), transactionId);
         }
 
         ScepResponse scepResponse = new ScepResponse();
         if (certificate.getState() == CertificateState.ISSUED) {
             scepResponse.setPkiStatus(PkiStatus.SUCCESS);
-            scepResponse.setCertificateChain(getIssuedCertificateChain(certificate));
+            scepResponse.setCertificateChain(getIssuedCertificateChain(context, certificate));
         } else {
             scepResponse.setPkiStatus(PkiStatus.PENDING);
         }
         return scepResponse;
     }
 
-    private void addTransactionEntity(String transactionId, String certificateUuid) {
+    private void addTransactionEntity(ScepProfileContext context, String transactionId, String certificateUuid) {
         ScepTransaction scepTransaction = new ScepTransaction();
         scepTransaction.setTransactionId(transactionId);
         scepTransaction.setCertificateUuid(UUID.fromString(certificateUuid));
-        scepTransaction.setScepProfile(scepProfile);
+        scepTransaction.setScepProfileUuid(context.scepProfileUuid());
         scepTransactionRepository.save(scepTransaction);
     }
 
-    private ScepResponse pollCertificate(ScepRequest scepRequest, IntuneScepServiceClient intuneClient) {
+    private ScepResponse pollCertificate(ScepProfileContext context, ScepRequest scepRequest, IntuneScepServiceClient intuneClient) {
         ScepResponse scepResponse = new ScepResponse();
         try {
             ScepTransaction transaction = getTransaction(scepRequest.getTransactionId());
             if (transaction != null) {
                 Certificate certificate = transaction.getCertificate();
                 if (certificate.getState() == CertificateState.REJECTED) {
-                    return buildFailedResponse(new ScepException("Certificate issuance was rejected", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
+                    return buildFailedResponse(context, new ScepException("Certificate issuance was rejected", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
                 }
                 if (certificate.getState() == CertificateState.FAILED) {
-                    return buildFailedResponse(new ScepException("Certificate issuance failed", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
+                    return buildFailedResponse(context, new ScepException("Certificate issuance failed", FailInfo.BAD_REQUEST), scepRequest.getTransactionId());
                 }
 
                 if (certificate.getState().equals(CertificateState.ISSUED)) {
                     X509Certificate x509Certificate = CertificateUtil.parseCertificate(certificate.getCertificateContent().getContent());
-                    scepResponse.setCertificateChain(getIssuedCertificateChain(certificate));
+                    scepResponse.setCertificateChain(getIssuedCertificateChain(context, certificate));
                     scepResponse.setPkiStatus(PkiStatus.SUCCESS);
                     sendIntuneSuccessNotification(
                             intuneClient,
@@ -605,7 +639,7 @@ public class ScepServiceImpl implements ScepService {
             } else {
                 scepResponse.setPkiStatus(PkiStatus.PENDING);
             }
-            prepareMessage(scepRequest, scepResponse);
+            prepareMessage(context, scepRequest, scepResponse);
 
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -630,8 +664,8 @@ public class ScepServiceImpl implements ScepService {
         return certificateChain;
     }
 
-    private List<X509Certificate> getIssuedCertificateChain(Certificate certificate) throws ScepException, NotFoundException {
-        if (!this.scepProfile.isIncludeCaCertificateChain() && !this.scepProfile.isIncludeCaCertificate()) {
+    private List<X509Certificate> getIssuedCertificateChain(ScepProfileContext context, Certificate certificate) throws ScepException, NotFoundException {
+        if (!context.settings().includeCaCertificateChain() && !context.settings().includeCaCertificate()) {
             try {
                 checkCertificateValidity(certificate.mapToDto());
 
@@ -645,11 +679,11 @@ public class ScepServiceImpl implements ScepService {
 
         logger.debug("Building the certificate chain for the response message");
         var certificateChain = loadCertificateChain(certificate);
-        if (this.scepProfile.isIncludeCaCertificateChain()) return certificateChain;
+        if (context.settings().includeCaCertificateChain()) return certificateChain;
         else return certificateChain.subList(0, Math.min(2, certificateChain.size()));
     }
 
-    private void prepareMessage(ScepRequest scepRequest, ScepResponse scepResponse) {
+    private void prepareMessage(ScepProfileContext context, ScepRequest scepRequest, ScepResponse scepResponse) {
         if (scepRequest == null) {
             return;
         }
@@ -657,7 +691,7 @@ public class ScepServiceImpl implements ScepService {
         // are handled when generating the attributes for the CMS signed data for the response
         scepResponse.setRecipientNonce(scepRequest.getSenderNonce());
         scepResponse.setTransactionId(scepRequest.getTransactionId());
-        scepResponse.setCaCertificate(recipient);
+        scepResponse.setCaCertificate(context.ca().certificate());
         scepResponse.setRecipientKeyInfo(scepRequest.getRequestKeyInfo());
         scepResponse.setDigestAlgorithmOid(scepRequest.getDigestAlgorithmOid());
         scepResponse.setSenderNonce(RandomUtil.generateRandomNonceBase64(16));
@@ -668,14 +702,15 @@ public class ScepServiceImpl implements ScepService {
         return scepTransactionRepository.findByTransactionId(transactionId).orElse(null);
     }
 
-    private boolean validateScepChallengePassword(String challengePassword) {
-        if (scepProfile.getChallengePassword() == null || scepProfile.getChallengePassword().isEmpty()) {
+    private boolean validateScepChallengePassword(ScepProfileContext context, String challengePassword) {
+        String configuredChallengePassword = context.settings().challengePassword();
+        if (configuredChallengePassword == null || configuredChallengePassword.isEmpty()) {
             return true;
         }
-        return challengePassword.equals(scepProfile.getChallengePassword());
+        return challengePassword.equals(configuredChallengePassword);
     }
 
-    public void verifyRequest(ScepRequest scepRequest) throws ScepException {
+    private void verifyRequest(ScepProfileContext context, ScepRequest scepRequest) throws ScepException {
 
         // Throw exception if the request type is not renewal or issuing a new certificate
         if (!scepRequest.getMessageType().equals(MessageType.RENEWAL_REQ) && !scepRequest.getMessageType().equals(MessageType.PKCS_REQ)) {
@@ -687,7 +722,7 @@ public class ScepServiceImpl implements ScepService {
             // (https://datatracker.ietf.org/doc/id/draft-nourse-scep-23.txt), RENEWAL_REQ is not part of the message type
             // Commonly used SCEP clients like JSCEP and SSCEP uses this version of RFC and
             // may use PKCS_REQ for renewal
-            renewalValidation(scepRequest);
+            renewalValidation(context, scepRequest);
             try {
                 if (!scepRequest.verifyRequest()) {
                     throw new ScepException("Failed to verify PKCS#10 request POP, invalid signature", FailInfo.BAD_REQUEST);
@@ -696,11 +731,11 @@ public class ScepServiceImpl implements ScepService {
                 throw new ScepException("Failed to verify PKCS#10 request POP", FailInfo.BAD_REQUEST);
             }
         } else if (scepRequest.getMessageType().equals(MessageType.RENEWAL_REQ)) {
-            renewalValidation(scepRequest);
+            renewalValidation(context, scepRequest);
         }
     }
 
-    private void renewalValidation(ScepRequest scepRequest) throws ScepException {
+    private void renewalValidation(ScepProfileContext context, ScepRequest scepRequest) throws ScepException {
         JcaPKCS10CertificationRequest pkcs10Request = scepRequest.getPkcs10Request();
         Certificate extCertificate;
         try {
@@ -724,12 +759,13 @@ public class ScepServiceImpl implements ScepService {
             throw new ScepException("Exception when verifying signature." + e.getMessage());
         }
         // No need to verify the same key pair used in request since it is already handled by the rekey method in client operations
-        checkRenewalTimeframe(extCertificate);
+        checkRenewalTimeframe(context, extCertificate);
     }
 
-    private void checkRenewalTimeframe(Certificate certificate) throws ScepException {
+    private void checkRenewalTimeframe(ScepProfileContext context, Certificate certificate) throws ScepException {
+        Integer renewalThreshold = context.settings().renewalThreshold();
         // Empty renewal threshold or the value 0 will be considered as null value and the half life of the certificate will be assumed
-        if (scepProfile.getRenewalThreshold() == null || scepProfile.getRenewalThreshold() == 0) {
+        if (renewalThreshold == null || renewalThreshold == 0) {
             // If the renewal timeframe is not given, we consider that renewal is possible only after the certificate
             // crosses its half lime time
             if (certificate.getValidity() / 2 < certificate.getExpiryInDays()) {
@@ -738,26 +774,12 @@ public class ScepServiceImpl implements ScepService {
         } else if (certificate.getValidationStatus().equals(CertificateValidationStatus.EXPIRED) || certificate.getState().equals(CertificateState.REVOKED)) {
             throw new ScepException("Cannot renew certificate. Certificate is already in expired or revoked state", FailInfo.BAD_REQUEST);
         } else {
-            if (certificate.getExpiryInDays() > scepProfile.getRenewalThreshold()) {
+            if (certificate.getExpiryInDays() > renewalThreshold) {
                 throw new ScepException("Cannot renew certificate. Validity exceeds the configured value in SCEP profile", FailInfo.BAD_REQUEST);
             }
         }
     }
 
-    private Properties getIntuneConfiguration() {
-        // Create the properties based on the SCEP profile Intune properties
-        Properties configProperties = new Properties();
-        configProperties.put("AAD_APP_ID", scepProfile.getIntuneApplicationId());
-        configProperties.put("AAD_APP_KEY", scepProfile.getIntuneApplicationKey());
-        configProperties.put("TENANT", scepProfile.getIntuneTenant());
-        configProperties.put("PROVIDER_NAME_AND_VERSION", "CZERTAINLY-V" + appVersion);
-        return configProperties;
-    }
-
-    private IntuneScepServiceClient buildIntuneClient(Properties configProperties) {
-        return new IntuneScepServiceClient(configProperties);
-    }
-
     private void validateIntuneRequest(IntuneScepServiceClient client, ScepRequest scepRequest) throws ScepException {
         if (scepRequest.getTransactionId() == null || scepRequest.getTransactionId().isEmpty()) {
             throw new ScepException("Transaction ID cannot be empty for Intune requests");
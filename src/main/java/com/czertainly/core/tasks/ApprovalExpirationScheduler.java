@@ -0,0 +1,108 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.model.client.approval.ApprovalStatusEnum;
+import com.czertainly.core.dao.entity.Approval;
+import com.czertainly.core.dao.repository.ApprovalRepository;
+import com.czertainly.core.service.ApprovalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Schedules expiration of pending approvals at the expiry time of the earliest expiring one, instead of scanning for expired
+ * approvals. Only the earliest expiration is scheduled, the next one is scheduled after the expired approvals are processed.
+ * Each node schedules the expiration of approvals created on it and of the earliest expiring approval in the database,
+ * the periodic {@link UpdateCertificateStatusTask} remains as a fallback for approvals whose node has been stopped.
+ */
+@Component
+public class ApprovalExpirationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApprovalExpirationScheduler.class);
+
+    private static final Duration MIN_EXPIRATION_DELAY = Duration.ofSeconds(1);
+
+    private TaskScheduler taskScheduler;
+    private ApprovalRepository approvalRepository;
+    private ApprovalService approvalService;
+
+    private ScheduledFuture<?> scheduledExpiration;
+    private Instant scheduledExpirationAt;
+
+    @Autowired
+    public void setTaskScheduler(TaskScheduler taskScheduler) {
+        this.taskScheduler = taskScheduler;
+    }
+
+    @Autowired
+    public void setApprovalRepository(ApprovalRepository approvalRepository) {
+        this.approvalRepository = approvalRepository;
+    }
+
+    @Lazy
+    @Autowired
+    public void setApprovalService(ApprovalService approvalService) {
+        this.approvalService = approvalService;
+    }
+
+    /**
+     * Schedules the expiration of the earliest expiring pending approval.
+     */
+    @EventListener({ApplicationReadyEvent.class})
+    public void scheduleNextExpiration() {
+        approvalRepository.findFirstByStatusAndExpiryAtNotNullOrderByExpiryAtAsc(ApprovalStatusEnum.PENDING)
+                .map(Approval::getExpiryAt)
+                .ifPresent(this::scheduleExpiration);
+    }
+
+    /**
+     * Schedules the expiration at the given expiry time, unless an earlier expiration is already scheduled.
+     *
+     * @param expiryAt expiry time of the pending approval, nothing is scheduled when null
+     */
+    public synchronized void scheduleExpiration(Date expiryAt) {
+        if (expiryAt == null) {
+            return;
+        }
+
+        // approvals expire strictly after their expiry time, already expired ones locked by other run are retried after a delay
+        Instant expirationAt = expiryAt.toInstant().plusMillis(1);
+        Instant earliestExpirationAt = Instant.now().plus(MIN_EXPIRATION_DELAY);
+        if (expirationAt.isBefore(earliestExpirationAt)) {
+            expirationAt = earliestExpirationAt;
+        }
+        if (scheduledExpiration != null && !scheduledExpiration.isDone() && !scheduledExpirationAt.isAfter(expirationAt)) {
+            return;
+        }
+
+        if (scheduledExpiration != null) {
+            scheduledExpiration.cancel(false);
+        }
+        scheduledExpirationAt = expirationAt;
+        scheduledExpiration = taskScheduler.schedule(this::expireApprovals, expirationAt);
+        logger.debug("Expiration of approvals scheduled at {}", expirationAt);
+    }
+
+    private void expireApprovals() {
+        synchronized (this) {
+            scheduledExpiration = null;
+            scheduledExpirationAt = null;
+        }
+
+        try {
+            int expiredApprovals = approvalService.checkApprovalsExpiration();
+            logger.debug("Scheduled expiration expired {} approvals", expiredApprovals);
+        } catch (Exception e) {
+            logger.error("Unable to expire approvals: {}", e.getMessage(), e);
+        }
+    }
+}
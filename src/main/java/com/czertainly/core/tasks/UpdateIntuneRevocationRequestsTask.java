@@ -116,22 +116,22 @@ public class UpdateIntuneRevocationRequestsTask implements ScheduledJobTask {
             configProperties.put("TENANT", scepProfile.getIntuneTenant());
             configProperties.put("PROVIDER_NAME_AND_VERSION", "CZERTAINLY-V" + appVersion);
 
-            IntuneRevocationClient intuneRevocationClient = new IntuneRevocationClient(configProperties);
-
-            List<CARevocationRequest> revocationRequests;
-            try {
-                revocationRequests = downloadRevocationRequests(intuneRevocationClient);
-            } catch (Exception e) {
-                logger.error(MarkerFactory.getMarker("scheduleInfo"), "Error downloading CA revocation requests", e);
-                return new ScheduledTaskResult(SchedulerJobExecutionStatus.FAILED, "Error downloading CA revocation requests");
-            }
+            try (IntuneRevocationClient intuneRevocationClient = new IntuneRevocationClient(configProperties)) {
+                List<CARevocationRequest> revocationRequests;
+                try {
+                    revocationRequests = downloadRevocationRequests(intuneRevocationClient);
+                } catch (Exception e) {
+                    logger.error(MarkerFactory.getMarker("scheduleInfo"), "Error downloading CA revocation requests", e);
+                    return new ScheduledTaskResult(SchedulerJobExecutionStatus.FAILED, "Error downloading CA revocation requests");
+                }
 
-            List<CARevocationResult> revocationResults = processRevocationRequests(revocationRequests);
+                List<CARevocationResult> revocationResults = processRevocationRequests(revocationRequests);
 
-            try {
-                uploadRevocationResults(intuneRevocationClient, revocationResults);
-            } catch (Exception e) {
-                logger.error(MarkerFactory.getMarker("scheduleInfo"), "Error uploading revocation results", e);
+                try {
+                    uploadRevocationResults(intuneRevocationClient, revocationResults);
+                } catch (Exception e) {
+                    logger.error(MarkerFactory.getMarker("scheduleInfo"), "Error uploading revocation results", e);
+                }
             }
         }
         return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, "Processed Intune revocation requests for %d SCEP profiles".formatted(scepProfiles.size()));
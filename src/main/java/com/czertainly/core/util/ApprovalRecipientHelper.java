@@ -3,19 +3,18 @@ package com.czertainly.core.util;
 import com.czertainly.api.model.client.approval.ApprovalDetailStepDto;
 import com.czertainly.api.model.client.approval.ApprovalStepRecipientDto;
 import com.czertainly.api.model.client.approvalprofile.ApprovalStepDto;
-import com.czertainly.api.model.core.auth.RoleDto;
-import com.czertainly.api.model.core.auth.UserDto;
 import com.czertainly.core.dao.entity.Group;
 import com.czertainly.core.dao.repository.GroupRepository;
-import com.czertainly.core.security.authn.client.RoleManagementApiClient;
-import com.czertainly.core.security.authn.client.UserManagementApiClient;
+import com.czertainly.core.security.authn.client.UserDirectoryCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -24,12 +23,7 @@ public class ApprovalRecipientHelper {
     private static final Logger logger = LoggerFactory.getLogger(ApprovalRecipientHelper.class);
 
     private GroupRepository groupRepository;
-    private UserManagementApiClient userManagementApiClient;
-    private RoleManagementApiClient roleManagementApiClient;
-
-    private Map<String, String> groupNames;
-    private Map<String, String> userNames;
-    private Map<String, String> roleNames;
+    private UserDirectoryCache userDirectoryCache;
 
     @Autowired
     public void setGroupRepository(GroupRepository groupRepository) {
@@ -37,77 +31,69 @@ public class ApprovalRecipientHelper {
     }
 
     @Autowired
-    public void setUserManagementApiClient(UserManagementApiClient userManagementApiClient) {
-        this.userManagementApiClient = userManagementApiClient;
-    }
-
-    @Autowired
-    public void setRoleManagementApiClient(RoleManagementApiClient roleManagementApiClient) {
-        this.roleManagementApiClient = roleManagementApiClient;
+    public void setUserDirectoryCache(UserDirectoryCache userDirectoryCache) {
+        this.userDirectoryCache = userDirectoryCache;
     }
 
     public String getUsername(String userUuid) {
-        if(userNames == null) {
-            loadUsers();
+        try {
+            return userDirectoryCache.getUsername(userUuid);
+        }
+        catch (Exception e) {
+            logger.error("Failed to load usernames from Auth service: {}", e.getMessage());
+            return null;
         }
-
-        return this.userNames.get(userUuid);
     }
 
     public String getRoleName(String roleUuid) {
-        if(roleNames == null) {
-            loadRoles();
+        try {
+            return userDirectoryCache.getRoleName(roleUuid);
         }
-
-        return this.roleNames.get(roleUuid);
-    }
-
-    public String getGroupName(String groupUuid) {
-        if(groupNames == null) {
-            loadGroups();
+        catch (Exception e) {
+            logger.error("Failed to load role names from Auth service: {}", e.getMessage());
+            return null;
         }
-
-        return this.groupNames.get(groupUuid);
     }
 
-    public void fillApprovalStepDto(ApprovalStepDto approvalStep) {
-        if (approvalStep.getUserUuid() != null)
-            approvalStep.setUsername(getUsername(approvalStep.getUserUuid().toString()));
-        else if (approvalStep.getRoleUuid() != null)
-            approvalStep.setRoleName(getRoleName(approvalStep.getRoleUuid().toString()));
-        else if (approvalStep.getGroupUuid() != null)
-            approvalStep.setGroupName(getGroupName(approvalStep.getGroupUuid().toString()));
-    }
-
-    public void fillApprovalDetailStepDto(ApprovalDetailStepDto approvalStep) {
-        fillApprovalStepDto(approvalStep);
-        for (ApprovalStepRecipientDto recipientDto : approvalStep.getApprovalStepRecipients()) {
-            recipientDto.setUsername(getUsername(recipientDto.getUserUuid()));
+    /**
+     * Fills names of the recipients of the approval steps, names of the groups are loaded at once for all steps.
+     */
+    public void fillApprovalStepDtos(List<? extends ApprovalStepDto> approvalSteps) {
+        Map<UUID, String> groupNames = getGroupNames(approvalSteps);
+        for (ApprovalStepDto approvalStep : approvalSteps) {
+            fillApprovalStepDto(approvalStep, groupNames);
         }
     }
 
-    private void loadUsers() {
-        try {
-            this.userNames = this.userManagementApiClient.getUsers().getData().stream().collect(Collectors.toMap(UserDto::getUuid, UserDto::getUsername));
-        }
-        catch (Exception e) {
-            logger.error("Failed to load usernames from Auth service: {}", e.getMessage());
-            this.userNames = new HashMap<>();
+    /**
+     * Fills names of the recipients of the approval steps and of the users that processed them.
+     */
+    public void fillApprovalDetailStepDtos(List<ApprovalDetailStepDto> approvalSteps) {
+        fillApprovalStepDtos(approvalSteps);
+        for (ApprovalDetailStepDto approvalStep : approvalSteps) {
+            for (ApprovalStepRecipientDto recipientDto : approvalStep.getApprovalStepRecipients()) {
+                recipientDto.setUsername(getUsername(recipientDto.getUserUuid()));
+            }
         }
     }
 
-    private void loadRoles() {
-        try {
-            this.roleNames = this.roleManagementApiClient.getRoles().getData().stream().collect(Collectors.toMap(RoleDto::getUuid, RoleDto::getName));
-        }
-        catch (Exception e) {
-            logger.error("Failed to load role names from Auth service: {}", e.getMessage());
-            this.roleNames = new HashMap<>();
+    private Map<UUID, String> getGroupNames(List<? extends ApprovalStepDto> approvalSteps) {
+        Set<UUID> groupUuids = approvalSteps.stream()
+                .filter(approvalStep -> approvalStep.getUserUuid() == null && approvalStep.getRoleUuid() == null && approvalStep.getGroupUuid() != null)
+                .map(ApprovalStepDto::getGroupUuid)
+                .collect(Collectors.toSet());
+        if (groupUuids.isEmpty()) {
+            return Map.of();
         }
+        return groupRepository.findByUuidIn(groupUuids).stream().collect(Collectors.toMap(Group::getUuid, Group::getName));
     }
 
-    private void loadGroups() {
-        this.groupNames = this.groupRepository.findAll().stream().collect(Collectors.toMap(g -> g.getUuid().toString(), Group::getName));
+    private void fillApprovalStepDto(ApprovalStepDto approvalStep, Map<UUID, String> groupNames) {
+        if (approvalStep.getUserUuid() != null)
+            approvalStep.setUsername(getUsername(approvalStep.getUserUuid().toString()));
+        else if (approvalStep.getRoleUuid() != null)
+            approvalStep.setRoleName(getRoleName(approvalStep.getRoleUuid().toString()));
+        else if (approvalStep.getGroupUuid() != null)
+            approvalStep.setGroupName(groupNames.get(approvalStep.getGroupUuid()));
     }
-
 }
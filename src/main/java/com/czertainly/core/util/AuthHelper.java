@@ -17,6 +17,7 @@ import com.czertainly.core.security.authn.CzertainlyUserDetails;
 import com.czertainly.core.security.authn.client.AuthenticationInfo;
 import com.czertainly.core.security.authn.client.CzertainlyAuthenticationClient;
 import com.czertainly.core.security.authn.client.UserManagementApiClient;
+import com.czertainly.core.security.authn.client.UserProxyAuthenticationCache;
 import com.czertainly.core.security.authz.OpaPolicy;
 import com.czertainly.core.security.authz.SecurityResourceFilter;
 import com.czertainly.core.security.authz.opa.OpaClient;
@@ -67,6 +68,7 @@ public class AuthHelper {
     private OpaClient opaClient;
     private UserManagementApiClient userManagementApiClient;
     private CzertainlyAuthenticationClient czertainlyAuthenticationClient;
+    private UserProxyAuthenticationCache userProxyAuthenticationCache;
 
     private static final Set<String> protocolUsers = Set.of(ACME_USERNAME, SCEP_USERNAME, CMP_USERNAME);
 
@@ -85,12 +87,17 @@ public class AuthHelper {
         this.czertainlyAuthenticationClient = czertainlyAuthenticationClient;
     }
 
+    @Autowired
+    public void setUserProxyAuthenticationCache(UserProxyAuthenticationCache userProxyAuthenticationCache) {
+        this.userProxyAuthenticationCache = userProxyAuthenticationCache;
+    }
+
     public void authenticateAsSystemUser(String username) {
         // update MDC for actor logging
         ActorType actorType = protocolUsers.contains(username) ? ActorType.PROTOCOL : ActorType.CORE;
         LoggingHelper.putActorInfoWhenNull(actorType, null, username);
 
-        AuthenticationInfo authUserInfo = czertainlyAuthenticationClient.authenticate(AuthMethod.USER_PROXY, username,false);
+        AuthenticationInfo authUserInfo = authenticateUserProxy(username);
         CzertainlyUserDetails userDetails = new CzertainlyUserDetails(authUserInfo);
         SecurityContext securityContext = SecurityContextHolder.getContext();
         securityContext.setAuthentication(new CzertainlyAuthenticationToken(userDetails));
@@ -101,12 +108,25 @@ public class AuthHelper {
         // update MDC for actor logging
         LoggingHelper.putActorInfoWhenNull(ActorType.USER, userUuid.toString(), null);
 
-        AuthenticationInfo authUserInfo = czertainlyAuthenticationClient.authenticate(AuthMethod.USER_PROXY, userUuid, false);
+        AuthenticationInfo authUserInfo = authenticateUserProxy(userUuid);
         SecurityContext securityContext = SecurityContextHolder.getContext();
         securityContext.setAuthentication(new CzertainlyAuthenticationToken(new CzertainlyUserDetails(authUserInfo)));
         logger.debug("User with username '{}' has been successfully authenticated as user proxy.", authUserInfo.getUsername());
     }
 
+    private AuthenticationInfo authenticateUserProxy(Object principal) {
+        AuthenticationInfo authUserInfo = userProxyAuthenticationCache.get(principal);
+        if (authUserInfo != null) {
+            // update MDC for actor logging as the authentication client does after successful authentication
+            LoggingHelper.putActorInfoWhenNull(ActorType.USER, authUserInfo.getUserUuid(), authUserInfo.getUsername());
+            return authUserInfo;
+        }
+
+        authUserInfo = czertainlyAuthenticationClient.authenticate(AuthMethod.USER_PROXY, principal, false);
+        userProxyAuthenticationCache.put(principal, authUserInfo);
+        return authUserInfo;
+    }
+
     public static boolean isLoggedProtocolUser() {
         try {
             CzertainlyUserDetails userDetails = (CzertainlyUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -0,0 +1,11 @@
+CREATE TABLE cbom_document
+(
+    serial_number TEXT        NOT NULL,
+    version       INT         NOT NULL,
+    content       BYTEA       NOT NULL,
+    content_size  BIGINT      NOT NULL,
+    cached_at     TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (serial_number, version)
+);
+
+CREATE INDEX cbom_document_cached_at_idx ON cbom_document (cached_at);
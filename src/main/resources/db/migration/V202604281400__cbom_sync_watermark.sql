@@ -0,0 +1,8 @@
+CREATE TABLE cbom_sync_watermark
+(
+    repository_url TEXT PRIMARY KEY,
+    timestamp      TIMESTAMPTZ NOT NULL,
+    serial_number  TEXT        NOT NULL,
+    version        TEXT        NOT NULL,
+    updated_at     TIMESTAMPTZ NOT NULL
+);
@@ -0,0 +1,2 @@
+-- Partial index for lookup of the earliest expiring and expired pending approvals.
+create index idx_approval_pending_expiry_at on approval (expiry_at) where status = 'PENDING';
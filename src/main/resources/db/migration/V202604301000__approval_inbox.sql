@@ -0,0 +1,21 @@
+-- Pending approval recipients materialized per responsible principal (user, role or group of the approval step)
+CREATE TABLE "approval_inbox"
+(
+    "approval_recipient_uuid" UUID      NOT NULL,
+    "approval_uuid"           UUID      NOT NULL,
+    "principal_uuid"          UUID      NOT NULL,
+    "created_at"              TIMESTAMP NOT NULL,
+    PRIMARY KEY ("approval_recipient_uuid"),
+    FOREIGN KEY ("approval_recipient_uuid") REFERENCES approval_recipient ("uuid") ON DELETE CASCADE,
+    FOREIGN KEY ("approval_uuid") REFERENCES approval ("uuid") ON DELETE CASCADE
+);
+
+CREATE INDEX idx_approval_inbox_principal_approval ON approval_inbox (principal_uuid, approval_uuid);
+CREATE INDEX idx_approval_inbox_approval ON approval_inbox (approval_uuid);
+
+INSERT INTO approval_inbox (approval_recipient_uuid, approval_uuid, principal_uuid, created_at)
+SELECT ar.uuid, ar.approval_uuid, COALESCE(aps.user_uuid, aps.role_uuid, aps.group_uuid), ar.created_at
+FROM approval_recipient ar
+         JOIN approval_step aps ON aps.uuid = ar.approval_step_uuid
+WHERE ar.status = 'PENDING'
+  AND COALESCE(aps.user_uuid, aps.role_uuid, aps.group_uuid) IS NOT NULL;
@@ -0,0 +1,7 @@
+-- cached documents cannot be attributed to the repository they were read from, they are read again when needed
+DELETE FROM cbom_document;
+
+ALTER TABLE cbom_document
+    ADD COLUMN repository_url TEXT NOT NULL,
+    DROP CONSTRAINT cbom_document_pkey,
+    ADD PRIMARY KEY (repository_url, serial_number, version);
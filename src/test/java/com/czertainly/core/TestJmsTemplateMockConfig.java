@@ -1,6 +1,8 @@
 package com.czertainly.core;
 
+import com.czertainly.core.messaging.jms.configuration.JmsConfig;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -16,6 +18,7 @@ import org.springframework.jms.core.JmsTemplate;
  * where messaging functionality is not required or needs to be controlled.
 
  * The {@link JmsTemplate} returned by this configuration is a mocked instance created using {@link Mockito}.
+ * The template of internal messages is mocked separately, since it is injected only by its qualifier.
  */
 @Configuration
 @Profile("test & !messaging-int-test")
@@ -26,4 +29,11 @@ public class TestJmsTemplateMockConfig {
     public JmsTemplate testJmsTemplateMock() {
         return Mockito.mock(JmsTemplate.class);
     }
+
+    @Bean(defaultCandidate = false)
+    @Primary
+    @Qualifier(JmsConfig.INTERNAL_JMS_TEMPLATE)
+    public JmsTemplate testInternalJmsTemplateMock() {
+        return Mockito.mock(JmsTemplate.class);
+    }
 }
@@ -34,6 +34,7 @@ import com.czertainly.api.model.core.connector.ConnectorStatus;
 import com.czertainly.api.model.client.connector.v2.ConnectorVersion;
 import com.czertainly.api.model.core.search.FilterFieldSource;
 import com.czertainly.api.model.core.search.SearchFieldDataByGroupDto;
+import com.czertainly.core.attribute.engine.AttributeDefinitionCache;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
 import com.czertainly.core.dao.entity.*;
@@ -57,8 +58,11 @@ import java.time.LocalTime;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 class AttributeEngineTest extends BaseSpringBootTest {
@@ -66,6 +70,8 @@ class AttributeEngineTest extends BaseSpringBootTest {
     @Autowired
     private AttributeEngine attributeEngine;
     @Autowired
+    private AttributeDefinitionCache attributeDefinitionCache;
+    @Autowired
     private CertificateService certificateService;
     @Autowired
     private CertificateRepository certificateRepository;
@@ -609,6 +615,108 @@ class AttributeEngineTest extends BaseSpringBootTest {
         Assertions.assertTrue(attributeContent2ObjectRepository.getObjectCustomAttributesContent(AttributeType.CUSTOM, Resource.CERTIFICATE, certificate2.getUuid(), null, null).isEmpty());
     }
 
+    @Test
+    void testGetObjectsCustomAttributesAndMetadataContent() throws AttributeException, NotFoundException {
+        Certificate certificate2 = new Certificate();
+        certificate2.setFingerprint("fingerprint2");
+        certificate2.setSerialNumber("2");
+        certificate2 = certificateRepository.save(certificate2);
+
+        RequestAttributeV3 departmentAttributeDto = new RequestAttributeV3();
+        departmentAttributeDto.setUuid(UUID.fromString(departmentCustomAttribute.getUuid()));
+        departmentAttributeDto.setName(departmentCustomAttribute.getName());
+        departmentAttributeDto.setContent(List.of(new StringAttributeContentV3("Marketing")));
+        attributeEngine.updateObjectCustomAttributesContent(Resource.CERTIFICATE, certificate2.getUuid(), List.of(departmentAttributeDto));
+
+        UUID certificateWithoutContentUuid = UUID.randomUUID();
+        List<UUID> objectUuids = List.of(certificate.getUuid(), certificate2.getUuid(), certificateWithoutContentUuid);
+        Map<UUID, List<ResponseAttribute>> customAttributes = attributeEngine.getObjectsCustomAttributesContent(Resource.CERTIFICATE, objectUuids);
+        Map<UUID, List<MetadataResponseDto>> metadata = attributeEngine.getMappedMetadataContent(Resource.CERTIFICATE, objectUuids, null, null, null);
+
+        Assertions.assertEquals(attributeEngine.getObjectCustomAttributesContent(Resource.CERTIFICATE, certificate.getUuid()).size(), customAttributes.getOrDefault(certificate.getUuid(), List.of()).size());
+        Assertions.assertEquals(3, metadata.get(certificate.getUuid()).size());
+
+        Assertions.assertEquals(1, customAttributes.get(certificate2.getUuid()).size());
+        Assertions.assertEquals(departmentCustomAttribute.getName(), customAttributes.get(certificate2.getUuid()).getFirst().getName());
+        Assertions.assertFalse(metadata.containsKey(certificate2.getUuid()));
+
+        Assertions.assertFalse(customAttributes.containsKey(certificateWithoutContentUuid));
+        Assertions.assertFalse(metadata.containsKey(certificateWithoutContentUuid));
+
+        Map<UUID, List<MetadataResponseDto>> discoveryMetadata = attributeEngine.getMappedMetadataContent(Resource.CERTIFICATE, List.of(certificate.getUuid(), certificate2.getUuid()), connectorDiscovery.getUuid(), Resource.DISCOVERY, networkDiscoveryUuid);
+        Assertions.assertEquals(Set.of(certificate.getUuid()), discoveryMetadata.keySet());
+        Assertions.assertEquals(1, discoveryMetadata.get(certificate.getUuid()).size());
+    }
+
+    @Test
+    void testUpdateObjectsMetadataAttributes() throws AttributeException {
+        Certificate certificate2 = new Certificate();
+        certificate2.setFingerprint("fingerprint2");
+        certificate2.setSerialNumber("2");
+        certificate2 = certificateRepository.save(certificate2);
+
+        UUID discoveryUuid = UUID.randomUUID();
+        String metadataUuid = UUID.randomUUID().toString();
+        for (int i = 0; i < 2; i++) {
+            // repeated discovery of the same certificates does not duplicate their metadata
+            Map<UUID, List<MetadataAttribute>> objectsMetadata = Map.of(
+                    certificate.getUuid(), List.of(createDiscoveryMetadata(metadataUuid, "localhost:443", "localhost:8443")),
+                    certificate2.getUuid(), List.of(createDiscoveryMetadata(metadataUuid, "localhost:443")));
+            attributeEngine.updateObjectsMetadataAttributes(Resource.CERTIFICATE, objectsMetadata, connectorDiscovery.getUuid(), Resource.DISCOVERY, discoveryUuid, "discovery");
+        }
+
+        Map<UUID, List<MetadataResponseDto>> metadata = attributeEngine.getMappedMetadataContent(Resource.CERTIFICATE, List.of(certificate.getUuid(), certificate2.getUuid()), connectorDiscovery.getUuid(), Resource.DISCOVERY, discoveryUuid);
+        Assertions.assertEquals(2, metadata.get(certificate.getUuid()).getFirst().getItems().getFirst().getContent().size());
+        Assertions.assertEquals(1, metadata.get(certificate2.getUuid()).getFirst().getItems().getFirst().getContent().size());
+
+        AttributeDefinition definition = attributeDefinitionRepository.findByTypeAndConnectorUuidAndAttributeUuidAndName(AttributeType.META, connectorDiscovery.getUuid(), UUID.fromString(metadataUuid), "discoveredOn").orElseThrow();
+        Assertions.assertEquals(2, attributeContentItemRepository.findByAttributeDefinitionUuid(definition.getUuid()).size());
+    }
+
+    @Test
+    void testUpdateObjectsMetadataAttributesWithInvalidContent() throws AttributeException {
+        Certificate certificate2 = new Certificate();
+        certificate2.setFingerprint("fingerprint2");
+        certificate2.setSerialNumber("2");
+        certificate2 = certificateRepository.save(certificate2);
+
+        UUID discoveryUuid = UUID.randomUUID();
+        String metadataUuid = UUID.randomUUID().toString();
+        attributeEngine.updateObjectsMetadataAttributes(Resource.CERTIFICATE, Map.of(
+                certificate.getUuid(), List.of(createDiscoveryMetadata(metadataUuid, true, "localhost:443")),
+                certificate2.getUuid(), List.of(createDiscoveryMetadata(metadataUuid, true, "localhost:443"))), connectorDiscovery.getUuid(), Resource.DISCOVERY, discoveryUuid, "discovery");
+
+        // malformed content of one certificate in the page does not abort update of the other one and does not delete its existing content
+        MetadataAttributeV3 invalidMetadata = createDiscoveryMetadata(metadataUuid, true, "localhost:8443");
+        invalidMetadata.setContent(List.of(new StringAttributeContentV3()));
+        attributeEngine.updateObjectsMetadataAttributes(Resource.CERTIFICATE, Map.of(
+                certificate.getUuid(), List.of(createDiscoveryMetadata(metadataUuid, true, "localhost:8443")),
+                certificate2.getUuid(), List.of(invalidMetadata)), connectorDiscovery.getUuid(), Resource.DISCOVERY, discoveryUuid, "discovery");
+
+        Map<UUID, List<MetadataResponseDto>> metadata = attributeEngine.getMappedMetadataContent(Resource.CERTIFICATE, List.of(certificate.getUuid(), certificate2.getUuid()), connectorDiscovery.getUuid(), Resource.DISCOVERY, discoveryUuid);
+        Assertions.assertEquals("localhost:8443", metadata.get(certificate.getUuid()).getFirst().getItems().getFirst().getContent().getFirst().getData());
+        Assertions.assertEquals(1, metadata.get(certificate.getUuid()).getFirst().getItems().getFirst().getContent().size());
+        Assertions.assertEquals("localhost:443", metadata.get(certificate2.getUuid()).getFirst().getItems().getFirst().getContent().getFirst().getData());
+    }
+
+    private static MetadataAttributeV3 createDiscoveryMetadata(String uuid, String... contents) {
+        return createDiscoveryMetadata(uuid, false, contents);
+    }
+
+    private static MetadataAttributeV3 createDiscoveryMetadata(String uuid, boolean overwrite, String... contents) {
+        MetadataAttributeV3 metadataAttribute = new MetadataAttributeV3();
+        metadataAttribute.setUuid(uuid);
+        metadataAttribute.setName("discoveredOn");
+        metadataAttribute.setType(AttributeType.META);
+        metadataAttribute.setContentType(AttributeContentType.STRING);
+        MetadataAttributeProperties properties = new MetadataAttributeProperties();
+        properties.setLabel("Discovered On");
+        properties.setOverwrite(overwrite);
+        metadataAttribute.setProperties(properties);
+        metadataAttribute.setContent(Arrays.stream(contents).<BaseAttributeContentV3<?>>map(StringAttributeContentV3::new).toList());
+        return metadataAttribute;
+    }
+
     @Test
     void testDeleteObjectAttributesContent() throws AttributeException, NotFoundException {
         // Create content for a data attribute
@@ -759,6 +867,69 @@ class AttributeEngineTest extends BaseSpringBootTest {
         Assertions.assertEquals(updatedAtData.truncatedTo(ChronoUnit.MILLIS), attributeDataDefinition.getUpdatedAt().truncatedTo(ChronoUnit.MILLIS));
     }
 
+    @Test
+    void testMetadataAttributeDefinitionCached() throws AttributeException {
+        MetadataAttributeV2 metadataAttribute = new MetadataAttributeV2();
+        metadataAttribute.setUuid(UUID.randomUUID().toString());
+        metadataAttribute.setName("cachedMetadata");
+        metadataAttribute.setType(AttributeType.META);
+        metadataAttribute.setContentType(AttributeContentType.STRING);
+        MetadataAttributeProperties properties = new MetadataAttributeProperties();
+        properties.setLabel("Cached Metadata");
+        metadataAttribute.setProperties(properties);
+
+        AttributeDefinition created = attributeEngine.updateMetadataAttributeDefinition(metadataAttribute, connectorDiscovery.getUuid());
+        AttributeDefinition loaded = attributeEngine.updateMetadataAttributeDefinition(metadataAttribute, connectorDiscovery.getUuid());
+        Assertions.assertEquals(created.getUuid(), loaded.getUuid());
+
+        // change made outside of the engine (e.g. on other node) is not visible until the cached definition is dropped
+        AttributeDefinition stored = attributeDefinitionRepository.findByUuid(created.getUuid()).orElseThrow();
+        stored.setLabel("Changed Label");
+        attributeDefinitionRepository.save(stored);
+        AttributeDefinition cached = attributeEngine.updateMetadataAttributeDefinition(metadataAttribute, connectorDiscovery.getUuid());
+        Assertions.assertEquals(created.getUuid(), cached.getUuid());
+        Assertions.assertEquals("Cached Metadata", cached.getLabel());
+        Assertions.assertEquals("Changed Label", attributeDefinitionRepository.findByUuid(created.getUuid()).orElseThrow().getLabel());
+
+        attributeDefinitionCache.invalidateAll();
+        attributeEngine.updateMetadataAttributeDefinition(metadataAttribute, connectorDiscovery.getUuid());
+        Assertions.assertEquals("Cached Metadata", attributeDefinitionRepository.findByUuid(created.getUuid()).orElseThrow().getLabel());
+
+        // changed definition is stored and replaces the cached one
+        metadataAttribute.getProperties().setLabel("Updated Label");
+        Assertions.assertEquals("Updated Label", attributeEngine.updateMetadataAttributeDefinition(metadataAttribute, connectorDiscovery.getUuid()).getLabel());
+        Assertions.assertEquals("Updated Label", attributeDefinitionRepository.findByUuid(created.getUuid()).orElseThrow().getLabel());
+        Assertions.assertEquals("Updated Label", attributeEngine.updateMetadataAttributeDefinition(metadataAttribute, connectorDiscovery.getUuid()).getLabel());
+    }
+
+    @Test
+    void testDefinitionLoadedBeforeInvalidationNotCached() throws AttributeException {
+        MetadataAttributeV2 metadataAttribute = new MetadataAttributeV2();
+        metadataAttribute.setUuid(UUID.randomUUID().toString());
+        metadataAttribute.setName("staleMetadata");
+        metadataAttribute.setType(AttributeType.META);
+        metadataAttribute.setContentType(AttributeContentType.STRING);
+        MetadataAttributeProperties properties = new MetadataAttributeProperties();
+        properties.setLabel("Stale Metadata");
+        metadataAttribute.setProperties(properties);
+        AttributeDefinition created = attributeEngine.updateMetadataAttributeDefinition(metadataAttribute, connectorDiscovery.getUuid());
+        AttributeDefinitionCache.Key key = AttributeDefinitionCache.Key.of(AttributeType.META, connectorDiscovery.getUuid(), UUID.fromString(metadataAttribute.getUuid()), metadataAttribute.getName());
+        attributeDefinitionCache.invalidateAll();
+
+        // reader loads the definition, then concurrent writer commits its change and invalidates the cache
+        long generation = attributeDefinitionCache.generation();
+        AttributeDefinition loaded = attributeDefinitionRepository.findByUuid(created.getUuid()).orElseThrow();
+        attributeDefinitionCache.invalidate(created.getUuid());
+        attributeDefinitionCache.put(key, loaded, generation);
+        attributeDefinitionCache.put(loaded, generation);
+        Assertions.assertNull(attributeDefinitionCache.get(key));
+        Assertions.assertNull(attributeDefinitionCache.get(created.getUuid()));
+
+        attributeDefinitionCache.put(key, loaded, attributeDefinitionCache.generation());
+        Assertions.assertEquals(created.getUuid(), attributeDefinitionCache.get(key).getUuid());
+        Assertions.assertEquals(created.getUuid(), attributeDefinitionCache.get(created.getUuid()).getUuid());
+    }
+
     @NotNull
     private AttributeDefinition getAttributeDefinition(String name, String label, AttributeType attributeType, BaseAttribute definition) {
         AttributeDefinition attributeDefinition = new AttributeDefinition();
@@ -0,0 +1,54 @@
+package com.czertainly.core.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of loading and invalidation of protocol profile caches.
+ */
+class ProtocolProfileCacheTest {
+
+    private static class TestCache extends ProtocolProfileCache<String, String> {
+        TestCache() {
+            super(60);
+        }
+    }
+
+    @Test
+    void valueIsCachedUntilInvalidated() {
+        TestCache cache = new TestCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("key", key -> "value-" + loads.incrementAndGet())).isEqualTo("value-1");
+        assertThat(cache.get("key", key -> "value-" + loads.incrementAndGet())).isEqualTo("value-1");
+
+        cache.invalidate("key");
+        assertThat(cache.get("key", key -> "value-" + loads.incrementAndGet())).isEqualTo("value-2");
+    }
+
+    @Test
+    void valueLoadedBeforeInvalidation_notServed() {
+        TestCache cache = new TestCache();
+
+        // invalidation committed while the value is being loaded, the loaded value is stale
+        String stale = cache.get("key", key -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+        assertThat(stale).isEqualTo("stale");
+
+        assertThat(cache.get("key", key -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.get("key", key -> "reloaded")).isEqualTo("fresh");
+    }
+
+    @Test
+    void missingValue_notCached() {
+        TestCache cache = new TestCache();
+
+        assertThat(cache.get("key", key -> null)).isNull();
+        assertThat(cache.get("key", key -> "value")).isEqualTo("value");
+    }
+}
@@ -0,0 +1,78 @@
+package com.czertainly.core.cbom.cache;
+
+import com.czertainly.core.cbom.client.CbomRepositoryClient;
+import com.czertainly.core.dao.entity.CbomDocumentId;
+import com.czertainly.core.dao.repository.CbomDocumentRepository;
+import com.czertainly.core.model.cbom.BomResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests of tracking the total size of the cached CBOM documents and their eviction.
+ */
+class CbomDocumentCacheTest {
+
+    private static final String REPOSITORY_URL = "http://localhost:8080";
+    private static final long MAX_SIZE = 100;
+
+    private CbomDocumentRepository cbomDocumentRepository;
+    private CbomDocumentCache cbomDocumentCache;
+
+    @BeforeEach
+    void setUp() {
+        cbomDocumentRepository = mock(CbomDocumentRepository.class);
+        when(cbomDocumentRepository.insertWithIdConflictResolve(anyString(), anyString(), anyInt(), any(), anyLong())).thenReturn(1);
+        cbomDocumentCache = new CbomDocumentCache(cbomDocumentRepository, mock(CbomRepositoryClient.class), MAX_SIZE);
+    }
+
+    private static CbomDocumentCache.FetchedDocument document(String serialNumber, int size) {
+        return new CbomDocumentCache.FetchedDocument(new CbomDocumentId(REPOSITORY_URL, serialNumber, 1), new byte[size], new BomResponseDto());
+    }
+
+    @Test
+    void totalSizeReadOnceAndTrackedByInsertedDocuments() {
+        when(cbomDocumentRepository.sumContentSize()).thenReturn(40L);
+
+        cbomDocumentCache.put(List.of(document("serial-1", 20)));
+        cbomDocumentCache.put(List.of(document("serial-2", 20), document("serial-3", 20)));
+
+        verify(cbomDocumentRepository, times(1)).sumContentSize();
+        verify(cbomDocumentRepository, never()).deleteExceedingTotalSize(anyLong());
+    }
+
+    @Test
+    void documentsEvictedWhenTotalSizeExceedsMaximum() {
+        when(cbomDocumentRepository.sumContentSize()).thenReturn(80L, 50L);
+
+        cbomDocumentCache.put(List.of(document("serial-1", 30)));
+        cbomDocumentCache.put(List.of(document("serial-2", 30)));
+        verify(cbomDocumentRepository).deleteExceedingTotalSize((long) (MAX_SIZE * CbomDocumentCache.EVICTION_RATIO));
+
+        // total size is read again after the eviction
+        cbomDocumentCache.put(List.of(document("serial-3", 30)));
+        verify(cbomDocumentRepository, times(2)).sumContentSize();
+        verify(cbomDocumentRepository, times(1)).deleteExceedingTotalSize(anyLong());
+    }
+
+    @Test
+    void alreadyCachedDocumentNotCounted() {
+        when(cbomDocumentRepository.insertWithIdConflictResolve(anyString(), anyString(), anyInt(), any(), anyLong())).thenReturn(0);
+
+        cbomDocumentCache.put(List.of(document("serial-1", 200)));
+
+        verify(cbomDocumentRepository, never()).sumContentSize();
+        verify(cbomDocumentRepository, never()).deleteExceedingTotalSize(anyLong());
+    }
+}
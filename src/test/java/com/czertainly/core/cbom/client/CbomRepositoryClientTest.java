@@ -17,6 +17,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -303,6 +305,25 @@ class CbomRepositoryClientTest {
         assertThrows(CbomRepositoryException.class, () -> client.read(urn, null));
     }
 
+    @Test
+    void testRead_StreamedToOutputStream() throws Exception {
+        String urn = "urn:uuid:test-serial";
+        String body = "{\"serialNumber\":\"" + urn + "\",\"version\":2}";
+        wireMock.stubFor(get(urlPathEqualTo("/api/v1/bom/" + urn))
+                .withQueryParam("version", equalTo("2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(body)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        client.read(baseUrl, urn, 2, outputStream);
+        assertEquals(body, outputStream.toString(StandardCharsets.UTF_8));
+
+        client = new CbomRepositoryClient(WebClient.builder().build(), body.length() - 1);
+        assertThrows(CbomRepositoryException.class, () -> client.read(baseUrl, urn, 2, new ByteArrayOutputStream()));
+    }
+
     @Test
     void testRead_WhenWebClientResponseException_ShouldThrowCbomRepositoryException() {
         // Arrange
@@ -0,0 +1,41 @@
+package com.czertainly.core.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+class CustomHttpServletResponseWrapperTest {
+
+    @Test
+    void testResponseBodyCapturedUpToLimit() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CustomHttpServletResponseWrapper responseWrapper = new CustomHttpServletResponseWrapper(response, 5);
+
+        responseWrapper.getOutputStream().write("abc".getBytes(StandardCharsets.UTF_8));
+        responseWrapper.getOutputStream().write('d');
+        responseWrapper.getOutputStream().write("efghij".getBytes(StandardCharsets.UTF_8), 0, 6);
+
+        Assertions.assertEquals("abcdefghij", response.getContentAsString());
+        Assertions.assertEquals("abcde", new String(responseWrapper.getCapturedBody(), StandardCharsets.UTF_8));
+        Assertions.assertEquals(10, responseWrapper.getBodySize());
+    }
+
+    @Test
+    void testResponseWriterCaptured() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        CustomHttpServletResponseWrapper responseWrapper = new CustomHttpServletResponseWrapper(response, 1024);
+
+        PrintWriter writer = responseWrapper.getWriter();
+        Assertions.assertSame(writer, responseWrapper.getWriter());
+        writer.write("response");
+        responseWrapper.flushBuffer();
+
+        Assertions.assertEquals("response", response.getContentAsString());
+        Assertions.assertEquals("response", new String(responseWrapper.getCapturedBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,77 @@
+package com.czertainly.core.config;
+
+import com.czertainly.api.exception.ValidationException;
+import com.czertainly.core.util.AuthHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProtocolValidationFilterTest {
+
+    @Mock
+    private AuthHelper authHelper;
+
+    @Mock
+    private HandlerExceptionResolver resolver;
+
+    private ProtocolValidationFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        filter = new ProtocolValidationFilter();
+        filter.setAuthHelper(authHelper);
+        filter.setHandlerExceptionResolver(resolver);
+        ReflectionTestUtils.setField(filter, "context", "/api");
+        ReflectionTestUtils.setField(filter, "accessLogSampleRate", 100L);
+        filter.afterPropertiesSet();
+    }
+
+    @Test
+    void testProtocolRequestsAuthenticatedAsProtocolUser() throws Exception {
+        assertNotNull(doFilter("/api/v1/protocols/scep/profile/pkiclient.exe").getRequest());
+        verify(authHelper).authenticateAsSystemUser(AuthHelper.SCEP_USERNAME);
+
+        assertNotNull(doFilter("/api/v2/protocols/acme/profile/directory").getRequest());
+        verify(authHelper).authenticateAsSystemUser(AuthHelper.ACME_USERNAME);
+
+        assertNotNull(doFilter("/api/v1/protocols/cmp/profile").getRequest());
+        verify(authHelper).authenticateAsSystemUser(AuthHelper.CMP_USERNAME);
+    }
+
+    @Test
+    void testOtherRequestsPassedThrough() throws Exception {
+        assertNotNull(doFilter("/api/v1/certificates").getRequest());
+        assertNotNull(doFilter("/other/v1/protocols/acme/profile/directory").getRequest());
+        verify(authHelper, never()).authenticateAsSystemUser(anyString());
+    }
+
+    @Test
+    void testInvalidProtocolRequestRejected() throws Exception {
+        assertNull(doFilter("/api/v1/protocols/est/profile").getRequest());
+        assertNull(doFilter("/api/v1/protocols/acme").getRequest());
+        verify(resolver, times(2)).resolveException(any(), any(), isNull(), any(ValidationException.class));
+        verify(authHelper, never()).authenticateAsSystemUser(anyString());
+    }
+
+    private MockFilterChain doFilter(String requestUri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+        MockFilterChain filterChain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        return filterChain;
+    }
+}
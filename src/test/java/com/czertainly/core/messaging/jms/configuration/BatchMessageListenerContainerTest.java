@@ -0,0 +1,231 @@
+package com.czertainly.core.messaging.jms.configuration;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import org.apache.qpid.jms.message.JmsMessageSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests of receiving, acknowledging messages in batches and adapting the number of consumers.
+ */
+class BatchMessageListenerContainerTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    private final List<List<Message>> receivedBatches = new ArrayList<>();
+    private List<Message> failedMessages = List.of();
+    private RuntimeException listenerError;
+    private long processingMillis;
+
+    private Session session;
+    private MessageConsumer consumer;
+    private BatchMessageListenerContainer container;
+
+    @BeforeEach
+    void setUp() throws JMSException {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(mock(Session.class));
+        session = mock(Session.class);
+        consumer = mock(MessageConsumer.class);
+
+        container = new BatchMessageListenerContainer() {
+            // invokers are not started by the test, messages are received by calling the container directly
+            @Override
+            protected void messageReceived(Object invoker, Session session) {
+            }
+
+            @Override
+            protected void noMessageReceived(Object invoker, Session session) {
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(task -> {
+        });
+        container.setDestinationName("queue");
+        container.setBatchSize(BATCH_SIZE);
+        container.setMessageListener((BatchMessageListener) messages -> {
+            receivedBatches.add(List.copyOf(messages));
+            if (processingMillis > 0) {
+                sleep(processingMillis);
+            }
+            if (listenerError != null) {
+                throw listenerError;
+            }
+            return failedMessages;
+        });
+    }
+
+    private List<Message> availableMessages(int count) throws JMSException {
+        List<Message> messages = IntStream.range(0, count).mapToObj(i -> mock(Message.class)).toList();
+        if (messages.isEmpty()) {
+            when(consumer.receive(anyLong())).thenReturn(null);
+            return messages;
+        }
+        // first message is awaited, the rest of the batch is filled with messages available without waiting, followed by null
+        when(consumer.receive(anyLong())).thenReturn(messages.getFirst());
+        Message[] next = messages.subList(1, messages.size()).toArray(new Message[count]);
+        when(consumer.receiveNoWait()).thenReturn(next[0], Arrays.copyOfRange(next, 1, count));
+        return messages;
+    }
+
+    @AfterEach
+    void tearDown() {
+        container.shutdown();
+    }
+
+    private boolean receiveBatch() throws JMSException {
+        return container.doReceiveAndExecute(new Object(), session, consumer, null);
+    }
+
+    @Test
+    void batchFilledWithAvailableMessagesUpToBatchSize() throws JMSException {
+        container.initialize();
+        List<Message> messages = availableMessages(5);
+
+        assertThat(receiveBatch()).isTrue();
+
+        assertThat(receivedBatches).containsExactly(messages.subList(0, BATCH_SIZE));
+        for (Message message : messages.subList(0, BATCH_SIZE)) {
+            verify(message).setIntProperty(JmsMessageSupport.JMS_AMQP_ACK_TYPE, JmsMessageSupport.ACCEPTED);
+            verify(message).acknowledge();
+        }
+        verify(messages.get(BATCH_SIZE), never()).acknowledge();
+    }
+
+    @Test
+    void noMessage_listenerNotInvoked() throws JMSException {
+        container.initialize();
+        availableMessages(0);
+
+        assertThat(receiveBatch()).isFalse();
+        assertThat(receivedBatches).isEmpty();
+    }
+
+    @Test
+    void failedMessagesRejected() throws JMSException {
+        container.initialize();
+        List<Message> messages = availableMessages(2);
+        failedMessages = List.of(messages.get(1));
+
+        receiveBatch();
+
+        verify(messages.get(0)).setIntProperty(JmsMessageSupport.JMS_AMQP_ACK_TYPE, JmsMessageSupport.ACCEPTED);
+        verify(messages.get(1)).setIntProperty(JmsMessageSupport.JMS_AMQP_ACK_TYPE, JmsMessageSupport.REJECTED);
+        verify(messages.get(1)).acknowledge();
+    }
+
+    @Test
+    void failedBatch_messagesReturnedForRedelivery() throws JMSException {
+        container.initialize();
+        List<Message> messages = availableMessages(2);
+        listenerError = new IllegalStateException("database unavailable");
+
+        assertThat(receiveBatch()).isTrue();
+
+        for (Message message : messages) {
+            verify(message).setIntProperty(JmsMessageSupport.JMS_AMQP_ACK_TYPE, JmsMessageSupport.MODIFIED_FAILED);
+            verify(message).acknowledge();
+        }
+    }
+
+    @Test
+    void adaptation_startsFromMinimumConsumers() {
+        container.setConcurrency("2-5");
+        container.setTargetLatency(Duration.ofSeconds(1));
+        container.initialize();
+
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(2);
+    }
+
+    @Test
+    void withoutAdaptation_maximumConsumersKept() {
+        container.setConcurrency("2-5");
+        container.initialize();
+
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(5);
+    }
+
+    @Test
+    void withoutBatching_maximumConsumersKept() {
+        container.setBatchSize(1);
+        container.setConcurrency("3-10");
+        container.setTargetLatency(Duration.ofSeconds(1));
+        container.initialize();
+
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(10);
+    }
+
+    @Test
+    void adaptConsumers_scaledUpByFullBatchesAndDownByPartialBatches() throws JMSException {
+        container.setConcurrency("1-3");
+        container.setTargetLatency(Duration.ofSeconds(10));
+        container.setAdjustInterval(Duration.ZERO);
+        container.initialize();
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(1);
+
+        for (int expected = 2; expected <= 3; expected++) {
+            availableMessages(BATCH_SIZE);
+            receiveBatch();
+            assertThat(container.getMaxConcurrentConsumers()).isEqualTo(expected);
+        }
+        // limited by configured maximum
+        availableMessages(BATCH_SIZE);
+        receiveBatch();
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(3);
+
+        availableMessages(1);
+        receiveBatch();
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(2);
+    }
+
+    @Test
+    void adaptConsumers_scaledDownBySlowProcessing() throws JMSException {
+        container.setConcurrency("1-3");
+        container.setTargetLatency(Duration.ofMillis(50));
+        container.setAdjustInterval(Duration.ZERO);
+        container.initialize();
+
+        for (int i = 0; i < 2; i++) {
+            availableMessages(BATCH_SIZE);
+            receiveBatch();
+        }
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(3);
+
+        processingMillis = 200;
+        availableMessages(BATCH_SIZE);
+        receiveBatch();
+
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(2);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
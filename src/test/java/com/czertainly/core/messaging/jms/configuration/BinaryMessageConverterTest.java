@@ -0,0 +1,95 @@
+package com.czertainly.core.messaging.jms.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests of CBOR encoding of messages.
+ */
+class BinaryMessageConverterTest {
+
+    record TestMessage(String id, OffsetDateTime timestamp, String description) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final MessageConverter jsonConverter = mock(MessageConverter.class);
+
+    private Session session;
+    private byte[] body;
+    private Map<String, String> properties;
+
+    @BeforeEach
+    void setUp() throws JMSException {
+        properties = new HashMap<>();
+        BytesMessage message = mock(BytesMessage.class);
+        doAnswer(invocation -> body = invocation.getArgument(0)).when(message).writeBytes(any(byte[].class));
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1))).when(message).setStringProperty(anyString(), anyString());
+        when(message.getStringProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.<String>getArgument(0)));
+        when(message.getBody(byte[].class)).thenAnswer(invocation -> body);
+
+        session = mock(Session.class);
+        when(session.createBytesMessage()).thenReturn(message);
+    }
+
+    private TestMessage roundTrip(BinaryMessageConverter converter, TestMessage testMessage) throws JMSException, IOException {
+        Message message = converter.toMessage(testMessage, session);
+        assertThat(BinaryMessageConverter.isBinaryMessage(message)).isTrue();
+        return BinaryMessageConverter.binaryMapper(objectMapper).readValue(BinaryMessageConverter.readPayload(message), TestMessage.class);
+    }
+
+    @Test
+    void smallMessage_encodedWithoutCompression() throws Exception {
+        BinaryMessageConverter converter = new BinaryMessageConverter(objectMapper, jsonConverter, 1024);
+        TestMessage testMessage = new TestMessage("id", OffsetDateTime.now(ZoneOffset.UTC), "description");
+
+        assertThat(roundTrip(converter, testMessage)).isEqualTo(testMessage);
+        assertThat(properties).containsEntry(BinaryMessageConverter.CONTENT_TYPE_PROPERTY, BinaryMessageConverter.CONTENT_TYPE_CBOR)
+                .doesNotContainKey(BinaryMessageConverter.CONTENT_ENCODING_PROPERTY);
+    }
+
+    @Test
+    void largeMessage_compressed() throws Exception {
+        BinaryMessageConverter converter = new BinaryMessageConverter(objectMapper, jsonConverter, 1024);
+        TestMessage testMessage = new TestMessage("id", OffsetDateTime.now(ZoneOffset.UTC), "description ".repeat(1000));
+
+        assertThat(roundTrip(converter, testMessage)).isEqualTo(testMessage);
+        assertThat(properties).containsEntry(BinaryMessageConverter.CONTENT_ENCODING_PROPERTY, BinaryMessageConverter.CONTENT_ENCODING_GZIP);
+        assertThat(body.length).isLessThan(testMessage.description().length());
+    }
+
+    @Test
+    void jsonMessage_convertedByJsonConverter() throws JMSException {
+        BinaryMessageConverter converter = new BinaryMessageConverter(objectMapper, jsonConverter, 0);
+        TextMessage textMessage = mock(TextMessage.class);
+        when(jsonConverter.fromMessage(textMessage)).thenReturn("converted");
+
+        assertThat(BinaryMessageConverter.isBinaryMessage(textMessage)).isFalse();
+        assertThat(converter.fromMessage(textMessage)).isEqualTo("converted");
+        verify(jsonConverter).fromMessage(textMessage);
+    }
+}
@@ -0,0 +1,121 @@
+package com.czertainly.core.messaging.jms.configuration;
+
+import com.czertainly.api.clients.mq.model.ConnectorRequest;
+import com.czertainly.api.clients.mq.model.CoreMessage;
+import com.czertainly.core.messaging.proxy.CoreMessageProducer;
+import com.czertainly.core.messaging.proxy.ProxyProperties;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests of encoding of messages published by the JMS templates configured in {@link JmsConfig}.
+ */
+class JmsConfigTest {
+
+    private final JmsConfig jmsConfig = new JmsConfig();
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder = new Jackson2ObjectMapperBuilder();
+    private final MessagingCodecProperties cborCodecProperties = new MessagingCodecProperties(MessagingCodecProperties.Encoding.CBOR, 0);
+
+    private JmsPoolConnectionFactory connectionFactory;
+    private MessagingProperties messagingProperties;
+    private Session session;
+    private MessageProducer producer;
+    private TextMessage textMessage;
+    private BytesMessage bytesMessage;
+
+    @BeforeEach
+    void setUp() throws JMSException {
+        connectionFactory = mock(JmsPoolConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        session = mock(Session.class);
+        producer = mock(MessageProducer.class);
+        textMessage = mock(TextMessage.class);
+        bytesMessage = mock(BytesMessage.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(session.createQueue(anyString())).thenReturn(mock(Queue.class));
+        when(session.createProducer(any())).thenReturn(producer);
+        when(session.createTextMessage(anyString())).thenReturn(textMessage);
+        when(session.createBytesMessage()).thenReturn(bytesMessage);
+
+        messagingProperties = mock(MessagingProperties.class);
+        when(messagingProperties.brokerType()).thenReturn(MessagingProperties.BrokerType.RABBITMQ);
+    }
+
+    @Test
+    void proxyMessages_publishedAsJsonWhenCborEnabled() throws JMSException {
+        MessageConverter messageConverter = jmsConfig.messageConverter(objectMapperBuilder);
+        JmsTemplate jmsTemplate = jmsConfig.jmsTemplate(connectionFactory, messageConverter, messagingProperties);
+        ProxyProperties proxyProperties = new ProxyProperties("czertainly-proxy", "core", "test-instance", Duration.ofSeconds(30), 1000, null);
+        CoreMessageProducer coreMessageProducer = new CoreMessageProducer(jmsTemplate, proxyProperties, messagingProperties, RetryTemplate.builder().maxAttempts(1).build());
+
+        coreMessageProducer.send(coreMessage(), "proxy-001");
+
+        verify(session).createTextMessage(anyString());
+        verify(session, never()).createBytesMessage();
+        verify(producer).send(textMessage);
+    }
+
+    @Test
+    void internalMessages_publishedAsCborWhenCborEnabled() throws JMSException {
+        MessageConverter messageConverter = jmsConfig.messageConverter(objectMapperBuilder);
+        JmsTemplate internalJmsTemplate = jmsConfig.internalJmsTemplate(connectionFactory, messageConverter, objectMapperBuilder, cborCodecProperties, messagingProperties);
+
+        internalJmsTemplate.convertAndSend("validation", coreMessage());
+
+        verify(session).createBytesMessage();
+        verify(bytesMessage).setStringProperty(BinaryMessageConverter.CONTENT_TYPE_PROPERTY, BinaryMessageConverter.CONTENT_TYPE_CBOR);
+        verify(producer).send(bytesMessage);
+    }
+
+    @Test
+    void internalMessages_publishedAsJsonByDefault() throws JMSException {
+        MessageConverter messageConverter = jmsConfig.messageConverter(objectMapperBuilder);
+        MessagingCodecProperties codecProperties = new MessagingCodecProperties(null, null);
+        JmsTemplate internalJmsTemplate = jmsConfig.internalJmsTemplate(connectionFactory, messageConverter, objectMapperBuilder, codecProperties, messagingProperties);
+
+        internalJmsTemplate.convertAndSend("validation", coreMessage());
+
+        verify(session, never()).createBytesMessage();
+        verify(producer).send(textMessage);
+    }
+
+    private static CoreMessage coreMessage() {
+        return CoreMessage.builder()
+                .correlationId("corr-1")
+                .messageType("POST:/v1/test")
+                .timestamp(Instant.now())
+                .connectorRequest(ConnectorRequest.builder()
+                        .connectorUrl("http://connector.example.com")
+                        .method("POST")
+                        .path("/v1/test")
+                        .timeout("30s")
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.czertainly.core.messaging.jms.listeners;
+
+import com.czertainly.core.messaging.jms.configuration.BatchMessageListener;
+import com.czertainly.core.messaging.jms.configuration.MessagingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.TextMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests of processing of batches of messages received by the JMS endpoints.
+ */
+class JmsEndpointBatchListenerTest {
+
+    record TestMessage(String value) {
+    }
+
+    private final RetryTemplate retryTemplate = RetryTemplate.builder().maxAttempts(1).build();
+
+    private BatchMessageListener batchListener(MessageProcessor<TestMessage> processor) {
+        AbstractJmsEndpointConfig<TestMessage> config = new AbstractJmsEndpointConfig<>(new ObjectMapper(), processor, retryTemplate, mock(MessagingProperties.class)) {
+            @Override
+            public SimpleJmsListenerEndpoint listenerEndpoint() {
+                return listenerEndpointInternal("testListener", "/queues/core.test", "core.test", "test", "1", 10, Duration.ZERO, TestMessage.class);
+            }
+        };
+        return (BatchMessageListener) config.listenerEndpoint().getMessageListener();
+    }
+
+    private static Message textMessage(String text) throws JMSException {
+        TextMessage message = mock(TextMessage.class);
+        when(message.getText()).thenReturn(text);
+        return message;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchProcessor_processesBatchAtOnce_rejectsInvalidMessages() throws Exception {
+        BatchMessageProcessor<TestMessage> processor = mock(BatchMessageProcessor.class);
+        Message invalid = textMessage(" ");
+
+        List<Message> failed = batchListener(processor).onMessages(List.of(textMessage("{\"value\":\"a\"}"), invalid, textMessage("{\"value\":\"b\"}")));
+
+        assertThat(failed).containsExactly(invalid);
+        verify(processor).processMessages(List.of(new TestMessage("a"), new TestMessage("b")));
+        verify(processor, never()).processMessage(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchProcessor_failedBatch_processedOneByOne() throws Exception {
+        BatchMessageProcessor<TestMessage> processor = mock(BatchMessageProcessor.class);
+        doThrow(new IllegalStateException("batch failed")).when(processor).processMessages(any());
+        doThrow(new IllegalArgumentException("invalid")).when(processor).processMessage(new TestMessage("b"));
+        Message failing = textMessage("{\"value\":\"b\"}");
+
+        List<Message> failed = batchListener(processor).onMessages(List.of(textMessage("{\"value\":\"a\"}"), failing));
+
+        assertThat(failed).containsExactly(failing);
+        verify(processor).processMessage(new TestMessage("a"));
+        verify(processor).processMessage(new TestMessage("b"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processor_processesMessagesOneByOne() throws Exception {
+        MessageProcessor<TestMessage> processor = mock(MessageProcessor.class);
+
+        List<Message> failed = batchListener(processor).onMessages(List.of(textMessage("{\"value\":\"a\"}"), textMessage("{\"value\":\"b\"}")));
+
+        assertThat(failed).isEmpty();
+        verify(processor).processMessage(new TestMessage("a"));
+        verify(processor).processMessage(new TestMessage("b"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.czertainly.core.messaging.jms.listeners;
 
+import com.czertainly.core.messaging.jms.configuration.MessagingBatchProperties;
 import com.czertainly.core.messaging.jms.configuration.MessagingConcurrencyProperties;
 import com.czertainly.core.messaging.jms.configuration.MessagingProperties;
 import com.czertainly.core.messaging.jms.listeners.actions.ActionsJmsEndpointConfig;
@@ -48,6 +49,7 @@ class JmsEndpointConfigTest {
     private MessagingProperties.Queue queue;
     private MessagingProperties.RoutingKey routingKey;
     private MessagingConcurrencyProperties concurrencyProperties;
+    private final MessagingBatchProperties batchProperties = new MessagingBatchProperties(null, null, null, null);
 
     @BeforeEach
     void setUpSharedMocks() {
@@ -136,7 +138,7 @@ class JmsEndpointConfigTest {
         @BeforeEach
         void setUp() {
             config = new AuditLogsJmsEndpointConfig(
-                    new ObjectMapper(), mockProcessor(), retryTemplate, messagingProperties, concurrencyProperties);
+                    new ObjectMapper(), mockProcessor(), retryTemplate, messagingProperties, concurrencyProperties, batchProperties);
         }
 
         @Test
@@ -164,7 +166,7 @@ class JmsEndpointConfigTest {
         @BeforeEach
         void setUp() {
             config = new EventJmsEndpointConfig(
-                    new ObjectMapper(), mockProcessor(), retryTemplate, messagingProperties, concurrencyProperties);
+                    new ObjectMapper(), mockProcessor(), retryTemplate, messagingProperties, concurrencyProperties, batchProperties);
         }
 
         @Test
@@ -248,7 +250,7 @@ class JmsEndpointConfigTest {
         @BeforeEach
         void setUp() {
             config = new ValidationJmsEndpointConfig(
-                    new ObjectMapper(), mockProcessor(), retryTemplate, messagingProperties, concurrencyProperties);
+                    new ObjectMapper(), mockProcessor(), retryTemplate, messagingProperties, concurrencyProperties, batchProperties);
         }
 
         @Test
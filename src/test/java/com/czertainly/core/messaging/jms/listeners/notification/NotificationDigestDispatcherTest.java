@@ -0,0 +1,113 @@
+package com.czertainly.core.messaging.jms.listeners.notification;
+
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.api.model.core.notification.RecipientType;
+import com.czertainly.api.model.core.other.ResourceEvent;
+import com.czertainly.core.events.transaction.NotificationDigestEvent;
+import com.czertainly.core.messaging.jms.listeners.NotificationListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDigestDispatcherTest {
+
+    @Mock
+    private TaskScheduler taskScheduler;
+    @Mock
+    private ScheduledFuture<?> scheduledFuture;
+    @Mock
+    private NotificationListener notificationListener;
+
+    private NotificationDigestDispatcher dispatcher;
+
+    private final NotificationDigestDispatcher.DigestKey ownerKey = new NotificationDigestDispatcher.DigestKey(UUID.randomUUID(), UUID.randomUUID(),
+            ResourceEvent.CERTIFICATE_EXPIRING, Resource.CERTIFICATE, RecipientType.USER, UUID.randomUUID());
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationDigestDispatcher(Duration.ofMinutes(1), 3);
+        dispatcher.setTaskScheduler(taskScheduler);
+        dispatcher.setNotificationListener(notificationListener);
+    }
+
+    @Test
+    void testDigestSentWhenWindowElapses() {
+        doReturn(scheduledFuture).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        NotificationDigestDispatcher.DigestKey otherRecipientKey = new NotificationDigestDispatcher.DigestKey(ownerKey.notificationInstanceUuid(), ownerKey.notificationProfileUuid(),
+                ownerKey.event(), ownerKey.resource(), RecipientType.GROUP, UUID.randomUUID());
+
+        dispatcher.add(ownerKey, "first");
+        dispatcher.add(ownerKey, "second");
+        dispatcher.add(otherRecipientKey, "third");
+        verify(notificationListener, never()).sendNotificationDigest(any(), any());
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(2)).schedule(flush.capture(), any(Instant.class));
+        flush.getAllValues().getFirst().run();
+        verify(notificationListener).sendNotificationDigest(ownerKey, List.of("first", "second"));
+
+        dispatcher.flushAll();
+        verify(notificationListener).sendNotificationDigest(otherRecipientKey, List.of("third"));
+    }
+
+    @Test
+    void testFullDigestSentImmediately() {
+        doReturn(scheduledFuture).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+        dispatcher.add(ownerKey, "first");
+        dispatcher.add(ownerKey, "second");
+        dispatcher.add(ownerKey, "third");
+        verify(notificationListener).sendNotificationDigest(ownerKey, List.of("first", "second", "third"));
+        verify(scheduledFuture).cancel(false);
+
+        // next notification starts new digest
+        dispatcher.add(ownerKey, "fourth");
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+        dispatcher.flushAll();
+        verify(notificationListener).sendNotificationDigest(eq(ownerKey), eq(List.of("fourth")));
+    }
+
+    @Test
+    void testNotificationAddedByCommittedEvent() {
+        doReturn(scheduledFuture).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+        dispatcher.handleNotificationDigestEvent(new NotificationDigestEvent(ownerKey, "first"));
+        dispatcher.flushAll();
+        verify(notificationListener).sendNotificationDigest(ownerKey, List.of("first"));
+    }
+
+    @Test
+    void testDigestDataEnvelope() {
+        NotificationDigestData digestData = new NotificationDigestData(List.of("first", "second"));
+        assertTrue(digestData.digest());
+        assertEquals(2, digestData.count());
+        assertEquals(List.of("first", "second"), digestData.notifications());
+    }
+
+    @Test
+    void testDigestEnabledByWindow() {
+        assertTrue(dispatcher.isEnabled());
+        assertFalse(new NotificationDigestDispatcher(Duration.ZERO, 100).isEnabled());
+    }
+}
@@ -0,0 +1,138 @@
+package com.czertainly.core.messaging.jms.producers;
+
+import com.czertainly.core.messaging.jms.configuration.MessagingProperties;
+import jakarta.jms.CompletionListener;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import jakarta.jms.Topic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.destination.DestinationResolver;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests of publishing batches of messages.
+ */
+class JmsBatchPublisherTest {
+
+    private final RetryTemplate retryTemplate = RetryTemplate.builder().maxAttempts(2).retryOn(RuntimeException.class).build();
+
+    private JmsTemplate jmsTemplate;
+    private Session session;
+    private MessageProducer producer;
+    private final List<String> sentPayloads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws JMSException {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        session = mock(Session.class);
+        producer = mock(MessageProducer.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(session.createProducer(any())).thenReturn(producer);
+
+        DestinationResolver destinationResolver = mock(DestinationResolver.class);
+        when(destinationResolver.resolveDestinationName(any(), anyString(), anyBoolean())).thenReturn(mock(Topic.class));
+
+        MessageConverter messageConverter = mock(MessageConverter.class);
+        when(messageConverter.toMessage(any(), any())).thenAnswer(invocation -> {
+            TextMessage message = mock(TextMessage.class);
+            when(message.getText()).thenReturn(invocation.getArgument(0));
+            return message;
+        });
+
+        jmsTemplate = mock(JmsTemplate.class);
+        when(jmsTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(jmsTemplate.getDestinationResolver()).thenReturn(destinationResolver);
+        when(jmsTemplate.getMessageConverter()).thenReturn(messageConverter);
+    }
+
+    private JmsBatchPublisher publisher(MessagingProperties.BrokerType brokerType) {
+        MessagingProperties messagingProperties = mock(MessagingProperties.class);
+        when(messagingProperties.brokerType()).thenReturn(brokerType);
+        return new JmsBatchPublisher(jmsTemplate, messagingProperties, retryTemplate);
+    }
+
+    private static List<String> payloads(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "message-" + i).toList();
+    }
+
+    @Test
+    void serviceBus_sendsChunksInTransactions() throws JMSException {
+        doAnswer(invocation -> {
+            sentPayloads.add(((TextMessage) invocation.getArgument(0)).getText());
+            return null;
+        }).when(producer).send(any(Message.class));
+
+        publisher(MessagingProperties.BrokerType.SERVICEBUS).publish("czertainly", "validation", payloads(250));
+
+        assertThat(sentPayloads).containsExactlyElementsOf(payloads(250));
+        verify(session, times(3)).commit();
+        verify(session, never()).rollback();
+    }
+
+    @Test
+    void serviceBus_failedChunk_rolledBackAndRetried() throws JMSException {
+        doAnswer(invocation -> {
+            String payload = ((TextMessage) invocation.getArgument(0)).getText();
+            if (payload.equals("message-1") && !sentPayloads.contains(payload)) {
+                sentPayloads.add(payload);
+                throw new JMSException("send failed");
+            }
+            sentPayloads.add(payload);
+            return null;
+        }).when(producer).send(any(Message.class));
+
+        publisher(MessagingProperties.BrokerType.SERVICEBUS).publish("czertainly", "validation", payloads(3));
+
+        assertThat(sentPayloads).containsExactly("message-0", "message-1", "message-0", "message-1", "message-2");
+        verify(session).rollback();
+        verify(session).commit();
+    }
+
+    @Test
+    void rabbitMq_retriesOnlyUnconfirmedMessages() throws JMSException {
+        doAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            CompletionListener listener = invocation.getArgument(1);
+            String payload = ((TextMessage) message).getText();
+            boolean firstAttempt = !sentPayloads.contains(payload);
+            sentPayloads.add(payload);
+            if (payload.equals("message-1") && firstAttempt) {
+                listener.onException(message, new JMSException("not settled"));
+            } else {
+                listener.onCompletion(message);
+            }
+            return null;
+        }).when(producer).send(any(Message.class), any(CompletionListener.class));
+
+        publisher(MessagingProperties.BrokerType.RABBITMQ).publish("/exchanges/czertainly/validation", "validation", payloads(3));
+
+        assertThat(sentPayloads).containsExactly("message-0", "message-1", "message-2", "message-1");
+        verify(session, never()).commit();
+    }
+}
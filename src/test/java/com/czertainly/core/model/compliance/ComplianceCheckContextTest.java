@@ -0,0 +1,211 @@
+package com.czertainly.core.model.compliance;
+
+import com.czertainly.api.exception.ConnectorException;
+import com.czertainly.api.interfaces.client.v2.ComplianceSyncApiClient;
+import com.czertainly.api.model.connector.compliance.v2.ComplianceRequestDto;
+import com.czertainly.api.model.connector.compliance.v2.ComplianceResponseDto;
+import com.czertainly.api.model.connector.compliance.v2.ComplianceResponseRuleDto;
+import com.czertainly.api.model.connector.compliance.v2.ComplianceRuleResponseDto;
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.api.model.core.compliance.ComplianceRuleStatus;
+import com.czertainly.api.model.core.compliance.ComplianceStatus;
+import com.czertainly.api.model.core.connector.ConnectorDto;
+import com.czertainly.api.model.core.connector.FunctionGroupCode;
+import com.czertainly.api.model.core.connector.FunctionGroupDto;
+import com.czertainly.core.client.ConnectorApiFactory;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.CertificateContent;
+import com.czertainly.core.dao.entity.ComplianceInternalRule;
+import com.czertainly.core.dao.entity.ComplianceProfile;
+import com.czertainly.core.dao.entity.ComplianceProfileRule;
+import com.czertainly.core.dao.entity.ComplianceSubject;
+import com.czertainly.core.dao.entity.Connector;
+import com.czertainly.core.dao.repository.CertificateRepository;
+import com.czertainly.core.evaluator.TriggerEvaluator;
+import com.czertainly.core.messaging.jms.producers.EventProducer;
+import com.czertainly.core.messaging.model.EventMessage;
+import com.czertainly.core.service.ComplianceCheckProperties;
+import com.czertainly.core.service.handler.ComplianceProfileRuleHandler;
+import com.czertainly.core.service.handler.ComplianceSubjectHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests of checking compliance of subjects in batches.
+ */
+class ComplianceCheckContextTest {
+
+    private static final String KIND = "kind";
+    private static final int BATCH_SIZE = 2;
+
+    private final UUID providerRuleUuid = UUID.randomUUID();
+
+    private final Map<UUID, Certificate> certificates = new LinkedHashMap<>();
+    private final List<List<UUID>> loadedBatches = new ArrayList<>();
+
+    private CertificateRepository certificateRepository;
+    private TriggerEvaluator<Certificate> triggerEvaluator;
+    private ComplianceSyncApiClient complianceApiClient;
+    private EventProducer eventProducer;
+    private ComplianceCheckContext context;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            CertificateContent certificateContent = new CertificateContent();
+            certificateContent.setContent("content-" + i);
+            Certificate certificate = new Certificate();
+            certificate.setUuid(UUID.randomUUID());
+            certificate.setCertificateContent(certificateContent);
+            certificate.setComplianceStatus(ComplianceStatus.NOT_CHECKED);
+            certificates.put(certificate.getUuid(), certificate);
+        }
+
+        certificateRepository = mock(CertificateRepository.class);
+        triggerEvaluator = mock(TriggerEvaluator.class);
+        when(triggerEvaluator.evaluateInternalRule(any(), any())).thenReturn(true);
+        ComplianceSubjectHandler<Certificate> subjectHandler = new ComplianceSubjectHandler<>(false, Resource.CERTIFICATE, triggerEvaluator, certificateRepository, uuids -> {
+            loadedBatches.add(List.copyOf(uuids));
+            return uuids.stream().map(certificates::get).toList();
+        });
+        Map<Resource, ComplianceSubjectHandler<? extends ComplianceSubject>> subjectHandlers = new EnumMap<>(Resource.class);
+        subjectHandlers.put(Resource.CERTIFICATE, subjectHandler);
+
+        ComplianceRuleResponseDto providerRule = new ComplianceRuleResponseDto();
+        providerRule.setUuid(providerRuleUuid);
+        providerRule.setResource(Resource.CERTIFICATE);
+        ComplianceRulesGroupsBatchDto rulesGroupsBatchDto = new ComplianceRulesGroupsBatchDto();
+        rulesGroupsBatchDto.getRules().put(providerRuleUuid, providerRule);
+        ComplianceProfileRuleHandler ruleHandler = mock(ComplianceProfileRuleHandler.class);
+        when(ruleHandler.getComplianceProviderRulesBatch(any(), eq(KIND), any(), any(), anyBoolean())).thenReturn(rulesGroupsBatchDto);
+
+        complianceApiClient = mock(ComplianceSyncApiClient.class);
+        when(complianceApiClient.checkCompliance(any(), eq(KIND), any())).thenAnswer(invocation -> complianceResponse(ComplianceRuleStatus.OK));
+        ConnectorApiFactory connectorApiFactory = mock(ConnectorApiFactory.class);
+        when(connectorApiFactory.getComplianceApiClientV2(any())).thenReturn(complianceApiClient);
+
+        eventProducer = mock(EventProducer.class);
+        context = new ComplianceCheckContext(null, null, ruleHandler, subjectHandlers, connectorApiFactory, eventProducer, new ComplianceCheckProperties(BATCH_SIZE, 2));
+        context.addComplianceProfile(complianceProfile(), Map.of(Resource.CERTIFICATE, new LinkedHashSet<>(certificates.keySet())));
+    }
+
+    private ComplianceProfile complianceProfile() {
+        FunctionGroupDto functionGroupDto = new FunctionGroupDto();
+        functionGroupDto.setFunctionGroupCode(FunctionGroupCode.COMPLIANCE_PROVIDER_V2);
+        functionGroupDto.setKinds(List.of(KIND));
+        ConnectorDto connectorDto = new ConnectorDto();
+        connectorDto.setName("provider");
+        connectorDto.setFunctionGroups(List.of(functionGroupDto));
+        Connector connector = mock(Connector.class);
+        when(connector.getUuid()).thenReturn(UUID.randomUUID());
+        when(connector.mapToDto()).thenReturn(connectorDto);
+
+        ComplianceInternalRule internalRule = new ComplianceInternalRule();
+        internalRule.setUuid(UUID.randomUUID());
+        internalRule.setName("internal");
+        internalRule.setResource(Resource.CERTIFICATE);
+        ComplianceProfileRule internalProfileRule = new ComplianceProfileRule();
+        internalProfileRule.setUuid(UUID.randomUUID());
+        internalProfileRule.setResource(Resource.CERTIFICATE);
+        internalProfileRule.setInternalRule(internalRule);
+        internalProfileRule.setInternalRuleUuid(internalRule.getUuid());
+
+        ComplianceProfileRule providerProfileRule = new ComplianceProfileRule();
+        providerProfileRule.setUuid(UUID.randomUUID());
+        providerProfileRule.setResource(Resource.CERTIFICATE);
+        providerProfileRule.setConnector(connector);
+        providerProfileRule.setConnectorUuid(connector.getUuid());
+        providerProfileRule.setKind(KIND);
+        providerProfileRule.setComplianceRuleUuid(providerRuleUuid);
+
+        ComplianceProfile complianceProfile = new ComplianceProfile();
+        complianceProfile.setUuid(UUID.randomUUID());
+        complianceProfile.setName("profile");
+        complianceProfile.setComplianceRules(Set.of(internalProfileRule, providerProfileRule));
+        return complianceProfile;
+    }
+
+    private ComplianceResponseDto complianceResponse(ComplianceRuleStatus status) {
+        ComplianceResponseRuleDto responseRule = new ComplianceResponseRuleDto();
+        responseRule.setUuid(providerRuleUuid);
+        responseRule.setStatus(status);
+        ComplianceResponseDto response = new ComplianceResponseDto();
+        response.setRules(List.of(responseRule));
+        return response;
+    }
+
+    private Certificate certificate(int index) {
+        return new ArrayList<>(certificates.values()).get(index);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void subjectsLoadedAndPersistedInBatches() {
+        context.performComplianceCheck();
+
+        List<UUID> certificateUuids = new ArrayList<>(certificates.keySet());
+        assertThat(loadedBatches).containsExactly(certificateUuids.subList(0, 2), certificateUuids.subList(2, 4), certificateUuids.subList(4, 5));
+
+        ArgumentCaptor<List<Certificate>> savedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(certificateRepository, times(3)).saveAll(savedCaptor.capture());
+        assertThat(savedCaptor.getAllValues()).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(certificates.values()).extracting(Certificate::getComplianceStatus).containsOnly(ComplianceStatus.OK);
+    }
+
+    @Test
+    void providerError_failsOnlyAffectedSubject() throws ConnectorException {
+        when(complianceApiClient.checkCompliance(any(), eq(KIND), any())).thenAnswer(invocation -> {
+            ComplianceRequestDto request = invocation.getArgument(2);
+            if (request.getData().equals("content-1")) {
+                throw new ConnectorException("provider unavailable");
+            }
+            return complianceResponse(ComplianceRuleStatus.OK);
+        });
+
+        context.performComplianceCheck();
+
+        assertThat(certificate(1).getComplianceStatus()).isEqualTo(ComplianceStatus.FAILED);
+        assertThat(certificate(1).getComplianceResult().getMessage()).isEqualTo("provider unavailable");
+        assertThat(IntStream.of(0, 2, 3, 4).mapToObj(this::certificate)).extracting(Certificate::getComplianceStatus).containsOnly(ComplianceStatus.OK);
+        verify(certificateRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void notCompliantEvents_producedPerBatch() throws Exception {
+        when(triggerEvaluator.evaluateInternalRule(any(), eq(certificate(0)))).thenReturn(false);
+        when(complianceApiClient.checkCompliance(any(), eq(KIND), any())).thenAnswer(invocation -> {
+            ComplianceRequestDto request = invocation.getArgument(2);
+            return complianceResponse(request.getData().equals("content-3") ? ComplianceRuleStatus.NOK : ComplianceRuleStatus.OK);
+        });
+
+        context.performComplianceCheck();
+
+        ArgumentCaptor<List<EventMessage>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventProducer, times(2)).produceMessages(eventsCaptor.capture());
+        assertThat(eventsCaptor.getAllValues().get(0)).extracting(EventMessage::getObjectUuid).containsExactly(certificate(0).getUuid());
+        assertThat(eventsCaptor.getAllValues().get(1)).extracting(EventMessage::getObjectUuid).containsExactly(certificate(3).getUuid());
+    }
+}
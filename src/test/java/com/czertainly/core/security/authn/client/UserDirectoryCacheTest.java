@@ -0,0 +1,118 @@
+package com.czertainly.core.security.authn.client;
+
+import com.czertainly.api.model.core.auth.UserDetailDto;
+import com.czertainly.api.model.core.auth.UserDto;
+import com.czertainly.api.model.core.auth.UserWithPaginationDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryCacheTest {
+
+    @Mock
+    private UserManagementApiClient userManagementApiClient;
+    @Mock
+    private RoleManagementApiClient roleManagementApiClient;
+
+    private final String roleUuid = UUID.randomUUID().toString();
+    private final String userUuid = UUID.randomUUID().toString();
+
+    private UserDirectoryCache createCache(long ttlSeconds) {
+        UserDirectoryCache cache = new UserDirectoryCache(ttlSeconds);
+        cache.setUserManagementApiClient(userManagementApiClient);
+        cache.setRoleManagementApiClient(roleManagementApiClient);
+        return cache;
+    }
+
+    @Test
+    void testRoleUsersCachedAndInvalidated() {
+        UserDto user = new UserDto();
+        user.setUuid(userUuid);
+        when(roleManagementApiClient.getRoleUsers(roleUuid)).thenReturn(List.of(user));
+
+        UserDirectoryCache cache = createCache(60);
+        Assertions.assertEquals(List.of(userUuid), cache.getRoleUserUuids(roleUuid));
+        Assertions.assertEquals(List.of(userUuid), cache.getRoleUserUuids(roleUuid));
+        verify(roleManagementApiClient, times(1)).getRoleUsers(roleUuid);
+
+        // change of any user can change users of the role
+        cache.invalidateUser(UUID.randomUUID().toString());
+        cache.getRoleUserUuids(roleUuid);
+        verify(roleManagementApiClient, times(2)).getRoleUsers(roleUuid);
+
+        cache.invalidateRole(roleUuid);
+        cache.getRoleUserUuids(roleUuid);
+        verify(roleManagementApiClient, times(3)).getRoleUsers(roleUuid);
+    }
+
+    @Test
+    void testUserDetailCachedAndInvalidated() {
+        UserDetailDto userDetail = new UserDetailDto();
+        when(userManagementApiClient.getUserDetail(userUuid)).thenReturn(userDetail);
+
+        UserDirectoryCache cache = createCache(60);
+        Assertions.assertSame(userDetail, cache.getUserDetail(userUuid));
+        cache.invalidateRole(roleUuid);
+        Assertions.assertSame(userDetail, cache.getUserDetail(userUuid));
+        verify(userManagementApiClient, times(1)).getUserDetail(userUuid);
+
+        cache.invalidateUser(userUuid);
+        cache.getUserDetail(userUuid);
+        cache.invalidateAll();
+        cache.getUserDetail(userUuid);
+        verify(userManagementApiClient, times(3)).getUserDetail(userUuid);
+    }
+
+    @Test
+    void testUsernamesResolvedFromCachedUsers() {
+        UserDto user = new UserDto();
+        user.setUuid(userUuid);
+        user.setUsername("user");
+        UserWithPaginationDto users = new UserWithPaginationDto();
+        users.setData(List.of(user));
+        when(userManagementApiClient.getUsers()).thenReturn(users);
+
+        UserDirectoryCache cache = createCache(60);
+        Assertions.assertEquals("user", cache.getUsername(userUuid));
+        Assertions.assertNull(cache.getUsername(UUID.randomUUID().toString()));
+        verify(userManagementApiClient, times(1)).getUsers();
+
+        cache.invalidateUser(userUuid);
+        Assertions.assertEquals("user", cache.getUsername(userUuid));
+        verify(userManagementApiClient, times(2)).getUsers();
+    }
+
+    @Test
+    void testFailedLoadNotRetriedForEveryLookup() {
+        when(roleManagementApiClient.getRoles()).thenThrow(new IllegalStateException("Auth service unavailable"));
+
+        UserDirectoryCache cache = createCache(60);
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.getRoleName(roleUuid));
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.getRoleName(roleUuid));
+        verify(roleManagementApiClient, times(1)).getRoles();
+
+        cache.invalidateRole(roleUuid);
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.getRoleName(roleUuid));
+        verify(roleManagementApiClient, times(2)).getRoles();
+    }
+
+    @Test
+    void testDisabledCacheNotCached() {
+        when(userManagementApiClient.getUserDetail(userUuid)).thenReturn(new UserDetailDto());
+
+        UserDirectoryCache cache = createCache(0);
+        cache.getUserDetail(userUuid);
+        cache.getUserDetail(userUuid);
+        verify(userManagementApiClient, times(2)).getUserDetail(userUuid);
+    }
+}
@@ -0,0 +1,47 @@
+package com.czertainly.core.security.authn.client;
+
+import com.czertainly.api.model.core.logging.enums.AuthMethod;
+import com.czertainly.core.util.AuthHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+
+class UserProxyAuthenticationCacheTest {
+
+    private final AuthenticationInfo acmeUser = new AuthenticationInfo(AuthMethod.USER_PROXY, UUID.randomUUID().toString(), AuthHelper.ACME_USERNAME, List.of(new SimpleGrantedAuthority("acme")));
+
+    @Test
+    void testCachedAuthenticationInvalidated() {
+        UserProxyAuthenticationCache cache = new UserProxyAuthenticationCache(60);
+        UUID userUuid = UUID.fromString(acmeUser.getUserUuid());
+        cache.put(AuthHelper.ACME_USERNAME, acmeUser);
+        cache.put(userUuid, acmeUser);
+        Assertions.assertSame(acmeUser, cache.get(AuthHelper.ACME_USERNAME));
+        Assertions.assertSame(acmeUser, cache.get(userUuid));
+
+        cache.invalidateUser(UUID.randomUUID().toString());
+        Assertions.assertSame(acmeUser, cache.get(AuthHelper.ACME_USERNAME));
+
+        cache.invalidateUser(acmeUser.getUserUuid());
+        Assertions.assertNull(cache.get(AuthHelper.ACME_USERNAME));
+        Assertions.assertNull(cache.get(userUuid));
+
+        cache.put(AuthHelper.ACME_USERNAME, acmeUser);
+        cache.invalidateAll();
+        Assertions.assertNull(cache.get(AuthHelper.ACME_USERNAME));
+    }
+
+    @Test
+    void testAnonymousAndDisabledCacheNotCached() {
+        UserProxyAuthenticationCache cache = new UserProxyAuthenticationCache(60);
+        cache.put(AuthHelper.SCEP_USERNAME, AuthenticationInfo.getAnonymousAuthenticationInfo());
+        Assertions.assertNull(cache.get(AuthHelper.SCEP_USERNAME));
+
+        UserProxyAuthenticationCache disabledCache = new UserProxyAuthenticationCache(0);
+        disabledCache.put(AuthHelper.ACME_USERNAME, acmeUser);
+        Assertions.assertNull(disabledCache.get(AuthHelper.ACME_USERNAME));
+    }
+}
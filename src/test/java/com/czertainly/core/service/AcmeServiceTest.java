@@ -21,6 +21,7 @@ import com.czertainly.core.security.authz.opa.dto.OpaRequestedResource;
 import com.czertainly.core.security.authz.opa.dto.OpaResourceAccessResult;
 import com.czertainly.core.service.acme.AcmeConstants;
 import com.czertainly.core.service.acme.AcmeService;
+import com.czertainly.core.service.acme.impl.AcmeChallengeValidator;
 import com.czertainly.core.util.AcmeCommonHelper;
 import com.czertainly.core.util.BaseSpringBootTest;
 import com.czertainly.core.util.CertificateUtil;
@@ -32,6 +33,7 @@ import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
 import org.bouncycastle.operator.OperatorCreationException;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.AfterEach;
 import com.nimbusds.jose.util.Base64URL;
 import org.junit.jupiter.api.Assertions;
@@ -39,14 +41,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import javax.naming.NamingEnumeration;
-import javax.naming.NamingException;
-import javax.naming.directory.Attribute;
-import javax.naming.directory.Attributes;
-import javax.naming.directory.InitialDirContext;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
@@ -57,6 +59,7 @@ import java.security.spec.InvalidKeySpecException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 class AcmeServiceTest extends BaseSpringBootTest {
 
@@ -109,6 +112,9 @@ class AcmeServiceTest extends BaseSpringBootTest {
     @Autowired
     private AcmeService acmeService;
 
+    @MockitoSpyBean
+    private AcmeChallengeValidator acmeChallengeValidator;
+
     private AcmeNonce acmeValidNonce;
     private JWSSigner rsa2048Signer;
     private RSAKey rsa2048PublicJWK;
@@ -513,6 +519,22 @@ class AcmeServiceTest extends BaseSpringBootTest {
         assertGetDirectory(directory);
     }
 
+    @Test
+    void testGetDirectory_notModified() throws AcmeProblemDocumentException {
+        URI requestUri = URI.create(BASE_URI + ACME_PROFILE_NAME + "/directory");
+        ResponseEntity<Directory> directory = acmeService.getDirectory(ACME_PROFILE_NAME, requestUri, false);
+        String eTag = directory.getHeaders().getETag();
+        Assertions.assertNotNull(eTag);
+
+        MockHttpServletRequest request = (MockHttpServletRequest) ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        ResponseEntity<Directory> notModified = acmeService.getDirectory(ACME_PROFILE_NAME, requestUri, false);
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        Assertions.assertEquals(eTag, notModified.getHeaders().getETag());
+        Assertions.assertNotNull(notModified.getHeaders().getFirst(AcmeConstants.NONCE_HEADER_NAME));
+        Assertions.assertNull(notModified.getBody());
+    }
+
     private void assertGetDirectory(ResponseEntity<Directory> response) {
         Assertions.assertNotNull(response);
         // status code is 200
@@ -1132,7 +1154,7 @@ class AcmeServiceTest extends BaseSpringBootTest {
     }
 
     @Test
-    void testValidateChallenge_Dns01() throws AcmeProblemDocumentException, JOSEException, NotFoundException, NoSuchAlgorithmException, InvalidKeySpecException, NamingException {
+    void testValidateChallenge_Dns01() throws AcmeProblemDocumentException, JOSEException, NotFoundException, NoSuchAlgorithmException, InvalidKeySpecException {
         AcmeAuthorization authorization = new AcmeAuthorization();
         authorization.setAuthorizationId("authDns01");
         authorization.setStatus(AuthorizationStatus.PENDING);
@@ -1155,27 +1177,21 @@ class AcmeServiceTest extends BaseSpringBootTest {
         final byte[] encodedHashOfExpectedKeyAuthorization = digest.digest(keyAuthorization.getBytes(StandardCharsets.UTF_8));
         String expectedDnsValidationToken = Base64URL.encode(encodedHashOfExpectedKeyAuthorization).toString();
 
-        try (var mockedContext = Mockito.mockConstruction(InitialDirContext.class, (mock, context) -> {
-            Attributes attrs = Mockito.mock(Attributes.class);
-            Attribute attr = Mockito.mock(Attribute.class);
-            @SuppressWarnings("unchecked")
-            NamingEnumeration<Attribute> enumeration = (NamingEnumeration<Attribute>) Mockito.mock(NamingEnumeration.class);
+        Mockito.doReturn(List.of(expectedDnsValidationToken)).when(acmeChallengeValidator)
+                .lookupTxtRecords(Mockito.eq(AcmeConstants.DNS_ACME_PREFIX + "example.com"), Mockito.anyString());
 
-            Mockito.when(mock.getAttributes(Mockito.anyString(), Mockito.any(String[].class))).thenReturn(attrs);
-            Mockito.doReturn(enumeration).when(attrs).getAll();
-            Mockito.when(enumeration.hasMore()).thenReturn(true, false);
-            Mockito.when(enumeration.next()).thenReturn(attr);
-            Mockito.when(attr.get()).thenReturn(expectedDnsValidationToken);
-        })) {
-            URI requestUri = URI.create(BASE_URI + ACME_PROFILE_NAME + "/chall/" + challenge.getChallengeId());
-            ResponseEntity<Challenge> response = acmeService.validateChallenge(ACME_PROFILE_NAME, challenge.getChallengeId(), requestUri, false);
+        URI requestUri = URI.create(BASE_URI + ACME_PROFILE_NAME + "/chall/" + challenge.getChallengeId());
+        ResponseEntity<Challenge> response = acmeService.validateChallenge(ACME_PROFILE_NAME, challenge.getChallengeId(), requestUri, false);
 
-            Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
-            Assertions.assertEquals(ChallengeStatus.VALID, Objects.requireNonNull(response.getBody()).getStatus());
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(ChallengeStatus.PROCESSING, Objects.requireNonNull(response.getBody()).getStatus());
+        Assertions.assertNotNull(response.getHeaders().get(AcmeConstants.RETRY_HEADER_NAME));
 
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> {
             AcmeChallenge updatedChallenge = acmeChallengeRepository.findByChallengeId(challenge.getChallengeId()).orElseThrow();
             Assertions.assertEquals(ChallengeStatus.VALID, updatedChallenge.getStatus());
             Assertions.assertNotNull(updatedChallenge.getValidated());
-        }
+        });
+        Assertions.assertEquals(AuthorizationStatus.VALID, acmeAuthorizationRepository.findByAuthorizationId(authorization.getAuthorizationId()).orElseThrow().getStatus());
     }
 }
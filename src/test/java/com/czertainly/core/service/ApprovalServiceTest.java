@@ -5,6 +5,7 @@ import com.czertainly.api.exception.NotFoundException;
 import com.czertainly.api.model.client.approval.ApprovalDetailDto;
 import com.czertainly.api.model.client.approval.ApprovalResponseDto;
 import com.czertainly.api.model.client.approval.ApprovalStatusEnum;
+import com.czertainly.api.model.client.approval.UserApprovalDto;
 import com.czertainly.api.model.client.approvalprofile.ApprovalProfileDetailDto;
 import com.czertainly.api.model.client.approvalprofile.ApprovalProfileRequestDto;
 import com.czertainly.api.model.client.approvalprofile.ApprovalStepDto;
@@ -23,6 +24,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -71,6 +75,32 @@ class ApprovalServiceTest extends ApprovalProfileData {
 
     }
 
+    @Test
+    void testUserApprovalInbox() throws NotFoundException, AlreadyExistException {
+        final UserProfileDto userProfileDto = AuthHelper.getUserProfile();
+        ApprovalProfileRequestDto approvalProfileUserRequestDto = new ApprovalProfileRequestDto();
+        approvalProfileUserRequestDto.setName("testApprovalProfileInbox");
+        ApprovalStepDto approvalStepDto = new ApprovalStepDto();
+        approvalStepDto.setOrder(1);
+        approvalStepDto.setUserUuid(UUID.fromString(userProfileDto.getUser().getUuid()));
+        approvalStepDto.setRequiredApprovals(1);
+        approvalProfileUserRequestDto.getApprovalSteps().add(approvalStepDto);
+        ApprovalProfile userApprovalProfile = approvalProfileService.createApprovalProfile(approvalProfileUserRequestDto);
+
+        Approval userApproval = approvalService.createApproval(userApprovalProfile.getTheLatestApprovalProfileVersion(), Resource.CERTIFICATE, ResourceAction.CREATE, UUID.randomUUID(), UUID.randomUUID(), null);
+        ApprovalResponseDto responseDto = approvalService.listUserApprovals(SecurityFilter.create(), false, new PaginationRequestDto());
+        Assertions.assertEquals(1, responseDto.getApprovals().size());
+        Assertions.assertEquals(userApproval.getUuid().toString(), responseDto.getApprovals().getFirst().getApprovalUuid());
+
+        approvalService.approveApprovalRecipient(userApproval.getUuid().toString(), new UserApprovalDto());
+        Assertions.assertEquals(ApprovalStatusEnum.APPROVED, approvalRepository.findByUuid(SecuredUUID.fromUUID(userApproval.getUuid())).orElseThrow().getStatus());
+
+        // decided approval is removed from the inbox
+        responseDto = approvalService.listUserApprovals(SecurityFilter.create(), false, new PaginationRequestDto());
+        Assertions.assertEquals(0, responseDto.getApprovals().size());
+        Assertions.assertThrows(NotFoundException.class, () -> approvalService.approveApprovalRecipient(approval.getUuid().toString(), new UserApprovalDto()));
+    }
+
     @Test
     void testDetailOfApproval() throws NotFoundException {
         final ApprovalDetailDto approvalDetailDto = approvalService.getApprovalDetail(approval.getUuid().toString());
@@ -109,6 +139,20 @@ class ApprovalServiceTest extends ApprovalProfileData {
         Assertions.assertEquals(ApprovalStatusEnum.REJECTED, approvalOptional.get().getStatus());
     }
 
+    @Test
+    void testExpireApprovals() throws NotFoundException {
+        Approval notExpiredApproval = approvalService.createApproval(approvalProfile.getTheLatestApprovalProfileVersion(), Resource.CERTIFICATE, ResourceAction.CREATE, UUID.randomUUID(), UUID.randomUUID(), null);
+        approval.setExpiryAt(Date.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+        approvalRepository.save(approval);
+
+        Assertions.assertEquals(1, approvalService.checkApprovalsExpiration());
+        Assertions.assertEquals(ApprovalStatusEnum.EXPIRED, approvalRepository.findByUuid(SecuredUUID.fromUUID(approval.getUuid())).orElseThrow().getStatus());
+        Assertions.assertEquals(ApprovalStatusEnum.PENDING, approvalRepository.findByUuid(SecuredUUID.fromUUID(notExpiredApproval.getUuid())).orElseThrow().getStatus());
+
+        // expired approval is not processed again
+        Assertions.assertEquals(0, approvalService.checkApprovalsExpiration());
+    }
+
     // SETTERs
 
     @Autowired
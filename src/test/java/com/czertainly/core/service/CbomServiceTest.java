@@ -46,9 +46,13 @@ import com.czertainly.api.model.core.settings.UtilsSettingsDto;
 import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.dao.entity.Cbom;
+import com.czertainly.core.dao.entity.CbomDocumentId;
+import com.czertainly.core.dao.entity.CbomSyncWatermark;
 import com.czertainly.core.dao.entity.ScheduledJob;
 import com.czertainly.core.dao.entity.ScheduledJobHistory;
+import com.czertainly.core.dao.repository.CbomDocumentRepository;
 import com.czertainly.core.dao.repository.CbomRepository;
+import com.czertainly.core.dao.repository.CbomSyncWatermarkRepository;
 import com.czertainly.core.dao.repository.ScheduledJobHistoryRepository;
 import com.czertainly.core.dao.repository.ScheduledJobsRepository;
 import com.czertainly.core.enums.FilterField;
@@ -102,6 +106,12 @@ class CbomServiceTest extends BaseSpringBootTest {
     @Autowired
     private CbomRepository cbomRepository;
 
+    @Autowired
+    private CbomDocumentRepository cbomDocumentRepository;
+
+    @Autowired
+    private CbomSyncWatermarkRepository cbomSyncWatermarkRepository;
+
     @Autowired
     private ScheduledJobHistoryRepository scheduledJobHistoryRepository;
 
@@ -222,6 +232,72 @@ class CbomServiceTest extends BaseSpringBootTest {
             .withQueryParam("version", WireMock.equalTo(Integer.toString(version))));
     }
 
+    @Test
+    void testGetCbomDetail_ReadFromCache() throws Exception {
+        String serialNumber = "urn:uuid:3e671687-395b-41f5-a30f-a58921a69b79";
+        Cbom cbom = new Cbom();
+        cbom.setSerialNumber(serialNumber);
+        cbom.setVersion(1);
+        cbom.setSpecVersion("1.6");
+        cbom.setTimestamp(OffsetDateTime.now());
+        cbomRepository.save(cbom);
+
+        mockServer.stubFor(WireMock.get(WireMock.urlPathMatching("/api/v1/bom/.*"))
+            .withQueryParam("version", WireMock.equalTo("1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {"bomFormat": "CycloneDX", "specVersion": "1.6", "serialNumber": "%s", "version": 1, "components": [{"name": "RSA"}]}
+                    """.formatted(serialNumber))));
+
+        CbomDetailDto first = cbomService.getCbomDetail(SecuredUUID.fromUUID(cbom.getUuid()));
+        CbomDetailDto second = cbomService.getCbomDetail(SecuredUUID.fromUUID(cbom.getUuid()));
+
+        assertEquals("CycloneDX", first.getContent().get("bomFormat"));
+        assertEquals(first.getContent(), second.getContent());
+        assertTrue(cbomDocumentRepository.existsById(new CbomDocumentId("http://localhost:" + mockServer.port(), serialNumber, 1)));
+        mockServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathMatching("/api/v1/bom/.*")));
+    }
+
+    @Test
+    void testGetCbomDetail_CachedPerRepository() throws Exception {
+        String serialNumber = "urn:uuid:3e671687-395b-41f5-a30f-a58921a69b79";
+        Cbom cbom = new Cbom();
+        cbom.setSerialNumber(serialNumber);
+        cbom.setVersion(1);
+        cbom.setSpecVersion("1.6");
+        cbom.setTimestamp(OffsetDateTime.now());
+        cbomRepository.save(cbom);
+
+        String document = """
+                {"bomFormat": "CycloneDX", "specVersion": "1.6", "serialNumber": "%s", "version": 1, "metadata": {"component": {"name": "%s"}}}
+                """;
+        mockServer.stubFor(WireMock.get(WireMock.urlPathMatching("/api/v1/bom/.*"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(document.formatted(serialNumber, "first"))));
+        mockServer.stubFor(WireMock.get(WireMock.urlPathMatching("/other/api/v1/bom/.*"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(document.formatted(serialNumber, "second"))));
+
+        CbomDetailDto first = cbomService.getCbomDetail(SecuredUUID.fromUUID(cbom.getUuid()));
+
+        // same CBOM version is read again after the repository is changed
+        PlatformSettingsDto platformSettings = new PlatformSettingsDto();
+        platformSettings.setUtils(new UtilsSettingsDto());
+        platformSettings.getUtils().setCbomRepositoryUrl("http://localhost:" + mockServer.port() + "/other");
+        settingsCache.cacheSettings(SettingsSection.PLATFORM, platformSettings);
+        CbomDetailDto second = cbomService.getCbomDetail(SecuredUUID.fromUUID(cbom.getUuid()));
+
+        assertEquals(Map.of("component", Map.of("name", "first")), first.getContent().get("metadata"));
+        assertEquals(Map.of("component", Map.of("name", "second")), second.getContent().get("metadata"));
+        assertEquals(2, cbomDocumentRepository.count());
+    }
+
     @Test
     void testGetCbomDetail_NotFoundInCbomRepository() {
         // Given
@@ -1152,6 +1228,33 @@ class CbomServiceTest extends BaseSpringBootTest {
             .withQueryParam("after", WireMock.equalTo(String.valueOf(expectedAfter))));
     }
 
+    @Test
+    void sync_shouldResumeFromWatermark() throws Exception {
+        OffsetDateTime now = OffsetDateTime.now().withNano(0);
+        BomEntryDto entry1 = entry("serial-1", "1", now.minusHours(2));
+        BomEntryDto entry2 = entry("serial-2", "1", now.minusHours(1));
+        BomEntryDto entry3 = entry("serial-3", "1", now.minusHours(3));
+        mockSearchResponse(List.of(entry1, entry2, entry3));
+        mockEntrySpecVersionSource(entry1, "1.6", "name-1");
+        mockEntrySpecVersionSource(entry2, "1.6", "name-2");
+        mockEntrySpecVersionSource(entry3, "1.6", "name-3");
+
+        String result = cbomService.sync();
+        assertTrue(result.contains("stored 3 new entries"));
+
+        // watermark is set to the latest entry in the repository, regardless of the order of the search result
+        CbomSyncWatermark watermark = cbomSyncWatermarkRepository.findById("http://localhost:" + mockServer.port()).orElseThrow();
+        assertEquals("serial-2", watermark.getSerialNumber());
+        assertEquals(entry2.getTimestamp().toEpochSecond(), watermark.getTimestamp().toEpochSecond());
+        assertEquals(3, cbomDocumentRepository.count());
+
+        // sync without successful job run is resumed from the watermark
+        cbomService.sync();
+        mockServer.verify(WireMock.getRequestedFor(WireMock.urlPathEqualTo("/api/v1/bom"))
+            .withQueryParam("after", WireMock.equalTo(String.valueOf(entry2.getTimestamp().toEpochSecond() - 60))));
+        assertEquals(3, cbomRepository.count());
+    }
+
     @Test
     void sync_ThrowsCbomRepositoryExceptionOn500Error() {
         // Given: cbom-repository does not work
@@ -75,6 +75,10 @@ class LocationServiceTest extends BaseSpringBootTest {
     private AuthorityInstanceReferenceRepository authorityInstanceReferenceRepository;
     @Autowired
     private CertificateLocationRepository certificateLocationRepository;
+    @Autowired
+    private AttributeContent2ObjectRepository attributeContent2ObjectRepository;
+    @Autowired
+    private AttributeDefinitionRepository attributeDefinitionRepository;
     @MockitoBean
     private ClientOperationService clientOperationService;
 
@@ -576,6 +580,92 @@ class LocationServiceTest extends BaseSpringBootTest {
         Assertions.assertEquals(0, pushedCertRows, "Pushed certificate should be removed after sync");
     }
 
+    @Test
+    void testResyncAppliesOnlyChanges() throws ConnectorException, LocationException, AttributeException, NotFoundException {
+        String certBase64 = "MIIGIzCCBAugAwIBAgIUXqFSYLp0ubziDvE6soPiV8juAyswDQYJKoZIhvcNAQELBQAwOzEbMBkGA1UEAwwSRGVtb1Jvb3RDQV8yMzA3UlNBMRwwGgYDVQQKDBMzS2V5IENvbXBhbnkgcy5yLm8uMB4XDTIzMDcxOTExMTQwMloXDTM4MDcxNTExMTQwMVowQDEgMB4GA1UEAwwXRGVtb0NsaWVudFN1YkNBXzIzMDdSU0ExHDAaBgNVBAoMEzNLZXkgQ29tcGFueSBzLnIuby4wggIiMA0GCSqGSIb3DQEBAQUAA4ICDwAwggIKAoICAQDX4VT1wD0iNVPaojteRUZD5r2Dhtr9lmWggvFUcE9Pd8XAk7fQK0dI5Y1igPnyUazNqFTCHnI0UdGsHzBIY06urrUIW5VNUcRjXjX+kh86Y16LP8M0hvDl4oDK7EBW5a9gzJtsnFS71WxTurDrsJYgN3jJLBlmSi/yA8MaiY76fktI6++nB4O+uQfK7StpA9Dst+HLM6FLk7r39D/wIWfn2q/MCTF+h4OY+pEcJvNHk+1HHsuKOQOlYDeYGzN/CopK7Zmymu9DfgwpPcVXJ9dZBwx+G4dE3Ri0pnL/hfVaBEbNUkYDIgs5zRpb3ZN68JJy0XTmCcTAgiUZBYmiDhMSMBPl5mts40OpL5bewM+ekrAbFwNL4idUPS2V9XWOGy51UYtcjHUTQB9m9E+aP5ZfvDCZhu+yzenDcYT6UhENpgGfDpJ+im0jjNNgC+z58Y9uYRqN/w+HWrXermZxGQS6mkQ+iJLeEWWHDjFi4v0TjbHyhxPkQSAacJ4IWFT37eivVirQZFGuXpBEI51xvs25K24f0fxuLcAumS5APTPD90D2Xa5J1vMowsdtKgs5nZP3dKmmSr2reAsiodNtBroUpWcjznurHf43zhAlQuQvCCn12zyaXGtaF/Cl0Aj0nmuVf6fEhoCM4xiECqlmtoXKTTA7vaMRTGgXlR1iyHKaXwIDAQABo4IBGDCCARQwDwYDVR0TAQH/BAUwAwEB/zAfBgNVHSMEGDAWgBQkykIO76rGkT7RqvoTWHgqFlBGiTBTBggrBgEFBQcBAQRHMEUwQwYIKwYBBQUHMAKGN2h0dHA6Ly9wa2kuM2tleS5jb21wYW55L2Nhcy9kZW1vL2RlbW9yb290Y2FfMjMwN3JzYS5jcnQwEQYDVR0gBAowCDAGBgRVHSAAMEkGA1UdHwRCMEAwPqA8oDqGOGh0dHA6Ly9wa2kuM2tleS5jb21wYW55L2NybHMvZGVtby9kZW1vcm9vdGNhXzIzMDdyc2EuY3JsMB0GA1UdDgQWBBSVb1aJP6lv/cDXMMG3l1/mLEqvHTAOBgNVHQ8BAf8EBAMCAYYwDQYJKoZIhvcNAQELBQADggIBAGDcHP44ZO26c5p6XyMOzuc7TMkMeDdnqcPD8y+Cnj4V/r8Qq8gdpzjdozw3NMtVfnHP72P1XOcG5U3NUaRtEnP0C4SHnciPttV1WWkaQhzLNU6nnR1M7OiqHVkAmHHZ0U1R8ih8h4LvHO/UzcXFA5avn23udOfZL9tSN9/ljyLIdPAievFGGv94JB+YlykkUHzlrrlFADct4CVKiwoMjhdBMoLnFetNr6ZmTXbImnLMjVhhZHQ0cQfFdTnS7KeN2O4orSqiptkPAZ7ySsP4jEzTVxGzOZbsVna4XeGr5m2P6+ONVIj801Zp5QZh1F7IYV6M2jnIzXcE4+xrn1Nwj0SkOY4NUK5Gh16y78f/R+igjIC+L3VCs9Pr4ePepx1wJSb+180Gy0FED/4DQyAX0bAyGRv6POVsaIpRLAGWkkh6Qn4g9lAVLZydmXAJuQ05m0X4Ljq9EshPwad9tcVGIFcGvw7Wat+75ib40CarKP8OGp//cDVSqlv4JRPNwgo/0lhTXQP2tNNODOMGn3qtPy9MYHHyUjsnhbiDtUGQHL7QrZIAB00aTJFwD4YcMqjTd0b0Sdi34kPrhYLvY5ouBREsF50DhrUrz45YKbZiB5kWA8NsGgbLGiJQurxuNFwezwDYziAyWn+Xr01o8dLTEo5FZOEhWhKbEp4GGoq9BD8v";
+        String locationDetail = """
+                {
+                  "certificates": [
+                    {"certificateData": "%1$s", "withKey": %2$s, "certificateType": "X.509", "metadata": [%3$s]},
+                    {"certificateData": "%1$s", "withKey": false, "certificateType": "X.509", "metadata": [%4$s]}
+                  ],
+                  "multipleEntries": true,
+                  "supportKeyManagement": true
+                }""";
+        String aliasMetadata = """
+                {
+                  "version": 2,
+                  "uuid": "b42ab942-1f8a-4b6c-8a1b-62b26a1e9fa1",
+                  "name": "alias",
+                  "content": [{"reference": "%1$s", "data": "%1$s"}],
+                  "type": "meta",
+                  "contentType": "string",
+                  "properties": {"label": "%2$s", "visible": true, "global": false, "overwrite": false}
+                }""";
+
+        mockServer.stubFor(WireMock
+                .get(WireMock.urlPathMatching("/v1/entityProvider/entities/[^/]+/location/attributes"))
+                .willReturn(WireMock.okJson("[]")));
+        mockServer.stubFor(WireMock
+                .post(WireMock.urlPathMatching("/v1/entityProvider/entities/[^/]+/location/attributes/validate"))
+                .willReturn(WireMock.okJson("true")));
+        mockServer.stubFor(WireMock
+                .post(WireMock.urlPathMatching("/v1/entityProvider/entities/[^/]+/locations"))
+                .willReturn(WireMock.okJson(locationDetail.formatted(certBase64, true, aliasMetadata.formatted("first", "Alias"), aliasMetadata.formatted("second", "Alias")))));
+
+        EditLocationRequestDto request = new EditLocationRequestDto();
+        request.setDescription("sync");
+        request.setAttributes(List.of());
+
+        LocationDto dto = locationService.editLocation(entityInstanceReference.getSecuredParentUuid(), location.getSecuredUuid(), request);
+        Assertions.assertEquals(1, dto.getCertificates().size());
+        UUID certificateUuid = UUID.fromString(dto.getCertificates().getFirst().getCertificateUuid());
+        Assertions.assertEquals(1, dto.getCertificates().getFirst().getMetadata().size());
+        Assertions.assertEquals(1, dto.getCertificates().getFirst().getMetadata().getFirst().getItems().size());
+        List<String> metadataMappings = attributeContent2ObjectRepository.findAll().stream()
+                .filter(aco -> certificateUuid.equals(aco.getObjectUuid()))
+                .map(aco -> aco.getUuid().toString())
+                .sorted()
+                .toList();
+        Assertions.assertEquals(2, metadataMappings.size());
+
+        // unchanged content keeps the stored metadata
+        locationService.editLocation(entityInstanceReference.getSecuredParentUuid(), location.getSecuredUuid(), request);
+        Assertions.assertEquals(metadataMappings, attributeContent2ObjectRepository.findAll().stream()
+                .filter(aco -> certificateUuid.equals(aco.getObjectUuid()))
+                .map(aco -> aco.getUuid().toString())
+                .sorted()
+                .toList());
+
+        // changed definition with unchanged content updates only the definition
+        mockServer.stubFor(WireMock
+                .post(WireMock.urlPathMatching("/v1/entityProvider/entities/[^/]+/locations"))
+                .willReturn(WireMock.okJson(locationDetail.formatted(certBase64, true, aliasMetadata.formatted("first", "Certificate alias"), aliasMetadata.formatted("second", "Certificate alias")))));
+        locationService.editLocation(entityInstanceReference.getSecuredParentUuid(), location.getSecuredUuid(), request);
+        Assertions.assertEquals(metadataMappings, attributeContent2ObjectRepository.findAll().stream()
+                .filter(aco -> certificateUuid.equals(aco.getObjectUuid()))
+                .map(aco -> aco.getUuid().toString())
+                .sorted()
+                .toList());
+        Assertions.assertEquals(List.of("Certificate alias"), attributeDefinitionRepository.findAll().stream()
+                .filter(definition -> definition.getType() == AttributeType.META && "alias".equals(definition.getName()))
+                .map(AttributeDefinition::getLabel)
+                .toList());
+
+        // changed entry updates the row, changed alias replaces the metadata
+        mockServer.stubFor(WireMock
+                .post(WireMock.urlPathMatching("/v1/entityProvider/entities/[^/]+/locations"))
+                .willReturn(WireMock.okJson(locationDetail.formatted(certBase64, false, aliasMetadata.formatted("first", "Alias"), aliasMetadata.formatted("renamed", "Alias")))));
+        dto = locationService.editLocation(entityInstanceReference.getSecuredParentUuid(), location.getSecuredUuid(), request);
+        Assertions.assertEquals(1, dto.getCertificates().size());
+        Assertions.assertEquals(2, attributeContent2ObjectRepository.findAll().stream()
+                .filter(aco -> certificateUuid.equals(aco.getObjectUuid()))
+                .count());
+        List<CertificateLocation> rows = certificateLocationRepository.findByCertificateUuidIn(List.of(certificateUuid));
+        Assertions.assertEquals(1, rows.size());
+        Assertions.assertFalse(rows.getFirst().isWithKey());
+    }
+
     @Test
     void testGetObjectsForResource() {
         List<NameAndUuidDto> dtos = locationService.listResourceObjects(SecurityFilter.create(), null, null);
@@ -0,0 +1,85 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.api.model.core.acme.ChallengeStatus;
+import com.czertainly.core.dao.entity.acme.AcmeChallenge;
+import com.czertainly.core.dao.repository.acme.AcmeAuthorizationRepository;
+import com.czertainly.core.dao.repository.acme.AcmeChallengeRepository;
+import com.czertainly.core.dao.repository.acme.AcmeOrderRepository;
+import com.czertainly.core.events.transaction.AcmeChallengeValidationEvent;
+import com.czertainly.core.events.transaction.TransactionHandler;
+import com.czertainly.core.service.acme.AcmeChallengeValidationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests of returning challenges with unfinished validation to pending state.
+ */
+class AcmeChallengeValidationWorkerTest {
+
+    private final AcmeChallengeValidationProperties properties = new AcmeChallengeValidationProperties(1, 10, 3, 1000, 2.0, 3000, 100, 200, 5, 60000);
+
+    private AcmeChallengeRepository challengeRepository;
+    private AcmeChallengeValidationWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        challengeRepository = mock(AcmeChallengeRepository.class);
+        TransactionHandler transactionHandler = mock(TransactionHandler.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(transactionHandler).runInNewTransaction(any());
+        when(transactionHandler.runInTransaction(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+
+        worker = new AcmeChallengeValidationWorker(properties, mock(AcmeChallengeValidator.class), challengeRepository,
+                mock(AcmeAuthorizationRepository.class), mock(AcmeOrderRepository.class), transactionHandler);
+    }
+
+    private AcmeChallenge processingChallenge(String challengeId) {
+        AcmeChallenge challenge = new AcmeChallenge();
+        challenge.setChallengeId(challengeId);
+        challenge.setStatus(ChallengeStatus.PROCESSING);
+        when(challengeRepository.findByChallengeId(challengeId)).thenReturn(Optional.of(challenge));
+        return challenge;
+    }
+
+    @Test
+    void validationTimeout_coversAllAttempts() {
+        // 3 attempts of 300 ms with retry intervals of 1000 and 2000 ms, doubled
+        assertThat(properties.validationTimeoutMs()).isEqualTo(2 * (3 * 300 + 1000 + 2000));
+    }
+
+    @Test
+    void rejectedValidation_challengeReturnedToPending() {
+        AcmeChallenge challenge = processingChallenge("rejected");
+        worker.shutdown();
+
+        worker.handleChallengeValidationEvent(new AcmeChallengeValidationEvent("rejected"));
+
+        assertThat(challenge.getStatus()).isEqualTo(ChallengeStatus.PENDING);
+        verify(challengeRepository).save(challenge);
+    }
+
+    @Test
+    void abandonedChallenge_returnedToPending() {
+        AcmeChallenge challenge = processingChallenge("abandoned");
+        when(challengeRepository.findByStatusAndUpdatedBefore(eq(ChallengeStatus.PROCESSING), any())).thenReturn(List.of(challenge));
+
+        worker.resetAbandonedChallenges();
+
+        assertThat(challenge.getStatus()).isEqualTo(ChallengeStatus.PENDING);
+        worker.shutdown();
+    }
+}
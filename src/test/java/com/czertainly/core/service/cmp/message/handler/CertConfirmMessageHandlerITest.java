@@ -14,6 +14,7 @@ import com.czertainly.core.dao.repository.*;
 import com.czertainly.core.dao.repository.cmp.CmpProfileRepository;
 import com.czertainly.core.service.cmp.CmpEntityUtil;
 import com.czertainly.core.service.cmp.CmpTestUtil;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.variants.CmpConfigurationContext;
 import com.czertainly.core.service.cmp.configurations.variants.Mobile3gppProfileContext;
 import com.czertainly.core.service.cmp.message.CertificateKeyServiceImpl;
@@ -119,12 +120,9 @@ public class CertConfirmMessageHandlerITest extends BaseSpringBootTest {
 
         // -- test handling of message
         PKIMessage response = testedHandler.handle(request,
-                new Mobile3gppProfileContext(cmpProfileSigPrt,
-                        raProfile,
-                        request,
-                        certificateKeyService,
-                        null,
-                        null));
+                new Mobile3gppProfileContext(
+                        CmpProfileConfiguration.of(cmpProfileSigPrt, raProfile, false, null, null, certificateKeyService),
+                        request));
         // -- THEN --
         // (1) check structure: type, transactionId(trxId) and content (type)
         assertEquals(PKIBody.TYPE_CONFIRM, response.getBody().getType());
@@ -156,12 +154,9 @@ public class CertConfirmMessageHandlerITest extends BaseSpringBootTest {
 
         // -- test handling of message
         PKIMessage response = testedHandler.handle(request,
-                new CmpConfigurationContext(cmpProfileSigPrt,
-                        raProfile,
-                        request,
-                        certificateKeyService,
-                        null,
-                        null));
+                new CmpConfigurationContext(
+                        CmpProfileConfiguration.of(cmpProfileSigPrt, raProfile, false, null, null, certificateKeyService),
+                        request));
         // -- THEN --
         // (1) check structure: type, transactionId(trxId) and content (type)
         assertEquals(PKIBody.TYPE_CONFIRM, response.getBody().getType());
@@ -196,12 +191,9 @@ public class CertConfirmMessageHandlerITest extends BaseSpringBootTest {
 
         // -- test handling of message
         PKIMessage response = testedHandler.handle(request,
-                new Mobile3gppProfileContext(cmpProfileMacPrt,
-                        raProfile,
-                        request,
-                        certificateKeyService,
-                        null,
-                        null));
+                new Mobile3gppProfileContext(
+                        CmpProfileConfiguration.of(cmpProfileMacPrt, raProfile, false, null, null, certificateKeyService),
+                        request));
         // -- THEN --
         // (1) check structure: type, transactionId(trxId) and content (type)
         assertEquals(PKIBody.TYPE_CONFIRM, response.getBody().getType());
@@ -234,12 +226,9 @@ public class CertConfirmMessageHandlerITest extends BaseSpringBootTest {
 
         // -- test handling of message
         PKIMessage response = testedHandler.handle(request,
-                new CmpConfigurationContext(cmpProfileMacPrt,
-                        raProfile,
-                        request,
-                        certificateKeyService,
-                        null,
-                        null));
+                new CmpConfigurationContext(
+                        CmpProfileConfiguration.of(cmpProfileMacPrt, raProfile, false, null, null, certificateKeyService),
+                        request));
         // -- THEN --
         // (1) check structure: type, transactionId(trxId) and content (type)
         assertEquals(PKIBody.TYPE_CONFIRM, response.getBody().getType());
@@ -19,6 +19,7 @@ import com.czertainly.core.provider.CzertainlyProvider;
 import com.czertainly.core.provider.key.CzertainlyPrivateKey;
 import com.czertainly.core.service.cmp.CmpEntityUtil;
 import com.czertainly.core.service.cmp.CmpTestUtil;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
 import com.czertainly.core.service.cmp.configurations.variants.Mobile3gppProfileContext;
 import com.czertainly.core.service.cmp.message.CertificateKeyService;
@@ -107,9 +108,6 @@ public class CertConfirmMessageHandlerTest {
                 CmpTestUtil.generateKeyPairEC().getPrivate(),
                 body)
                 .toASN1Structure();
-        ConfigurationContext configuration = new Mobile3gppProfileContext(
-                cmpProfile, raProfile, request, certificateKeyService,
-                null, null);
 
         // -- GIVEN
         given(certificateRepository.findByFingerprint(any()))
@@ -131,6 +129,10 @@ public class CertConfirmMessageHandlerTest {
         singData.setSignatures(List.of(singDataRsp));
         given(cryptographicOperationsApiClient.signData(any(), any(), any(), any()))
                 .willReturn(singData);
+        // signing key of the profile is resolved when its configuration is created
+        ConfigurationContext configuration = new Mobile3gppProfileContext(
+                CmpProfileConfiguration.of(cmpProfile, raProfile, false, null, null, certificateKeyService),
+                request);
 
         // -- THEN
         PKIMessage response = tested.handle(request, configuration);
@@ -151,8 +153,8 @@ public class CertConfirmMessageHandlerTest {
                         body)
                 .toASN1Structure();
         ConfigurationContext configuration = new Mobile3gppProfileContext(
-                new CmpProfile(), raProfile, request, certificateKeyService,
-                null, null);
+                CmpProfileConfiguration.of(new CmpProfile(), raProfile, false, null, null, certificateKeyService),
+                request);
 
         // -- GIVEN
         given(certificateRepository.findByFingerprint(any())).willReturn(Optional.empty());
@@ -175,8 +177,8 @@ public class CertConfirmMessageHandlerTest {
                         body)
                 .toASN1Structure();
         ConfigurationContext configuration = new Mobile3gppProfileContext(
-                new CmpProfile(), raProfile, request, certificateKeyService,
-                null, null);
+                CmpProfileConfiguration.of(new CmpProfile(), raProfile, false, null, null, certificateKeyService),
+                request);
 
         // -- GIVEN
         given(certificateRepository.findByFingerprint(any())).willReturn(Optional.of(new Certificate()));
@@ -15,6 +15,7 @@ import com.czertainly.core.dao.repository.cmp.CmpProfileRepository;
 import com.czertainly.core.service.CertificateService;
 import com.czertainly.core.service.cmp.CmpEntityUtil;
 import com.czertainly.core.service.cmp.CmpTestUtil;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.variants.Mobile3gppProfileContext;
 import com.czertainly.core.service.cmp.message.CertificateKeyServiceImpl;
 import com.czertainly.core.service.cmp.message.CmpTransactionService;
@@ -204,12 +205,9 @@ public class KurMessageHandlerITest extends BaseSpringBootTest {
 
         // -- test handling of message
         PKIMessage response = testedHandler.handle(request,
-                new Mobile3gppProfileContext(cmpProfileSigPrt,
-                        raProfile,
-                        request,
-                        certificateKeyService,
-                        null,
-                        null));
+                new Mobile3gppProfileContext(
+                        CmpProfileConfiguration.of(cmpProfileSigPrt, raProfile, false, null, null, certificateKeyService),
+                        request));
         // -- THEN --
         // (1) check structure: type, transactionId(trxId) and content (type)
         assertEquals(PKIBody.TYPE_KEY_UPDATE_REP, response.getBody().getType());
@@ -255,12 +253,9 @@ public class KurMessageHandlerITest extends BaseSpringBootTest {
 
         // -- test handling of message
         PKIMessage response = testedHandler.handle(request,
-                new Mobile3gppProfileContext(cmpProfileMacPrt,
-                        raProfile,
-                        request,
-                        certificateKeyService,
-                        null,
-                        null));
+                new Mobile3gppProfileContext(
+                        CmpProfileConfiguration.of(cmpProfileMacPrt, raProfile, false, null, null, certificateKeyService),
+                        request));
 
         // -- THEN --
         // (1) check structure: type, transactionId(trxId) and content (type)
@@ -14,6 +14,7 @@ import com.czertainly.core.dao.repository.CertificateRepository;
 import com.czertainly.core.dao.repository.RaProfileRepository;
 import com.czertainly.core.service.cmp.CmpEntityUtil;
 import com.czertainly.core.service.cmp.CmpTestUtil;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
 import com.czertainly.core.service.cmp.configurations.variants.Mobile3gppProfileContext;
 import com.czertainly.core.service.cmp.message.CertificateKeyService;
@@ -110,8 +111,8 @@ public class KurMessageHandlerTest {
                         CmpTestUtil.generateKeyPairEC())
                 .toASN1Structure();
         ConfigurationContext configuration = new Mobile3gppProfileContext(
-                cmpProfile, raProfile, request, certificateKeyService,
-                null, null);
+                CmpProfileConfiguration.of(cmpProfile, raProfile, false, null, null, certificateKeyService),
+                request);
 
         // -- GIVEN
         given(certificateRepository.findBySerialNumberIgnoreCase(any()))
@@ -134,8 +135,8 @@ public class KurMessageHandlerTest {
                         CmpTestUtil.generateKeyPairEC())
                 .toASN1Structure();
         ConfigurationContext configuration = new Mobile3gppProfileContext(
-                cmpProfile, raProfile, request, certificateKeyService,
-                null, null);
+                CmpProfileConfiguration.of(cmpProfile, raProfile, false, null, null, certificateKeyService),
+                request);
 
         // -- GIVEN
         given(certificateRepository.findBySerialNumberIgnoreCase(any()))
@@ -160,8 +161,8 @@ public class KurMessageHandlerTest {
                         CmpTestUtil.generateKeyPairEC())
                 .toASN1Structure();
         ConfigurationContext configuration = new Mobile3gppProfileContext(
-                cmpProfile, raProfile, request, certificateKeyService,
-                null, null);
+                CmpProfileConfiguration.of(cmpProfile, raProfile, false, null, null, certificateKeyService),
+                request);
 
         // -- GIVEN
         issuedCertificated.getCertificateContent().setContent("");//corrupted content
@@ -14,6 +14,7 @@ import com.czertainly.core.dao.repository.*;
 import com.czertainly.core.dao.repository.cmp.CmpProfileRepository;
 import com.czertainly.core.service.cmp.CmpEntityUtil;
 import com.czertainly.core.service.cmp.CmpTestUtil;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
 import com.czertainly.core.service.cmp.configurations.variants.Mobile3gppProfileContext;
 import com.czertainly.core.service.cmp.message.CertificateKeyServiceImpl;
 import com.czertainly.core.service.cmp.message.CmpTransactionService;
@@ -190,12 +191,9 @@ class RevocationMessageHandlerITest extends BaseSpringBootTest {
                 .willReturn(revokedCertificate);
 
         PKIMessage response = testedHandler.handle(request,
-                new Mobile3gppProfileContext(cmpProfileSigPrt,
-                        raProfile,
-                        request,
-                        certificateKeyService,
-                        null,
-                        null));
+                new Mobile3gppProfileContext(
+                        CmpProfileConfiguration.of(cmpProfileSigPrt, raProfile, false, null, null, certificateKeyService),
+                        request));
         // -- THEN --
         // (1) check structure: type, transactionId(trxId) and content (type)
         assertNotNull(response);
@@ -239,12 +237,9 @@ class RevocationMessageHandlerITest extends BaseSpringBootTest {
 
         // -- test handling of message
         PKIMessage response = testedHandler.handle(request,
-                new Mobile3gppProfileContext(cmpProfileMacPrt,
-                        raProfile,
-                        request,
-                        certificateKeyService,
-                        null,
-                        null));
+                new Mobile3gppProfileContext(
+                        CmpProfileConfiguration.of(cmpProfileMacPrt, raProfile, false, null, null, certificateKeyService),
+                        request));
         // -- THEN --
         // (1) check structure: type, transactionId(trxId) and content (type)
         assertEquals(PKIBody.TYPE_REVOCATION_REP, response.getBody().getType());
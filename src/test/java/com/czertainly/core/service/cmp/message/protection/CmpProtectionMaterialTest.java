@@ -0,0 +1,103 @@
+package com.czertainly.core.service.cmp.message.protection;
+
+import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
+import com.czertainly.core.dao.entity.RaProfile;
+import com.czertainly.core.service.cmp.CmpEntityUtil;
+import com.czertainly.core.service.cmp.CmpTestUtil;
+import com.czertainly.core.service.cmp.configurations.CmpProfileConfiguration;
+import com.czertainly.core.service.cmp.configurations.ConfigurationContext;
+import com.czertainly.core.service.cmp.configurations.variants.CmpConfigurationContext;
+import com.czertainly.core.service.cmp.message.validator.impl.ProtectionMacValidator;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.cmp.CMPCertificate;
+import org.bouncycastle.asn1.cmp.PKIMessage;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.Security;
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CmpProtectionMaterialTest {
+
+    private static final AlgorithmIdentifier SHA1 = new AlgorithmIdentifier(new ASN1ObjectIdentifier("1.3.14.3.2.26"));
+
+    @BeforeAll
+    static void beforeAll() {
+        Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
+    }
+
+    @Test
+    void testPasswordBasedMacKeyDerivedOnce() throws Exception {
+        CmpProtectionMaterial material = new CmpProtectionMaterial(List.of());
+        byte[] secret = "secret".getBytes();
+        byte[] salt = "salt".getBytes();
+
+        byte[] expected = new byte[secret.length + salt.length];
+        System.arraycopy(secret, 0, expected, 0, secret.length);
+        System.arraycopy(salt, 0, expected, secret.length, salt.length);
+        MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        for (int i = 0; i < 1000; i++) {
+            expected = digest.digest(expected);
+        }
+
+        byte[] key = material.getPasswordBasedMacKey(secret, salt, SHA1, 1000);
+        assertArrayEquals(expected, key);
+        assertSame(key, material.getPasswordBasedMacKey(secret.clone(), salt.clone(), SHA1, 1000));
+        assertNotSame(key, material.getPasswordBasedMacKey(secret, "other".getBytes(), SHA1, 1000));
+        assertNotSame(key, material.getPasswordBasedMacKey("other".getBytes(), salt, SHA1, 1000));
+    }
+
+    @Test
+    void testPasswordBasedMacKeysEvictedLeastRecentlyUsed() throws Exception {
+        CmpProtectionMaterial material = new CmpProtectionMaterial(List.of());
+        byte[] secret = "secret".getBytes();
+
+        byte[] first = material.getPasswordBasedMacKey(secret, "salt-0".getBytes(), SHA1, 1);
+        byte[] second = material.getPasswordBasedMacKey(secret, "salt-1".getBytes(), SHA1, 1);
+        for (int i = 2; i <= CmpProtectionMaterial.MAX_CACHED_ENTRIES; i++) {
+            // the first key is used by every message, so it stays cached
+            assertSame(first, material.getPasswordBasedMacKey(secret, "salt-0".getBytes(), SHA1, 1));
+            material.getPasswordBasedMacKey(secret, ("salt-" + i).getBytes(), SHA1, 1);
+        }
+
+        assertSame(first, material.getPasswordBasedMacKey(secret, "salt-0".getBytes(), SHA1, 1));
+        assertNotSame(second, material.getPasswordBasedMacKey(secret, "salt-1".getBytes(), SHA1, 1));
+        assertArrayEquals(second, CmpProtectionMaterial.derivePasswordBasedMacKey(secret, "salt-1".getBytes(), SHA1, 1));
+    }
+
+    @Test
+    void testSignerCertificateParsedOnce() throws Exception {
+        KeyPair kp = CmpTestUtil.generateKeyPairEC();
+        X509CertificateHolder holder = CmpTestUtil.makeV3Certificate(BigInteger.ONE, kp, "CN=Signer", kp, "CN=Signer");
+        CmpProtectionMaterial material = new CmpProtectionMaterial(List.of());
+
+        X509Certificate certificate = material.getSignerCertificate(new CMPCertificate(holder.toASN1Structure()));
+        assertEquals(BigInteger.ONE, certificate.getSerialNumber());
+        assertSame(certificate, material.getSignerCertificate(CMPCertificate.getInstance(holder.getEncoded())));
+    }
+
+    @Test
+    void testMacProtectionVerifiedWithProfileMaterial() throws Exception {
+        RaProfile raProfile = CmpEntityUtil.createRaProfile();
+        PKIMessage request = CmpTestUtil.createMacBasedMessage("1", "secret",
+                CmpTestUtil.createRevocationBody(BigInteger.TEN)).toASN1Structure();
+
+        ConfigurationContext configuration = new CmpConfigurationContext(CmpProfileConfiguration.of(
+                CmpEntityUtil.createCmpProfile(raProfile, "secret"), raProfile, false, null, null, null), request);
+        new ProtectionMacValidator().validate(request, configuration);
+        // next message of the transaction is verified with the key derived for the first one
+        new ProtectionMacValidator().validate(request, configuration);
+
+        ConfigurationContext wrongSecret = new CmpConfigurationContext(CmpProfileConfiguration.of(
+                CmpEntityUtil.createCmpProfile(raProfile, "wrong"), raProfile, false, null, null, null), request);
+        assertThrows(CmpProcessingException.class, () -> new ProtectionMacValidator().validate(request, wrongSecret));
+    }
+}
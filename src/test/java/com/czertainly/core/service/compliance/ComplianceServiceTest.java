@@ -258,9 +258,12 @@ class ComplianceServiceTest extends BaseComplianceTest {
         complianceCheckResult = complianceService.getComplianceCheckResult(Resource.CRYPTOGRAPHIC_KEY_ITEM, keyItem.getUuid());
         Assertions.assertEquals(ComplianceStatus.OK, complianceCheckResult.getStatus(), "Compliance status should be Compliant");
 
+        // key item content and rules are unchanged, provider result of the previous check is reused
+        WireMock.resetAllRequests();
         complianceService.checkResourceObjectCompliance(Resource.CRYPTOGRAPHIC_KEY_ITEM, keyItem.getUuid());
         complianceCheckResult = complianceService.getComplianceCheckResult(Resource.CRYPTOGRAPHIC_KEY_ITEM, keyItem.getUuid());
         Assertions.assertEquals(ComplianceStatus.OK, complianceCheckResult.getStatus(), "Compliance status should be Compliant");
+        WireMock.verify(0, WireMock.postRequestedFor(WireMock.urlPathEqualTo("/v2/complianceProvider/%s/compliance".formatted(KIND_V2))));
 
         WireMock.stubFor(WireMock.post(WireMock.urlPathEqualTo("/v2/complianceProvider/%s/compliance".formatted(KIND_V2)))
                 .willReturn(WireMock.aResponse()
@@ -279,9 +282,15 @@ class ComplianceServiceTest extends BaseComplianceTest {
                                 """.formatted(complianceV2RuleKeyUuid)))
         );
 
+        // rule attributes changed, key item is checked by the provider again
+        requestAttribute.setContent(List.of(new IntegerAttributeContentV3(4096)));
+        v2RuleAssoc.setAttributes(List.of(requestAttribute));
+        complianceProfileRuleRepository.save(v2RuleAssoc);
+
         complianceService.checkResourceObjectCompliance(Resource.TOKEN_PROFILE, tokenProfile.getUuid());
         complianceCheckResult = complianceService.getComplianceCheckResult(Resource.CRYPTOGRAPHIC_KEY_ITEM, keyItem.getUuid());
         Assertions.assertEquals(ComplianceStatus.NOK, complianceCheckResult.getStatus(), "Compliance status should be Not Compliant");
+        WireMock.verify(WireMock.moreThanOrExactly(1), WireMock.postRequestedFor(WireMock.urlPathEqualTo("/v2/complianceProvider/%s/compliance".formatted(KIND_V2))));
     }
 
     @Test
@@ -0,0 +1,100 @@
+package com.czertainly.core.service.scep;
+
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.events.transaction.ProtocolProfileChangedEvent;
+import com.czertainly.core.intune.scepvalidation.ADALClientWrapper;
+import com.czertainly.core.intune.scepvalidation.IntuneScepServiceClient;
+import com.czertainly.core.intune.scepvalidation.IntuneScepServiceException;
+import com.czertainly.core.intune.scepvalidation.MSALClientWrapper;
+import com.czertainly.core.service.scep.impl.IntuneScepServiceClientPool;
+import com.czertainly.core.service.scep.impl.ScepProfileContext;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the Intune client pool against a local stand-in of the Microsoft Graph and Intune validation services.
+ */
+class IntuneScepServiceClientPoolTest {
+
+    private static final String INTUNE_APP_ID = "0000000a-0000-0000-c000-000000000000";
+
+    private WireMockServer intuneServer;
+    private IntuneScepServiceClientPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        intuneServer = new WireMockServer(0);
+        intuneServer.start();
+        WireMock.configureFor("localhost", intuneServer.port());
+
+        String baseUrl = "http://localhost:" + intuneServer.port() + "/";
+        intuneServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1.0/servicePrincipals/appId=" + INTUNE_APP_ID + "/endpoints"))
+                .willReturn(WireMock.okJson("{\"value\":[{\"providerName\":\"" + IntuneScepServiceClient.VALIDATION_SERVICE_NAME + "\",\"uri\":\"" + baseUrl + "scep\"}]}")));
+        intuneServer.stubFor(WireMock.post(WireMock.urlPathEqualTo("/scep/ScepActions/validateRequest"))
+                .willReturn(WireMock.okJson("{\"code\":\"" + IntuneScepServiceException.ErrorCode.Success.name() + "\",\"errorDescription\":\"\"}")));
+
+        MSALClientWrapper msal = mock(MSALClientWrapper.class);
+        when(msal.getAccessToken(ArgumentMatchers.anySet())).thenReturn("token");
+        ADALClientWrapper adal = mock(ADALClientWrapper.class);
+
+        ScepIntuneProperties properties = new ScepIntuneProperties(0, null, baseUrl, null, null);
+        pool = new IntuneScepServiceClientPool(properties, "test") {
+            @Override
+            protected IntuneScepServiceClient createClient(Properties configProperties) {
+                return new IntuneScepServiceClient(configProperties, msal, adal, null);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+        intuneServer.stop();
+    }
+
+    @Test
+    void testClientReusedForProfile() throws Exception {
+        ScepProfileContext context = createContext(UUID.randomUUID(), "appKey");
+
+        IntuneScepServiceClient client = pool.getClient(context);
+        client.ValidateRequest(UUID.randomUUID().toString(), "csr");
+        Assertions.assertSame(client, pool.getClient(context));
+        pool.getClient(context).ValidateRequest(UUID.randomUUID().toString(), "csr");
+
+        intuneServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathMatching("/v1.0/servicePrincipals/.*")));
+        intuneServer.verify(2, WireMock.postRequestedFor(WireMock.urlPathEqualTo("/scep/ScepActions/validateRequest"))
+                .withHeader("Authorization", WireMock.equalTo("Bearer token")));
+    }
+
+    @Test
+    void testClientReplacedAfterChange() {
+        UUID scepProfileUuid = UUID.randomUUID();
+        IntuneScepServiceClient client = pool.getClient(createContext(scepProfileUuid, "appKey"));
+
+        IntuneScepServiceClient changedKeyClient = pool.getClient(createContext(scepProfileUuid, "changedAppKey"));
+        Assertions.assertNotSame(client, changedKeyClient);
+
+        pool.handleProtocolProfileChangedEvent(new ProtocolProfileChangedEvent(Resource.SCEP_PROFILE, scepProfileUuid));
+        Assertions.assertNotSame(changedKeyClient, pool.getClient(createContext(scepProfileUuid, "changedAppKey")));
+
+        Assertions.assertNotSame(client, pool.getClient(createContext(UUID.randomUUID(), "appKey")));
+    }
+
+    private static ScepProfileContext createContext(UUID scepProfileUuid, String applicationKey) {
+        ScepProfileContext.Settings settings = new ScepProfileContext.Settings(null, false, false, false, null,
+                true, "tenant", "applicationId", applicationKey);
+        return new ScepProfileContext(false, scepProfileUuid, "scepProfile", true, settings, null, false, false, null, List.of());
+    }
+}
@@ -137,6 +137,14 @@ class UpdateCertificateStatusTaskTest extends BaseSpringBootTest {
             return null; // because produceMessage returns void
         }).when(validationProducer).produceMessage(Mockito.any());
 
+        Mockito.doAnswer(invocation -> {
+            List<ValidationMessage> messages = invocation.getArgument(0);
+            for (ValidationMessage msg : messages) {
+                validationListener.processMessage(msg);
+            }
+            return null;
+        }).when(validationProducer).produceMessages(Mockito.any());
+
     }
 
 
@@ -3,6 +3,8 @@ package com.czertainly.core.util;
 import com.czertainly.api.model.core.auth.UserDto;
 import com.czertainly.api.model.core.auth.UserProfileDto;
 import com.czertainly.api.model.core.logging.enums.AuthMethod;
+import com.czertainly.core.attribute.engine.AttributeDefinitionCache;
+import com.czertainly.core.cache.ProtocolProfileCache;
 import com.czertainly.core.messaging.jms.producers.AuditLogsProducer;
 import com.czertainly.core.security.authn.CzertainlyAuthenticationToken;
 import com.czertainly.core.security.authn.CzertainlyUserDetails;
@@ -40,6 +42,12 @@ public class BaseSpringBootTest {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private List<ProtocolProfileCache<?, ?>> protocolProfileCaches;
+
+    @Autowired
+    private AttributeDefinitionCache attributeDefinitionCache;
+
     @BeforeEach
     public void setupAuth() throws SQLException {
         mockSuccessfulCheckResourceAccess();
@@ -48,6 +56,9 @@ public class BaseSpringBootTest {
 
         // clean DB tables data before each test
         truncateTables();
+        // cached protocol profiles are not evicted by truncation of tables
+        protocolProfileCaches.forEach(ProtocolProfileCache::invalidateAll);
+        attributeDefinitionCache.invalidateAll();
         // clean context
         MDC.clear();
     }